@@ -0,0 +1,101 @@
+package edu.ucsc.refactor.bench;
+
+import com.google.common.base.Predicate;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import edu.ucsc.refactor.*;
+import edu.ucsc.refactor.internal.EclipseJavaSnippetParser;
+import edu.ucsc.refactor.internal.ProgramUnitLocation;
+import edu.ucsc.refactor.internal.changers.ClipSelection;
+import edu.ucsc.refactor.internal.changers.DeduplicateCode;
+import edu.ucsc.refactor.internal.changers.RenameMethod;
+import edu.ucsc.refactor.internal.detectors.DuplicatedCode;
+import edu.ucsc.refactor.internal.util.Edits;
+import edu.ucsc.refactor.locators.SelectedUnit;
+import edu.ucsc.refactor.spi.SourceChanger;
+import edu.ucsc.refactor.util.Parameters;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating a change (rewrite included) with some of the default
+ * {@link SourceChanger}s, on an already parsed, generated source. Changes are recorded in
+ * rewrites and leave the parsed source untouched, so one cause serves every invocation.
+ * Clipping a 10000-line source takes over a minute, so larger sizes are left out by
+ * default; pass {@code -p lines=10000} to run them.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ChangerBenchmark {
+    @Param({"RenameMethod", "DeduplicateCode", "ClipSelection"})
+    public String changer;
+
+    @Param({"100", "1000"})
+    public int lines;
+
+    private SourceChanger           sourceChanger;
+    private Cause                   cause;
+    private Map<String, Parameter>  parameters;
+
+    @Setup public void setUp(){
+        final Source  source  = Corpus.generate(lines);
+        final Context context = new Context(source);
+        new EclipseJavaSnippetParser().parseJava(context);
+
+        final String contents = source.getContents();
+        final int    method   = contents.indexOf("\tpublic int method1(");
+
+        if("RenameMethod".equals(changer)){
+            final int             name      = contents.indexOf("method1", method);
+            final SourceSelection selection = new SourceSelection(source, name, name + "method1".length());
+
+            sourceChanger = new RenameMethod();
+            cause         = locate(context, Edit.renameSelectedMember(selection));
+            parameters    = Parameters.newMemberName("renamed");
+
+        } else if("DeduplicateCode".equals(changer)){
+            sourceChanger = new DeduplicateCode();
+            parameters    = Maps.newHashMap();
+            cause         = Iterables.find(
+                    new DuplicatedCode().detectIssues(context),
+                    new Predicate<Issue>() {
+                        @Override public boolean apply(Issue issue) {
+                            return sourceChanger.createChange(issue, parameters).isValid();
+                        }
+                    }
+            );
+
+        } else if("ClipSelection".equals(changer)){
+            final int             end       = contents.indexOf("\n\t}\n", method) + 3;
+            final SourceSelection selection = new SourceSelection(source, method, end);
+
+            sourceChanger = new ClipSelection();
+            cause         = locate(context, Edit.clipSelection(selection));
+            parameters    = Maps.newHashMap();
+
+        } else {
+            throw new IllegalArgumentException("Unknown changer: " + changer);
+        }
+    }
+
+    private static Cause locate(Context context, Edit edit){
+        final ProgramUnitLocator locator = new ProgramUnitLocator(context);
+        for(NamedLocation each : locator.locate(new SelectedUnit(edit.getSourceSelection()))){
+            edit.addNode(((ProgramUnitLocation) each).getNode());
+        }
+
+        return Edits.resolve(edit);
+    }
+
+    @Benchmark public Change createChange(){
+        return sourceChanger.createChange(cause, parameters);
+    }
+}
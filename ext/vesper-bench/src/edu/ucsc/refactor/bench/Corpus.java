@@ -0,0 +1,137 @@
+package edu.ucsc.refactor.bench;
+
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import edu.ucsc.refactor.Source;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Generates synthetic, compilable Java sources of a given size, so benchmarks can measure
+ * how Vesper scales from small code examples to large files.
+ *
+ * <p>A generated source is deterministic (for a given number of lines), and holds a bit of
+ * everything Vesper detects or changes: unused imports, fields, parameters and local
+ * variables, magic numbers, duplicated methods, and nested types. Its methods call each
+ * other, so most of them are used.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class Corpus {
+    /** The sizes (in lines) benchmarks are run against. */
+    public static final int[] SIZES = {100, 1000, 10000, 50000};
+
+    static final String CLASS_NAME   = "Corpus";
+    static final int    METHOD_LINES = 12;
+
+    private Corpus(){
+        throw new Error("Utility class");
+    }
+
+    /**
+     * Generates a source of (about) the given number of lines.
+     *
+     * @param lines The number of lines; at least 20.
+     * @return a new {@link Source} named {@code Corpus.java}.
+     */
+    public static Source generate(int lines){
+        if(lines < 20) throw new IllegalArgumentException("lines must be at least 20");
+
+        final StringBuilder code = new StringBuilder(lines * 40);
+
+        code.append("import java.util.List;\n")
+            .append("import java.util.ArrayList;\n")
+            .append("import java.util.Map;\n")   // unused
+            .append("import java.io.File;\n")    // unused
+            .append("\n")
+            .append("public class ").append(CLASS_NAME).append(" {\n")
+            .append("\tprivate int total;\n")
+            .append("\tprivate String unusedName;\n")
+            .append("\n")
+            .append("\tpublic static void main(String[] args){\n")
+            .append("\t\tfinal ").append(CLASS_NAME).append(" corpus = new ").append(CLASS_NAME).append("();\n")
+            .append("\t\tSystem.out.println(corpus.method0(args.length, 1));\n")
+            .append("\t}\n");
+
+        final int methods = Math.max(1, (lines - 19) / METHOD_LINES);
+        for(int index = 0; index < methods; index++){
+            appendMethod(code, index, methods);
+        }
+
+        code.append("\n")
+            .append("\tstatic class Nested {\n")
+            .append("\t\tint size(List<String> items){ return new ArrayList<String>(items).size(); }\n")
+            .append("\t}\n")
+            .append("}\n");
+
+        return new Source(CLASS_NAME + ".java", code.toString());
+    }
+
+    /**
+     * Appends a method calling the next used one; every fifth method duplicates the one
+     * before it, and every seventh one is never called.
+     */
+    private static void appendMethod(StringBuilder code, int index, int methods){
+        final boolean duplicate = index % 5 == 4;
+        final boolean unused    = isUnused(index);
+        final int     seed      = duplicate ? index - 1 : index;
+
+        int next = index + 1;
+        while(next < methods && isUnused(next)){
+            next++;
+        }
+
+        final String returned = unused || next >= methods
+                ? "result"
+                : "result + method" + next + "(a - 1, 0)";
+
+        code.append("\n")
+            .append("\t").append(unused ? "private" : "public")
+            .append(" int method").append(index).append("(int a, int unusedParameter){\n")
+            .append("\t\tint unusedLocal = ").append(seed).append(";\n")
+            .append("\t\tint result = a;\n")
+            .append("\t\tif(a > ").append(10 + seed % 90).append("){\n")
+            .append("\t\t\tresult = result * 2 + ").append(seed % 9).append(";\n")
+            .append("\t\t}\n")
+            .append("\t\tfor(int i = 0; i < a; i++){\n")
+            .append("\t\t\ttotal += i;\n")
+            .append("\t\t}\n")
+            .append("\t\treturn ").append(returned).append(";\n")
+            .append("\t}\n");
+    }
+
+    private static boolean isUnused(int index){
+        return index % 7 == 6;
+    }
+
+    /**
+     * Writes generated sources to a directory, one per size.
+     *
+     * @param args The directory, followed by the sizes; {@link #SIZES} by default.
+     * @throws IOException if a source cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length == 0){
+            System.err.println("Usage: Corpus <directory> [lines...]");
+            System.exit(1);
+        }
+
+        final File directory = new File(args[0]);
+
+        int[] sizes = SIZES;
+        if(args.length > 1){
+            sizes = new int[args.length - 1];
+            for(int idx = 1; idx < args.length; idx++){
+                sizes[idx - 1] = Integer.parseInt(args[idx]);
+            }
+        }
+
+        for(int each : sizes){
+            final File file = new File(new File(directory, String.valueOf(each)), CLASS_NAME + ".java");
+            Files.createParentDirs(file);
+            Files.write(generate(each).getContents(), file, Charsets.UTF_8);
+            System.out.println("Wrote " + file);
+        }
+    }
+}
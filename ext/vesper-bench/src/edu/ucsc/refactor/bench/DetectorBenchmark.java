@@ -0,0 +1,51 @@
+package edu.ucsc.refactor.bench;
+
+import edu.ucsc.refactor.Context;
+import edu.ucsc.refactor.Issue;
+import edu.ucsc.refactor.Source;
+import edu.ucsc.refactor.SourceSelection;
+import edu.ucsc.refactor.internal.EclipseJavaSnippetParser;
+import edu.ucsc.refactor.spi.IssueDetector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures each default {@link IssueDetector} on an already parsed, generated source.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DetectorBenchmark {
+    @Param({"UnusedImports", "UnusedMethods", "UnusedParameters", "MagicNumber",
+            "UnusedTypes", "UnusedFields", "DuplicatedCode"})
+    public String detector;
+
+    @Param({"100", "1000", "10000", "50000"})
+    public int lines;
+
+    private IssueDetector   issueDetector;
+    private Context         context;
+
+    @Setup public void setUp() throws Exception {
+        final Source source = Corpus.generate(lines);
+
+        context = new Context(source);
+        new EclipseJavaSnippetParser().parseJava(context);
+        context.setScope(new SourceSelection(source, 0, source.getLength()));
+
+        issueDetector = (IssueDetector) Class.forName(
+                "edu.ucsc.refactor.internal.detectors." + detector
+        ).newInstance();
+    }
+
+    @Benchmark public Set<Issue> detectIssues(){
+        return issueDetector.detectIssues(context);
+    }
+}
@@ -0,0 +1,43 @@
+package edu.ucsc.refactor.bench;
+
+import edu.ucsc.refactor.Diff;
+import edu.ucsc.refactor.Introspector;
+import edu.ucsc.refactor.Source;
+import edu.ucsc.refactor.Vesper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures diffing a generated source against a revised copy, where one line of every
+ * method has changed.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DiffBenchmark {
+    @Param({"100", "1000", "10000", "50000"})
+    public int lines;
+
+    private Introspector    introspector;
+    private Source          source;
+    private Source          revised;
+
+    @Setup public void setUp(){
+        introspector = Vesper.createIntrospector();
+        source       = Corpus.generate(lines);
+        revised      = Source.from(source, source.getContents().replace("unusedLocal", "local"));
+    }
+
+    @Benchmark public int differences(){
+        final Diff diff = introspector.differences(source, revised);
+        return diff.getChangesFromOriginal().size()
+                + diff.getInsertsFromOriginal().size()
+                + diff.getDeletesFromOriginal().size();
+    }
+}
@@ -0,0 +1,34 @@
+package edu.ucsc.refactor.bench;
+
+import edu.ucsc.refactor.util.SourceFormatter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures formatting a generated source.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class FormatterBenchmark {
+    @Param({"100", "1000", "10000", "50000"})
+    public int lines;
+
+    private String          contents;
+    private SourceFormatter formatter;
+
+    @Setup public void setUp(){
+        contents  = Corpus.generate(lines).getContents();
+        formatter = new SourceFormatter();
+    }
+
+    @Benchmark public String format(){
+        return formatter.format(contents);
+    }
+}
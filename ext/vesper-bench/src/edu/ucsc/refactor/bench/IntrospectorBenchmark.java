@@ -0,0 +1,44 @@
+package edu.ucsc.refactor.bench;
+
+import edu.ucsc.refactor.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures multi staging and summarizing a generated source. Multi staging grows quickly
+ * with the size of a source (a 1000-line source takes tens of seconds), so these run
+ * against code-example sizes by default.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class IntrospectorBenchmark {
+    @Param({"100", "400"})
+    public int lines;
+
+    private Introspector    introspector;
+    private Source          source;
+    private List<Clip>      clips;
+
+    @Setup public void setUp(){
+        introspector = Vesper.createIntrospector();
+        source       = Corpus.generate(lines);
+        clips        = introspector.multiStage(source);
+    }
+
+    @Benchmark public List<Clip> multiStage(){
+        return introspector.multiStage(source);
+    }
+
+    @Benchmark public Map<Clip, List<Location>> summarize(){
+        return introspector.summarize(clips, 17);
+    }
+}
@@ -0,0 +1,37 @@
+package edu.ucsc.refactor.bench;
+
+import edu.ucsc.refactor.Context;
+import edu.ucsc.refactor.ResultPackage;
+import edu.ucsc.refactor.Source;
+import edu.ucsc.refactor.internal.EclipseJavaSnippetParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing (with bindings) a generated source.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ParserBenchmark {
+    @Param({"100", "1000", "10000", "50000"})
+    public int lines;
+
+    private Source                      source;
+    private EclipseJavaSnippetParser    parser;
+
+    @Setup public void setUp(){
+        source = Corpus.generate(lines);
+        parser = new EclipseJavaSnippetParser();
+    }
+
+    @Benchmark public ResultPackage offer(){
+        return parser.offer(new Context(source));
+    }
+}
@@ -0,0 +1,310 @@
+package edu.ucsc.refactor.cli;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Sets;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import edu.ucsc.refactor.Source;
+import edu.ucsc.refactor.Vesper;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A long-running Vesper: it keeps one warm JVM (JDT included) and serves Vesper commands
+ * to local clients (e.g., editor plugins) over a loopback socket, so they do not pay
+ * Vesper's start-up on every command.
+ *
+ * <p>Each connection is a {@link Session} with its own {@link Interpreter}, and thus its own
+ * tracked {@link Source}; sessions run concurrently, up to a maximum. A client sends one
+ * command per line, written as it would be typed in the interactive Vesper (newlines,
+ * tabs and backslashes in a command are written as {@code \n}, {@code \t} and
+ * {@code \\}), and gets back one line holding the command's result as a JSON object
+ * (see {@link JsonResultVisitor}). The {@code quit} line ends a session, and the
+ * {@code shutdown} line stops the daemon.</p>
+ *
+ * <p>Any local user can connect to a loopback port, so a client must first send the
+ * daemon's token, which the daemon writes, on start, to a token file only its user can
+ * read; sessions that send anything else are turned away. A session that stays idle for
+ * longer than the daemon's idle timeout is closed.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class Daemon {
+    private static final Logger LOGGER = Logger.getLogger(Daemon.class.getName());
+
+    public static final int  DEFAULT_PORT         = 4927;
+    public static final int  DEFAULT_SESSIONS     = 16;
+    public static final long DEFAULT_IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(30);
+
+    public static final File DEFAULT_TOKEN_FILE = new File(
+            new File(System.getProperty("user.home"), ".vesper"),
+            "daemon.token"
+    );
+
+    private static final Source WARM_UP = new Source(
+            "WarmUp.java",
+            "import java.util.List;\n"
+                    + "class WarmUp {\n"
+                    + "\tprivate int unused;\n"
+                    + "\tint size(java.util.Collection<String> items){ return items.size(); }\n"
+                    + "\tint twice(java.util.Collection<String> items){ return items.size() * 2; }\n"
+                    + "}"
+    );
+
+    private final int                   port;
+    private final File                  tokenFile;
+    private final int                   idleTimeout;
+    private final ThreadPoolExecutor    sessionRunner;
+    private final Set<Session>          sessions;
+    private final AtomicInteger         sessionIds;
+    private final CountDownLatch        stopped;
+
+    private volatile ServerSocket server;
+    private volatile String       token;
+
+    /**
+     * Constructs a new {@code Daemon} that listens on {@link #DEFAULT_PORT}.
+     */
+    public Daemon(){
+        this(DEFAULT_PORT, DEFAULT_SESSIONS);
+    }
+
+    /**
+     * Constructs a new {@code Daemon} that writes its token to {@link #DEFAULT_TOKEN_FILE}
+     * and closes sessions idle for {@link #DEFAULT_IDLE_TIMEOUT} milliseconds.
+     *
+     * @param port The loopback port to listen on; 0 picks a free one.
+     * @param maxSessions The maximum number of concurrent sessions; clients connecting
+     *      beyond it are turned away.
+     */
+    public Daemon(int port, int maxSessions){
+        this(port, maxSessions, DEFAULT_TOKEN_FILE, DEFAULT_IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructs a new {@code Daemon}.
+     *
+     * @param port The loopback port to listen on; 0 picks a free one.
+     * @param maxSessions The maximum number of concurrent sessions; clients connecting
+     *      beyond it are turned away.
+     * @param tokenFile The file the daemon writes its token to.
+     * @param idleTimeout How long a session may wait for its client's next line.
+     * @param unit The unit of {@code idleTimeout}.
+     */
+    public Daemon(int port, int maxSessions, File tokenFile, long idleTimeout, TimeUnit unit){
+        Preconditions.checkArgument(port >= 0 && port <= 0xFFFF, "invalid port");
+        Preconditions.checkArgument(maxSessions > 0, "maxSessions must be positive");
+        Preconditions.checkArgument(
+                idleTimeout > 0 && unit.toMillis(idleTimeout) <= Integer.MAX_VALUE,
+                "invalid idle timeout"
+        );
+
+        this.port           = port;
+        this.tokenFile      = Preconditions.checkNotNull(tokenFile);
+        this.idleTimeout    = (int) Math.max(1L, unit.toMillis(idleTimeout));
+        this.sessionRunner  = new ThreadPoolExecutor(
+                maxSessions,
+                maxSessions,
+                0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<Runnable>(),
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("vesper-session-%d")
+                        .build()
+        );
+        this.sessions       = Sets.newSetFromMap(new ConcurrentHashMap<Session, Boolean>());
+        this.sessionIds     = new AtomicInteger();
+        this.stopped        = new CountDownLatch(1);
+    }
+
+    /**
+     * Writes a new token to the daemon's token file, warms Vesper up and starts accepting
+     * clients.
+     *
+     * @return the port the daemon listens on.
+     * @throws IOException if the token file cannot be written or the port cannot be bound.
+     */
+    public int start() throws IOException {
+        Preconditions.checkState(server == null, "daemon already started");
+
+        token  = writeToken(tokenFile);
+        server = new ServerSocket(port, 50, InetAddress.getByName(null));
+        warmUp();
+
+        final Thread acceptor = new Thread(new Runnable() {
+            @Override public void run() {
+                acceptClients();
+            }
+        }, "vesper-daemon");
+
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        return server.getLocalPort();
+    }
+
+    /**
+     * Stops accepting clients and ends every running session.
+     */
+    public void stop(){
+        final ServerSocket listening = server;
+        if(listening == null || listening.isClosed()) return;
+
+        try {
+            listening.close();
+        } catch (IOException ignored){
+            // closing anyway
+        }
+
+        for(Session each : sessions){
+            each.close();
+        }
+
+        sessionRunner.shutdownNow();
+
+        if(!tokenFile.delete() && tokenFile.exists()){
+            LOGGER.warning("Unable to delete " + tokenFile);
+        }
+
+        stopped.countDown();
+    }
+
+    /**
+     * Waits until the daemon is stopped.
+     *
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public void awaitTermination() throws InterruptedException {
+        stopped.await();
+    }
+
+    /**
+     * @return {@code true} if the daemon is accepting clients.
+     */
+    public boolean isRunning(){
+        final ServerSocket listening = server;
+        return listening != null && !listening.isClosed();
+    }
+
+    /**
+     * @return the number of running sessions.
+     */
+    public int getSessionCount(){
+        return sessions.size();
+    }
+
+    /**
+     * @return the file holding the daemon's token.
+     */
+    public File getTokenFile(){
+        return tokenFile;
+    }
+
+    /**
+     * Checks a client's token against the daemon's; in constant time, so a client cannot
+     * guess the token one character at a time.
+     *
+     * @param candidate The token sent by a client.
+     * @return {@code true} if it is the daemon's token.
+     */
+    boolean isAuthorized(String candidate){
+        final String expected = token;
+        return expected != null && candidate != null && MessageDigest.isEqual(
+                expected.getBytes(Charsets.UTF_8),
+                candidate.getBytes(Charsets.UTF_8)
+        );
+    }
+
+    void release(Session session){
+        sessions.remove(session);
+    }
+
+    private void acceptClients(){
+        while(isRunning()){
+            final Socket client;
+            try {
+                client = server.accept();
+            } catch (SocketException closed){
+                break;   // stopped
+            } catch (IOException e){
+                LOGGER.log(Level.WARNING, "Unable to accept a client", e);
+                continue;
+            }
+
+            try {
+                client.setSoTimeout(idleTimeout);
+            } catch (SocketException e){
+                LOGGER.log(Level.WARNING, "Unable to set up a client", e);
+                closeQuietly(client);
+                continue;
+            }
+
+            final Session session = new Session(sessionIds.incrementAndGet(), client, this);
+            sessions.add(session);
+
+            try {
+                sessionRunner.execute(session);
+            } catch (RejectedExecutionException busy){
+                session.reject("Too many sessions; try again later");
+            }
+        }
+    }
+
+    private static String writeToken(File file) throws IOException {
+        final File folder = file.getAbsoluteFile().getParentFile();
+        if(!folder.isDirectory() && !folder.mkdirs()){
+            throw new IOException("Unable to create " + folder);
+        }
+
+        // restrict the (empty) file to its owner before it holds the token
+        Files.write(new byte[0], file);
+        if(!(file.setReadable(false, false) && file.setWritable(false, false)
+                && file.setReadable(true, true) && file.setWritable(true, true))){
+            throw new IOException("Unable to restrict " + file + " to its owner");
+        }
+
+        final String token = new BigInteger(130, new SecureRandom()).toString(32);
+        Files.write(token, file, Charsets.UTF_8);
+
+        return token;
+    }
+
+    private static void closeQuietly(Socket client){
+        try {
+            client.close();
+        } catch (IOException ignored){
+            // closed anyway
+        }
+    }
+
+    private static void warmUp(){
+        try {
+            Vesper.createIntrospector().detectIssues(WARM_UP);
+        } catch (RuntimeException e){
+            LOGGER.log(Level.FINE, "Unable to warm Vesper up", e);
+        }
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("port", server == null ? port : server.getLocalPort())
+                .add("running", isRunning())
+                .add("sessions", getSessionCount())
+                .toString();
+    }
+}
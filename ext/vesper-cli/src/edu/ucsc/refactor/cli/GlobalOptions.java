@@ -14,9 +14,13 @@ public class GlobalOptions {
     @Option(type = GLOBAL, name = {"-v", "--verbose"}, description = "Verbose mode")
     public boolean verbose = false;
 
+    @Option(type = GLOBAL, name = {"-y", "--yes"}, description = "Answer yes to every question")
+    public boolean yes = false;
+
     @Override public String toString() {
         return Objects.toStringHelper("GlobalOptions")
                 .add("verbose", verbose)
+                .add("yes", yes)
                 .toString();
     }
 }
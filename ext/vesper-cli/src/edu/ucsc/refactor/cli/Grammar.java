@@ -20,7 +20,9 @@ public class Grammar {
                 .withCommand(LogCommand.class)
                 .withCommand(ResetCommand.class)
                 .withCommand(InspectCommand.class)
+                .withCommand(ScanCommand.class)
                 .withCommand(ReplCommand.class)
+                .withCommand(ServeCommand.class)
                 .withCommand(ConfigCommand.class)
                 .withCommand(AddCommand.class)
                 .withCommand(OriginShow.class)
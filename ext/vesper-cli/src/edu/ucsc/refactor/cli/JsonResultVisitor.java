@@ -0,0 +1,195 @@
+package edu.ucsc.refactor.cli;
+
+import edu.ucsc.refactor.Commit;
+import edu.ucsc.refactor.Issue;
+import edu.ucsc.refactor.Location;
+import edu.ucsc.refactor.NamedLocation;
+import edu.ucsc.refactor.cli.results.*;
+import edu.ucsc.refactor.spi.CommitSummary;
+import edu.ucsc.refactor.util.Locations;
+import edu.ucsc.refactor.util.Note;
+
+import java.util.Iterator;
+
+/**
+ * Renders a {@link Result} as a single-line JSON object, so tools (e.g., editor plugins
+ * talking to a {@link Daemon}) can read it. Every object has a {@code status} ("ok" or
+ * "error"), a {@code type} naming the kind of result, and a {@code message}; the rest of
+ * its members depend on the result; e.g., an {@code issues} result has an {@code issues}
+ * array.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class JsonResultVisitor implements ResultProcessorVisitor {
+    private final StringBuilder json;
+
+    /**
+     * Constructs a new {@code JsonResultVisitor}.
+     */
+    public JsonResultVisitor(){
+        this.json = new StringBuilder();
+    }
+
+    /**
+     * Renders a result.
+     *
+     * @param result The result to be rendered.
+     * @return its JSON object, in one line.
+     */
+    public static String render(Result result){
+        final JsonResultVisitor visitor = new JsonResultVisitor();
+        ResultProcessor.process(result, visitor);
+        return visitor.getJson();
+    }
+
+    /**
+     * @return the JSON object of the last visited result.
+     */
+    public String getJson(){
+        return json.toString();
+    }
+
+    @Override public void visit(InfoResult info) {
+        begin("ok", "info", info).append('}');
+    }
+
+    @Override public void visit(CommitSummaryInfoResult info) {
+        begin("ok", "commit", info).append(",\"summary\":");
+        appendSummary(info.getCommitSummary());
+        json.append('}');
+    }
+
+    @Override public void visit(ErrorResult error) {
+        begin("error", "error", error).append('}');
+    }
+
+    @Override public void visit(UnitResult unit) {
+        begin("ok", "unit", unit).append('}');
+    }
+
+    @Override public void visit(LocationsResult locations) {
+        begin("ok", "locations", locations).append(",\"locations\":[");
+
+        final Iterator<NamedLocation> itr = locations.getLocations().iterator();
+        while(itr.hasNext()){
+            final NamedLocation each = itr.next();
+            json.append("{\"name\":");
+            quote(each.getName());
+            appendRange(each);
+            json.append('}');
+
+            if(itr.hasNext()) json.append(',');
+        }
+
+        json.append("]}");
+    }
+
+    @Override public void visit(NotesResult notes) {
+        begin("ok", "notes", notes).append(",\"notes\":[");
+
+        final Iterator<Note> itr = notes.getNotes().iterator();
+        while(itr.hasNext()){
+            quote(itr.next().getContent());
+            if(itr.hasNext()) json.append(',');
+        }
+
+        json.append("]}");
+    }
+
+    @Override public void visit(IssuesResult issues) {
+        begin("ok", "issues", issues).append(",\"issues\":[");
+
+        final Iterator<Issue> itr = issues.getIssues().iterator();
+        while(itr.hasNext()){
+            final Issue each = itr.next();
+            json.append("{\"name\":");
+            quote(each.getName().getKey());
+            json.append(",\"summary\":");
+            quote(each.getName().getSummary());
+
+            if(!each.getAffectedNodes().isEmpty()){
+                appendRange(Locations.locate(each.getAffectedNodes().get(0)));
+            }
+
+            json.append('}');
+
+            if(itr.hasNext()) json.append(',');
+        }
+
+        json.append("]}");
+    }
+
+    @Override public void visit(CommitHistoryResult history) {
+        begin("ok", "history", history).append(",\"commits\":[");
+
+        final Iterator<Commit> itr = history.getCommitHistory().iterator();
+        while(itr.hasNext()){
+            appendSummary(itr.next().getCommitSummary());
+            if(itr.hasNext()) json.append(',');
+        }
+
+        json.append("]}");
+    }
+
+    @Override public void visit(SourceResult source) {
+        begin("ok", "source", source).append(",\"name\":");
+        quote(source.getSource().getName());
+        json.append(",\"contents\":");
+        quote(source.getSource().getContents());
+        json.append('}');
+    }
+
+    private StringBuilder begin(String status, String type, Result result){
+        json.setLength(0);
+        json.append("{\"status\":");
+        quote(status);
+        json.append(",\"type\":");
+        quote(type);
+        json.append(",\"message\":");
+        quote(result.getBriefDescription());
+        return json;
+    }
+
+    private void appendRange(Location location){
+        json.append(",\"start\":").append(location.getStart().getOffset())
+            .append(",\"end\":").append(location.getEnd().getOffset())
+            .append(",\"line\":").append(location.getStart().getLine() + 1);
+    }
+
+    private void appendSummary(CommitSummary summary){
+        json.append("{\"message\":");
+        quote(summary.getMessage());
+        json.append(",\"id\":");
+        quote(summary.getCommitId());
+        json.append(",\"url\":");
+        quote(summary.getUrl());
+        json.append('}');
+    }
+
+    private void quote(String text){
+        if(text == null){
+            json.append("null");
+            return;
+        }
+
+        json.append('"');
+        for(int idx = 0; idx < text.length(); idx++){
+            final char c = text.charAt(idx);
+            switch (c){
+                case '"':  json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n");  break;
+                case '\r': json.append("\\r");  break;
+                case '\t': json.append("\\t");  break;
+                default:
+                    if(c < 0x20 || c == '\u2028' || c == '\u2029'){
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+
+        json.append('"');
+    }
+}
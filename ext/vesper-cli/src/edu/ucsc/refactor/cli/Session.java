@@ -0,0 +1,196 @@
+package edu.ucsc.refactor.cli;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableSet;
+import edu.ucsc.refactor.cli.commands.HelpCommand;
+import edu.ucsc.refactor.cli.commands.ReplCommand;
+import edu.ucsc.refactor.cli.commands.ServeCommand;
+import edu.ucsc.refactor.cli.results.Results;
+import io.airlift.airline.ParseException;
+
+import java.io.*;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.google.common.base.Objects.firstNonNull;
+
+/**
+ * A client of a {@link Daemon}: it reads one command per line from its connection and
+ * writes back one JSON line per result. The client's first line must be the daemon's
+ * token; until then, the session answers nothing else. Each session has its own
+ * {@link Interpreter}, which is cleared when the session ends.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+class Session implements Runnable {
+    private static final Logger LOGGER = Logger.getLogger(Session.class.getName());
+
+    static final String QUIT     = "quit";
+    static final String SHUTDOWN = "shutdown";
+
+    // these commands talk to a terminal (or start a daemon), not to a client.
+    private static final Set<Class<? extends VesperCommand>> TERMINAL_ONLY = ImmutableSet.of(
+            HelpCommand.class,
+            ReplCommand.class,
+            ServeCommand.class
+    );
+
+    private final int           id;
+    private final Socket        client;
+    private final Daemon        daemon;
+    private final Parser        parser;
+    private final Interpreter   interpreter;
+
+    Session(int id, Socket client, Daemon daemon){
+        this.id             = id;
+        this.client         = client;
+        this.daemon         = daemon;
+        this.parser         = new Parser();
+        this.interpreter    = new Interpreter();
+    }
+
+    @Override public void run() {
+        try {
+            final BufferedReader in  = new BufferedReader(
+                    new InputStreamReader(client.getInputStream(), Charsets.UTF_8)
+            );
+
+            final Writer         out = new BufferedWriter(
+                    new OutputStreamWriter(client.getOutputStream(), Charsets.UTF_8)
+            );
+
+            if(!daemon.isAuthorized(in.readLine())){
+                reply(out, Results.errorResult("Not authorized"));
+                return;
+            }
+
+            reply(out, Results.infoResult(String.format("%s session %d", Interpreter.VERSION, id)));
+
+            String line;
+            while((line = in.readLine()) != null){
+                line = line.trim();
+                if(line.isEmpty()) continue;
+
+                if(QUIT.equals(line)){
+                    reply(out, Results.infoResult("Good bye!"));
+                    break;
+                }
+
+                if(SHUTDOWN.equals(line)){
+                    reply(out, Results.infoResult("Shutting down " + Interpreter.VERSION));
+                    daemon.stop();
+                    break;
+                }
+
+                reply(out, eval(line));
+            }
+        } catch (SocketTimeoutException idle){
+            reject("Session was idle for too long");
+        } catch (IOException e){
+            if(daemon.isRunning()){
+                LOGGER.log(Level.FINE, "Session " + id + " was dropped", e);
+            }
+        } finally {
+            interpreter.clears();
+            close();
+        }
+    }
+
+    /**
+     * Evaluates a command line in this session's interpreter.
+     *
+     * @param line The (escaped) command line.
+     * @return the command's result; an error result if it cannot be parsed or evaluated.
+     */
+    Result eval(String line){
+        final VesperCommand command;
+        try {
+            command = parser.parse(unescape(line));
+        } catch (ParseException ex){
+            return Results.errorResult("Unknown command");
+        }
+
+        if(TERMINAL_ONLY.contains(command.getClass())){
+            return Results.errorResult(String.format("'%s' is not available in a session", line));
+        }
+
+        // there is nobody to answer a question; the client asked for the command anyway.
+        command.globalOptions.yes = true;
+
+        try {
+            return interpreter.eval(command);
+        } catch (RuntimeException ex){
+            return Results.errorResult(firstNonNull(ex.getMessage(), "Unknown error"));
+        }
+    }
+
+    /**
+     * Turns this session's client away.
+     *
+     * @param reason Why it was turned away.
+     */
+    void reject(String reason){
+        try {
+            final Writer out = new OutputStreamWriter(client.getOutputStream(), Charsets.UTF_8);
+            reply(out, Results.errorResult(reason));
+        } catch (IOException ignored){
+            // the client is gone already
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Ends this session by closing its connection.
+     */
+    void close(){
+        try {
+            client.close();
+        } catch (IOException ignored){
+            // closed anyway
+        } finally {
+            daemon.release(this);
+        }
+    }
+
+    private static void reply(Writer out, Result result) throws IOException {
+        out.write(JsonResultVisitor.render(result));
+        out.write('\n');
+        out.flush();
+    }
+
+    static String unescape(String line){
+        if(line.indexOf('\\') < 0) return line;
+
+        final StringBuilder result = new StringBuilder(line.length());
+        for(int idx = 0; idx < line.length(); idx++){
+            final char c = line.charAt(idx);
+            if(c != '\\' || idx + 1 == line.length()){
+                result.append(c);
+                continue;
+            }
+
+            final char next = line.charAt(++idx);
+            switch (next){
+                case 'n':  result.append('\n'); break;
+                case 'r':  result.append('\r'); break;
+                case 't':  result.append('\t'); break;
+                case '\\': result.append('\\'); break;
+                default:   result.append(c).append(next);
+            }
+        }
+
+        return result.toString();
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("id", id)
+                .add("client", client.getRemoteSocketAddress())
+                .toString();
+    }
+}
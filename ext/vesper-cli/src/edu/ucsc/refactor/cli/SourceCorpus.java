@@ -0,0 +1,240 @@
+package edu.ucsc.refactor.cli;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Closeables;
+import com.google.common.io.Files;
+import edu.ucsc.refactor.Source;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A corpus of Java source files spread over directories and jar, zip or srcjar archives.
+ *
+ * <p>The corpus is streamed: directories are walked and archives are opened lazily, one
+ * file is read at a time, and each archive is closed once its entries are exhausted. The
+ * {@link Source}s can be consumed one by one, in batches of a fixed size (e.g., to feed
+ * {@link edu.ucsc.refactor.Host#createProject(Iterable)}), or pushed into a bounded queue
+ * that throttles the walk to the pace of its consumers.</p>
+ *
+ * <p>An iteration that stops before the corpus is exhausted (or fails) must be closed
+ * (see {@link SourceIterator#close()}), so the archive it is reading gets closed.</p>
+ *
+ * <p>Each {@link Source} is named after its file; its description records where it came
+ * from (the file's path, or the archive's path followed by {@code !/} and the entry's
+ * name).</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class SourceCorpus implements Iterable<Source> {
+    private static final Logger LOGGER = Logger.getLogger(SourceCorpus.class.getName());
+
+    private static final Set<String> ARCHIVE_EXTENSIONS = new HashSet<String>(
+            Arrays.asList("jar", "zip", "srcjar")
+    );
+
+    private final List<File>    roots;
+    private final Charset       charset;
+
+    /**
+     * Creates a new corpus.
+     *
+     * @param roots The directories, archives, or Java files in the corpus.
+     * @param charset The charset of the Java files.
+     */
+    public SourceCorpus(Iterable<File> roots, Charset charset){
+        this.roots      = ImmutableList.copyOf(roots);
+        this.charset    = Preconditions.checkNotNull(charset);
+    }
+
+    /**
+     * Creates a new corpus of files in the platform's default charset.
+     *
+     * @param roots The directories, archives, or Java files in the corpus.
+     * @return a new corpus.
+     */
+    public static SourceCorpus of(File... roots){
+        return new SourceCorpus(Arrays.asList(roots), Charset.defaultCharset());
+    }
+
+    @Override public SourceIterator iterator() {
+        return new SourceIterator();
+    }
+
+    /**
+     * Streams the corpus in batches. Like any other iteration, an iteration over these
+     * batches that stops early leaves its archive open until garbage collected; use
+     * {@link Iterators#partition} over {@link #iterator()} to close it.
+     *
+     * @param size The number of {@link Source}s per batch.
+     * @return the corpus, in batches of (at most) {@code size} sources.
+     */
+    public Iterable<List<Source>> batches(int size){
+        return Iterables.partition(this, size);
+    }
+
+    /**
+     * Streams the corpus into a queue. If the queue is bounded, then the walk blocks until
+     * consumers make room for the next {@link Source}.
+     *
+     * @param queue The queue to feed.
+     * @return the number of {@link Source}s fed into the queue.
+     * @throws InterruptedException if interrupted while waiting for room in the queue.
+     */
+    public int drainTo(BlockingQueue<Source> queue) throws InterruptedException {
+        final SourceIterator iterator = iterator();
+        try {
+            int count = 0;
+            while(iterator.hasNext()){
+                queue.put(iterator.next());
+                count++;
+            }
+
+            return count;
+        } finally {
+            iterator.close();
+        }
+    }
+
+    static boolean isJavaFile(String name){
+        return "java".equals(Files.getFileExtension(name));
+    }
+
+    static boolean isArchive(String name){
+        return ARCHIVE_EXTENSIONS.contains(Files.getFileExtension(name).toLowerCase(Locale.ENGLISH));
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("roots", roots)
+                .add("charset", charset)
+                .toString();
+    }
+
+    /**
+     * Walks the corpus depth-first, reading one file at a time.
+     */
+    public class SourceIterator extends AbstractIterator<Source> implements Closeable {
+        final Deque<File>           pending;
+        ZipFile                     archive;
+        Enumeration<? extends ZipEntry> entries;
+
+        SourceIterator(){
+            this.pending = new ArrayDeque<File>(roots);
+        }
+
+        @Override protected Source computeNext() {
+            try {
+                while(true){
+                    if(archive != null){
+                        final Source next = nextArchiveEntry();
+                        if(next != null) return next;
+
+                        continue;
+                    }
+
+                    final File each = pending.pollFirst();
+                    if(each == null) return endOfData();
+
+                    if(each.isDirectory()){
+                        final File[] children = each.listFiles();
+                        if(children == null) continue;
+
+                        Arrays.sort(children);
+                        for(int idx = children.length - 1; idx >= 0; idx--){
+                            pending.addFirst(children[idx]);
+                        }
+                    } else if(isJavaFile(each.getName())){
+                        final Source next = makeSource(
+                                each.getName(),
+                                SourceFileReader.readContent(each, charset),
+                                each.getPath()
+                        );
+
+                        if(next != null) return next;
+                    } else if(isArchive(each.getName())){
+                        archive = new ZipFile(each);
+                        entries = archive.entries();
+                    }
+                }
+            } catch (IOException e){
+                closeArchive();
+                throw new RuntimeException(e);
+            } catch (RuntimeException e){
+                closeArchive();
+                throw e;
+            }
+        }
+
+        /**
+         * Stops the walk, closing the archive being read, if any.
+         */
+        @Override public void close() {
+            pending.clear();
+            closeArchive();
+        }
+
+        private Source nextArchiveEntry() throws IOException {
+            while(entries.hasMoreElements()){
+                final ZipEntry entry = entries.nextElement();
+                if(entry.isDirectory() || !isJavaFile(entry.getName())) continue;
+
+                final InputStream in = archive.getInputStream(entry);
+                try {
+                    final String content = SourceFileReader.decode(
+                            ByteBuffer.wrap(ByteStreams.toByteArray(in)),
+                            charset
+                    );
+
+                    final Source next = makeSource(
+                            new File(entry.getName()).getName(),
+                            content,
+                            archive.getName() + "!/" + entry.getName()
+                    );
+
+                    if(next != null) return next;
+                } finally {
+                    Closeables.close(in, true);
+                }
+            }
+
+            closeArchive();
+            return null;
+        }
+
+        private Source makeSource(String name, String content, String origin){
+            try {
+                return new Source(name, content, origin);
+            } catch (IllegalArgumentException rejected){
+                LOGGER.warning("Skipping " + origin + ": " + rejected.getMessage());
+                return null;
+            }
+        }
+
+        private void closeArchive(){
+            try {
+                if(archive != null) archive.close();
+            } catch (IOException ignored){
+                // swallowed
+            } finally {
+                archive = null;
+                entries = null;
+            }
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package edu.ucsc.refactor.cli;
 
 import com.google.common.base.Preconditions;
+import com.google.common.io.Closeables;
 import com.google.common.io.Files;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
-import java.util.Iterator;
-import java.util.List;
+import java.nio.charset.CodingErrorAction;
 
 /**
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class SourceFileReader {
+    /** Files at least this large are memory-mapped rather than copied onto the heap. */
+    static final long MAPPED_READ_THRESHOLD = 256 * 1024;
+
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
     private SourceFileReader(){}
 
     public static String readContent(String path){
@@ -24,20 +34,86 @@ public class SourceFileReader {
     }
 
     public static String readContent(File file) {
-        final StringBuilder content = new StringBuilder();
+        return readContent(file, Charset.defaultCharset());
+    }
+
+    /**
+     * Reads a file's content with a given charset. Line terminators are normalized to the
+     * platform's line separator, and a trailing line terminator is dropped.
+     *
+     * @param file The file to read.
+     * @param charset The file's charset.
+     * @return the file's content.
+     */
+    public static String readContent(File file, Charset charset) {
+        FileInputStream in = null;
         try {
+            in = new FileInputStream(file);
+
+            final FileChannel channel = in.getChannel();
+            final long        size    = channel.size();
 
-            final List<String> lines = Files.readLines(file, Charset.defaultCharset());
-            final Iterator<String> itr = lines.iterator();
-            while(itr.hasNext()){
-                content.append(itr.next());
-                if(itr.hasNext()){
-                    content.append(System.getProperty("line.separator"));
+            final ByteBuffer bytes;
+            if(size >= MAPPED_READ_THRESHOLD){
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                bytes = ByteBuffer.allocate((int) size);
+                while(bytes.hasRemaining() && channel.read(bytes) >= 0){
+                    // keep reading until the buffer is full
                 }
+
+                bytes.flip();
             }
+
+            return decode(bytes, charset);
         } catch (Throwable t) {
             throw new RuntimeException(t);
+        } finally {
+            try {
+                Closeables.close(in, true);
+            } catch (IOException ignored){
+                // swallowed
+            }
+        }
+    }
+
+    /**
+     * Decodes a file's bytes. Malformed input is replaced rather than rejected. Line
+     * terminators are normalized the same way {@link #readContent(File, Charset)} does.
+     *
+     * @param bytes The file's bytes.
+     * @param charset The file's charset.
+     * @return the decoded content.
+     * @throws CharacterCodingException if the bytes cannot be decoded.
+     */
+    public static String decode(ByteBuffer bytes, Charset charset) throws CharacterCodingException {
+        final CharSequence chars = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                .decode(bytes);
+
+        return joinLines(chars);
+    }
+
+    private static String joinLines(CharSequence chars){
+        final int           length  = chars.length();
+        final StringBuilder content = new StringBuilder(length);
+
+        for(int idx = 0; idx < length; idx++){
+            final char each = chars.charAt(idx);
+            if(each == '\r' || each == '\n'){
+                if(each == '\r' && idx + 1 < length && chars.charAt(idx + 1) == '\n'){
+                    idx++;
+                }
+
+                if(idx + 1 < length){
+                    content.append(LINE_SEPARATOR);
+                }
+            } else {
+                content.append(each);
+            }
         }
+
         return content.toString();
     }
 }
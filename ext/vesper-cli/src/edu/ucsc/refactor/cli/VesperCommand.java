@@ -31,7 +31,7 @@ public abstract class VesperCommand {
     public Result result = null;
 
     public boolean ask(String question, boolean defaultValue) {
-        return AskQuestion.ask(question, defaultValue);
+        return globalOptions.yes || AskQuestion.ask(question, defaultValue);
     }
 
     public Result call(Environment environment) throws RuntimeException {
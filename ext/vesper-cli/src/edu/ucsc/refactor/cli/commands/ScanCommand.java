@@ -0,0 +1,82 @@
+package edu.ucsc.refactor.cli.commands;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import edu.ucsc.refactor.*;
+import edu.ucsc.refactor.cli.Environment;
+import edu.ucsc.refactor.cli.Result;
+import edu.ucsc.refactor.cli.SourceCorpus;
+import edu.ucsc.refactor.cli.VesperCommand;
+import edu.ucsc.refactor.cli.results.Results;
+import io.airlift.airline.Arguments;
+import io.airlift.airline.Command;
+import io.airlift.airline.Option;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+@Command(name = "scan", description = "Shows the issues found in Java files, directories and archives")
+public class ScanCommand extends VesperCommand {
+    @Option(name = "--batch", description = "Number of sources parsed together")
+    public int batch = 100;
+
+    @Arguments(description = "Java files, directories, or jar, zip and srcjar archives to scan")
+    public List<String> paths;
+
+    @Override public Result execute(Environment environment) throws RuntimeException {
+        Preconditions.checkNotNull(paths, "scan... was given no arguments");
+        Preconditions.checkArgument(!paths.isEmpty(), "scan... was given no arguments");
+        Preconditions.checkArgument(batch > 0, "--batch must be positive");
+
+        final List<File> roots = Lists.newArrayList();
+        for(String each : paths){
+            roots.add(new File(each));
+        }
+
+        final Host          host         = Vesper.createHost();
+        final Introspector  introspector = Vesper.createIntrospector();
+
+        final StringBuilder report  = new StringBuilder();
+        int                 sources = 0;
+        int                 issues  = 0;
+
+        final SourceCorpus.SourceIterator walk = SourceCorpus.of(roots.toArray(new File[roots.size()])).iterator();
+        try {
+            final Iterator<List<Source>> batches = Iterators.partition(walk, batch);
+            while(batches.hasNext()){
+                final Project project = host.createProject(batches.next());
+                for(Map.Entry<Source, Set<Issue>> each : introspector.detectIssues(project).entrySet()){
+                    sources++;
+                    if(each.getValue().isEmpty()) continue;
+
+                    issues += each.getValue().size();
+                    report.append("\n\t\t").append(each.getKey().getDescription()).append(":");
+                    for(Issue issue : each.getValue()){
+                        report.append(" ").append(issue.getName().getKey()).append(".");
+                    }
+                }
+            }
+        } finally {
+            walk.close();
+        }
+
+        return Results.infoResult(
+                String.format("Found %d issues in %d sources", issues, sources) + report
+        );
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper("ScanCommand")
+                .add("batch", batch)
+                .add("paths", paths)
+                .toString();
+    }
+}
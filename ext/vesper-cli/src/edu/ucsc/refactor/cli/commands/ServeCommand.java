@@ -0,0 +1,56 @@
+package edu.ucsc.refactor.cli.commands;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import edu.ucsc.refactor.cli.*;
+import edu.ucsc.refactor.cli.results.Results;
+import io.airlift.airline.Command;
+import io.airlift.airline.Option;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+@Command(name = "serve", description = "Run Vesper as a daemon serving local clients")
+public class ServeCommand extends VesperCommand {
+    @Option(name = {"-p", "--port"}, description = "Loopback port to listen on")
+    public int port = Daemon.DEFAULT_PORT;
+
+    @Option(name = "--sessions", description = "Maximum number of concurrent sessions")
+    public int sessions = Daemon.DEFAULT_SESSIONS;
+
+    @Option(name = "--token-file", description = "File the daemon writes its client token to")
+    public String tokenFile = Daemon.DEFAULT_TOKEN_FILE.getPath();
+
+    @Option(name = "--idle-timeout", description = "Seconds a session may stay idle before it is closed")
+    public long idleTimeout = TimeUnit.MILLISECONDS.toSeconds(Daemon.DEFAULT_IDLE_TIMEOUT);
+
+    @Override public Result execute(Environment environment) throws Exception {
+        Preconditions.checkNotNull(environment);
+
+        final Daemon daemon = new Daemon(port, sessions, new File(tokenFile), idleTimeout, TimeUnit.SECONDS);
+        final int    bound  = daemon.start();
+
+        ResultProcessor.process(
+                Results.infoResult(String.format(
+                        "%s is listening on localhost:%d (token in %s)",
+                        Interpreter.VERSION, bound, daemon.getTokenFile()
+                ))
+        );
+
+        daemon.awaitTermination();
+
+        return Results.infoResult("Good bye!");
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper("ServeCommand")
+                .add("port", port)
+                .add("sessions", sessions)
+                .add("tokenFile", tokenFile)
+                .add("idleTimeout", idleTimeout)
+                .toString();
+    }
+}
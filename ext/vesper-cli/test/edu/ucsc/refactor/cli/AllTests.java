@@ -11,7 +11,9 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         StringReaderTest.class,
-        ParserTest.class
+        ParserTest.class,
+        SourceCorpusTest.class,
+        DaemonTest.class
 })
 public class AllTests {
     public static Test suite() {
@@ -0,0 +1,144 @@
+package edu.ucsc.refactor.cli;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class DaemonTest {
+    private File            root;
+    private Daemon          daemon;
+    private int             port;
+    private String          token;
+    private List<Client>    clients;
+
+    @Before public void setUp() throws Exception {
+        root    = Files.createTempDir();
+        daemon  = new Daemon(0, 2, new File(root, "daemon.token"), 1, TimeUnit.SECONDS);
+        port    = daemon.start();
+        token   = Files.toString(daemon.getTokenFile(), Charsets.UTF_8);
+        clients = Lists.newArrayList();
+    }
+
+    private Client connect(String token) throws IOException {
+        final Client client = new Client(port, token);
+        clients.add(client);
+        return client;
+    }
+
+    @Test public void testSessionsTrackTheirOwnSources() throws Exception {
+        final Client first  = connect(token);
+        final Client second = connect(token);
+
+        assertThat(first.greeting, containsString("session"));
+        assertThat(second.greeting, containsString("session"));
+
+        assertThat(first.send("add First.java \"class First {\\n\\tint a;\\n}\""), startsWith("{\"status\":\"ok\""));
+        assertThat(second.send("add Second.java \"class Second {}\""), startsWith("{\"status\":\"ok\""));
+
+        assertThat(first.send("show"), containsString("\"contents\":\"class First {\\n\\tint a;\\n}\""));
+        assertThat(second.send("show"), containsString("\"name\":\"Second.java\""));
+
+        assertThat(first.send("add First.java \"class First {}\""), containsString("is now being tracked"));
+        assertThat(first.send("inspect"), startsWith("{\"status\":\"ok\""));
+
+        assertThat(first.send("quit"), containsString("Good bye!"));
+        assertThat(second.send("quit"), containsString("Good bye!"));
+    }
+
+    @Test public void testSessionReportsErrorsAsJson() throws Exception {
+        final Client client = connect(token);
+
+        assertThat(client.send("frobnicate"), is("{\"status\":\"error\",\"type\":\"error\",\"message\":\"Unknown command\"}"));
+        assertThat(client.send("ivp"), containsString("not available in a session"));
+        assertThat(client.send("show"), startsWith("{\"status\":\"error\""));
+
+        client.send("quit");
+    }
+
+    @Test public void testShutdownStopsTheDaemon() throws Exception {
+        final Client client = connect(token);
+
+        assertThat(client.send("shutdown"), containsString("Shutting down"));
+
+        daemon.awaitTermination();
+        assertThat(daemon.isRunning(), is(false));
+    }
+
+    @Test public void testSessionsRequireTheDaemonsToken() throws Exception {
+        assertThat(daemon.getTokenFile().canRead(), is(true));
+
+        final Client stranger = connect("not the token");
+        assertThat(stranger.greeting, is("{\"status\":\"error\",\"type\":\"error\",\"message\":\"Not authorized\"}"));
+        assertThat(stranger.in.readLine(), nullValue());
+
+        assertThat(connect(token).greeting, containsString("session"));
+    }
+
+    @Test public void testIdleSessionsAreClosed() throws Exception {
+        final Client client = connect(token);
+
+        assertThat(client.in.readLine(), containsString("idle for too long"));
+        assertThat(client.in.readLine(), nullValue());
+    }
+
+    @Test public void testUnescapeCommandLine() throws Exception {
+        assertThat(Session.unescape("add A.java \"class A {\\n\\tint a;\\n}\""),
+                is("add A.java \"class A {\n\tint a;\n}\""));
+        assertThat(Session.unescape("a \\\\n b \\q"), is("a \\n b \\q"));
+    }
+
+    @After public void tearDown() throws Exception {
+        for(Client each : clients){
+            each.close();
+        }
+
+        daemon.stop();
+
+        assertThat(daemon.getTokenFile().exists(), is(false));
+        assertThat(root.delete(), is(true));
+    }
+
+    static class Client implements Closeable {
+        final Socket            socket;
+        final BufferedReader    in;
+        final Writer            out;
+        final String            greeting;
+
+        Client(int port, String token) throws IOException {
+            socket   = new Socket(InetAddress.getByName(null), port);
+            in       = new BufferedReader(new InputStreamReader(socket.getInputStream(), Charsets.UTF_8));
+            out      = new OutputStreamWriter(socket.getOutputStream(), Charsets.UTF_8);
+            out.write(token + "\n");
+            out.flush();
+            greeting = in.readLine();
+        }
+
+        String send(String line) throws IOException {
+            out.write(line + "\n");
+            out.flush();
+            return in.readLine();
+        }
+
+        @Override public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
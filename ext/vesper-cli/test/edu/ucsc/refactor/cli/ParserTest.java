@@ -19,6 +19,7 @@ public class ParserTest {
         assertNotNull(parser.parse("ivp --simple-prompt"));
         assertNotNull(parser.parse("show"));
         assertNotNull(parser.parse("publish"));
+        assertNotNull(parser.parse("scan src"));
     }
 
     @Test public void testParsingGroupCommands() throws Exception {
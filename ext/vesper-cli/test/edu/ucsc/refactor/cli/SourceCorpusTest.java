@@ -0,0 +1,141 @@
+package edu.ucsc.refactor.cli;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import edu.ucsc.refactor.Source;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class SourceCorpusTest {
+    private static final String SEP = System.getProperty("line.separator");
+
+    @Test public void testReadContentNormalizesLineTerminators() throws Exception {
+        final File file = File.createTempFile("Name", ".java");
+        try {
+            Files.write("class Name {\r\n}\n\n", file, Charsets.UTF_8);
+            assertThat(SourceFileReader.readContent(file, Charsets.UTF_8), is("class Name {" + SEP + "}" + SEP));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test public void testReadContentOfLargeFiles() throws Exception {
+        final StringBuilder body = new StringBuilder("class Large {\n");
+        while(body.length() < SourceFileReader.MAPPED_READ_THRESHOLD){
+            body.append("\tint field").append(body.length()).append(" = 0;\n");
+        }
+
+        body.append("}");
+
+        final File file = File.createTempFile("Large", ".java");
+        try {
+            Files.write(body, file, Charsets.UTF_8);
+            assertThat(
+                    SourceFileReader.readContent(file, Charsets.UTF_8),
+                    is(body.toString().replace("\n", SEP))
+            );
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test public void testCorpusStreamsDirectoriesAndArchives() throws Exception {
+        final File root = Files.createTempDir();
+        try {
+            final File nested = new File(root, "src/a/Bar.java");
+            Files.createParentDirs(nested);
+            Files.write("class Bar {}", nested, Charsets.UTF_8);
+            Files.write("class Foo {}", new File(root, "src/Foo.java"), Charsets.UTF_8);
+            Files.write("class X {}", new File(root, "src/X.java"), Charsets.UTF_8); // rejected name
+            Files.write("not java", new File(root, "README"), Charsets.UTF_8);
+
+            final ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(new File(root, "lib.srcjar")));
+            try {
+                zip.putNextEntry(new ZipEntry("c/Baz.java"));
+                zip.write("class Baz {}".getBytes(Charsets.UTF_8));
+                zip.closeEntry();
+                zip.putNextEntry(new ZipEntry("c/Baz.class"));
+                zip.closeEntry();
+            } finally {
+                zip.close();
+            }
+
+            final SourceCorpus corpus = new SourceCorpus(Lists.newArrayList(root), Charsets.UTF_8);
+
+            final List<String> names = Lists.newArrayList();
+            for(Source each : corpus){
+                names.add(each.getName());
+            }
+
+            assertThat(names, is((List<String>) Lists.newArrayList("Baz.java", "Foo.java", "Bar.java")));
+            assertThat(Iterables.size(corpus.batches(2)), is(2));
+
+            final BlockingQueue<Source> queue = new ArrayBlockingQueue<Source>(3);
+            assertThat(corpus.drainTo(queue), is(3));
+            assertThat(queue.peek().getDescription().endsWith("lib.srcjar!/c/Baz.java"), is(true));
+        } finally {
+            for(File each : Files.fileTreeTraverser().postOrderTraversal(root)){
+                each.delete();
+            }
+        }
+    }
+
+    @Test public void testClosedIterationStopsTheWalk() throws Exception {
+        final File archive = File.createTempFile("sources", ".zip");
+        try {
+            final ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(archive));
+            try {
+                zip.putNextEntry(new ZipEntry("Foo.java"));
+                zip.write("class Foo {}".getBytes(Charsets.UTF_8));
+                zip.closeEntry();
+                zip.putNextEntry(new ZipEntry("Bar.java"));
+                zip.write("class Bar {}".getBytes(Charsets.UTF_8));
+                zip.closeEntry();
+            } finally {
+                zip.close();
+            }
+
+            final SourceCorpus.SourceIterator iterator = SourceCorpus.of(archive).iterator();
+            assertThat(iterator.next().getName(), is("Foo.java"));
+
+            iterator.close();
+            assertThat(iterator.hasNext(), is(false));
+        } finally {
+            archive.delete();
+        }
+    }
+
+    @Test public void testScanCommandReportsIssuesPerSource() throws Exception {
+        final File root = Files.createTempDir();
+        try {
+            Files.write("class Foo {\n\tprivate int unused;\n}", new File(root, "Foo.java"), Charsets.UTF_8);
+            Files.write("class Bar {}", new File(root, "Bar.java"), Charsets.UTF_8);
+
+            final Result result = new Interpreter().eval(new Parser().parse("scan", root.getPath()));
+
+            assertThat(result.getBriefDescription(), startsWith("Found 1 issues in 2 sources"));
+            assertThat(result.getBriefDescription(), containsString("Foo.java: Unused field."));
+        } finally {
+            for(File each : Files.fileTreeTraverser().postOrderTraversal(root)){
+                each.delete();
+            }
+        }
+    }
+}
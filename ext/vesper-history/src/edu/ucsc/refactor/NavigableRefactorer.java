@@ -113,6 +113,12 @@ public interface NavigableRefactorer extends Refactorer {
      * {@code 100%} sure about using it.
      * </p>
      *
+     * <p>The rewritten history ends with the commit that produced {@code source}; every
+     * later commit is dropped. This holds for any commit in the history, the first one
+     * included: rewriting a history at the {@code Source} produced by its first commit
+     * keeps only that commit. If {@code source} is the latest version, the history is
+     * left as is.</p>
+     *
      * @param source THe current Source. This Source can be the same as the indexed Source, or
      *    a Source product of the methods {@link NavigableRefactorer#previous(Source)} or
      *    {@link NavigableRefactorer#next(Source)}.
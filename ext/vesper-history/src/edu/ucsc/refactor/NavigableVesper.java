@@ -1,7 +1,14 @@
 package edu.ucsc.refactor;
 
 import com.google.common.collect.ImmutableList;
+import edu.ucsc.refactor.internal.FileHistoryStore;
+import edu.ucsc.refactor.internal.InMemoryHistoryStore;
 import edu.ucsc.refactor.internal.InternalNavigableRefactorerCreator;
+import edu.ucsc.refactor.internal.IssueRegistry;
+import edu.ucsc.refactor.spi.HistoryStore;
+
+import java.io.File;
+import java.io.IOException;
 
 /**
  * <p>
@@ -33,6 +40,11 @@ import edu.ucsc.refactor.internal.InternalNavigableRefactorerCreator;
  *     // publish changes
  *     publisher.publish();
  *
+ *     // or publish them in the background, squashing consecutive commits into one revision
+ *     final ListenableFuture<List<Commit>> published = publisher.publishAsync(
+ *          new FileRepository(new File("repo")), CommitPublisher.newPublishingExecutor(2, 16)
+ *     );
+ *
  *     // II. Retrieving the SourceHistory of a Source (previously curated)
  *
  *     final SourceRecalling recalling = new SourceRecalling(new AuthenticatedUpstream(), "123456");
@@ -49,6 +61,17 @@ import edu.ucsc.refactor.internal.InternalNavigableRefactorerCreator;
  *         System.out.println(recalling.differences(pivot, eachSrc).toString());
  *     }
  *
+ *     // III. Keeping commit histories on disk, across sessions
+ *
+ *     final HistoryStore         store    = NavigableVesper.openHistoryStore(new File("vesper.log"));
+ *     final NavigableRefactorer  durable  = NavigableVesper.createNavigableRefactorer(
+ *          Vesper.createRefactorer(), store, code
+ *     );
+ *
+ *     // .. changes are made to 'code'
+ *
+ *     store.close();
+ *
  *     // V. More?
  *
  *     // see {@code Refactorer}'s API for more details.
@@ -80,28 +103,87 @@ public class NavigableVesper {
      * @return a new Refactorer
      */
     public static NavigableRefactorer createNavigableRefactorer(Refactorer refactorer, Source... sources){
-        final ImmutableList<Source> seed = ImmutableList.copyOf(sources);
+        return NavigableVesper.createNavigableRefactorer(refactorer, new InMemoryHistoryStore(), sources);
+    }
 
-        if(seed.contains(null)) {
-            throw new CreationException(
-                    ImmutableList.of(new Throwable("createRefactorer() has been given a null configuration."))
-            );
-        }
+    /**
+     * Creates a navigable refactorer that keeps its commit histories in a given store.
+     *
+     * @param refactorer The plain refactorer
+     * @param historyStore The store of commit histories.
+     * @param sources The array of sources.
+     *
+     * @return a new Refactorer
+     */
+    public static NavigableRefactorer createNavigableRefactorer(Refactorer refactorer,
+            HistoryStore historyStore, Source... sources){
+        return NavigableVesper.createNavigableRefactorer(
+                refactorer,
+                historyStore,
+                new IssueRegistry(),
+                sources
+        );
+    }
 
-        return NavigableVesper.createNavigableRefactorer(refactorer, seed);
+    /**
+     * Creates a navigable refactorer that keeps the issues of at most {@code maxSources}
+     * sources, and of at most {@code maxVersions} versions of each; issues of older
+     * sources or versions are discarded.
+     *
+     * @param refactorer The plain refactorer
+     * @param historyStore The store of commit histories.
+     * @param maxSources The maximum number of sources whose issues are kept.
+     * @param maxVersions The maximum number of versions (per source) whose issues are kept.
+     * @param sources The array of sources.
+     *
+     * @return a new Refactorer
+     */
+    public static NavigableRefactorer createNavigableRefactorer(Refactorer refactorer,
+            HistoryStore historyStore, int maxSources, int maxVersions, Source... sources){
+        return NavigableVesper.createNavigableRefactorer(
+                refactorer,
+                historyStore,
+                new IssueRegistry(maxSources, maxVersions),
+                sources
+        );
+    }
+
+    /**
+     * Opens (or creates) a history store backed by an append-only log file. Histories kept
+     * in this store survive across sessions; the store must be closed when done.
+     *
+     * @param log The log file.
+     * @return the history store.
+     * @throws IOException if the log file cannot be opened.
+     */
+    public static HistoryStore openHistoryStore(File log) throws IOException {
+        return FileHistoryStore.open(log);
     }
 
     /**
      * Creates a navigable refactorer from a plain refactorer and for the given array of sources
      *
      * @param refactorer The plain refactorer
+     * @param historyStore The store of commit histories.
+     * @param issueRegistry The registry of detected issues.
      * @param sources The array of sources.
      *
      * @return a new Refactorer
      */
-    private static NavigableRefactorer createNavigableRefactorer(Refactorer refactorer, Iterable<Source> sources){
+    private static NavigableRefactorer createNavigableRefactorer(Refactorer refactorer,
+            HistoryStore historyStore, IssueRegistry issueRegistry, Source... sources){
+        final ImmutableList<Source> seed = ImmutableList.copyOf(sources);
+
+        if(seed.contains(null)) {
+            throw new CreationException(
+                    ImmutableList.of(new Throwable("createRefactorer() has been given a null configuration."))
+            );
+        }
+
         return new InternalNavigableRefactorerCreator(refactorer)
-                .addSources(sources)
+                .setHistoryStore(historyStore)
+                .setIssueRegistry(issueRegistry)
+                .addSources(seed)
                 .build();
     }
 }
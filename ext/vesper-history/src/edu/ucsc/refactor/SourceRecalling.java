@@ -4,7 +4,9 @@ import com.google.common.base.Splitter;
 import com.google.common.collect.Lists;
 import difflib.DiffUtils;
 import difflib.Patch;
+import edu.ucsc.refactor.internal.CachedRepository;
 import edu.ucsc.refactor.spi.PullableRepository;
+import edu.ucsc.refactor.util.RevisionCache;
 import edu.ucsc.refactor.util.SourceHistory;
 
 import java.util.List;
@@ -27,6 +29,18 @@ public class SourceRecalling {
         this.sourceId   = sourceId;
     }
 
+    /**
+     * Construct a new {@code SourceRecalling} object that keeps recalled revisions
+     * in a local cache; recalling again only pulls the revisions added since.
+     *
+     * @param repository The location from where the source history is retrieved.
+     * @param sourceId   The id of a source.
+     * @param cache      The cache of pulled revisions.
+     */
+    public SourceRecalling(PullableRepository repository, String sourceId, RevisionCache cache){
+        this(new CachedRepository(repository, cache), sourceId);
+    }
+
     /**
      * Gets the difference between the before and after source.
      *
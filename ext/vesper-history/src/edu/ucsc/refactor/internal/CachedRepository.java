@@ -0,0 +1,72 @@
+package edu.ucsc.refactor.internal;
+
+import com.google.common.base.Preconditions;
+import edu.ucsc.refactor.Commit;
+import edu.ucsc.refactor.Source;
+import edu.ucsc.refactor.spi.PullableRepository;
+import edu.ucsc.refactor.spi.RevisionRepository;
+import edu.ucsc.refactor.util.RevisionCache;
+import edu.ucsc.refactor.util.SourceHistory;
+
+import java.util.List;
+
+/**
+ * A {@link PullableRepository} that keeps the revisions it pulls in a {@link RevisionCache}.
+ * When the underlying repository is a {@link RevisionRepository}, a pull lists the
+ * {@code Source}'s versions and only pulls the revisions that are not cached yet (i.e., the
+ * ones added since the last pull); otherwise, every pull goes to the underlying repository.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class CachedRepository implements PullableRepository {
+    private final PullableRepository    repository;
+    private final RevisionCache         cache;
+
+    /**
+     * Construct a new {@code CachedRepository}.
+     *
+     * @param repository The underlying repository.
+     * @param cache The cache of pulled revisions.
+     */
+    public CachedRepository(PullableRepository repository, RevisionCache cache){
+        this.repository = Preconditions.checkNotNull(repository);
+        this.cache      = Preconditions.checkNotNull(cache);
+    }
+
+    @Override public Commit push(Commit commit) {
+        return repository.push(commit);
+    }
+
+    @Override public SourceHistory pull(String historyForId) {
+        if(!(repository instanceof RevisionRepository)){
+            return repository.pull(historyForId);
+        }
+
+        final RevisionRepository revisions = (RevisionRepository) repository;
+        final SourceHistory      history   = new SourceHistory();
+
+        for(String eachVersion : revisions.versions(historyForId)){
+            List<Source> sources = cache.get(historyForId, eachVersion);
+
+            if(sources == null){
+                final SourceHistory pulled = revisions.pull(historyForId, eachVersion);
+                if(pulled.isEmpty()) continue;   // unavailable; try again next time
+
+                cache.put(historyForId, eachVersion, pulled);
+                for(Source each : pulled){
+                    history.add(each);
+                }
+            } else {
+                for(Source each : sources){
+                    history.add(each);
+                }
+            }
+        }
+
+        return history;
+    }
+
+    @Override public String toString() {
+        return "CachedRepository(" + repository + ")";
+    }
+}
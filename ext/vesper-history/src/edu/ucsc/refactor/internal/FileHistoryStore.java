@@ -0,0 +1,709 @@
+package edu.ucsc.refactor.internal;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import edu.ucsc.refactor.Commit;
+import edu.ucsc.refactor.Source;
+import edu.ucsc.refactor.spi.CommitSummary;
+import edu.ucsc.refactor.spi.HistoryStore;
+import edu.ucsc.refactor.spi.Name;
+import edu.ucsc.refactor.spi.Refactoring;
+import edu.ucsc.refactor.spi.Smell;
+import edu.ucsc.refactor.util.CommitHistory;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link HistoryStore} backed by an append-only log file, so histories survive restarts
+ * and do not have to stay on the heap.
+ *
+ * <p>Each record in the log is a header (payload length and CRC-32 checksum) followed by
+ * its payload: either a commit, an amendment of an earlier commit's summary (see
+ * {@link #update(Commit)}), or a reset marker that discards a Source's earlier commits
+ * (see {@link #replace(String, CommitHistory)}). Commits are delta-encoded: the
+ * content before the change is stored as an edit of the previous commit's content after the
+ * change, and the content after the change as an edit of the content before it. Only the
+ * log offsets of each Source's commits, and its latest content, are kept in memory;
+ * histories are decoded from the log when asked for, with their latest amendments, and are
+ * then softly cached.</p>
+ *
+ * <p>Appends are not forced to the storage device one by one; {@link #flush()} and
+ * {@link #close()} force them, unless the store was opened to force every append (see
+ * {@link #open(File, boolean)}). A crash may then lose the latest appends, but never
+ * corrupts the log.</p>
+ *
+ * <p>On opening, the log is scanned; the first incomplete or corrupted record (e.g., left by
+ * a crash in the middle of an append) ends the log, and the log is truncated there. If
+ * most of the log is taken by discarded commits, the log is also compacted.</p>
+ *
+ * <p>Notes attached to the stored {@link Source}s are not persisted.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class FileHistoryStore implements HistoryStore {
+    private static final Logger LOGGER = Logger.getLogger(FileHistoryStore.class.getName());
+
+    private static final int  HEADER_SIZE = 8;
+
+    private static final byte COMMIT = 1;
+    private static final byte RESET  = 2;
+    private static final byte AMEND  = 3;
+
+    private static final byte SMELL       = 0;
+    private static final byte REFACTORING = 1;
+
+    private static final byte PENDING  = 0;
+    private static final byte SUCCESS  = 1;
+    private static final byte FAILURE  = 2;
+    private static final byte CANCELED = 3;
+
+    private final File                                      log;
+    private final Map<String, List<Long>>                   index;
+    private final Map<String, String>                       latest;
+    private final Map<Long, Long>                           amends;  // commit -> its latest amendment
+    private final Map<String, SoftReference<CommitHistory>> cache;
+    private final boolean                                   forceEachAppend;
+
+    private RandomAccessFile    file;
+    private FileChannel         channel;
+    private long                discarded;
+    private boolean             unforced;
+
+    /**
+     * Instantiates a new {@link FileHistoryStore}; see {@link #open(File, boolean)}.
+     *
+     * @param log The log file.
+     * @param forceEachAppend {@code true} if every append is forced to the storage device.
+     */
+    private FileHistoryStore(File log, boolean forceEachAppend){
+        this.log                = Preconditions.checkNotNull(log);
+        this.index              = Maps.newLinkedHashMap();
+        this.latest             = Maps.newHashMap();
+        this.amends             = Maps.newHashMap();
+        this.cache              = Maps.newHashMap();
+        this.forceEachAppend    = forceEachAppend;
+    }
+
+    /**
+     * Opens (or creates) a log-backed history store, recovering the log if it was left
+     * incomplete.
+     *
+     * @param log The log file.
+     * @return the store.
+     * @throws IOException if the log cannot be opened.
+     */
+    public static FileHistoryStore open(File log) throws IOException {
+        return open(log, false);
+    }
+
+    /**
+     * Opens (or creates) a log-backed history store, recovering the log if it was left
+     * incomplete.
+     *
+     * @param log The log file.
+     * @param forceEachAppend {@code true} if every append must be forced to the storage
+     *      device before returning; {@code false} if appends are forced on
+     *      {@link #flush()} and {@link #close()} only.
+     * @return the store.
+     * @throws IOException if the log cannot be opened.
+     */
+    public static FileHistoryStore open(File log, boolean forceEachAppend) throws IOException {
+        final FileHistoryStore store = new FileHistoryStore(log, forceEachAppend);
+        store.recover();
+
+        if(store.discarded > store.size() - store.discarded){
+            store.compact();
+        }
+
+        return store;
+    }
+
+    @Override public synchronized void append(Commit commit) {
+        Preconditions.checkNotNull(commit);
+        Preconditions.checkState(channel != null, "history store is closed");
+
+        final String signature = commit.getUniqueSignature();
+
+        try {
+            final long offset = write(encodeCommit(commit, latest(signature)));
+
+            if(!index.containsKey(signature)){
+                index.put(signature, Lists.<Long>newArrayList());
+            }
+
+            index.get(signature).add(offset);
+            latest.put(signature, commit.getSourceAfterChange().getContents());
+
+            final CommitHistory cached = cached(signature);
+            if(cached != null){
+                cached.add(commit);
+            }
+        } catch (IOException e){
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override public synchronized void update(Commit commit) {
+        Preconditions.checkNotNull(commit);
+        Preconditions.checkState(channel != null, "history store is closed");
+
+        // commits are updated once pushed, so finding a commit's offset by decoding its
+        // history costs little next to the push itself.
+        final String       signature = commit.getUniqueSignature();
+        final List<Commit> commits   = index.containsKey(signature)
+                ? decode(signature)
+                : Lists.<Commit>newArrayList();
+
+        int found = -1;
+        for(int idx = commits.size() - 1; idx >= 0 && found < 0; idx--){
+            final Commit each = commits.get(idx);
+            if(each.equals(commit) && each.getTimestamp() == commit.getTimestamp()){
+                found = idx;
+            }
+        }
+
+        Preconditions.checkArgument(found >= 0, "update() received a commit not in this store");
+
+        try {
+            final long offset   = index.get(signature).get(found);
+            final Long previous = amends.put(offset, write(encodeAmend(offset, commit)));
+            if(previous != null){
+                discarded += HEADER_SIZE + readHeader(previous).getInt(0);
+            }
+        } catch (IOException e){
+            throw new RuntimeException(e);
+        }
+
+        // the cached history may hold an equal copy of the commit, rather than the commit
+        final CommitHistory cached = cached(signature);
+        if(cached != null){
+            for(Commit each : cached){
+                if(each != commit && each.equals(commit)
+                        && each.getTimestamp() == commit.getTimestamp()){
+                    final Source after = commit.getSourceAfterChange();
+                    amend(each, commit.getCommitSummary(), after.getId(), after.getVersion());
+                }
+            }
+        }
+    }
+
+    @Override public synchronized boolean contains(String signature) {
+        return index.containsKey(signature);
+    }
+
+    @Override public synchronized CommitHistory get(String signature) {
+        final CommitHistory cached = cached(signature);
+        if(cached != null) return cached;
+
+        if(!index.containsKey(signature)) return new CommitHistory();
+
+        final CommitHistory history = new CommitHistory();
+        for(Commit each : decode(signature)){
+            history.add(each);
+        }
+
+        cache.put(signature, new SoftReference<CommitHistory>(history));
+        return history;
+    }
+
+    @Override public synchronized void replace(String signature, CommitHistory history) {
+        Preconditions.checkNotNull(history);
+        Preconditions.checkState(channel != null, "history store is closed");
+
+        try {
+            if(index.containsKey(signature) || history.isEmpty()){
+                discard(signature);
+
+                final byte[] reset = encodeReset(signature);
+                write(reset);
+                discarded += HEADER_SIZE + reset.length;
+            }
+
+            index.put(signature, Lists.<Long>newArrayList());
+            latest.remove(signature);
+            cache.remove(signature);
+
+            for(Commit each : history){
+                append(each);
+            }
+        } catch (IOException e){
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override public synchronized Set<String> signatures() {
+        return ImmutableSet.copyOf(index.keySet());
+    }
+
+    /**
+     * Rewrites the log, leaving out discarded commits.
+     *
+     * @throws IOException if the log cannot be rewritten.
+     */
+    public synchronized void compact() throws IOException {
+        final File compacted = new File(log.getPath() + ".compact");
+        final FileHistoryStore target = new FileHistoryStore(compacted, false);
+
+        if(compacted.exists() && !compacted.delete()){
+            throw new IOException("unable to delete " + compacted);
+        }
+
+        target.recover();
+        try {
+            for(String each : index.keySet()){
+                target.replace(each, get(each));
+            }
+        } finally {
+            target.close();
+        }
+
+        close();
+
+        if(!log.delete() || !compacted.renameTo(log)){
+            throw new IOException("unable to replace " + log + " with " + compacted);
+        }
+
+        recover();
+    }
+
+    /**
+     * @return the size (in bytes) of the log.
+     */
+    public synchronized long size() {
+        try {
+            return channel == null ? log.length() : channel.size();
+        } catch (IOException e){
+            return log.length();
+        }
+    }
+
+    /**
+     * Forces the appends made so far to the storage device.
+     *
+     * @throws IOException if the log cannot be forced.
+     */
+    public synchronized void flush() throws IOException {
+        if(channel != null && unforced){
+            channel.force(false);
+            unforced = false;
+        }
+    }
+
+    @Override public synchronized void close() throws IOException {
+        flush();
+        channel = null;
+
+        if(file != null){
+            file.close();
+            file = null;
+        }
+    }
+
+    private void recover() throws IOException {
+        index.clear();
+        latest.clear();
+        amends.clear();
+        cache.clear();
+        discarded = 0;
+
+        file    = new RandomAccessFile(log, "rw");
+        channel = file.getChannel();
+
+        final long size     = channel.size();
+        long       position = 0;
+        while(position + HEADER_SIZE <= size){
+            final byte[] payload = read(position);
+            if(payload == null) break;
+
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            final byte   op        = in.readByte();
+            final String signature = readString(in);
+
+            if(op == RESET){
+                discard(signature);
+                index.put(signature, Lists.<Long>newArrayList());
+                discarded += HEADER_SIZE + payload.length;
+            } else if(op == COMMIT){
+                if(!index.containsKey(signature)){
+                    index.put(signature, Lists.<Long>newArrayList());
+                }
+
+                index.get(signature).add(position);
+            } else if(op == AMEND){
+                final Long previous = amends.put(in.readLong(), position);
+                if(previous != null){
+                    discarded += HEADER_SIZE + readHeader(previous).getInt(0);
+                }
+            } else {
+                break;
+            }
+
+            position += HEADER_SIZE + payload.length;
+        }
+
+        if(position < size){
+            LOGGER.warning("Truncating incomplete history log " + log + " at " + position + " bytes");
+            channel.truncate(position);
+            channel.force(true);
+        }
+    }
+
+    private void discard(String signature) throws IOException {
+        final List<Long> offsets = index.get(signature);
+        if(offsets == null) return;
+
+        for(Long each : offsets){
+            discarded += HEADER_SIZE + readHeader(each).getInt(0);
+
+            final Long amendment = amends.remove(each);
+            if(amendment != null){
+                discarded += HEADER_SIZE + readHeader(amendment).getInt(0);
+            }
+        }
+    }
+
+    private CommitHistory cached(String signature){
+        final SoftReference<CommitHistory> reference = cache.get(signature);
+        return reference == null ? null : reference.get();
+    }
+
+    private String latest(String signature){
+        if(!index.containsKey(signature) || index.get(signature).isEmpty()) return "";
+
+        if(!latest.containsKey(signature)){
+            final List<Commit> commits = decode(signature);
+            latest.put(
+                    signature,
+                    commits.get(commits.size() - 1).getSourceAfterChange().getContents()
+            );
+        }
+
+        return latest.get(signature);
+    }
+
+    private List<Commit> decode(String signature){
+        final List<Commit> commits = Lists.newArrayList();
+
+        String base = "";
+        try {
+            for(Long each : index.get(signature)){
+                final byte[] payload = read(each);
+                Preconditions.checkState(payload != null, "corrupted history log " + log);
+
+                final Commit commit = decodeCommit(
+                        new DataInputStream(new ByteArrayInputStream(payload)),
+                        base
+                );
+
+                if(amends.containsKey(each)){
+                    final byte[] amendment = read(amends.get(each));
+                    Preconditions.checkState(amendment != null, "corrupted history log " + log);
+
+                    decodeAmend(
+                            new DataInputStream(new ByteArrayInputStream(amendment)),
+                            commit
+                    );
+                }
+
+                commits.add(commit);
+                base = commit.getSourceAfterChange().getContents();
+            }
+        } catch (IOException e){
+            throw new RuntimeException(e);
+        }
+
+        return commits;
+    }
+
+    private long write(byte[] payload) throws IOException {
+        final CRC32 checksum = new CRC32();
+        checksum.update(payload);
+
+        final ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        record.putInt(payload.length);
+        record.putInt((int) checksum.getValue());
+        record.put(payload);
+        record.flip();
+
+        final long offset = channel.size();
+        long position = offset;
+        while(record.hasRemaining()){
+            position += channel.write(record, position);
+        }
+
+        if(forceEachAppend){
+            channel.force(false);
+        } else {
+            unforced = true;
+        }
+
+        return offset;
+    }
+
+    /**
+     * Reads the payload of the record at a given offset.
+     *
+     * @return the payload, or null if the record is incomplete or corrupted.
+     */
+    private byte[] read(long offset) throws IOException {
+        final long size = channel.size();
+        if(offset + HEADER_SIZE > size) return null;
+
+        final ByteBuffer header   = readHeader(offset);
+        final int        length   = header.getInt(0);
+        final int        expected = header.getInt(4);
+        if(length < 1 || offset + HEADER_SIZE + length > size) return null;
+
+        final ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(payload, offset + HEADER_SIZE);
+
+        final byte[] bytes = payload.array();
+
+        final CRC32 checksum = new CRC32();
+        checksum.update(bytes);
+
+        return ((int) checksum.getValue()) == expected ? bytes : null;
+    }
+
+    private ByteBuffer readHeader(long offset) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(header, offset);
+        return header;
+    }
+
+    /**
+     * Fills a buffer with the log's bytes starting at a given (long) position.
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long at = position;
+        while(buffer.hasRemaining()){
+            final int read = channel.read(buffer, at);
+            if(read < 0) throw new EOFException("unexpected end of history log " + log);
+            at += read;
+        }
+    }
+
+    private static byte[] encodeReset(String signature) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream      out   = new DataOutputStream(bytes);
+
+        out.writeByte(RESET);
+        writeString(out, signature);
+        out.flush();
+
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeCommit(Commit commit, String base) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream      out   = new DataOutputStream(bytes);
+
+        out.writeByte(COMMIT);
+        writeString(out, commit.getUniqueSignature());
+
+        final Name name = commit.getNameOfChange();
+        out.writeByte(name instanceof Smell ? SMELL : REFACTORING);
+        writeString(out, name.getKey());
+        out.writeLong(commit.getTimestamp());
+
+        writeSummary(out, commit.getCommitSummary());
+
+        final Source before = commit.getSourceBeforeChange();
+        final Source after  = commit.getSourceAfterChange();
+        writeSource(out, base, before);
+        writeSource(out, before.getContents(), after);
+        out.flush();
+
+        return bytes.toByteArray();
+    }
+
+    private static Commit decodeCommit(DataInputStream in, String base) throws IOException {
+        in.readByte();
+        final String signature = readString(in);
+
+        final byte   kind = in.readByte();
+        final String key  = readString(in);
+        final Name   name = kind == SMELL ? Smell.from(key) : Refactoring.from(key);
+        final long   timestamp = in.readLong();
+
+        final CommitSummary summary = readSummary(in);
+
+        final Source before = readSource(in, base, signature);
+        final Source after  = readSource(in, before.getContents(), signature);
+
+        return Commit.createValidCommit(name, before, after, timestamp, summary);
+    }
+
+    private static byte[] encodeAmend(long offset, Commit commit) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream      out   = new DataOutputStream(bytes);
+
+        out.writeByte(AMEND);
+        writeString(out, commit.getUniqueSignature());
+        out.writeLong(offset);
+
+        // publishing a commit also tells where its Source went
+        final Source after = commit.getSourceAfterChange();
+        writeSummary(out, commit.getCommitSummary());
+        writeString(out, after.getId());
+        writeString(out, after.getVersion());
+        out.flush();
+
+        return bytes.toByteArray();
+    }
+
+    private static void decodeAmend(DataInputStream in, Commit commit) throws IOException {
+        in.readByte();
+        readString(in);
+        in.readLong();
+
+        final CommitSummary summary = readSummary(in);
+        final String        id      = readString(in);
+        final String        version = readString(in);
+
+        amend(commit, summary, id, version);
+    }
+
+    private static void amend(Commit commit, CommitSummary summary, String id, String version){
+        commit.amendSummary(summary);
+        commit.getSourceAfterChange().setId(id);
+        commit.getSourceAfterChange().setVersion(version);
+    }
+
+    private static void writeSummary(DataOutputStream out, CommitSummary summary) throws IOException {
+        out.writeByte(
+                summary.isSuccess() ? SUCCESS
+                        : summary.isFailure() ? FAILURE
+                        : summary.isCanceled() ? CANCELED
+                        : PENDING
+        );
+        writeString(out, summary.getMessage());
+        writeString(out, summary.getCommitId());
+        writeString(out, summary.getUsername());
+        writeString(out, summary.getUrl());
+        out.writeLong(summary.getCommittedAt() == null ? Long.MIN_VALUE : summary.getCommittedAt().getTime());
+    }
+
+    private static CommitSummary readSummary(DataInputStream in) throws IOException {
+        final byte   status     = in.readByte();
+        final String message    = readString(in);
+        final String id         = readString(in);
+        final String username   = readString(in);
+        final String url        = readString(in);
+        final long   committed  = in.readLong();
+
+        switch (status){
+            case SUCCESS:
+                return CommitSummary.forSuccessfulCommit(
+                        id,
+                        username,
+                        committed == Long.MIN_VALUE ? null : new Date(committed),
+                        url,
+                        message
+                );
+            case FAILURE:   return CommitSummary.forFailedCommit(message);
+            case CANCELED:  return CommitSummary.forCanceledCommit(message);
+            default:        return CommitSummary.forPendingCommit();
+        }
+    }
+
+    private static void writeSource(DataOutputStream out, String base, Source source) throws IOException {
+        writeString(out, source.getName());
+        writeString(out, source.getDescription());
+        writeString(out, source.getId());
+        writeString(out, source.getVersion());
+
+        final String contents = source.getContents();
+        final int    prefix   = commonPrefix(base, contents);
+        final int    suffix   = commonSuffix(base, contents, prefix);
+
+        out.writeInt(prefix);
+        out.writeInt(suffix);
+        writeString(out, contents.substring(prefix, contents.length() - suffix));
+    }
+
+    private static Source readSource(DataInputStream in, String base, String signature) throws IOException {
+        final String name        = readString(in);
+        final String description = readString(in);
+        final String id          = readString(in);
+        final String version     = readString(in);
+
+        final int    prefix   = in.readInt();
+        final int    suffix   = in.readInt();
+        final String inserted = readString(in);
+
+        final Source source = new Source(
+                name,
+                base.substring(0, prefix) + inserted + base.substring(base.length() - suffix),
+                description
+        );
+
+        source.setId(id);
+        source.setSignature(signature);
+        source.setVersion(version);
+
+        return source;
+    }
+
+    private static int commonPrefix(String a, String b){
+        final int limit = Math.min(a.length(), b.length());
+
+        int idx = 0;
+        while(idx < limit && a.charAt(idx) == b.charAt(idx)){
+            idx++;
+        }
+
+        return idx;
+    }
+
+    private static int commonSuffix(String a, String b, int prefix){
+        final int limit = Math.min(a.length(), b.length()) - prefix;
+
+        int idx = 0;
+        while(idx < limit && a.charAt(a.length() - 1 - idx) == b.charAt(b.length() - 1 - idx)){
+            idx++;
+        }
+
+        return idx;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if(value == null){
+            out.writeInt(-1);
+            return;
+        }
+
+        final byte[] bytes = value.getBytes(Charsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if(length < 0) return null;
+
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, Charsets.UTF_8);
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("log", log)
+                .add("histories", index.size())
+                .toString();
+    }
+}
@@ -0,0 +1,196 @@
+package edu.ucsc.refactor.internal;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.Striped;
+import edu.ucsc.refactor.Commit;
+import edu.ucsc.refactor.Source;
+import edu.ucsc.refactor.spi.CommitSummary;
+import edu.ucsc.refactor.spi.RevisionRepository;
+import edu.ucsc.refactor.util.SourceHistory;
+import edu.ucsc.refactor.util.StringUtil;
+import edu.ucsc.refactor.util.UniqueIdentifierGenerator;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.logging.Logger;
+
+/**
+ * A {@link edu.ucsc.refactor.spi.PullableRepository} kept in a local directory; a stand-in for a remote
+ * repository (e.g., {@link Upstream}) that works offline.
+ *
+ * <p>Each Source gets a folder named after its id; each push adds a revision folder, named
+ * after its (1-based) version number, holding the Source's file. Pushes to the same folder
+ * are serialized by the folder's canonical path, so {@code FileRepository}s sharing a
+ * directory (within one JVM) do not hand out the same version twice.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class FileRepository implements RevisionRepository {
+    private static final Logger LOGGER = Logger.getLogger(FileRepository.class.getName());
+
+    private static final FileFilter REVISIONS = new FileFilter() {
+        @Override public boolean accept(File file) {
+            return file.isDirectory() && file.getName().matches("\\d+");
+        }
+    };
+
+    private static final Comparator<File> BY_VERSION = new Comparator<File>() {
+        @Override public int compare(File a, File b) {
+            return Long.valueOf(a.getName()).compareTo(Long.valueOf(b.getName()));
+        }
+    };
+
+    // one lock per canonical Source folder, shared by every FileRepository in this JVM.
+    private static final Striped<Lock> FOLDER_LOCKS = Striped.lazyWeakLock(64);
+
+    private final File      root;
+    private final String    username;
+
+    /**
+     * Construct a new {@code FileRepository}.
+     *
+     * @param root The directory holding the repository.
+     */
+    public FileRepository(File root){
+        this(root, System.getProperty("user.name"));
+    }
+
+    /**
+     * Construct a new {@code FileRepository}.
+     *
+     * @param root The directory holding the repository.
+     * @param username The name recorded as the author of pushed commits.
+     */
+    public FileRepository(File root, String username){
+        this.root       = Preconditions.checkNotNull(root);
+        this.username   = Preconditions.checkNotNull(username);
+    }
+
+    @Override public Commit push(Commit commit) {
+        Preconditions.checkNotNull(commit, "push() received a null commit");
+        try {
+            final Source after    = commit.getSourceAfterChange();
+            final String id       = after.getId() == null
+                    ? UniqueIdentifierGenerator.generateUniqueIdentifier()
+                    : after.getId();
+
+            final File folder = new File(root, id).getCanonicalFile();
+            final Lock lock   = FOLDER_LOCKS.get(folder.getPath());
+
+            final File revision;
+            lock.lock();
+            try {
+                final File[]  pushed  = folder.listFiles(REVISIONS);
+                final String  version = String.valueOf(pushed == null ? 1 : pushed.length + 1);
+
+                revision = new File(new File(folder, version), after.getName());
+                write(revision, after.getContents());
+
+                after.setId(id);
+                after.setVersion(version);
+            } finally {
+                lock.unlock();
+            }
+
+            commit.amendSummary(
+                    CommitSummary.forSuccessfulCommit(
+                            id,
+                            username,
+                            new Date(),
+                            revision.toURI().toString(),
+                            commit.getNameOfChange().getSummary()
+                    )
+            );
+
+        } catch (Throwable ex){
+            commit.amendSummary(
+                    CommitSummary.forFailedCommit(String.valueOf(ex.getMessage()))
+            );
+        }
+
+        return commit;
+    }
+
+    @Override public SourceHistory pull(String historyForId) {
+        final SourceHistory history = new SourceHistory();
+        for(String eachVersion : versions(historyForId)){
+            for(Source each : pull(historyForId, eachVersion)){
+                history.add(each);
+            }
+        }
+
+        return history;
+    }
+
+    @Override public List<String> versions(String historyForId) {
+        Preconditions.checkArgument(!StringUtil.isStringEmpty(historyForId), "invalid source id");
+
+        final File[] revisions = new File(root, historyForId).listFiles(REVISIONS);
+        if(revisions == null) return Lists.newArrayList();
+
+        Arrays.sort(revisions, BY_VERSION);
+
+        final List<String> versions = Lists.newArrayList();
+        for(File each : revisions){
+            versions.add(each.getName());
+        }
+
+        return versions;
+    }
+
+    @Override public SourceHistory pull(String historyForId, String version) {
+        Preconditions.checkArgument(!StringUtil.isStringEmpty(historyForId), "invalid source id");
+
+        final SourceHistory history = new SourceHistory();
+
+        final File[] files = new File(new File(root, historyForId), version).listFiles();
+        if(files == null) return history;
+
+        Arrays.sort(files);
+
+        try {
+            for(File eachFile : files){
+                if(!eachFile.isFile() || eachFile.getName().endsWith(".tmp")) continue;
+
+                final Source src = new Source(
+                        eachFile.getName(),
+                        Files.toString(eachFile, Charsets.UTF_8)
+                );
+
+                src.setId(historyForId);
+                src.setVersion(version);
+                history.add(src);
+            }
+        } catch (IOException ex){
+            LOGGER.throwing("Unable to pull revision", "pull()", ex);
+            return new SourceHistory();
+        }
+
+        return history;
+    }
+
+    /**
+     * Writes a revision's file; the file is written next to its final location and then
+     * moved there, so a revision folder never holds a half-written file.
+     */
+    private static void write(File file, String content) throws IOException {
+        Files.createParentDirs(file);
+
+        final File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        Files.write(content, temp, Charsets.UTF_8);
+        Files.move(temp, file);
+    }
+
+    @Override public String toString() {
+        return "FileRepository(" + root + ")";
+    }
+}
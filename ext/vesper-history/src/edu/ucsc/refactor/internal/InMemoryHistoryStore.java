@@ -0,0 +1,70 @@
+package edu.ucsc.refactor.internal;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import edu.ucsc.refactor.Commit;
+import edu.ucsc.refactor.spi.HistoryStore;
+import edu.ucsc.refactor.util.CommitHistory;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The default {@link HistoryStore}; histories live on the heap and are lost once the
+ * refactorer is gone.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class InMemoryHistoryStore implements HistoryStore {
+    private final Map<String, CommitHistory> timeline;
+
+    /**
+     * Instantiates a new {@link InMemoryHistoryStore}.
+     */
+    public InMemoryHistoryStore(){
+        this.timeline = Maps.newHashMap();
+    }
+
+    @Override public synchronized void append(Commit commit) {
+        final String signature = Preconditions.checkNotNull(commit).getUniqueSignature();
+        if(!timeline.containsKey(signature)){
+            timeline.put(signature, new CommitHistory());
+        }
+
+        timeline.get(signature).add(commit);
+    }
+
+    @Override public synchronized void update(Commit commit) {
+        // the stored commits are the appended ones, so they are already amended
+        Preconditions.checkNotNull(commit);
+    }
+
+    @Override public synchronized boolean contains(String signature) {
+        return timeline.containsKey(signature);
+    }
+
+    @Override public synchronized CommitHistory get(String signature) {
+        final CommitHistory result = timeline.get(signature);
+        return result == null ? new CommitHistory() : result;
+    }
+
+    @Override public synchronized void replace(String signature, CommitHistory history) {
+        timeline.put(Preconditions.checkNotNull(signature), Preconditions.checkNotNull(history));
+    }
+
+    @Override public synchronized Set<String> signatures() {
+        return ImmutableSet.copyOf(timeline.keySet());
+    }
+
+    @Override public synchronized void close() {
+        timeline.clear();
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("histories", signatures().size())
+                .toString();
+    }
+}
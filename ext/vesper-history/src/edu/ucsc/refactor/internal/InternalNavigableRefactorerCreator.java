@@ -1,7 +1,9 @@
 package edu.ucsc.refactor.internal;
 
+import com.google.common.base.Preconditions;
 import edu.ucsc.refactor.Refactorer;
 import edu.ucsc.refactor.Source;
+import edu.ucsc.refactor.spi.HistoryStore;
 import edu.ucsc.refactor.util.StopWatch;
 
 import java.util.ArrayList;
@@ -14,11 +16,38 @@ public class InternalNavigableRefactorerCreator {
     private final List<Source> sources;
     private final Refactorer refactorer;
 
+    private HistoryStore historyStore;
+    private IssueRegistry issueRegistry;
+
     private final StopWatch stopwatch = new StopWatch();
 
     public InternalNavigableRefactorerCreator(Refactorer refactorer){
         this.refactorer = refactorer;
         this.sources    = new ArrayList<Source>();
+        this.historyStore = new InMemoryHistoryStore();
+        this.issueRegistry = new IssueRegistry();
+    }
+
+    /**
+     * Sets the store where the refactorer will keep its commit histories.
+     *
+     * @param historyStore The history store.
+     * @return self
+     */
+    public InternalNavigableRefactorerCreator setHistoryStore(HistoryStore historyStore) {
+        this.historyStore = Preconditions.checkNotNull(historyStore);
+        return this;
+    }
+
+    /**
+     * Sets the registry where the refactorer will keep the issues it detects.
+     *
+     * @param issueRegistry The issue registry.
+     * @return self
+     */
+    public InternalNavigableRefactorerCreator setIssueRegistry(IssueRegistry issueRegistry) {
+        this.issueRegistry = Preconditions.checkNotNull(issueRegistry);
+        return this;
     }
 
     /**
@@ -37,7 +66,11 @@ public class InternalNavigableRefactorerCreator {
 
     public NavigableJavaRefactorer build(){
 
-        final NavigableJavaRefactorer checkpointedJavaRefactorer = new NavigableJavaRefactorer(refactorer);
+        final NavigableJavaRefactorer checkpointedJavaRefactorer = new NavigableJavaRefactorer(
+                refactorer,
+                historyStore,
+                issueRegistry
+        );
 
         for(Source src : sources){
             // detect issues in source file
@@ -0,0 +1,178 @@
+package edu.ucsc.refactor.internal;
+
+import com.google.common.base.Equivalence;
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import edu.ucsc.refactor.Issue;
+import edu.ucsc.refactor.Source;
+import org.eclipse.jdt.core.dom.ASTNode;
+
+import java.util.*;
+
+/**
+ * A bounded registry of the {@link Issue}s found in each version of a {@link Source}.
+ *
+ * <p>Issues hold the {@link ASTNode}s they were found in, and these nodes pin their whole
+ * compilation unit (and its bindings) in memory. The registry therefore bounds what it
+ * keeps: the latest {@code maxVersions} versions of each Source and the
+ * {@code maxSources} most recently used Sources; older entries are evicted, and with them
+ * their compilation units. Within these bounds, issues are kept as they were found, so
+ * asking for them never detects them again.</p>
+ *
+ * <p>Versions are grouped by the Source's unique signature (the same key its commit history
+ * uses); a Source without a signature is a group of its own.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class IssueRegistry {
+    static final int DEFAULT_MAX_SOURCES  = 64;
+    static final int DEFAULT_MAX_VERSIONS = 4;
+
+    private final int maxSources;
+    private final int maxVersions;
+
+    // versions of each Source (oldest first), by signature; least recently used first.
+    private final LeastRecentlyUsed<Object, LinkedHashMap<Source, List<Issue>>> entries;
+
+    /**
+     * Instantiates a new {@link IssueRegistry} with default bounds.
+     */
+    public IssueRegistry(){
+        this(DEFAULT_MAX_SOURCES, DEFAULT_MAX_VERSIONS);
+    }
+
+    /**
+     * Instantiates a new {@link IssueRegistry}.
+     *
+     * @param maxSources The maximum number of Sources to keep.
+     * @param maxVersions The maximum number of versions to keep per Source.
+     */
+    public IssueRegistry(int maxSources, int maxVersions){
+        Preconditions.checkArgument(maxSources > 0, "maxSources must be positive");
+        Preconditions.checkArgument(maxVersions > 0, "maxVersions must be positive");
+
+        this.maxSources  = maxSources;
+        this.maxVersions = maxVersions;
+        this.entries     = new LeastRecentlyUsed<Object, LinkedHashMap<Source, List<Issue>>>(
+                maxSources
+        );
+    }
+
+    /**
+     * Registers the issues found in a Source, replacing the ones registered before.
+     *
+     * @param source The inspected Source.
+     * @param issues The issues found in it.
+     */
+    public synchronized void register(Source source, Iterable<Issue> issues){
+        final LinkedHashMap<Source, List<Issue>> versions = versionsOf(source, true);
+        versions.remove(source);
+        versions.put(source, ImmutableList.copyOf(issues));
+
+        final Iterator<Source> oldest = versions.keySet().iterator();
+        while(versions.size() > maxVersions){
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    /**
+     * Returns the issues registered for a Source.
+     *
+     * @param source The inspected Source.
+     * @return the issues; empty if the Source is not (or no longer) registered.
+     */
+    public synchronized List<Issue> get(Source source){
+        final List<Issue> issues = issuesOf(source);
+        return issues == null ? ImmutableList.<Issue>of() : Lists.newArrayList(issues);
+    }
+
+    /**
+     * Checks whether a Source is registered.
+     *
+     * @param source The Source.
+     * @return {@code true} if it is registered.
+     */
+    public synchronized boolean contains(Source source){
+        return issuesOf(source) != null;
+    }
+
+    /**
+     * Drops the issues registered for a Source.
+     *
+     * @param source The Source.
+     */
+    public synchronized void remove(Source source){
+        final LinkedHashMap<Source, List<Issue>> versions = versionsOf(source, false);
+        if(versions == null) return;
+
+        versions.remove(source);
+        if(versions.isEmpty()){
+            entries.remove(keyOf(source));
+        }
+    }
+
+    /**
+     * @return the registered Sources, least recently used first.
+     */
+    public synchronized List<Source> sources(){
+        final List<Source> result = Lists.newArrayList();
+        for(LinkedHashMap<Source, List<Issue>> each : entries.values()){
+            result.addAll(each.keySet());
+        }
+
+        return result;
+    }
+
+    private List<Issue> issuesOf(Source source){
+        final LinkedHashMap<Source, List<Issue>> versions = versionsOf(source, false);
+        return versions == null ? null : versions.get(source);
+    }
+
+    private LinkedHashMap<Source, List<Issue>> versionsOf(Source source, boolean create){
+        final Object key = keyOf(source);
+
+        LinkedHashMap<Source, List<Issue>> versions = entries.get(key);
+        if(versions == null && create){
+            versions = new LinkedHashMap<Source, List<Issue>>();
+            entries.put(key, versions);
+        }
+
+        return versions;
+    }
+
+    private static Object keyOf(Source source){
+        final Source nonNull = Preconditions.checkNotNull(source);
+        return nonNull.getUniqueSignature() == null
+                ? Equivalence.identity().wrap(nonNull)
+                : nonNull.getUniqueSignature();
+    }
+
+    @Override public synchronized String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("sources", entries.size())
+                .add("maxSources", maxSources)
+                .add("maxVersions", maxVersions)
+                .toString();
+    }
+
+    /**
+     * A map that keeps its {@code maxSize} most recently used entries.
+     */
+    static class LeastRecentlyUsed<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        LeastRecentlyUsed(int maxSize){
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
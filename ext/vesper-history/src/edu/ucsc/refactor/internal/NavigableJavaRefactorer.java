@@ -3,9 +3,9 @@ package edu.ucsc.refactor.internal;
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Maps;
 import edu.ucsc.refactor.*;
 import edu.ucsc.refactor.Commit;
+import edu.ucsc.refactor.spi.HistoryStore;
 import edu.ucsc.refactor.util.CommitHistory;
 import edu.ucsc.refactor.util.CommitPublisher;
 
@@ -19,26 +19,42 @@ public class NavigableJavaRefactorer implements NavigableRefactorer {
     private static final Logger LOGGER = Logger.getLogger(NavigableJavaRefactorer.class.getName());
 
     private final JavaRefactorer                refactorer;
-    private final Map<String, CommitHistory>    timeline;
-    private final Map<Source, List<Issue>>      findings;
+    private final HistoryStore                  timeline;
+    private final IssueRegistry                 findings;
 
     /**
      * Instantiates a new {@link NavigableJavaRefactorer} object.
      * @param refactorer The refactorer without checkpointing.
      */
     NavigableJavaRefactorer(Refactorer refactorer){
+        this(refactorer, new InMemoryHistoryStore());
+    }
+
+    /**
+     * Instantiates a new {@link NavigableJavaRefactorer} object.
+     * @param refactorer The refactorer without checkpointing.
+     * @param timeline The store where commit histories are kept.
+     */
+    NavigableJavaRefactorer(Refactorer refactorer, HistoryStore timeline){
+        this(refactorer, timeline, new IssueRegistry());
+    }
+
+    /**
+     * Instantiates a new {@link NavigableJavaRefactorer} object.
+     * @param refactorer The refactorer without checkpointing.
+     * @param timeline The store where commit histories are kept.
+     * @param findings The registry where detected issues are kept.
+     */
+    NavigableJavaRefactorer(Refactorer refactorer, HistoryStore timeline, IssueRegistry findings){
         this.refactorer     = (JavaRefactorer) refactorer;
-        this.timeline       = Maps.newHashMap();
-        this.findings       = Maps.newHashMap();
+        this.timeline       = Preconditions.checkNotNull(timeline);
+        this.findings       = Preconditions.checkNotNull(findings);
     }
 
     @Override public Source next(Source current) {
-        final CommitHistory history = getCommitHistory(current);
-
-        for(Commit each : history){
-            if(each.getSourceBeforeChange().equals(current)){
-                return each.getSourceAfterChange();
-            }
+        final Commit next = getCommitHistory(current).changedFrom(current);
+        if(next != null){
+            return next.getSourceAfterChange();
         }
 
         // otherwise, there is nothing to next (i.e., current is the latest version)
@@ -60,27 +76,16 @@ public class NavigableJavaRefactorer implements NavigableRefactorer {
     }
 
     @Override public Source checkpoint(Commit commit) {
-        createCommitHistory(commit);
         populateCommitHistory(commit);
         return commit.getSourceAfterChange();
     }
 
 
-    private void createCommitHistory(Commit commit){
-        final Source before = commit.getSourceBeforeChange();
-        if(!timeline.containsKey(before.getUniqueSignature())){  // the signature should have been generated during compilation.
-            this.timeline.put(before.getUniqueSignature(), new CommitHistory());
-        }
-    }
-
-
     @Override public Set<Issue> detectIssues(Source code) {
         final Introspector introspector = Vesper.createIntrospector();
         try {
             final Set<Issue> issues = introspector.detectIssues(code);
-            for(Issue each : issues){
-                registerIssue(code, each);
-            }
+            getIssueRegistry().register(code, issues);
             return issues;
         } catch (RuntimeException ex){
             refactorer.getRefactoringHost().addError(ex);
@@ -88,42 +93,25 @@ public class NavigableJavaRefactorer implements NavigableRefactorer {
         }
     }
 
-    private Issue registerIssue(Source source, Issue issue) {
-        if(getIssueRegistry().containsKey(source)) { this.findings.get(source).add(issue); } else {
-            this.findings.put(source, new ArrayList<Issue>());
-            this.findings.get(source).add(issue);
-        }
-
-        return issue;
-    }
-
-    Map<Source, List<Issue>> getIssueRegistry() {
+    IssueRegistry getIssueRegistry() {
         return findings;
     }
 
 
     @Override public List<Issue> getIssues(Source key) {
-        if(getIssueRegistry().containsKey(key)){
-            return getIssueRegistry().get(key);
-        }
-
-        return Collections.emptyList();
+        return getIssueRegistry().get(Preconditions.checkNotNull(key));
     }
 
     @Override public CommitHistory getCommitHistory(Source src) {
-        final CommitHistory result = timeline.get(Preconditions.checkNotNull(src).getUniqueSignature());
-        if(result == null){
-            return new CommitHistory();
-        }
-
-        return result;
+        return timeline.get(Preconditions.checkNotNull(src).getUniqueSignature());
     }
 
 
     @Override public CommitPublisher getCommitPublisher(Source src) {
         return new CommitPublisher(
                 getCommitHistory(src),
-                refactorer.getRefactoringHost().getStorageKey()
+                refactorer.getRefactoringHost().getStorageKey(),
+                timeline
         );
     }
 
@@ -133,7 +121,7 @@ public class NavigableJavaRefactorer implements NavigableRefactorer {
     }
 
     @Override public List<Source> getSources() {
-        return new ArrayList<Source>(findings.keySet());
+        return getIssueRegistry().sources();
     }
 
 
@@ -141,16 +129,8 @@ public class NavigableJavaRefactorer implements NavigableRefactorer {
         // clear current issue registry for source
         final Source before = commit.getSourceBeforeChange();
         getIssueRegistry().remove(before);
-        findings.remove(before);
-
-        final String key = commit.getUniqueSignature();
-
-        Preconditions.checkState(
-                timeline.containsKey(key),
-                "At this point the Source unique signature should have been recorded."
-        );
 
-        timeline.get(key).add(commit);
+        timeline.append(commit);
     }
 
 
@@ -174,22 +154,18 @@ public class NavigableJavaRefactorer implements NavigableRefactorer {
         }
 
 
-        final CommitHistory sandwiched = entire.slice(first, false, last, false);
-
-        for(Commit each : sandwiched){
+        final Commit pivot = entire.changedInto(from);
 
-            if(each.getSourceAfterChange().equals(from)){
-                final CommitHistory sliced = entire.slice(each);
+        if(pivot != null && !pivot.equals(last)){
+            final CommitHistory sliced = entire.slice(pivot);
 
-                Preconditions.checkArgument(
-                        from.getUniqueSignature().equals(sliced.last().getUniqueSignature()),
-                        "rewriteHistory() is dealing with sources that are not part "
-                                + "of the same change history"
-                );
+            Preconditions.checkArgument(
+                    from.getUniqueSignature().equals(sliced.last().getUniqueSignature()),
+                    "rewriteHistory() is dealing with sources that are not part "
+                            + "of the same change history"
+            );
 
-                return rewritingHistory(from, sliced);
-
-            }
+            return rewritingHistory(from, sliced);
         }
 
         throw new NoSuchElementException("rewriteHistory() was unable to find " + from);
@@ -197,13 +173,10 @@ public class NavigableJavaRefactorer implements NavigableRefactorer {
 
 
     @Override public Source previous(Source current) {
-        final CommitHistory history = getCommitHistory(current);
-
-        for(Commit each : history){
-            if(each.getSourceAfterChange().equals(current)){
-                getIssueRegistry().remove(current);
-                return each.getSourceBeforeChange();
-            }
+        final Commit previous = getCommitHistory(current).changedInto(current);
+        if(previous != null){
+            getIssueRegistry().remove(current);
+            return previous.getSourceBeforeChange();
         }
 
         LOGGER.fine("nothing to rollback!");
@@ -215,10 +188,9 @@ public class NavigableJavaRefactorer implements NavigableRefactorer {
     private Source rewritingHistory(Source from, CommitHistory sliced){
         final String signature = from.getUniqueSignature();
 
-        if(timeline.containsKey(signature)){
+        if(timeline.contains(signature)){
 
-            timeline.remove(signature);
-            timeline.put(signature, sliced);
+            timeline.replace(signature, sliced);
 
             detectIssues(from);
 
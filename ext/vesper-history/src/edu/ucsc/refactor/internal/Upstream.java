@@ -1,16 +1,26 @@
 package edu.ucsc.refactor.internal;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import edu.ucsc.refactor.Commit;
 import edu.ucsc.refactor.Credential;
 import edu.ucsc.refactor.Source;
 import edu.ucsc.refactor.spi.CommitSummary;
 import edu.ucsc.refactor.spi.Name;
-import edu.ucsc.refactor.spi.PullableRepository;
+import edu.ucsc.refactor.spi.RevisionRepository;
 import edu.ucsc.refactor.util.Note;
 import edu.ucsc.refactor.util.Notes;
 import edu.ucsc.refactor.util.SourceHistory;
@@ -22,21 +32,58 @@ import org.eclipse.egit.github.core.GistRevision;
 import org.eclipse.egit.github.core.service.GistService;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Logger;
 
 /**
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
-public class Upstream implements PullableRepository {
+public class Upstream implements RevisionRepository {
     private static final Logger LOGGER = Logger.getLogger(Upstream.class.getName());
 
+    /** Revisions fetched at the same time, across all pulls. */
+    static final int FETCHERS = 4;
+
+    /** Revisions (file names and contents) kept in memory, by version. */
+    static final int CACHED_REVISIONS = 256;
+
+    /** Wait (in milliseconds) for connecting to, or reading from, a revision's url. */
+    static final int FETCH_TIMEOUT = 30000;
+
+    /** Wait (in milliseconds) for all the revisions of a pull. */
+    static final long PULL_TIMEOUT = 120000;
+
+    private static final ListeningExecutorService FETCHING = MoreExecutors.listeningDecorator(
+            Executors.newFixedThreadPool(
+                    FETCHERS,
+                    new ThreadFactoryBuilder()
+                            .setDaemon(true)
+                            .setNameFormat("vesper-upstream-%d")
+                            .build()
+            )
+    );
+
+    // revisions are immutable, so a fetched revision never needs to be fetched again.
+    private static final Cache<String, Map<String, String>> REVISIONS = CacheBuilder.newBuilder()
+            .maximumSize(CACHED_REVISIONS)
+            .build();
+
     private final Credential    credential;
     private final GistService   service;
+    private final long          pullTimeout;
+    private final int           fetchTimeout;
+
+    // the url of each revision listed so far (or the latest ones), by version
+    private final Cache<String, String> revisionUrls;
 
     /**
      * Construct a new {@code Credential} object with the
@@ -55,8 +102,30 @@ public class Upstream implements PullableRepository {
      * @param service The GistService object
      */
     public Upstream(Credential credential, GistService service){
-        this.credential = Preconditions.checkNotNull(credential);
-        this.service    = Preconditions.checkNotNull(service);
+        this(credential, service, PULL_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Construct a new Upstream
+     *
+     * @param credential The storage service key
+     * @param service The GistService object
+     * @param timeout The longest wait for the revisions of a pull; a pull that takes longer
+     *      gives up (and returns an empty history). Connecting to, or reading from, a
+     *      revision's url waits no more than this, nor more than {@value #FETCH_TIMEOUT}
+     *      milliseconds.
+     * @param unit The unit of {@code timeout}.
+     */
+    public Upstream(Credential credential, GistService service, long timeout, TimeUnit unit){
+        Preconditions.checkArgument(timeout > 0, "timeout must be positive");
+
+        this.credential     = Preconditions.checkNotNull(credential);
+        this.service        = Preconditions.checkNotNull(service);
+        this.pullTimeout    = unit.toMillis(timeout);
+        this.fetchTimeout   = (int) Math.max(1, Math.min(pullTimeout, FETCH_TIMEOUT));
+        this.revisionUrls   = CacheBuilder.newBuilder()
+                .maximumSize(CACHED_REVISIONS)
+                .build();
 
         if("None".equals(credential.getUsername())){
             service.getClient().setCredentials(credential.getUsername(), credential.getPassword());
@@ -110,12 +179,17 @@ public class Upstream implements PullableRepository {
             final Gist gist = service.getGist(historyForId);
             final List<GistRevision> revisions = gist.getHistory();
 
-            final SourceHistory history = new SourceHistory();
-
+            final List<ListenableFuture<Map<String, String>>> fetches = Lists.newArrayList();
             for(GistRevision revision : revisions){
-                addSourceFromUrl(history, historyForId, revision.getVersion(), revision.getUrl());
+                fetches.add(fetch(revision.getVersion(), revision.getUrl(), fetchTimeout));
             }
 
+            final List<Map<String, String>> fetched = await(Futures.allAsList(fetches));
+
+            final SourceHistory history = new SourceHistory();
+            for(int idx = 0; idx < revisions.size(); idx++){
+                addSources(history, historyForId, revisions.get(idx).getVersion(), fetched.get(idx));
+            }
 
             return history;
 
@@ -126,44 +200,139 @@ public class Upstream implements PullableRepository {
     }
 
 
-    // Read from a URL and return the content in a String
-    public static void addSourceFromUrl(SourceHistory history, String sourceId, String version, String urlString) throws IOException {
-        String jsonContent = readUrlContent(urlString);
+    @Override public List<String> versions(String historyForId) {
+        try {
+            Preconditions.checkArgument(!StringUtil.isStringEmpty(historyForId), "invalid source id");
 
-        final JsonElement jsonElement           = new JsonParser().parse(jsonContent);
-        final JsonObject  elementAsJsonObject   = jsonElement.getAsJsonObject();
-        final JsonObject  fileObject            = elementAsJsonObject.get("files").getAsJsonObject();
+            final List<String> versions = Lists.newArrayList();
+            for(GistRevision revision : service.getGist(historyForId).getHistory()){
+                versions.add(revision.getVersion());
+                if(revision.getVersion() != null && revision.getUrl() != null){
+                    revisionUrls.put(revision.getVersion(), revision.getUrl());
+                }
+            }
 
-        for(Map.Entry<String, JsonElement> each : fileObject.entrySet()){
+            return versions;
+        } catch (Throwable ex){
+            LOGGER.throwing("Unable to list versions", "versions()", ex);
+            return Collections.emptyList();
+        }
+    }
 
-            final String     fileName   = each.getKey();
-            final JsonObject eachFile   = fileObject.get(fileName).getAsJsonObject();
+    @Override public SourceHistory pull(String historyForId, String version) {
+        try {
+            if(revisionUrls.getIfPresent(Preconditions.checkNotNull(version)) == null){
+                versions(historyForId);
+            }
 
-            if(eachFile.has("content")){
-                // todo(Huascar) there must be some process that will finish the updating of
-                // these retrieved sources (e.g., adding their comments.
-                final Source src = new Source(fileName, eachFile.get("content").getAsString());
-                src.setId(sourceId);
-                src.setVersion(version);
-                history.add(src);
+            final SourceHistory history = new SourceHistory();
+            final String        url     = revisionUrls.getIfPresent(version);
+            if(url != null){
+                addSources(history, historyForId, version, await(fetch(version, url, fetchTimeout)));
             }
+
+            return history;
+        } catch (Throwable ex){
+            LOGGER.throwing("Unable to pull revision", "pull()", ex);
+            return new SourceHistory();
         }
     }
 
 
-    private static String readUrlContent(String urlString) throws IOException {
-        final URL     url  = new URL(urlString);
-        final Scanner scan = new Scanner(url.openStream());
+    // Read from a URL and add its files to the history
+    public static void addSourceFromUrl(SourceHistory history, String sourceId, String version, String urlString) throws IOException {
+        addSources(history, sourceId, version, readRevision(urlString, FETCH_TIMEOUT));
+    }
 
-        String content = "";
+    /**
+     * Waits (no more than this upstream's pull timeout) for fetched revisions; on timeout,
+     * the fetches are cancelled, so they do not hold the fetching pool any longer.
+     */
+    private <T> T await(ListenableFuture<T> fetched) throws Exception {
+        try {
+            return fetched.get(pullTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex){
+            fetched.cancel(true);
+            throw ex;
+        }
+    }
 
-        while (scan.hasNext()){
-            content += scan.nextLine();
+    private static void addSources(SourceHistory history, String sourceId, String version, Map<String, String> files){
+        for(Map.Entry<String, String> each : files.entrySet()){
+            // todo(Huascar) there must be some process that will finish the updating of
+            // these retrieved sources (e.g., adding their comments.
+            final Source src = new Source(each.getKey(), each.getValue());
+            src.setId(sourceId);
+            src.setVersion(version);
+            history.add(src);
         }
+    }
+
+    /**
+     * Fetches a revision on the fetching pool, unless it has been fetched before.
+     */
+    private static ListenableFuture<Map<String, String>> fetch(final String version,
+            final String urlString, final int timeout){
+        final Map<String, String> cached = version == null ? null : REVISIONS.getIfPresent(version);
+        if(cached != null) return Futures.immediateFuture(cached);
+
+        return FETCHING.submit(new Callable<Map<String, String>>() {
+            @Override public Map<String, String> call() throws IOException {
+                final Map<String, String> files = readRevision(urlString, timeout);
+                if(version != null){
+                    REVISIONS.put(version, files);
+                }
 
-        scan.close();
+                return files;
+            }
+        });
+    }
+
+    /**
+     * Reads the files of a revision, streaming through its JSON payload and keeping only
+     * the name and content of each file. Connecting and each read wait no more than
+     * {@code timeout} milliseconds.
+     */
+    static Map<String, String> readRevision(String urlString, int timeout) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(urlString).openConnection();
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
+
+        final Map<String, String> files  = Maps.newLinkedHashMap();
+        final JsonReader          reader = new JsonReader(
+                new InputStreamReader(connection.getInputStream(), Charsets.UTF_8)
+        );
+
+        try {
+            reader.beginObject();
+            while(reader.hasNext()){
+                if(!"files".equals(reader.nextName())){
+                    reader.skipValue();
+                    continue;
+                }
+
+                reader.beginObject();
+                while(reader.hasNext()){
+                    final String fileName = reader.nextName();
+
+                    reader.beginObject();
+                    while(reader.hasNext()){
+                        if("content".equals(reader.nextName()) && reader.peek() == JsonToken.STRING){
+                            files.put(fileName, reader.nextString());
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                }
+                reader.endObject();
+            }
+            reader.endObject();
+        } finally {
+            reader.close();
+        }
 
-        return content;
+        return ImmutableMap.copyOf(files);
     }
 
     private static void sync(Source src, Gist gist) throws IOException {
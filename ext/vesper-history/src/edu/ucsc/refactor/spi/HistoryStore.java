@@ -0,0 +1,69 @@
+package edu.ucsc.refactor.spi;
+
+import edu.ucsc.refactor.Commit;
+import edu.ucsc.refactor.util.CommitHistory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Stores the {@link CommitHistory} of every {@link edu.ucsc.refactor.Source} a
+ * {@link edu.ucsc.refactor.NavigableRefactorer} checkpoints, keyed by the Source's
+ * {@link edu.ucsc.refactor.Source#getUniqueSignature() unique signature}.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public interface HistoryStore extends Closeable {
+    /**
+     * Appends a commit to the history of the Source it changed.
+     *
+     * @param commit The commit to append.
+     */
+    void append(Commit commit);
+
+    /**
+     * Records the amended summary of a commit in this store; e.g., once the commit has been
+     * published (see {@link Commit#amendSummary(CommitSummary)}).
+     *
+     * @param commit The amended commit; already in the history of the Source it changed.
+     * @throws IllegalArgumentException if the commit is not in this store.
+     */
+    void update(Commit commit);
+
+    /**
+     * Checks whether this store holds a history for a Source.
+     *
+     * @param signature The Source's unique signature.
+     * @return {@code true} if there is a history for the Source.
+     */
+    boolean contains(String signature);
+
+    /**
+     * Returns the history of a Source.
+     *
+     * @param signature The Source's unique signature.
+     * @return The Source's history, or an empty history if there is none.
+     */
+    CommitHistory get(String signature);
+
+    /**
+     * Replaces the history of a Source; e.g., after the history has been rewritten.
+     *
+     * @param signature The Source's unique signature.
+     * @param history The new history.
+     */
+    void replace(String signature, CommitHistory history);
+
+    /**
+     * @return the signatures of the Sources with a history in this store.
+     */
+    Set<String> signatures();
+
+    /**
+     * Releases the resources held by this store.
+     *
+     * @throws IOException if the store cannot be closed.
+     */
+    @Override void close() throws IOException;
+}
@@ -0,0 +1,31 @@
+package edu.ucsc.refactor.spi;
+
+import edu.ucsc.refactor.util.SourceHistory;
+
+import java.util.List;
+
+/**
+ * A {@link PullableRepository} that can list the revisions of a {@code Source} and pull them
+ * one at a time, so callers that already hold some revisions (e.g., in a
+ * {@link edu.ucsc.refactor.util.RevisionCache}) only pull the missing ones.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public interface RevisionRepository extends PullableRepository {
+    /**
+     * Lists the versions of a {@code Source}.
+     *
+     * @param historyForId The source Id
+     * @return The versions of the Source, in the order {@link #pull(String)} returns them.
+     */
+    List<String> versions(String historyForId);
+
+    /**
+     * Pulls a single revision of some {@code Source}.
+     *
+     * @param historyForId The source Id
+     * @param version The version to pull.
+     * @return The Source (or Sources) of that revision.
+     */
+    SourceHistory pull(String historyForId, String version);
+}
@@ -2,9 +2,13 @@ package edu.ucsc.refactor.util;
 
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Iterables;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
 import edu.ucsc.refactor.Commit;
+import edu.ucsc.refactor.Source;
 
 import java.util.Iterator;
 import java.util.NavigableSet;
@@ -12,10 +16,17 @@ import java.util.NoSuchElementException;
 import java.util.TreeSet;
 
 /**
+ * The ordered commits of a {@link Source}. Besides their order, commits are indexed by the
+ * {@link Source#getContentDigest() content digest} of the {@code Source} they changed and
+ * of the {@code Source} they produced, so
+ * finding the commit that leads to (or away from) a version does not walk the history.
+ *
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class CommitHistory implements Iterable<Commit> {
-    private final TreeSet<Commit> storage;
+    private final TreeSet<Commit>               storage;
+    private final ListMultimap<HashCode, Commit> changedFrom;
+    private final ListMultimap<HashCode, Commit> changedInto;
 
     /**
      * Creates a commit history
@@ -29,7 +40,9 @@ public class CommitHistory implements Iterable<Commit> {
      * @param head ThE HEAD checkpoint.
      */
     public CommitHistory(Commit head){
-        this.storage  = Sets.newTreeSet();
+        this.storage        = Sets.newTreeSet();
+        this.changedFrom    = ArrayListMultimap.create();
+        this.changedInto    = ArrayListMultimap.create();
         if(head != null){
             add(head);
         }
@@ -49,7 +62,72 @@ public class CommitHistory implements Iterable<Commit> {
             );
         }
 
-        return storage.add(commit);
+        if(!storage.add(commit)) return false;
+
+        // a commit changing what its predecessor produced rebuilds that version from it,
+        // rather than holding it.
+        commit.chainTo(storage.lower(commit));
+
+        final Commit next = storage.higher(commit);
+        if(next != null) next.chainTo(commit);
+
+        changedFrom.put(commit.getSourceBeforeChange().getContentDigest(), commit);
+        changedInto.put(commit.getSourceAfterChange().getContentDigest(), commit);
+        return true;
+    }
+
+    /**
+     * Finds the commit that changed a given version of a {@code Source}.
+     *
+     * @param before The version of the {@code Source} before the change.
+     * @return the earliest commit that changed {@code before}, or null if there is none.
+     */
+    public Commit changedFrom(Source before){
+        Commit result = null;
+        for(Commit each : changedFrom.get(Preconditions.checkNotNull(before).getContentDigest())){
+            if(each.getSourceBeforeChange().equals(before) && (result == null || each.compareTo(result) < 0)){
+                result = each;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds the commit that produced a given version of a {@code Source}.
+     *
+     * @param after The version of the {@code Source} after the change.
+     * @return the earliest commit that produced {@code after}, or null if there is none.
+     */
+    public Commit changedInto(Source after){
+        Commit result = null;
+        for(Commit each : changedInto.get(Preconditions.checkNotNull(after).getContentDigest())){
+            if(each.getSourceAfterChange().equals(after) && (result == null || each.compareTo(result) < 0)){
+                result = each;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the commit that follows a given commit.
+     *
+     * @param commit The commit.
+     * @return the next commit, or null if {@code commit} is the last one.
+     */
+    public Commit next(Commit commit){
+        return storage.higher(Preconditions.checkNotNull(commit));
+    }
+
+    /**
+     * Returns the commit that precedes a given commit.
+     *
+     * @param commit The commit.
+     * @return the previous commit, or null if {@code commit} is the first one.
+     */
+    public Commit previous(Commit commit){
+        return storage.lower(Preconditions.checkNotNull(commit));
     }
 
 
@@ -75,6 +153,8 @@ public class CommitHistory implements Iterable<Commit> {
      */
     public void clear(){
         this.storage.clear();
+        this.changedFrom.clear();
+        this.changedInto.clear();
     }
 
     /**
@@ -150,7 +230,11 @@ public class CommitHistory implements Iterable<Commit> {
             );
         }
 
-        return storage.remove(commit);
+        if(!storage.remove(commit)) return false;
+
+        changedFrom.remove(commit.getSourceBeforeChange().getContentDigest(), commit);
+        changedInto.remove(commit.getSourceAfterChange().getContentDigest(), commit);
+        return true;
     }
 
 
@@ -169,7 +253,7 @@ public class CommitHistory implements Iterable<Commit> {
             );
         }
 
-        return Iterables.get(this, 0);
+        return storage.first();
     }
 
     /**
@@ -181,7 +265,7 @@ public class CommitHistory implements Iterable<Commit> {
     }
 
     @Override public Iterator<Commit> iterator() {
-        return storage.iterator();
+        return Iterators.unmodifiableIterator(storage.iterator());
     }
 
 
@@ -200,7 +284,7 @@ public class CommitHistory implements Iterable<Commit> {
             );
         }
 
-        return Iterables.getLast(this);
+        return storage.last();
     }
 
     /**
@@ -1,21 +1,46 @@
 package edu.ucsc.refactor.util;
 
+import com.google.common.base.Function;
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.*;
 import edu.ucsc.refactor.Commit;
 import edu.ucsc.refactor.Credential;
+import edu.ucsc.refactor.internal.InMemoryHistoryStore;
 import edu.ucsc.refactor.internal.Upstream;
+import edu.ucsc.refactor.spi.HistoryStore;
 import edu.ucsc.refactor.spi.Repository;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 /**
+ * Publishes the commits of a {@link CommitHistory} to a {@link Repository}, either one commit
+ * at a time ({@link #publish(Repository)}) or asynchronously
+ * ({@link #publishAsync(Repository, ListeningExecutorService)}). The amended summaries of
+ * the published commits are recorded in the {@link HistoryStore} the history came from.
+ *
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class CommitPublisher {
+    private static final Logger LOGGER = Logger.getLogger(CommitPublisher.class.getName());
+
+    /** Attempts made to push a revision before giving up on it. */
+    static final int    MAX_ATTEMPTS    = 3;
+    /** Wait (in milliseconds) before the first retry; it doubles on every further retry. */
+    static final long   INITIAL_BACKOFF = 100;
 
     private final CommitHistory history;
     private final Credential    credential;
+    private final HistoryStore  store;
 
     /**
      * Creates a new {@code CommitPublisher}.
@@ -30,8 +55,19 @@ public class CommitPublisher {
      * @param credential The appropriate credentials to publish to some remote repository.
      */
     public CommitPublisher(CommitHistory history, Credential credential){
+        this(history, credential, new InMemoryHistoryStore());
+    }
+
+    /**
+     * Creates a new {@code CommitPublisher}.
+     * @param history The commit history of some {@code Source}.
+     * @param credential The appropriate credentials to publish to some remote repository.
+     * @param store The store the history came from.
+     */
+    public CommitPublisher(CommitHistory history, Credential credential, HistoryStore store){
         this.history    = Preconditions.checkNotNull(history);
         this.credential = Preconditions.checkNotNull(credential);
+        this.store      = Preconditions.checkNotNull(store);
     }
 
     /**
@@ -86,8 +122,159 @@ public class CommitPublisher {
      * @throws java.lang.IllegalStateException if the commit has already been remotely committed.
      */
     public Commit publish(Commit localCommit, Repository upstream){
-        return Preconditions.checkNotNull(upstream).push(
+        final Commit pushed = Preconditions.checkNotNull(upstream).push(
                 Preconditions.checkNotNull(localCommit)
         );
+
+        store.update(pushed);
+        return pushed;
+    }
+
+    /**
+     * Publishes local commits asynchronously. Consecutive commits of the same {@code Source}
+     * are squashed into one revision: only the latest of them is pushed, and the others take
+     * its summary. Revisions are pushed on the given executor; revisions of the same
+     * {@code Source} are pushed in order, and revisions of different Sources concurrently.
+     * A failed push is retried (up to {@value #MAX_ATTEMPTS} attempts), waiting longer
+     * before each retry. If a revision still cannot be pushed, the later revisions of its
+     * {@code Source} are not pushed, and the returned future fails with the revision's last
+     * failure.
+     *
+     * @param to The repository.
+     * @param executor The executor that pushes revisions; see
+     *      {@link #newPublishingExecutor(int, int)}.
+     * @return The future list of published commits (the ones to be deleted).
+     */
+    public ListenableFuture<List<Commit>> publishAsync(final Repository to,
+            final ListeningExecutorService executor){
+        Preconditions.checkNotNull(to);
+        Preconditions.checkNotNull(executor);
+
+        final List<ListenableFuture<List<Commit>>>        pushes   = Lists.newArrayList();
+        final Map<String, ListenableFuture<List<Commit>>> previous = Maps.newHashMap();
+
+        for(List<Commit> eachRevision : squash(history)){
+            final RevisionPush push      = new RevisionPush(eachRevision, to);
+            final String       signature = eachRevision.get(0).getUniqueSignature();
+            final ListenableFuture<List<Commit>> before = previous.get(signature);
+
+            final ListenableFuture<List<Commit>> pushed = before == null
+                    ? executor.submit(push)
+                    : Futures.transform(before, new AsyncFunction<List<Commit>, List<Commit>>() {
+                        @Override public ListenableFuture<List<Commit>> apply(List<Commit> ignored) {
+                            return executor.submit(push);
+                        }
+                    });
+
+            previous.put(signature, pushed);
+            pushes.add(pushed);
+        }
+
+        return Futures.transform(
+                Futures.allAsList(pushes),
+                new Function<List<List<Commit>>, List<Commit>>() {
+                    @Override public List<Commit> apply(List<List<Commit>> revisions) {
+                        final ImmutableList.Builder<Commit> published = ImmutableList.builder();
+                        for(List<Commit> each : revisions){
+                            published.addAll(each);
+                        }
+
+                        return published.build();
+                    }
+                }
+        );
+    }
+
+    /**
+     * Creates a bounded executor for {@link #publishAsync(Repository, ListeningExecutorService)}.
+     * Once all its threads are busy and its queue is full, the thread submitting a push runs it
+     * itself, which throttles the submission of further pushes.
+     *
+     * @param threads The number of pushing threads.
+     * @param capacity The number of pushes that can wait for a thread.
+     * @return a new executor.
+     */
+    public static ListeningExecutorService newPublishingExecutor(int threads, int capacity){
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(capacity),
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+
+        executor.allowCoreThreadTimeOut(true);
+        return MoreExecutors.listeningDecorator(executor);
+    }
+
+    /**
+     * Groups consecutive commits of the same {@code Source} into revisions.
+     */
+    static List<List<Commit>> squash(Iterable<Commit> commits){
+        final List<List<Commit>> revisions = Lists.newArrayList();
+
+        List<Commit> current = null;
+        for(Commit each : commits){
+            if(current == null || !Objects.equal(
+                    current.get(0).getUniqueSignature(),
+                    each.getUniqueSignature())){
+
+                current = Lists.newArrayList();
+                revisions.add(current);
+            }
+
+            current.add(each);
+        }
+
+        return revisions;
+    }
+
+    /**
+     * Pushes the latest commit of a revision, retrying with exponential backoff.
+     */
+    private class RevisionPush implements Callable<List<Commit>> {
+        final List<Commit>  revision;
+        final Repository    to;
+
+        RevisionPush(List<Commit> revision, Repository to){
+            this.revision   = revision;
+            this.to         = to;
+        }
+
+        @Override public List<Commit> call() throws InterruptedException {
+            final Commit latest = revision.get(revision.size() - 1);
+
+            long backoff = INITIAL_BACKOFF;
+            for(int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++){
+                RuntimeException failure;
+                try {
+                    if(publish(latest, to).isValidCommit()) break;
+
+                    failure = new IllegalStateException(
+                            "unable to push " + latest.getNameOfChange().getKey() + ": "
+                                    + latest.getCommitSummary().getMessage()
+                    );
+                } catch (RuntimeException ex){
+                    failure = ex;
+                }
+
+                LOGGER.fine("unable to push " + latest + ": " + failure.getMessage());
+
+                if(attempt == MAX_ATTEMPTS) throw failure;
+
+                Thread.sleep(backoff);
+                backoff *= 2;
+            }
+
+            for(Commit each : revision){
+                if(each != latest){
+                    each.amendSummary(latest.getCommitSummary());
+                    store.update(each);
+                }
+            }
+
+            return ImmutableList.copyOf(revision);
+        }
     }
 }
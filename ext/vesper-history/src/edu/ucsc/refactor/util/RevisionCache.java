@@ -0,0 +1,233 @@
+package edu.ucsc.refactor.util;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.io.BaseEncoding;
+import com.google.common.io.Files;
+import edu.ucsc.refactor.Source;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * An on-disk cache of pulled revisions, keyed by source id and version. Pulled revisions
+ * never change, so a cached revision never has to be pulled again.
+ *
+ * <p>Contents are stored once per distinct content (files are named after their
+ * {@link Source#getContentDigest() digest}), and each revision records the name and digest
+ * of its files. The cache is bounded by the total size of its files, contents and revision
+ * entries alike: once it grows past its bound, the least recently used files are evicted.
+ * A revision whose entry, or any of whose contents, was evicted becomes a miss.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class RevisionCache {
+    private static final Logger LOGGER = Logger.getLogger(RevisionCache.class.getName());
+
+    private static final BaseEncoding NAMES = BaseEncoding.base32Hex().omitPadding();
+
+    private final File                  objects;
+    private final File                  revisions;
+    private final long                  maxBytes;
+    private final LinkedHashMap<File, Long> usage;
+
+    private long size;
+
+    /**
+     * Opens (or creates) a revision cache.
+     *
+     * @param directory The directory holding the cache.
+     * @param maxBytes The maximum size (in bytes) of the cached contents.
+     */
+    public RevisionCache(File directory, long maxBytes){
+        Preconditions.checkArgument(maxBytes > 0, "maxBytes must be positive");
+
+        this.objects    = new File(Preconditions.checkNotNull(directory), "objects");
+        this.revisions  = new File(directory, "revisions");
+        this.maxBytes   = maxBytes;
+        this.usage      = new LinkedHashMap<File, Long>(16, 0.75f, true);
+        this.size       = 0;
+
+        load();
+    }
+
+    /**
+     * Returns the Sources of a cached revision.
+     *
+     * @param sourceId The source id.
+     * @param version The revision's version.
+     * @return The Sources, or null if the revision is not cached.
+     */
+    public synchronized List<Source> get(String sourceId, String version){
+        final File entry = entryOf(sourceId, version);
+        if(!entry.isFile()) return null;
+
+        try {
+            final List<Source> result = Lists.newArrayList();
+            for(String each : Files.readLines(entry, Charsets.UTF_8)){
+                final int    tab    = each.lastIndexOf('\t');
+                final String digest = each.substring(tab + 1);
+                final File   object = objectOf(digest);
+
+                if(!object.isFile()){  // evicted, so the entry is of no use anymore
+                    delete(entry);
+                    return null;
+                }
+
+                touch(object);
+
+                final Source src = new Source(each.substring(0, tab), Files.toString(object, Charsets.UTF_8));
+                src.setId(sourceId);
+                src.setVersion(version);
+                result.add(src);
+            }
+
+            touch(entry);
+            return result;
+        } catch (IOException e){
+            LOGGER.warning("Unable to read cached revision " + version + " of " + sourceId);
+            return null;
+        }
+    }
+
+    /**
+     * Caches the Sources of a revision.
+     *
+     * @param sourceId The source id.
+     * @param version The revision's version.
+     * @param sources The Sources of the revision.
+     */
+    public synchronized void put(String sourceId, String version, Iterable<Source> sources){
+        final StringBuilder entry = new StringBuilder();
+
+        try {
+            for(Source each : sources){
+                final String digest = each.getContentDigest().toString();
+                final File   object = objectOf(digest);
+
+                if(!object.isFile()){
+                    write(object, each.getContents());
+                }
+
+                touch(object);
+                entry.append(each.getName()).append('\t').append(digest).append('\n');
+            }
+
+            final File file = entryOf(sourceId, version);
+            write(file, entry.toString());
+            touch(file);
+        } catch (IOException e){
+            LOGGER.warning("Unable to cache revision " + version + " of " + sourceId);
+        }
+
+        evict();
+    }
+
+    /**
+     * @return the size (in bytes) of the cached files.
+     */
+    public synchronized long size(){
+        return size;
+    }
+
+    private void load(){
+        final List<File> stored = Lists.newArrayList();
+        addFiles(stored, objects.listFiles());
+
+        final File[] sourceIds = revisions.listFiles();
+        if(sourceIds != null){
+            for(File each : sourceIds){
+                addFiles(stored, each.listFiles());
+            }
+        }
+
+        Collections.sort(stored, new Comparator<File>() {
+            @Override public int compare(File a, File b) {
+                return Long.valueOf(a.lastModified()).compareTo(b.lastModified());
+            }
+        });
+
+        for(File each : stored){
+            if(each.getName().endsWith(".tmp")){
+                if(!each.delete()) each.deleteOnExit();
+                continue;
+            }
+
+            usage.put(each, each.length());
+            size += each.length();
+        }
+
+        evict();
+    }
+
+    private static void addFiles(List<File> to, File[] files){
+        if(files == null) return;
+
+        for(File each : files){
+            if(each.isFile()) to.add(each);
+        }
+    }
+
+    private void touch(File file){
+        final Long length   = file.length();
+        final Long previous = usage.put(file, length);
+        size += length - (previous == null ? 0 : previous);
+
+        if(!file.setLastModified(System.currentTimeMillis())){
+            LOGGER.fine("Unable to record use of " + file);
+        }
+    }
+
+    private void evict(){
+        final Iterator<Map.Entry<File, Long>> eldest = usage.entrySet().iterator();
+        while(size > maxBytes && eldest.hasNext()){
+            final Map.Entry<File, Long> each = eldest.next();
+
+            // a file that cannot be deleted stays tracked (and counted).
+            if(each.getKey().delete() || !each.getKey().exists()){
+                eldest.remove();
+                size -= each.getValue();
+            }
+        }
+    }
+
+    private void delete(File file){
+        final Long length = usage.get(file);
+        if(file.delete() || !file.exists()){
+            usage.remove(file);
+            if(length != null) size -= length;
+        }
+    }
+
+    private File objectOf(String digest){
+        return new File(objects, digest);
+    }
+
+    private File entryOf(String sourceId, String version){
+        return new File(new File(revisions, encode(sourceId)), encode(version));
+    }
+
+    private static String encode(String name){
+        return NAMES.encode(Preconditions.checkNotNull(name).getBytes(Charsets.UTF_8));
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.createParentDirs(file);
+
+        final File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        Files.write(content, temp, Charsets.UTF_8);
+        Files.move(temp, file);
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("contents", usage.size())
+                .add("size", size)
+                .add("maxBytes", maxBytes)
+                .toString();
+    }
+}
@@ -12,6 +12,8 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
         CommitHistorySuite.class,
+        HistoryStoreTest.class,
+        UpstreamTest.class,
         NavigableRefactorerTest.class,
         NavigableVesperTest.class
 
@@ -0,0 +1,150 @@
+package edu.ucsc.refactor;
+
+import edu.ucsc.refactor.internal.FileHistoryStore;
+import edu.ucsc.refactor.spi.CommitSummary;
+import edu.ucsc.refactor.spi.HistoryStore;
+import edu.ucsc.refactor.spi.Refactoring;
+import edu.ucsc.refactor.util.CommitHistory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Date;
+import java.util.Iterator;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class HistoryStoreTest {
+    static final String NAME = "Name.java";
+
+    static final String[] VERSIONS = {
+            "import java.util.List; \nclass Name {\n\tvoid boom(String msg){}\n}",
+            "import java.util.List; \nclass Name {\n\tvoid boom(){}\n}",
+            "class Name {\n\tvoid boom(){}\n}",
+            "class Name {\n\tvoid baam(){}\n}",
+            "class Name {\n}"
+    };
+
+    private File log;
+
+    @Before public void setUp() throws Exception {
+        log = File.createTempFile("history", ".log");
+        log.deleteOnExit();
+    }
+
+    @After public void tearDown() throws Exception {
+        if(!log.delete()) log.deleteOnExit();
+    }
+
+    @Test public void testHistorySurvivesReopening() throws Exception {
+        final CommitHistory expected = makeHistory("signature");
+
+        final HistoryStore store = NavigableVesper.openHistoryStore(log);
+        for(Commit each : expected){
+            store.append(each);
+        }
+        store.close();
+
+        final HistoryStore reopened = NavigableVesper.openHistoryStore(log);
+        try {
+            assertThat(reopened.contains("signature"), is(true));
+            assertSameHistory(expected, reopened.get("signature"));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test public void testIncompleteRecordIsTruncated() throws Exception {
+        final CommitHistory expected = makeHistory("signature");
+
+        final HistoryStore store = NavigableVesper.openHistoryStore(log);
+        for(Commit each : expected){
+            store.append(each);
+        }
+        store.close();
+
+        final long intact = log.length();
+
+        final FileOutputStream out = new FileOutputStream(log, true);
+        try {
+            out.write(new byte[]{0, 0, 1, 0, 42, 42, 42, 42, 1, 2, 3});
+        } finally {
+            out.close();
+        }
+
+        final HistoryStore recovered = NavigableVesper.openHistoryStore(log);
+        try {
+            assertThat(log.length(), is(intact));
+            assertSameHistory(expected, recovered.get("signature"));
+        } finally {
+            recovered.close();
+        }
+    }
+
+    @Test public void testCompactionDropsRewrittenCommits() throws Exception {
+        final CommitHistory entire = makeHistory("signature");
+
+        final FileHistoryStore store = FileHistoryStore.open(log);
+        try {
+            for(Commit each : entire){
+                store.append(each);
+            }
+
+            final CommitHistory sliced = entire.slice();
+            store.replace("signature", sliced);
+
+            final long before = store.size();
+            store.compact();
+
+            assertThat(store.size() < before, is(true));
+            assertSameHistory(sliced, store.get("signature"));
+        } finally {
+            store.close();
+        }
+    }
+
+
+    private static CommitHistory makeHistory(String signature){
+        final CommitHistory history = new CommitHistory();
+
+        for(int idx = 1; idx < VERSIONS.length; idx++){
+            final Source before = new Source(NAME, VERSIONS[idx - 1]);
+            final Source after  = new Source(NAME, VERSIONS[idx]);
+            before.setSignature(signature);
+            after.setSignature(signature);
+
+            history.add(
+                    Commit.createValidCommit(
+                            Refactoring.DELETE_PARAMETER,
+                            before,
+                            after,
+                            idx,
+                            CommitSummary.forSuccessfulCommit("user", new Date(idx), "commit " + idx)
+                    )
+            );
+        }
+
+        return history;
+    }
+
+    private static void assertSameHistory(CommitHistory expected, CommitHistory actual){
+        assertThat(actual.size(), is(expected.size()));
+
+        final Iterator<Commit> actualCommits = actual.iterator();
+        for(Commit each : expected){
+            final Commit other = actualCommits.next();
+            assertEquals(each, other);
+            assertThat(other.getTimestamp(), is(each.getTimestamp()));
+            assertThat(other.getUniqueSignature(), is(each.getUniqueSignature()));
+            assertThat(other.getCommitSummary().isSuccess(), is(true));
+            assertThat(other.getCommitSummary().getMessage(), is(each.getCommitSummary().getMessage()));
+        }
+    }
+}
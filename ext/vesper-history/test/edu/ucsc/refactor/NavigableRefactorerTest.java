@@ -1,10 +1,14 @@
 package edu.ucsc.refactor;
 
+import edu.ucsc.refactor.internal.InMemoryHistoryStore;
+import edu.ucsc.refactor.internal.IssueRegistry;
 import edu.ucsc.refactor.util.CommitHistory;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.core.IsNull.notNullValue;
@@ -76,6 +80,74 @@ public class NavigableRefactorerTest {
         assertThat(history.size(), is(2));
     }
 
+    @Test public void testRewriteHistoryAtFirstCommit(){
+        final NavigableRefactorer refactorer = NavigableVesper.createNavigableRefactorer(SRC);
+        final List<Issue> issues = refactorer.getIssues(SRC);
+
+        testNavigableRefactorerGivenSomeDetectedIssues(refactorer, issues, true);
+
+        final CommitHistory history = refactorer.getCommitHistory(SRC);
+        assertThat(history.size(), is(2));
+
+        final Source pivot = history.first().getSourceAfterChange();
+        assertSame(refactorer.rewriteHistory(pivot), pivot);
+
+        final CommitHistory rewritten = refactorer.getCommitHistory(SRC);
+        assertThat(rewritten.size(), is(1));
+        assertEquals(pivot, rewritten.last().getSourceAfterChange());
+    }
+
+    @Test public void testBoundedIssueRegistry(){
+        final Source other = new Source("Other.java", CONTENT.replace("Preconditions", "Other"));
+
+        final NavigableRefactorer refactorer = NavigableVesper.createNavigableRefactorer(
+                Vesper.createRefactorer(),
+                new InMemoryHistoryStore(),
+                1,
+                1,
+                SRC,
+                other
+        );
+
+        assertThat(refactorer.getSources().size(), is(1));
+        assertSame(refactorer.getSources().get(0), other);
+        assertThat(refactorer.hasIssues(SRC), is(false));
+        assertThat(refactorer.hasIssues(other), is(true));
+    }
+
+    @Test public void testIssueRegistryKeepsLatestVersions(){
+        final IssueRegistry registry = new IssueRegistry(4, 2);
+        final Set<Issue>    issues   = Vesper.createIntrospector().detectIssues(SRC);
+
+        final Source second = new Source(NAME, CONTENT + "\n");
+        final Source third  = new Source(NAME, CONTENT + "\n\n");
+        second.setSignature(SRC.getUniqueSignature());
+        third.setSignature(SRC.getUniqueSignature());
+
+        registry.register(SRC, issues);
+        registry.register(second, issues);
+        registry.register(third, issues);
+
+        assertThat(registry.contains(SRC), is(false));
+        assertThat(registry.contains(second), is(true));
+        assertThat(registry.contains(third), is(true));
+        assertThat(registry.get(third).size(), is(issues.size()));
+    }
+
+    @Test public void testIssueRegistryKeepsUnsignedSourcesApart(){
+        final IssueRegistry registry = new IssueRegistry(4, 2);
+        final Source        first    = new Source(NAME, CONTENT);
+        final Source        second   = new Source(NAME, CONTENT);
+        final Set<Issue>    issues   = Vesper.createIntrospector().detectIssues(first);
+
+        registry.register(first, issues);
+        registry.register(second, Collections.<Issue>emptySet());
+
+        assertThat(registry.sources().size(), is(2));
+        assertThat(registry.get(first).size(), is(issues.size()));
+        assertThat(registry.get(first).containsAll(issues), is(true));
+        assertThat(registry.get(second).isEmpty(), is(true));
+    }
 
     private void testNavigableRefactorerGivenSomeDetectedIssues(NavigableRefactorer refactorer, List<Issue> issues, boolean applyChanges){
         assertThat(issues.isEmpty(), is(false));
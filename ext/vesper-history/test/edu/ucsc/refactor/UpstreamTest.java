@@ -0,0 +1,157 @@
+package edu.ucsc.refactor;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import edu.ucsc.refactor.internal.Upstream;
+import edu.ucsc.refactor.util.SourceHistory;
+import org.eclipse.egit.github.core.Gist;
+import org.eclipse.egit.github.core.GistRevision;
+import org.eclipse.egit.github.core.service.GistService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class UpstreamTest {
+    static final String[] CONTENTS = {
+            "class Name {\n\tvoid boom(String msg){}\n}",
+            "class Name {\n\tvoid boom(){}\n}",
+            "class Name {\n\t// \"quoted\" é\n}"
+    };
+
+    private HttpServer      server;
+    private AtomicInteger   requests;
+    private String          prefix;
+
+    @Before public void setUp() throws Exception {
+        requests = new AtomicInteger();
+        prefix   = UUID.randomUUID().toString();
+        server   = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/revisions/", new HttpHandler() {
+            @Override public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+
+                final String path  = exchange.getRequestURI().getPath();
+                final int    index = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+                final byte[] body  = revisionJson(CONTENTS[index]).getBytes(Charsets.UTF_8);
+
+                exchange.sendResponseHeaders(200, body.length);
+                final OutputStream out = exchange.getResponseBody();
+                try {
+                    out.write(body);
+                } finally {
+                    out.close();
+                }
+            }
+        });
+
+        server.start();
+    }
+
+    @After public void tearDown() throws Exception {
+        server.stop(0);
+    }
+
+    @Test public void testPullStreamsAndCachesRevisions() throws Exception {
+        final Upstream upstream = new Upstream(Credential.none(), new LocalGistService());
+
+        final SourceHistory first = upstream.pull("1234");
+        assertThat(first.size(), is(CONTENTS.length));
+        assertThat(requests.get(), is(CONTENTS.length));
+
+        final Iterator<Source> sources = first.iterator();
+        for(int idx = 0; idx < CONTENTS.length; idx++){
+            final Source each = sources.next();
+            assertEquals(CONTENTS[idx], each.getContents());
+            assertEquals("Name.java", each.getName());
+            assertEquals("1234", each.getId());
+            assertEquals(prefix + idx, each.getVersion());
+        }
+
+        final SourceHistory second = upstream.pull("1234");
+        assertThat(second.size(), is(CONTENTS.length));
+        assertThat(requests.get(), is(CONTENTS.length));
+    }
+
+    @Test public void testPullGivesUpOnHungRevisions() throws Exception {
+        final CountDownLatch released = new CountDownLatch(1);
+        server.createContext("/hung/", new HttpHandler() {
+            @Override public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    released.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored){
+                    Thread.currentThread().interrupt();
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+
+        final Upstream upstream = new Upstream(
+                Credential.none(), new LocalGistService("/hung/"), 200, TimeUnit.MILLISECONDS
+        );
+
+        try {
+            final long start = System.nanoTime();
+            assertThat(upstream.pull("1234").isEmpty(), is(true));
+            assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 5, is(true));
+        } finally {
+            released.countDown();
+        }
+    }
+
+    static String revisionJson(String content){
+        return "{\"id\":\"1234\",\"public\":false,\"history\":[{\"version\":\"x\"}],"
+                + "\"files\":{\"Name.java\":{\"filename\":\"Name.java\",\"size\":" + content.length()
+                + ",\"truncated\":false,\"content\":\"" + content
+                        .replace("\\", "\\\\")
+                        .replace("\"", "\\\"")
+                        .replace("\n", "\\n")
+                        .replace("\t", "\\t")
+                + "\"}},\"comments\":0}";
+    }
+
+    class LocalGistService extends GistService {
+        final String path;
+
+        LocalGistService(){
+            this("/revisions/");
+        }
+
+        LocalGistService(String path){
+            this.path = path;
+        }
+
+        @Override public Gist getGist(String id) throws IOException {
+            final List<GistRevision> history = Lists.newArrayList();
+            for(int idx = 0; idx < CONTENTS.length; idx++){
+                history.add(
+                        new GistRevision()
+                                .setVersion(prefix + idx)
+                                .setUrl("http://localhost:" + server.getAddress().getPort() + path + idx)
+                );
+            }
+
+            return new Gist().setId(id).setHistory(history);
+        }
+    }
+}
@@ -10,7 +10,9 @@ import org.junit.runners.Suite;
  */
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-        CommitHistoryTest.class
+        CommitHistoryTest.class,
+        CommitPublisherTest.class,
+        RevisionCacheTest.class
 })
 public class CommitHistorySuite {
     public static Test suite() {
@@ -103,6 +103,44 @@ public class CommitHistoryTest {
 
     }
 
+    @Test public void testNavigateHistory() throws Exception {
+        final Commit c1 = createCheckpoint(Refactoring.DELETE_PARAMETER, BEFORE, AFTER);
+        final Commit c2 = createCheckpoint(Refactoring.DELETE_UNUSED_IMPORTS, AFTER, WAY_AFTER);
+        final Commit c3 = createCheckpoint(Refactoring.RENAME_METHOD, WAY_AFTER, WAY_WAY_AFTER);
+
+        final CommitHistory history = new CommitHistory(c1);
+        history.add(c2);
+        history.add(c3);
+
+        assertEquals(c1, history.first());
+        assertEquals(c3, history.last());
+
+        assertEquals(c2, history.changedFrom(AFTER));
+        assertEquals(c2, history.changedInto(WAY_AFTER));
+        assertEquals(c3, history.next(c2));
+        assertEquals(c1, history.previous(c2));
+
+        assertThat(history.changedFrom(WAY_WAY_AFTER) == null, is(true));
+        assertThat(history.changedInto(BEFORE) == null, is(true));
+        assertThat(history.next(c3) == null, is(true));
+
+        history.delete(c2);
+        assertThat(history.changedFrom(AFTER) == null, is(true));
+        assertEquals(c3, history.next(c1));
+    }
+
+    @Test public void testCommitKeepsMetadataOfSourceAfterChange() throws Exception {
+        final Source before = new Source(NAME, CONTENT);
+        final Source after  = new Source(NAME, CONTENT_PRIME);
+        final Commit commit = createCheckpoint(Refactoring.DELETE_PARAMETER, before, after);
+
+        assertEquals(after, commit.getSourceAfterChange());
+
+        commit.getSourceAfterChange().setId("1234");
+        commit.getSourceAfterChange().setVersion("2");
+        assertThat(after.getId(), is("1234"));
+        assertThat(after.getVersion(), is("2"));
+    }
 
     private static Commit createCheckpoint(Refactoring refactoring, Source before, Source after){
        return Commit.createValidCommit(
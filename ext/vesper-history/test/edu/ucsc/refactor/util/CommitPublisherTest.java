@@ -0,0 +1,219 @@
+package edu.ucsc.refactor.util;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.Files;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import edu.ucsc.refactor.Commit;
+import edu.ucsc.refactor.Credential;
+import edu.ucsc.refactor.Source;
+import edu.ucsc.refactor.internal.FileHistoryStore;
+import edu.ucsc.refactor.internal.FileRepository;
+import edu.ucsc.refactor.spi.CommitSummary;
+import edu.ucsc.refactor.spi.Refactoring;
+import edu.ucsc.refactor.spi.Repository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class CommitPublisherTest {
+    static final String NAME = "Name.java";
+
+    static final String[] VERSIONS = {
+            "import java.util.List; \nclass Name {\n\tvoid boom(String msg){}\n}",
+            "import java.util.List; \nclass Name {\n\tvoid boom(){}\n}",
+            "class Name {\n\tvoid boom(){}\n}",
+            "class Name {\n}"
+    };
+
+    private File                        root;
+    private ListeningExecutorService    executor;
+
+    @Before public void setUp() throws Exception {
+        root     = Files.createTempDir();
+        executor = CommitPublisher.newPublishingExecutor(2, 4);
+    }
+
+    @After public void tearDown() throws Exception {
+        executor.shutdownNow();
+        deleteRecursively(root);
+    }
+
+    @Test public void testPublishSquashesCommitsOfSameSource() throws Exception {
+        final CommitHistory   history    = makeHistory();
+        final FileRepository  repository = new FileRepository(root, "lala");
+
+        final List<Commit> published = new CommitPublisher(history, Credential.none())
+                .publishAsync(repository, executor)
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(published.size(), is(history.size()));
+
+        final String id = history.last().getSourceAfterChange().getId();
+        for(Commit each : published){
+            assertThat(each.isValidCommit(), is(true));
+            assertEquals(id, each.getCommitSummary().getCommitId());
+        }
+
+        final SourceHistory pulled = repository.pull(id);
+        assertThat(pulled.size(), is(1));
+        assertEquals(VERSIONS[VERSIONS.length - 1], pulled.iterator().next().getContents());
+    }
+
+    @Test public void testPublishedSummariesSurviveReopeningTheStore() throws Exception {
+        final File             log   = new File(root, "history.log");
+        final FileHistoryStore store = FileHistoryStore.open(log);
+        for(Commit each : makeHistory()){
+            store.append(each);
+        }
+
+        final FileRepository repository = new FileRepository(new File(root, "repository"), "lala");
+        new CommitPublisher(store.get("signature"), Credential.none(), store)
+                .publishAsync(repository, executor)
+                .get(10, TimeUnit.SECONDS);
+
+        store.close();
+
+        final FileHistoryStore reopened = FileHistoryStore.open(log);
+        try {
+            final CommitHistory history = reopened.get("signature");
+            final String        id      = history.last().getSourceAfterChange().getId();
+            assertThat(id != null, is(true));
+
+            for(Commit each : history){
+                assertThat(each.getCommitSummary().isSuccess(), is(true));
+                assertEquals(id, each.getCommitSummary().getCommitId());
+                assertThat(each.getCommitSummary().getUrl() != null, is(true));
+            }
+
+            assertThat(repository.pull(id).size(), is(1));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test public void testPublishRetriesFailedPushes() throws Exception {
+        final AtomicInteger  attempts   = new AtomicInteger();
+        final FileRepository delegate   = new FileRepository(root, "lala");
+        final Repository     flaky      = new Repository() {
+            @Override public Commit push(Commit commit) {
+                if(attempts.incrementAndGet() == 1){
+                    throw new RuntimeException("connection reset");
+                }
+
+                return delegate.push(commit);
+            }
+        };
+
+        final List<Commit> published = new CommitPublisher(makeHistory(), Credential.none())
+                .publishAsync(flaky, executor)
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(attempts.get(), is(2));
+        assertThat(published.size(), is(VERSIONS.length - 1));
+    }
+
+    @Test public void testPublishFailsOnceRetriesAreExhausted() throws Exception {
+        final AtomicInteger  attempts   = new AtomicInteger();
+        final Repository     down       = new Repository() {
+            @Override public Commit push(Commit commit) {
+                attempts.incrementAndGet();
+                throw new RuntimeException("connection refused");
+            }
+        };
+
+        try {
+            new CommitPublisher(makeHistory(), Credential.none())
+                    .publishAsync(down, executor)
+                    .get(10, TimeUnit.SECONDS);
+            fail("publishAsync() should have failed");
+        } catch (ExecutionException expected){
+            assertThat(expected.getCause().getMessage(), is("connection refused"));
+        }
+
+        assertThat(attempts.get(), is(CommitPublisher.MAX_ATTEMPTS));
+    }
+
+    @Test public void testRepositoriesSharingADirectoryHandOutDistinctVersions() throws Exception {
+        final FileRepository first  = new FileRepository(root, "lala");
+        final FileRepository second = new FileRepository(new File(root, "."), "lala");
+
+        final List<Commit> commits = Lists.newArrayList(makeHistory());
+        for(Commit each : commits){
+            each.getSourceAfterChange().setId("shared");
+        }
+
+        final List<ListenableFuture<Commit>> pushes = Lists.newArrayList();
+        for(int idx = 0; idx < commits.size(); idx++){
+            final Commit         commit = commits.get(idx);
+            final FileRepository to     = idx % 2 == 0 ? first : second;
+            pushes.add(executor.submit(new Callable<Commit>() {
+                @Override public Commit call() throws Exception {
+                    return to.push(commit);
+                }
+            }));
+        }
+
+        Futures.allAsList(pushes).get(10, TimeUnit.SECONDS);
+
+        assertThat(first.versions("shared").size(), is(commits.size()));
+    }
+
+    @Test public void testSquashGroupsConsecutiveCommits() throws Exception {
+        final CommitHistory history = makeHistory();
+        assertThat(CommitPublisher.squash(history).size(), is(1));
+        assertThat(CommitPublisher.squash(new CommitHistory()).isEmpty(), is(true));
+    }
+
+
+    private static CommitHistory makeHistory(){
+        final CommitHistory history = new CommitHistory();
+
+        for(int idx = 1; idx < VERSIONS.length; idx++){
+            final Source before = new Source(NAME, VERSIONS[idx - 1]);
+            final Source after  = new Source(NAME, VERSIONS[idx]);
+            before.setSignature("signature");
+            after.setSignature("signature");
+
+            history.add(
+                    Commit.createValidCommit(
+                            Refactoring.DELETE_PARAMETER,
+                            before,
+                            after,
+                            idx,
+                            CommitSummary.forSuccessfulCommit("user", new Date(idx), "commit " + idx)
+                    )
+            );
+        }
+
+        return history;
+    }
+
+    private static void deleteRecursively(File file){
+        final File[] children = file.listFiles();
+        if(children != null){
+            for(File each : children){
+                deleteRecursively(each);
+            }
+        }
+
+        if(!file.delete()) file.deleteOnExit();
+    }
+}
@@ -0,0 +1,179 @@
+package edu.ucsc.refactor.util;
+
+import com.google.common.io.Files;
+import edu.ucsc.refactor.Commit;
+import edu.ucsc.refactor.Source;
+import edu.ucsc.refactor.SourceRecalling;
+import edu.ucsc.refactor.internal.FileRepository;
+import edu.ucsc.refactor.spi.CommitSummary;
+import edu.ucsc.refactor.spi.Refactoring;
+import edu.ucsc.refactor.spi.RevisionRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class RevisionCacheTest {
+    static final String NAME = "Name.java";
+
+    static final String[] VERSIONS = {
+            "import java.util.List; \nclass Name {\n\tvoid boom(String msg){}\n}",
+            "import java.util.List; \nclass Name {\n\tvoid boom(){}\n}",
+            "class Name {\n\tvoid boom(){}\n}",
+            "class Name {\n}"
+    };
+
+    private File root;
+
+    @Before public void setUp() throws Exception {
+        root = Files.createTempDir();
+    }
+
+    @After public void tearDown() throws Exception {
+        deleteRecursively(root);
+    }
+
+    @Test public void testCachedRevisionSurvivesReopening() throws Exception {
+        final File cached = new File(root, "cache");
+
+        new RevisionCache(cached, 1024).put("abc", "v1", Arrays.asList(new Source(NAME, VERSIONS[0])));
+
+        final List<Source> sources = new RevisionCache(cached, 1024).get("abc", "v1");
+        assertThat(sources, notNullValue());
+        assertThat(sources.size(), is(1));
+        assertEquals(NAME, sources.get(0).getName());
+        assertEquals(VERSIONS[0], sources.get(0).getContents());
+        assertEquals("abc", sources.get(0).getId());
+        assertEquals("v1", sources.get(0).getVersion());
+    }
+
+    @Test public void testLeastRecentlyUsedRevisionIsEvicted() throws Exception {
+        final long          bound = fileSize(VERSIONS[0]) + fileSize(VERSIONS[1]);
+        final RevisionCache cache = new RevisionCache(new File(root, "cache"), bound);
+
+        cache.put("abc", "1", Arrays.asList(new Source(NAME, VERSIONS[0])));
+        cache.put("abc", "2", Arrays.asList(new Source(NAME, VERSIONS[1])));
+        assertThat(cache.get("abc", "1"), notNullValue());
+
+        cache.put("abc", "3", Arrays.asList(new Source(NAME, VERSIONS[2])));
+
+        assertThat(cache.get("abc", "2"), nullValue());
+        assertThat(cache.get("abc", "1"), notNullValue());
+        assertThat(cache.get("abc", "3"), notNullValue());
+        assertThat(cache.size() <= bound, is(true));
+    }
+
+    @Test public void testEntriesCountTowardsTheBound() throws Exception {
+        final File          directory = new File(root, "cache");
+        final RevisionCache cache     = new RevisionCache(directory, fileSize(VERSIONS[0]) * 2);
+
+        // every revision shares the same contents; only their entries pile up.
+        for(int idx = 0; idx < 16; idx++){
+            cache.put("abc", String.valueOf(idx), Arrays.asList(new Source(NAME, VERSIONS[0])));
+        }
+
+        assertThat(cache.size() <= fileSize(VERSIONS[0]) * 2, is(true));
+        assertThat(cache.get("abc", "0"), nullValue());
+        assertThat(cache.get("abc", "15"), notNullValue());
+
+        final RevisionCache reopened = new RevisionCache(directory, fileSize(VERSIONS[0]) * 2);
+        assertThat(reopened.size(), is(cache.size()));
+    }
+
+    @Test public void testRecallOnlyPullsNewRevisions() throws Exception {
+        final FileRepository  repository = new FileRepository(new File(root, "repository"), "lala");
+        final CountingPulls   counting   = new CountingPulls(repository);
+        final String          id         = push(repository, null, VERSIONS[0], VERSIONS[1]);
+
+        final SourceRecalling recalling  = new SourceRecalling(
+                counting, id, new RevisionCache(new File(root, "cache"), 1024 * 1024)
+        );
+
+        assertThat(recalling.recall().size(), is(1));
+        assertThat(counting.pulls.get(), is(1));
+
+        push(repository, id, VERSIONS[1], VERSIONS[2]);
+
+        final SourceHistory history = recalling.recall();
+        assertThat(history.size(), is(2));
+        assertThat(counting.pulls.get(), is(2));
+
+        assertThat(recalling.recall().size(), is(2));
+        assertThat(counting.pulls.get(), is(2));
+    }
+
+
+    // the size of a content plus the size of the entry of a one-file revision holding it
+    private static long fileSize(String content){
+        final Source source = new Source(NAME, content);
+        return content.length() + (NAME + "\t" + source.getContentDigest() + "\n").length();
+    }
+
+    private static String push(FileRepository repository, String id, String before, String after){
+        final Source from = new Source(NAME, before);
+        final Source to   = new Source(NAME, after);
+        to.setId(id);
+
+        final Commit commit = Commit.createValidCommit(
+                Refactoring.DELETE_PARAMETER,
+                from,
+                to,
+                1,
+                CommitSummary.forSuccessfulCommit("user", new Date(), "commit")
+        );
+
+        repository.push(commit);
+        return to.getId();
+    }
+
+    private static void deleteRecursively(File file){
+        final File[] children = file.listFiles();
+        if(children != null){
+            for(File each : children){
+                deleteRecursively(each);
+            }
+        }
+
+        if(!file.delete()) file.deleteOnExit();
+    }
+
+    static class CountingPulls implements RevisionRepository {
+        final RevisionRepository delegate;
+        final AtomicInteger      pulls = new AtomicInteger();
+
+        CountingPulls(RevisionRepository delegate){
+            this.delegate = delegate;
+        }
+
+        @Override public List<String> versions(String historyForId) {
+            return delegate.versions(historyForId);
+        }
+
+        @Override public SourceHistory pull(String historyForId, String version) {
+            pulls.incrementAndGet();
+            return delegate.pull(historyForId, version);
+        }
+
+        @Override public SourceHistory pull(String historyForId) {
+            return delegate.pull(historyForId);
+        }
+
+        @Override public Commit push(Commit commit) {
+            return delegate.push(commit);
+        }
+    }
+}
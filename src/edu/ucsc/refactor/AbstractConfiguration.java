@@ -6,6 +6,7 @@ import edu.ucsc.refactor.internal.changers.*;
 import edu.ucsc.refactor.internal.detectors.*;
 import edu.ucsc.refactor.spi.IssueDetector;
 import edu.ucsc.refactor.spi.JavaSnippetParser;
+import edu.ucsc.refactor.spi.Metrics;
 import edu.ucsc.refactor.spi.SourceChanger;
 
 /**
@@ -19,6 +20,7 @@ import edu.ucsc.refactor.spi.SourceChanger;
  * public class MyConfiguration extends AbstractConfiguration {
  *   protected void configure() {
  *     addJavaParser(new MyJavaParser());
+ *     addClasspathEntry("lib/some-library.jar");
  *     addIssueDetector(new MyDetector());
  *     ...and many more
  *     addSourceChanger(new MySourceAmender());
@@ -98,6 +100,13 @@ public abstract class AbstractConfiguration implements Configuration {
         this.host.addCredentials(credential);
     }
 
+    /**
+     * @see {@link Host#addMetrics(Metrics)}
+     */
+    protected void addMetrics(Metrics metrics){
+        this.host.addMetrics(metrics);
+    }
+
     /**
      * @see {@link Host#addJavaParser(JavaSnippetParser)}
      */
@@ -105,6 +114,20 @@ public abstract class AbstractConfiguration implements Configuration {
         this.host.addJavaParser(parser);
     }
 
+    /**
+     * @see {@link Host#addClasspathEntry(String)}
+     */
+    protected void addClasspathEntry(String entry){
+        this.host.addClasspathEntry(entry);
+    }
+
+    /**
+     * @see {@link Host#addSourcepathEntry(String)}
+     */
+    protected void addSourcepathEntry(String entry){
+        this.host.addSourcepathEntry(entry);
+    }
+
     /**
      * @see {@link Host#addIssueDetector(IssueDetector)}}
      */
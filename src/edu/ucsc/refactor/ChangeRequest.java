@@ -1,8 +1,8 @@
 package edu.ucsc.refactor;
 
+import com.google.common.collect.ImmutableMap;
 import edu.ucsc.refactor.util.Parameters;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -11,11 +11,12 @@ import java.util.Map;
 public class ChangeRequest {
 
     /**
-     * Default parameters used during refactoring actions.
+     * Default parameters used during refactoring actions. This map is immutable and shared
+     * by all requests; changers merge their own defaults into a copy of it.
      * // todo fill it out with default names or settings, developers should be able
      * // to rename them once they have understood the changes.
      */
-    static final Map<String, Parameter> DEFAULT_PARAMETERS = new HashMap<String, Parameter>();
+    static final Map<String, Parameter> DEFAULT_PARAMETERS = ImmutableMap.of();
 
     private final Cause                     cause;
     private final SourceSelection           selection;
@@ -27,13 +28,16 @@ public class ChangeRequest {
      *
      * @param cause The reason why this request was made.
      * @param selection The code area selected by the user.
-     * @param parameters The change-supporting data, e.g., new name (in rename refactoring)
+     * @param parameters The change-supporting data, e.g., new name (in rename refactoring);
+     *                   the request keeps an immutable copy of it.
      */
     public ChangeRequest(Cause cause, SourceSelection selection,
                          Map<String, Parameter> parameters){
         this.cause      = cause;
         this.selection  = selection;
-        this.parameters = parameters;
+        this.parameters = (parameters == null
+                ? DEFAULT_PARAMETERS
+                : ImmutableMap.copyOf(parameters));
     }
 
 
@@ -326,7 +330,7 @@ public class ChangeRequest {
     /**
      * Returns the change-supporting data, usually provided by the user.
      *
-     * @return The supporting data or change parameters.
+     * @return The (immutable) supporting data or change parameters.
      */
     public Map<String, Parameter> getParameters(){
         return parameters;
@@ -17,6 +17,8 @@ public class Clip {
     private final boolean       isBase;
     private final String        methodName;
 
+    private final ClipSlicer.Slice slice;
+
     /**
      * Represents a method and its dependencies, followed by a label and its
      * support value. The latter parameter will be used for ranking purposes.
@@ -27,10 +29,25 @@ public class Clip {
      * @param isBase Indicates this clip is the base clip.
      */
     Clip(String methodName, String label, Source content, boolean isBase){
+        this(methodName, label, content, isBase, null);
+    }
+
+    /**
+     * Represents a method and its dependencies, derived from a base code example.
+     *
+     * @param methodName The name of method that is the root of this clip
+     * @param label The name of core method
+     * @param content The code example.
+     * @param isBase Indicates this clip is the base clip.
+     * @param slice The declarations (of the base code example) this clip keeps; null
+     *              if unknown.
+     */
+    Clip(String methodName, String label, Source content, boolean isBase, ClipSlicer.Slice slice){
         this.methodName = methodName;
         this.isBase     = isBase;
         this.label      = Preconditions.checkNotNull(label);
         this.content    = Preconditions.checkNotNull(content);
+        this.slice      = slice;
     }
 
     /**
@@ -58,6 +75,26 @@ public class Clip {
         return new Clip(methodName, label, content, isBase);
     }
 
+    /**
+     * Factory method that creates a clip object out of a declaration slice of a base
+     * code example.
+     *
+     * @param methodName The name of method that is the root of this clip
+     * @param label The name of the core method.
+     * @param slice The declarations this clip keeps.
+     * @param isBase Indicates this clip is the base clip.
+     * @return a new Clip object.
+     */
+    static Clip makeClip(String methodName, String label, ClipSlicer.Slice slice, boolean isBase){
+        return new Clip(
+                methodName,
+                label,
+                slice.getSlicer().materialize(slice),
+                isBase,
+                slice
+        );
+    }
+
     /**
      * Finds the clip matching a code key in a sorted clip space.
      * @param code the search key
@@ -106,6 +143,10 @@ public class Clip {
      * @return the patched Clip
      */
     public static Clip sync(Introspector introspector, Clip original, Clip revised){
+        if(isSliceOfSameBase(original, revised)){
+            return syncSlices(original, revised);
+        }
+
         try {
             final Diff diff = introspector.differences(original.getSource(), revised.getSource());
             return makeClip(revised.getMethodName(),
@@ -119,6 +160,34 @@ public class Clip {
         }
     }
 
+    private static boolean isSliceOfSameBase(Clip original, Clip revised){
+        final ClipSlicer.Slice a = original.getSlice();
+        final ClipSlicer.Slice b = revised.getSlice();
+
+        return a != null && b != null
+                && a.getSlicer() == b.getSlicer()
+                && a.unit == b.unit;
+    }
+
+    /**
+     * Patches clips derived from the same base code example by working on their
+     * declaration sets rather than on their lines: the patched clip slices the base
+     * with the revised clip's declarations.
+     */
+    private static Clip syncSlices(Clip original, Clip revised){
+        final ClipSlicer.Slice slice = original.getSlice().getSlicer().slice(
+                original.getSlice(),
+                revised.getSlice().declarations
+        );
+
+        return makeClip(
+                revised.getMethodName(),
+                original.getLabel() + " U " + revised.getLabel(),
+                slice,
+                false
+        );
+    }
+
     /**
      * Unwinds the differences between code examples (forward fashion); starting
      * at the clip after the base.
@@ -177,6 +246,14 @@ public class Clip {
         return this.content;
     }
 
+    /**
+     * @return the declarations (of the base code example) this clip keeps; null if this
+     *      clip was not derived from a base code example.
+     */
+    ClipSlicer.Slice getSlice(){
+        return this.slice;
+    }
+
     /**
      * @return true if this is a base clip; false otherwise.
      */
@@ -0,0 +1,362 @@
+package edu.ucsc.refactor;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import edu.ucsc.refactor.internal.SourceLocation;
+import edu.ucsc.refactor.internal.changers.ClipSelection;
+import edu.ucsc.refactor.internal.util.AstUtil;
+import edu.ucsc.refactor.internal.visitors.ImportsReferencesVisitor;
+import edu.ucsc.refactor.util.StringUtil;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.*;
+import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.text.edits.*;
+
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Derives the clips of a multi stage code example from the parsed base {@link Source}. A
+ * clip is described by its declaration slice (the binding keys of the methods, fields and
+ * member types it keeps), and it is materialized by removing everything else from the
+ * base compilation unit. Neither slicing nor summarizing a clip requires re-parsing the
+ * clip's text.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+final class ClipSlicer {
+    private static final Logger LOGGER = Logger.getLogger(ClipSlicer.class.getName());
+
+    private final Context                                       context;
+    private final Map<TypeDeclaration, Map<String, IBinding>>   universes;
+    private final Map<Slice, Materialized>                      materialized;
+
+    private Set<SimpleName> importReferences;
+    private Set<String>     staticImportNames;
+
+    /**
+     * Constructs a new {@link ClipSlicer} for a parsed base {@link Source}.
+     *
+     * @param context The parsed base {@link Source}.
+     */
+    ClipSlicer(Context context){
+        this.context        = context;
+        this.universes      = Maps.newHashMap();
+        this.materialized   = Maps.newHashMap();
+    }
+
+    /**
+     * @return the parsed base {@link Source}.
+     */
+    Context getContext(){
+        return context;
+    }
+
+    /**
+     * Computes the declaration slice rooted at a method in the base compilation unit.
+     *
+     * @param method The method at the root of the clip.
+     * @return the clip's declaration slice.
+     */
+    Slice slice(MethodDeclaration method){
+        final TypeDeclaration   unit        = AstUtil.parent(TypeDeclaration.class, method);
+        final Set<IBinding>     reachable   = ClipSelection.cropCodeSnippet(
+                unit,
+                ImmutableSet.<IBinding>of(method.resolveBinding())
+        );
+
+        final Set<String> keys = Sets.newHashSet();
+        for(IBinding each : reachable){
+            keys.add(each.getKey());
+        }
+
+        return new Slice(unit, keys);
+    }
+
+    /**
+     * Creates a slice of the same type declaration as {@code seed} but with a different
+     * set of declarations.
+     *
+     * @param seed The seed slice.
+     * @param declarations The binding keys of the declarations to keep.
+     * @return a new slice.
+     */
+    Slice slice(Slice seed, Set<String> declarations){
+        return new Slice(seed.unit, declarations);
+    }
+
+    /**
+     * Produces the {@link Source} of a slice, reusing any previously materialized version.
+     *
+     * @param slice The declaration slice.
+     * @return the clip's {@link Source}.
+     */
+    Source materialize(Slice slice){
+        return materializedSlice(slice).source;
+    }
+
+    /**
+     * Returns the base declarations removed when materializing a slice.
+     *
+     * @param slice The declaration slice.
+     * @return the removed nodes, which belong to the base compilation unit.
+     */
+    Set<ASTNode> removedNodes(Slice slice){
+        return materializedSlice(slice).removed;
+    }
+
+    /**
+     * Translates a location in the base {@link Source} into a location in the materialized
+     * slice.
+     *
+     * @param slice The declaration slice.
+     * @param location The location in the base {@link Source}.
+     * @return the translated location or null if the location was (partially) removed.
+     */
+    Location translate(Slice slice, Location location){
+        return materializedSlice(slice).translate(location);
+    }
+
+    private Materialized materializedSlice(Slice slice){
+        Materialized result = materialized.get(slice);
+        if(result == null){
+            result = materializeSlice(slice);
+            materialized.put(slice, result);
+        }
+
+        return result;
+    }
+
+    private Map<String, IBinding> universe(TypeDeclaration unit){
+        Map<String, IBinding> universe = universes.get(unit);
+        if(universe == null){
+            universe = Maps.newLinkedHashMap();
+            for(IBinding each : ClipSelection.generateUniverse(unit)){
+                universe.put(each.getKey(), each);
+            }
+
+            universes.put(unit, universe);
+        }
+
+        return universe;
+    }
+
+    private Materialized materializeSlice(Slice slice){
+        final CompilationUnit   root    = context.getCompilationUnit();
+        final ASTRewrite        rewrite = ASTRewrite.create(root.getAST());
+        final Set<ASTNode>      removed = Sets.newLinkedHashSet();
+
+        for(Map.Entry<String, IBinding> each : universe(slice.unit).entrySet()){
+            if(slice.declarations.contains(each.getKey())) continue;
+
+            final ASTNode declaringNode = AstUtil.findDeclaration(each.getValue(), slice.unit);
+            final ASTNode target        = AstUtil.isField(declaringNode)
+                    ? AstUtil.parent(FieldDeclaration.class, declaringNode)
+                    : declaringNode;
+
+            if(target != null && removed.add(target)){
+                rewrite.remove(target, null);
+            }
+        }
+
+        for(ImportDeclaration each : unusedImports(root, removed)){
+            removed.add(each);
+            rewrite.remove(each, null);
+        }
+
+        final IDocument document    = context.getSource().toDocument();
+        final TextEdit  edits       = rewrite.rewriteAST(document, JavaCore.getOptions());
+        final List<int[]> leaves    = collectLeaves(edits);
+
+        try {
+            edits.apply(document);
+        } catch (MalformedTreeException e) {
+            LOGGER.throwing("Could not rewrite the AST tree.", "materializeSlice", e);
+        } catch (BadLocationException e) {
+            LOGGER.throwing("Could not rewrite the AST tree.", "materializeSlice", e);
+        }
+
+        final String raw        = document.get();
+        final String content    = StringUtil.trim(raw);
+        final int    lead       = raw.length() - StringUtil.trimStart(raw, StringUtil.LEADING_CHARS).length();
+
+        return new Materialized(
+                Source.from(context.getSource(), content),
+                Collections.unmodifiableSet(removed),
+                leaves,
+                lead
+        );
+    }
+
+    /**
+     * Mirrors {@link AstUtil#getUnusedImports(CompilationUnit)}, but ignores references
+     * found in removed nodes.
+     */
+    private Set<ImportDeclaration> unusedImports(CompilationUnit root, Set<ASTNode> removed){
+        if(importReferences == null){
+            final ImportsReferencesVisitor visitor = new ImportsReferencesVisitor(
+                    AstUtil.processJavadocComments(root)
+            );
+
+            root.accept(visitor);
+
+            importReferences  = ImmutableSet.copyOf(visitor.getImportSimpleNames());
+            staticImportNames = ImmutableSet.copyOf(visitor.getStaticImportNames());
+        }
+
+        final Set<String> importNames = Sets.newHashSet();
+        for(SimpleName each : importReferences){
+            if(!isRemoved(each, removed)){
+                importNames.add(AstUtil.getSimpleNameIdentifier(each));
+            }
+        }
+
+        final Set<ImportDeclaration> result = Sets.newLinkedHashSet();
+
+        @SuppressWarnings("unchecked")
+        final List<ImportDeclaration> totalImports = root.imports();
+        for(ImportDeclaration each : totalImports){
+            final boolean isNotAsterisk = !each.isOnDemand();
+            final String  target        = AstUtil.getSimpleNameIdentifier(each.getName());
+
+            if(!importNames.contains(target) && (!staticImportNames.contains(target)
+                    || staticImportNames.isEmpty()) && isNotAsterisk){
+                result.add(each);
+            }
+        }
+
+        return result;
+    }
+
+    static boolean isRemoved(ASTNode node, Set<ASTNode> removed){
+        for(ASTNode each : removed){
+            if(each == node || AstUtil.isParent(node, each)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Collects the leaf edits as {offset, length, delta} triples, in document order.
+     * Returns null if an edit's effect on offsets cannot be determined.
+     */
+    private static List<int[]> collectLeaves(TextEdit root){
+        final List<int[]>       result  = Lists.newArrayList();
+        final Deque<TextEdit>   stack   = new ArrayDeque<TextEdit>();
+        stack.push(root);
+
+        while(!stack.isEmpty()){
+            final TextEdit each = stack.pop();
+            if(each.hasChildren()){
+                final TextEdit[] children = each.getChildren();
+                for(int idx = children.length - 1; idx >= 0; idx--){
+                    stack.push(children[idx]);
+                }
+
+                continue;
+            }
+
+            final int delta;
+            if(each instanceof DeleteEdit){
+                delta = -each.getLength();
+            } else if(each instanceof ReplaceEdit){
+                delta = ((ReplaceEdit) each).getText().length() - each.getLength();
+            } else if(each instanceof InsertEdit){
+                delta = ((InsertEdit) each).getText().length();
+            } else if(each instanceof RangeMarker || each instanceof MultiTextEdit){
+                delta = 0;
+            } else {
+                return null;
+            }
+
+            result.add(new int[]{each.getOffset(), each.getLength(), delta});
+        }
+
+        return result;
+    }
+
+    /**
+     * A clip's declaration slice: the type declaration being clipped and the binding keys
+     * of the declarations the clip keeps.
+     */
+    final class Slice {
+        final TypeDeclaration   unit;
+        final Set<String>       declarations;
+
+        Slice(TypeDeclaration unit, Set<String> declarations){
+            this.unit           = unit;
+            this.declarations   = ImmutableSet.copyOf(declarations);
+        }
+
+        ClipSlicer getSlicer(){
+            return ClipSlicer.this;
+        }
+
+        @Override public boolean equals(Object o) {
+            if(!(o instanceof Slice)) return false;
+
+            final Slice that = (Slice) o;
+            return getSlicer() == that.getSlicer()
+                    && unit == that.unit
+                    && declarations.equals(that.declarations);
+        }
+
+        @Override public int hashCode() {
+            return Objects.hashCode(System.identityHashCode(unit), declarations);
+        }
+
+        @Override public String toString() {
+            return "Slice" + declarations;
+        }
+    }
+
+    /**
+     * A materialized slice: its {@link Source} plus the information needed to translate
+     * base offsets into clip offsets.
+     */
+    private static final class Materialized {
+        final Source        source;
+        final Set<ASTNode>  removed;
+        final List<int[]>   edits;
+        final int           lead;
+
+        Materialized(Source source, Set<ASTNode> removed, List<int[]> edits, int lead){
+            this.source     = source;
+            this.removed    = removed;
+            this.edits      = edits;
+            this.lead       = lead;
+        }
+
+        Location translate(Location location){
+            if(edits == null) return null;
+
+            final int start = location.getStart().getOffset();
+            final int end   = location.getEnd().getOffset();
+
+            int startShift  = 0;
+            int endShift    = 0;
+            for(int[] each : edits){
+                final int editStart = each[0];
+                final int editEnd   = each[0] + each[1];
+
+                if(each[1] > 0 && editStart < end && editEnd > start) return null;
+
+                if(editEnd <= start)                                     startShift += each[2];
+                if(editEnd <= end && (each[1] > 0 || editStart < end))   endShift   += each[2];
+            }
+
+            final int length    = source.getLength();
+            final int newStart  = start + startShift - lead;
+            final int newEnd    = end + endShift - lead;
+
+            if(newStart < 0 || newEnd < newStart || newEnd > length) return null;
+
+            return SourceLocation.createLocation(source, source.getContents(), newStart, newEnd);
+        }
+    }
+}
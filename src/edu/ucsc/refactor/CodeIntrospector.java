@@ -2,23 +2,32 @@ package edu.ucsc.refactor;
 
 import com.google.common.base.Function;
 import com.google.common.base.Joiner;
+import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.google.common.collect.*;
+import edu.ucsc.refactor.internal.BulkChange;
 import edu.ucsc.refactor.internal.EclipseJavaSnippetParser;
 import edu.ucsc.refactor.internal.ProgramUnitLocation;
 import edu.ucsc.refactor.internal.SourceVisitor;
 import edu.ucsc.refactor.internal.util.AstUtil;
+import edu.ucsc.refactor.internal.util.ChildCursor;
+import edu.ucsc.refactor.internal.util.TypeIndex;
 import edu.ucsc.refactor.internal.visitors.MethodDeclarationVisitor;
 import edu.ucsc.refactor.locators.MethodUnit;
+import edu.ucsc.refactor.spi.BulkSourceChanger;
 import edu.ucsc.refactor.spi.IssueDetector;
 import edu.ucsc.refactor.spi.JavaSnippetParser;
+import edu.ucsc.refactor.spi.Metrics;
+import edu.ucsc.refactor.spi.Smell;
+import edu.ucsc.refactor.spi.SourceChanger;
 import edu.ucsc.refactor.spi.SpaceGeneration;
 import edu.ucsc.refactor.spi.graph.DirectedAcyclicGraph;
 import edu.ucsc.refactor.spi.graph.DirectedGraph;
 import edu.ucsc.refactor.spi.graph.GraphUtils;
 import edu.ucsc.refactor.spi.graph.Vertex;
 import edu.ucsc.refactor.util.Locations;
+import edu.ucsc.refactor.util.StopWatch;
 import org.eclipse.jdt.core.dom.*;
 
 import java.util.*;
@@ -36,39 +45,19 @@ public class CodeIntrospector implements Introspector {
         }
     };
 
-    private static Map<String, Set<String>> PACKAGES_OF_INTEREST;
-    static {
-        final Map<String, Set<String>> container = Maps.newHashMap();
-        container.put("java.util.zip",                  ImmutableSet.of("Adler32", "CheckedInputStream", "CheckedOutputStream", "CRC32", "Deflater", "DeflaterInputStream", "DeflaterOutputStream", "GZIPInputStream", "GZIPOutputStream", "Inflater", "InflaterInputStream", "InflaterOutputStream", "ZipEntry", "ZipFile", "ZipInputStream", "ZipOutputStream", "DataFormatException", "ZipException", "ZipError"));
-        container.put("java.util.spi",                  ImmutableSet.of("CurrencyNameProvider", "LocaleNameProvider", "LocaleServiceProvider", "TimeZoneNameProvider"));
-        container.put("java.util.regex",                ImmutableSet.of("MatchResult", "Matcher", "Pattern", "PatternSyntaxException"));
-        container.put("java.util.prefs",                ImmutableSet.of("NodeChangeListener", "PreferenceChangeListener", "PreferencesFactory", "AbstractPreferences", "NodeChangeEvent", "PreferenceChangeEvent", "Preferences", "BackingStoreException", "InvalidPreferencesFormatException"));
-        container.put("java.util.logging",              ImmutableSet.of("Filter", "LoggingMXBean", "ConsoleHandler", "ErrorManager", "FileHandler", "Formatter", "Handler", "Level", "Logger", "LoggingPermission", "LogManager", "LogRecord", "MemoryHandler", "SimpleFormatter", "SocketHandler", "StreamHandler", "XMLFormatter"));
-        container.put("java.util.jar",                  ImmutableSet.of("Pack200.Packer", "Pack200.Unpacker", "Attributes", "Attributes.Name", "JarEntry", "JarFile", "JarInputStream", "JarOutputStream", "Manifest", "Pack200", "JarException"));
-        container.put("java.util.concurrent.locks",     ImmutableSet.of("Condition", "Lock", "ReadWriteLock", "AbstractOwnableSynchronizer", "AbstractQueuedLongSynchronizer", "AbstractQueuedSynchronizer", "LockSupport", "ReentrantLock", "ReentrantReadWriteLock", "ReentrantReadWriteLock.ReadLock", "ReentrantReadWriteLock.WriteLock"));
-        container.put("java.util.concurrent.atomic",    ImmutableSet.of("AtomicBoolean", "AtomicInteger", "AtomicIntegerArray", "AtomicIntegerFieldUpdater", "AtomicLong", "AtomicLongArray", "AtomicLongFieldUpdater", "AtomicMarkableReference", "AtomicReference", "AtomicReferenceArray", "AtomicReferenceFieldUpdater", "AtomicStampedReference"));
-        container.put("java.util.concurrent",           ImmutableSet.of("BlockingDeque", "BlockingQueue", "Callable", "CompletionService", "ConcurrentMap", "ConcurrentNavigableMap", "Delayed", "Executor", "ExecutorService", "Future", "RejectedExecutionHandler", "RunnableFuture", "RunnableScheduledFuture", "ScheduledExecutorService", "ScheduledFuture", "ThreadFactory", "AbstractExecutorService", "ArrayBlockingQueue", "ConcurrentHashMap", "ConcurrentLinkedQueue", "ConcurrentSkipListMap", "ConcurrentSkipListSet", "CopyOnWriteArrayList", "CopyOnWriteArraySet", "CountDownLatch", "CyclicBarrier", "DelayQueue", "Exchanger", "ExecutorCompletionService", "Executors", "FutureTask", "LinkedBlockingDeque", "LinkedBlockingQueue", "PriorityBlockingQueue", "ScheduledThreadPoolExecutor", "Semaphore", "SynchronousQueue", "ThreadPoolExecutor", "ThreadPoolExecutor.AbortPolicy", "ThreadPoolExecutor.CallerRunsPolicy", "ThreadPoolExecutor.DiscardOldestPolicy", "ThreadPoolExecutor.DiscardPolicy", "TimeUnit", "BrokenBarrierException", "CancellationException", "ExecutionException", "RejectedExecutionException", "TimeoutException"));
-        container.put("java.util",                      ImmutableSet.of("Collection", "Comparator", "Deque", "Enumeration", "EventListener", "Formattable", "Iterator", "List", "ListIterator", "Map", "Map.Entry", "NavigableMap", "NavigableSet", "Observer", "Queue", "RandomAccess", "Set", "SortedMap", "SortedSet", "AbstractCollection", "AbstractList", "AbstractMap", "AbstractMap.SimpleEntry", "AbstractMap.SimpleImmutableEntry", "AbstractQueue", "AbstractSequentialList", "AbstractSet", "ArrayDeque", "ArrayList", "Arrays", "BitSet", "Calendar", "Collections", "Currency", "Date", "Dictionary", "EnumMap", "EnumSet", "EventListenerProxy", "EventObject", "FormattableFlags", "Formatter", "GregorianCalendar", "HashMap", "HashSet", "Hashtable", "IdentityHashMap", "LinkedHashMap", "LinkedHashSet", "LinkedList", "ListResourceBundle", "Locale", "Observable", "PriorityQueue", "Properties", "PropertyPermission", "PropertyResourceBundle", "Random", "ResourceBundle", "ResourceBundle.Control", "Scanner", "ServiceLoader", "SimpleTimeZone", "Stack", "StringTokenizer", "Timer", "TimerTask", "TimeZone", "TreeMap", "TreeSet", "UUID", "Vector", "WeakHashMap", "Formatter.BigDecimalLayoutForm", "ConcurrentModificationException", "DuplicateFormatFlagsException", "EmptyStackException", "FormatFlagsConversionMismatchException", "FormatterClosedException", "IllegalFormatCodePointException", "IllegalFormatConversionException", "IllegalFormatException", "IllegalFormatFlagsException", "IllegalFormatPrecisionException", "IllegalFormatWidthException", "InputMismatchException", "InvalidPropertiesFormatException", "MissingFormatArgumentException", "MissingFormatWidthException", "MissingResourceException", "NoSuchElementException", "TooManyListenersException", "UnknownFormatConversionException", "UnknownFormatFlagsException", "ServiceConfigurationError"));
-        container.put("java.text.spi",                  ImmutableSet.of("BreakIteratorProvider", "CollatorProvider", "DateFormatProvider", "DateFormatSymbolsProvider", "DecimalFormatSymbolsProvider", "NumberFormatProvider"));
-        container.put("java.text",                      ImmutableSet.of("AttributedCharacterIterator", "CharacterIterator", "Annotation","AttributedCharacterIterator.Attribute","AttributedString","Bidi","BreakIterator","ChoiceFormat","CollationElementIterator","CollationKey","Collator","DateFormat","DateFormat.Field","DateFormatSymbols","DecimalFormat","DecimalFormatSymbols","FieldPosition","Format","Format.Field","MessageFormat","MessageFormat.Field","Normalizer","NumberFormat","NumberFormat.Field","ParsePosition","RuleBasedCollator","SimpleDateFormat","StringCharacterIterator","Normalizer.Form","ParseException"));
-        container.put("java.nio.charset.spi",           ImmutableSet.of("CharsetProvider"));
-        container.put("java.nio.charset",               ImmutableSet.of("Charset", "CharsetDecoder", "CharsetEncoder", "CoderResult", "CodingErrorAction", "CharacterCodingException", "IllegalCharsetNameException", "MalformedInputException", "UnmappableCharacterException", "UnsupportedCharsetException", "CoderMalfunctionError"));
-        container.put("java.nio.channels.spi",          ImmutableSet.of("AbstractInterruptibleChannel", "AbstractSelectableChannel", "AbstractSelectionKey", "AbstractSelector", "SelectorProvider"));
-        container.put("java.nio.channels",              ImmutableSet.of("ByteChannel", "Channel", "GatheringByteChannel", "InterruptibleChannel", "ReadableByteChannel", "ScatteringByteChannel", "WritableByteChannel", "Channels", "DatagramChannel", "FileChannel", "FileChannel.MapMode", "FileLock", "Pipe", "Pipe.SinkChannel", "Pipe.SourceChannel", "SelectableChannel", "SelectionKey", "Selector", "ServerSocketChannel", "SocketChannel", "AlreadyConnectedException", "AsynchronousCloseException", "CancelledKeyException", "ClosedByInterruptException", "ClosedChannelException", "ClosedSelectorException", "ConnectionPendingException", "FileLockInterruptionException", "IllegalBlockingModeException", "IllegalSelectorException", "NoConnectionPendingException", "NonReadableChannelException", "NonWritableChannelException", "NotYetBoundException", "NotYetConnectedException", "OverlappingFileLockException", "UnresolvedAddressException", "UnsupportedAddressTypeException"));
-        container.put("java.nio",                       ImmutableSet.of("Buffer", "ByteBuffer", "ByteOrder", "CharBuffer", "DoubleBuffer", "FloatBuffer", "IntBuffer", "LongBuffer", "MappedByteBuffer", "ShortBuffer", "BufferOverflowException", "BufferUnderflowException", "InvalidMarkException", "ReadOnlyBufferException"));
-        container.put("java.net",                       ImmutableSet.of("ContentHandlerFactory", "CookiePolicy", "CookieStore", "DatagramSocketImplFactory", "FileNameMap", "SocketImplFactory", "SocketOptions", "URLStreamHandlerFactory", "Authenticator", "CacheRequest", "CacheResponse", "ContentHandler", "CookieHandler", "CookieManager", "DatagramPacket", "DatagramSocket", "DatagramSocketImpl", "HttpCookie", "HttpURLConnection", "IDN", "Inet4Address", "Inet6Address", "InetAddress", "InetSocketAddress", "InterfaceAddress", "JarURLConnection", "MulticastSocket", "NetPermission", "NetworkInterface", "PasswordAuthentication", "Proxy", "ProxySelector", "ResponseCache", "SecureCacheResponse", "ServerSocket", "Socket", "SocketAddress", "SocketImpl", "SocketPermission", "URI", "URL", "URLClassLoader", "URLConnection", "URLDecoder", "URLEncoder", "URLStreamHandler", "Authenticator.RequestorType", "Proxy.Type", "BindException", "ConnectException", "HttpRetryException", "MalformedURLException", "NoRouteToHostException", "PortUnreachableException", "ProtocolException", "SocketException", "SocketTimeoutException", "UnknownHostException", "UnknownServiceException", "URISyntaxException"));
-        container.put("java.math",                      ImmutableSet.of("BigDecimal", "BigInteger", "MathContext", "RoundingMode"));
-        container.put("java.lang.reflect",              ImmutableSet.of("AnnotatedElement", "GenericArrayType", "GenericDeclaration", "InvocationHandler", "Member", "ParameterizedType", "Type", "TypeVariable", "WildcardType", "AccessibleObject", "Array", "Constructor", "Field", "Method", "Modifier", "Proxy", "ReflectPermission", "InvocationTargetException", "MalformedParameterizedTypeException", "UndeclaredThrowableException", "GenericSignatureFormatError"));
-        container.put("java.lang.ref",                  ImmutableSet.of("PhantomReference", "Reference", "ReferenceQueue", "SoftReference", "WeakReference"));
-        container.put("java.lang.management",           ImmutableSet.of("ClassLoadingMXBean", "CompilationMXBean", "GarbageCollectorMXBean", "MemoryManagerMXBean", "MemoryMXBean", "MemoryPoolMXBean", "OperatingSystemMXBean", "RuntimeMXBean", "ThreadMXBean", "LockInfo", "ManagementFactory", "ManagementPermission", "MemoryNotificationInfo", "MemoryUsage", "MonitorInfo", "ThreadInfo", "MemoryType"));
-        container.put("java.lang.instrument",           ImmutableSet.of("ClassFileTransformer", "Instrumentation", "ClassDefinition", "IllegalClassFormatException", "UnmodifiableClassException"));
-        container.put("java.lang.annotation",           ImmutableSet.of("Annotation", "ElementType", "RetentionPolicy", "AnnotationTypeMismatchException", "IncompleteAnnotationException", "AnnotationFormatError", "Documented", "Inherited", "Retention", "Target"));
-        container.put("java.io",                        ImmutableSet.of("Closeable", "DataInput", "DataOutput", "Externalizable", "FileFilter", "FilenameFilter", "Flushable", "ObjectInput", "ObjectInputValidation", "ObjectOutput", "ObjectStreamConstants", "Serializable", "BufferedInputStream", "BufferedOutputStream", "BufferedReader", "BufferedWriter", "ByteArrayInputStream", "ByteArrayOutputStream", "CharArrayReader", "CharArrayWriter", "Console", "DataInputStream", "DataOutputStream", "File", "FileDescriptor", "FileInputStream", "FileOutputStream", "FilePermission", "FileReader", "FileWriter", "FilterInputStream", "FilterOutputStream", "FilterReader", "FilterWriter", "InputStream", "InputStreamReader", "LineNumberInputStream", "LineNumberReader", "ObjectInputStream", "ObjectInputStream.GetField", "ObjectOutputStream", "ObjectOutputStream.PutField", "ObjectStreamClass", "ObjectStreamField", "OutputStream", "OutputStreamWriter", "PipedInputStream", "PipedOutputStream", "PipedReader", "PipedWriter", "PrintStream", "PrintWriter", "PushbackInputStream", "PushbackReader", "RandomAccessFile", "Reader", "SequenceInputStream", "SerializablePermission", "StreamTokenizer", "StringBufferInputStream", "StringReader", "StringWriter", "Writer", "CharConversionException", "EOFException", "FileNotFoundException", "InterruptedIOException", "InvalidClassException", "InvalidObjectException", "IOException", "NotActiveException", "NotSerializableException", "ObjectStreamException", "OptionalDataException", "StreamCorruptedException", "SyncFailedException", "UnsupportedEncodingException", "UTFDataFormatException", "WriteAbortedException", "IOError"));
-
-        PACKAGES_OF_INTEREST = Collections.unmodifiableMap(container);
-    }
 
+    // fixing an issue of a smell may leave behind issues of smells that come after it
+    private static final List<Smell> FIX_ORDER = ImmutableList.of(
+            Smell.UNUSED_TYPE,
+            Smell.UNUSED_METHOD,
+            Smell.UNUSED_PARAMETER,
+            Smell.UNUSED_FIELD,
+            Smell.UNUSED_VARIABLE,
+            Smell.MAGIC_NUMBER,
+            Smell.UNUSED_IMPORTS
+    );
 
+    static final int DEFAULT_MAX_ROUNDS = 10;
 
     private final Host      host;
 
@@ -108,10 +97,18 @@ public class CodeIntrospector implements Introspector {
 
         Set<Issue> issues = new HashSet<Issue>();
 
+        final Metrics metrics = this.host.getMetrics();
         for (IssueDetector detector : this.host.getIssueDetectors()) {
-            issues.addAll(detectIssues(detector, context));
+            final Metrics.Timer timer = metrics.startTimer("detect", detector.getClass());
+            try {
+                issues.addAll(detectIssues(detector, context));
+            } finally {
+                timer.stop();
+            }
         }
 
+        metrics.count("issues", issues.size());
+
         return issues;
     }
 
@@ -126,6 +123,17 @@ public class CodeIntrospector implements Introspector {
         );
     }
 
+    @Override public Map<Source, Set<Issue>> detectIssues(Project project) {
+        final Project nonNull = Preconditions.checkNotNull(project);
+
+        final Map<Source, Set<Issue>> issues = Maps.newLinkedHashMap();
+        for(Context each : nonNull.getContexts()){
+            issues.put(each.getSource(), detectIssues(each));
+        }
+
+        return issues;
+    }
+
     @Override public Set<String> detectMissingImports(Source code) {
         return recommendImports(code);
     }
@@ -146,12 +154,142 @@ public class CodeIntrospector implements Introspector {
         return recommendations;
     }
 
+    @Override public FixReport fixAll(Source code) {
+        return fixAll(code, DEFAULT_MAX_ROUNDS);
+    }
+
+    @Override public FixReport fixAll(Source code, int maxRounds) {
+        Preconditions.checkArgument(maxRounds > 0, "maxRounds must be positive");
+
+        final List<FixReport.Round> rounds = Lists.newArrayList();
+
+        Source current = Preconditions.checkNotNull(code);
+        for(int number = 1; number <= maxRounds; number++){
+            final StopWatch watch   = new StopWatch();
+            final Context   context = host.createContext(current);
+
+            final Set<Issue>              issues   = detectIssues(context);
+            final Map<Smell, List<Issue>> fixable  = fixableIssues(issues);
+            final int                     detected = issues.size();
+            if(fixable.isEmpty()){
+                rounds.add(FixReport.Round.empty(number, detected, watch.reset()));
+                return new FixReport(current, rounds, true);
+            }
+
+            // every group is handled on its own: a group that cannot be handled is left
+            // out of the change, together with any edits it recorded, and the groups
+            // handled before it are kept.
+            final List<List<Issue>> handled = Lists.newArrayList();
+            final List<String>      errors  = Lists.newArrayList();
+
+            BulkChange change = null;
+            for(List<Issue> each : fixable.values()){
+                try {
+                    change = joinGroup(change, each);
+                    if(change.isValid()){
+                        handled.add(each);
+                        continue;
+                    }
+
+                    errors.addAll(change.getErrors());
+                } catch (RuntimeException ex){
+                    errors.add(Objects.firstNonNull(ex.getMessage(), ex.getClass().getName()));
+                }
+
+                change = null;
+                for(List<Issue> kept : handled){
+                    change = joinGroup(change, kept);
+                }
+            }
+
+            if(change != null){
+                changerOf(change.getCause()).finishBulkChange(change);
+                errors.addAll(change.getErrors());
+                errors.addAll(change.getFailures().values());
+            }
+
+            final boolean applied = change != null
+                    && change.isValid()
+                    && !change.getCauses().isEmpty();
+            rounds.add(
+                    new FixReport.Round(
+                            number,
+                            detected,
+                            applied ? change.getCauses().size() : 0,
+                            change == null ? 0 : change.getConflicts().size(),
+                            watch.reset(),
+                            errors
+                    )
+            );
+
+            if(!applied) break;
+
+            current = Source.from(current, change.getDeltas().get(0).getAfter());
+        }
+
+        return new FixReport(current, rounds, false);
+    }
+
+    /**
+     * Adds the edits that fix a group of issues (of the same smell) to a bulk change;
+     * starting the change if there is none yet.
+     */
+    private BulkChange joinGroup(BulkChange change, List<Issue> group){
+        final Map<String, Parameter> none    = ImmutableMap.of();  // changers use their defaults
+        final BulkSourceChanger      changer = changerOf(group.get(0));
+        if(change == null){
+            return changer.startBulkChange(group, none);
+        }
+
+        changer.joinBulkChange(change, group, none);
+        return change;
+    }
+
+    /**
+     * Groups the issues that can be fixed in bulk by their smell, in {@link #FIX_ORDER};
+     * their changers handle each group in position order.
+     */
+    private Map<Smell, List<Issue>> fixableIssues(Set<Issue> issues){
+        final Map<Smell, List<Issue>> fixable = Maps.newTreeMap(
+                Ordering.explicit(FIX_ORDER)
+        );
+
+        for(Issue each : issues){
+            final Smell smell = (Smell) each.getName();
+            if(!FIX_ORDER.contains(smell)) continue;
+
+            if(changerOf(each) == null) continue;
+
+            if(!fixable.containsKey(smell)){
+                fixable.put(smell, Lists.<Issue>newArrayList());
+            }
+
+            fixable.get(smell).add(each);
+        }
+
+        return fixable;
+    }
+
+    private BulkSourceChanger changerOf(Cause cause){
+        for(SourceChanger each : host.getSourceChangers()){
+            if(each.canHandle(cause)){
+                return each instanceof BulkSourceChanger ? (BulkSourceChanger) each : null;
+            }
+        }
+
+        return null;
+    }
+
     @Override public List<String> detectSyntaxErrors(Source code) {
         return ImmutableList.copyOf(
                 this.host.createContext(code).getSyntaxRelatedProblems()
         );
     }
 
+    @Override public DependencyGraph dependencyGraph(Source code) {
+        return this.host.createContext(Preconditions.checkNotNull(code)).getDependencyGraph();
+    }
+
     @Override public Diff differences(Source original, Source revised) {
         return new Diff(original, revised);
     }
@@ -183,24 +321,26 @@ public class CodeIntrospector implements Introspector {
     }
 
     @Override public List<Location> summarize(Clip clip, int bound) {
-        return summarize(clip.getMethodName(), clip.getSource(), bound);
+        final ClipSlicer.Slice slice = clip.getSlice();
+        if(slice == null){
+            return summarize(clip.getMethodName(), clip.getSource(), bound);
+        }
+
+        return summarize(clip.getMethodName(), slice, bound);
     }
 
     @Override public List<Location> summarize(String startingMethod, Source code, int bound) {
 
-        final Context           context = makeContext(code);
-        final MethodDeclaration method  = getMethod(startingMethod, context);
-
-        if(method == null) return Lists.newLinkedList();
-
-        final BlockVisitor visitor = new BlockVisitor();
-        method.accept(visitor);
-
-        final List<Location> foldableLocations = summarizeCodeBySolvingTreeKnapsack(
-                visitor.graph(),
-                bound/*lines of code*/
+        final Context           context             = makeContext(code);
+        final List<Location>    foldableLocations   = summarize(
+                startingMethod,
+                context,
+                ImmutableSet.<ASTNode>of(),
+                bound
         );
 
+        if(foldableLocations == null) return Lists.newLinkedList();
+
         // Imports are folded regardless of the previous computation
         final Location foldedImports = foldImportDeclaration(context);
 
@@ -212,6 +352,65 @@ public class CodeIntrospector implements Introspector {
 
     }
 
+    /**
+     * Summarizes a clip on the parsed base code example it was derived from, and then
+     * translates the foldable locations into the clip's {@link Source}; no re-parsing
+     * is needed.
+     */
+    private static List<Location> summarize(String startingMethod, ClipSlicer.Slice slice, int bound){
+        final ClipSlicer        slicer  = slice.getSlicer();
+        final Set<ASTNode>      removed = slicer.removedNodes(slice);
+        final List<Location>    folds   = summarize(
+                startingMethod,
+                slicer.getContext(),
+                removed,
+                bound
+        );
+
+        if(folds == null) return Lists.newLinkedList();
+
+        final List<Location> foldableLocations = Lists.newLinkedList();
+        for(Location each : folds){
+            final Location translated = slicer.translate(slice, each);
+            if(translated != null){
+                foldableLocations.add(translated);
+            }
+        }
+
+        // Imports are folded regardless of the previous computation
+        final SourceSelection selection = new SourceSelection();
+        for(ImportDeclaration each : findImports(slicer.getContext())){
+            if(removed.contains(each)) continue;
+
+            final Location translated = slicer.translate(slice, Locations.locate(each));
+            if(translated != null){
+                selection.add(translated);
+            }
+        }
+
+        if(!selection.isEmpty()){
+            foldableLocations.add(selection.toLocation());
+        }
+
+        return foldableLocations;
+    }
+
+    private static List<Location> summarize(String startingMethod, Context context,
+                                            Set<ASTNode> excluded, int bound){
+
+        final MethodDeclaration method = getMethod(startingMethod, context, excluded);
+
+        if(method == null) return null;
+
+        final BlockVisitor visitor = new BlockVisitor(excluded);
+        method.accept(visitor);
+
+        return summarizeCodeBySolvingTreeKnapsack(
+                visitor.graph(),
+                bound/*lines of code*/
+        );
+    }
+
     /**
      * Adjusts a clip space's shared source and the appropriate folding locations.
      *
@@ -345,13 +544,21 @@ public class CodeIntrospector implements Introspector {
     }
 
     static MethodDeclaration getMethod(String name, Context context){
+        return getMethod(name, context, ImmutableSet.<ASTNode>of());
+    }
+
+    static MethodDeclaration getMethod(String name, Context context, Set<ASTNode> excluded){
         final ProgramUnitLocator    locator     = new ProgramUnitLocator(context);
         final List<NamedLocation>   locations   = locator.locate(new MethodUnit(name));
 
-        if(locations.isEmpty()) return null;
+        for(NamedLocation each : locations){
+            final ASTNode target = ((ProgramUnitLocation) each).getNode();
+            if(!ClipSlicer.isRemoved(target, excluded)){
+                return (MethodDeclaration) target;
+            }
+        }
 
-        final ProgramUnitLocation   target      = (ProgramUnitLocation)locations.get(0);
-        return (MethodDeclaration)target.getNode();
+        return null;
     }
 
     static Context makeContext(Source code){
@@ -378,81 +585,13 @@ public class CodeIntrospector implements Introspector {
     static Set<String> recommendImports(Source code){
         final Context context = makeContext(code);
 
-        final Set<String>           types     = AstUtil.getUsedTypesInCode(context.getCompilationUnit());
-        final Set<String>           packages  = getJdkPackages();
-        final Map<String, Tuple>    freq      = Maps.newHashMap();
+        final Set<String> types     = AstUtil.getUsedTypesInCode(context.getCompilationUnit());
+        final Set<String> declared  = AstUtil.getDeclaredTypesInCode(context.getCompilationUnit());
 
-        final Set<String> result = Sets.newHashSet();
-
-        // detect used packages
-        for(String pkg : packages){
-            final Set<String> namespaces =  PACKAGES_OF_INTEREST.get(pkg);
-            if(namespaces == null) continue;
-
-            final Set<String> common     = Sets.intersection(namespaces, types);
-            if(common.isEmpty()) continue;
-
-            Tuple t;
-            if(freq.containsKey(pkg)){
-                t = freq.get(pkg).update(common);
-                freq.put(pkg, t);
-            } else {
-                t = new Tuple(common.size(), common);
-                freq.put(pkg, t);
-            }
-        }
-
-        // build package directive
-        for(String key : freq.keySet()){
-            final Tuple tuple = freq.get(key);
-            if(tuple.val >= 5){
-                final String wildcard = key + ".*;";
-                result.add(wildcard);
-            } else {
-                for(String typeName : tuple.elements){
-                    result.add(key + "." + typeName + ";");
-                }
-            }
-        }
-
-        return result;
+        return TypeIndex.shared().resolveImports(types, declared);
     }
 
 
-    static Set<String> getJdkPackages(){
-        final Package[] ps = Package.getPackages();
-        final Set<String>  result = Sets.newHashSet();
-        for(Package each : ps){
-            if(each.getName().contains("sun.") ||
-                    each.getName().contains("javax.")
-                    || each.getName().contains("org.")) continue;
-            result.add(each.getName());
-        }
-
-        return result;
-    }
-
-    static Clip transform(Clip that, ChangeRequest request, boolean isBase){
-        final Refactorer    refactorer  = Vesper.createRefactorer();
-        final Change        change      = refactorer.createChange(request);
-        final Commit        commit      = refactorer.apply(change);
-
-        if(commit != null && commit.isValidCommit()){
-            return Clip.makeClip(
-                    that.getMethodName(),
-                    that.getLabel(),
-                    commit.getSourceAfterChange(),
-                    isBase
-            );
-        } else {
-            return that;
-        }
-    }
-
-    static Clip cleanup(Clip that){
-        return transform(that, ChangeRequest.optimizeImports(that.getSource()), that.isBaseClip());
-    }
-
     static String capitalize(Iterable<String> words){
         final StringBuilder builder = new StringBuilder();
         for(String each : words){
@@ -468,15 +607,15 @@ public class CodeIntrospector implements Introspector {
     }
 
     static class ClipSpaceGeneration implements SpaceGeneration {
-        private final Context context;
+        private final ClipSlicer slicer;
 
         ClipSpaceGeneration(Context context){
-            this.context = context;
+            this.slicer = new ClipSlicer(context);
         }
 
         @Override public Set<Clip> generateSpace(Source ofCode) {
             final MethodDeclarationVisitor visitor  = new MethodDeclarationVisitor();
-            final CompilationUnit unit     = context.getCompilationUnit();
+            final CompilationUnit unit     = slicer.getContext().getCompilationUnit();
 
             unit.accept(visitor);
 
@@ -487,47 +626,35 @@ public class CodeIntrospector implements Introspector {
 
             while(itr.hasNext()) {
                 final MethodDeclaration eachMethod = itr.next();
-                final Refactorer refactorer = Vesper.createRefactorer();
-                final Location loc = Locations.locate(eachMethod);
-                final int startOffset = loc.getStart().getOffset();
-                final int endOffset = loc.getEnd().getOffset();
+                final boolean           isBase     = !itr.hasNext();
 
-                final SourceSelection selection = new SourceSelection(
-                        context.getSource(),
-                        startOffset,
-                        endOffset
-                );
-
-
-                final ChangeRequest request = ChangeRequest.clipSelection(selection);
-                final Change change = refactorer.createChange(request);
-                final Commit commit = refactorer.apply(change);
-
-                if (commit != null && commit.isValidCommit()) {
+                // each clip is derived from the already parsed base code example; its
+                // declaration slice is all we need to produce (and later summarize) it.
+                if (eachMethod.resolveBinding() == null
+                        || AstUtil.parent(TypeDeclaration.class, eachMethod) == null) {
+                    continue;
+                }
 
-                    final String label = Joiner.on(" ").join(
-                            Splitter.onPattern(
-                                    // thanks to http://stackoverflow
-                                    // .com/questions/7593969/regex-to-split-camelcase-or-titlecase-advanced
-                                    "(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)" + "(?=[A-Z][a-z])")
-                                    .split(
-                                            eachMethod.getName().getIdentifier()
-                                    )
-                    );
+                final String label = Joiner.on(" ").join(
+                        Splitter.onPattern(
+                                // thanks to http://stackoverflow
+                                // .com/questions/7593969/regex-to-split-camelcase-or-titlecase-advanced
+                                "(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)" + "(?=[A-Z][a-z])")
+                                .split(
+                                        eachMethod.getName().getIdentifier()
+                                )
+                );
 
-                    final String capitalized = capitalize(Splitter.on(' ').split(label));
+                final String capitalized = capitalize(Splitter.on(' ').split(label));
 
-                    final Clip clip = cleanup(
-                            Clip.makeClip(
-                                    eachMethod.getName().getIdentifier(),
-                                    capitalized,
-                                    commit.getSourceAfterChange(),
-                                    !itr.hasNext()
-                            )
-                    );
+                final Clip clip = Clip.makeClip(
+                        eachMethod.getName().getIdentifier(),
+                        capitalized,
+                        slicer.slice(eachMethod),
+                        isBase
+                );
 
-                    space.add(clip);
-                }
+                space.add(clip);
             }
 
             return space;
@@ -537,13 +664,24 @@ public class CodeIntrospector implements Introspector {
 
     static class BlockVisitor extends SourceVisitor {
 
-        static final Set<ASTNode>   VISITED = Sets.newLinkedHashSet();
+        final Set<ASTNode>          visited;
+        final Set<ASTNode>          excluded;
 
         final DirectedGraph<Item> G;
 
 
         BlockVisitor(){
-            G = new DirectedAcyclicGraph<Item>();
+            this(ImmutableSet.<ASTNode>of());
+        }
+
+        /**
+         * @param excluded nodes (and their subtrees) that must be treated as if they were
+         *                 not part of the compilation unit.
+         */
+        BlockVisitor(Set<ASTNode> excluded){
+            G               = new DirectedAcyclicGraph<Item>();
+            visited         = Sets.newLinkedHashSet();
+            this.excluded   = excluded;
         }
 
         @Override public boolean visit(Block node) {
@@ -553,7 +691,7 @@ public class CodeIntrospector implements Introspector {
             return false;
         }
 
-        static void buildTree(ASTNode node, DirectedGraph<Item> G){
+        void buildTree(ASTNode node, DirectedGraph<Item> G){
             final Vertex<Item> root  = new Vertex<Item>(node.toString(), Item.of(node));
             if(G.getRootVertex() == null){ G.addRootVertex(root); } else {
                 G.addVertex(root);
@@ -562,18 +700,20 @@ public class CodeIntrospector implements Introspector {
             buildSubtree(null, node, G);
         }
 
-        static void buildSubtree(Block parent, ASTNode node, DirectedGraph<Item> G){
+        void buildSubtree(Block parent, ASTNode node, DirectedGraph<Item> G){
            if(node == null) return;
 
            final Deque<ASTNode> Q = new LinkedList<ASTNode>();
            Q.offer(node);
 
+           final ChildCursor children = new ChildCursor();
            while(!Q.isEmpty()){
               final ASTNode c = Q.poll();
-              VISITED.add(c);
+              visited.add(c);
 
-               for(ASTNode child : AstUtil.getChildren(c)){
-                   if(!VISITED.contains(child)){
+               children.reset(c);
+               for(ASTNode child = children.next(); child != null; child = children.next()){
+                   if(!visited.contains(child)){
                      if(skipNode(child)) continue;
 
                      if(Block.class.isInstance(child)){
@@ -584,22 +724,22 @@ public class CodeIntrospector implements Introspector {
                        parent = parent == null ? (Block) node : parent;
                        if(MethodInvocation.class.isInstance(child)){
                          final MethodInvocation invoke = (MethodInvocation) child;
-                         final ASTNode method = AstUtil.findDeclaration(
+                         final ASTNode method = visibleDeclaration(
                                invoke.resolveMethodBinding(),
                                AstUtil.parent(CompilationUnit.class, invoke)
                          );
 
-                         if(VISITED.contains(method)) return;
+                         if(visited.contains(method)) return;
                          buildSubtree(parent, method, G);
                          Q.offer(method);
                        } else if (isTypeDeclarationStatement(child)){
                          final SimpleType type = (SimpleType) child;
-                         final ASTNode declaration =  AstUtil.findDeclaration(
+                         final ASTNode declaration =  visibleDeclaration(
                                  type.resolveBinding(),
                                  type
                          );
 
-                         if(VISITED.contains(declaration)) return;
+                         if(visited.contains(declaration)) return;
                          buildSubtree(parent, declaration, G);
                          Q.offer(declaration);
                        } else {
@@ -614,6 +754,13 @@ public class CodeIntrospector implements Introspector {
 
         }
 
+        private ASTNode visibleDeclaration(IBinding binding, ASTNode root){
+            final ASTNode declaration = AstUtil.findDeclaration(binding, root);
+            return declaration == null || ClipSlicer.isRemoved(declaration, excluded)
+                    ? null
+                    : declaration;
+        }
+
         private static boolean isTypeDeclarationStatement(ASTNode node){
             if(!SimpleType.class.isInstance(node)) return false;
 
@@ -629,21 +776,35 @@ public class CodeIntrospector implements Introspector {
         }
 
 
-        private static int calculateBenefit(ASTNode/*Block*/ node, int depth){
+        private int calculateBenefit(ASTNode/*Block*/ node, int depth){
 
             final CompilationUnit root = AstUtil.parent(CompilationUnit.class, node);
 
             int b = 0;
-            for(ASTNode each : AstUtil.getChildren(node)){
+
+            final ChildCursor children = new ChildCursor().reset(node);
+            for(ASTNode each = children.next(); each != null; each = children.next()){
                 final SimpleName name = AstUtil.getSimpleName(each);
                 if(name != null){
-                    b += (AstUtil.findByNode(root, name).size()/depth);
+                    b += (countVisibleReferences(root, name)/depth);
                 }
             }
 
             return b;
         }
 
+        private int countVisibleReferences(CompilationUnit root, SimpleName name){
+            final List<SimpleName> references = AstUtil.findByNode(root, name);
+            if(excluded.isEmpty()) return references.size();
+
+            int count = 0;
+            for(SimpleName each : references){
+                if(!ClipSlicer.isRemoved(each, excluded)) count++;
+            }
+
+            return count;
+        }
+
 
         private static boolean isInnerBlock(ASTNode thisBlock, ASTNode thatBlock){
             return Locations.inside(Locations.locate(thisBlock), Locations.locate(thatBlock));
@@ -657,7 +818,7 @@ public class CodeIntrospector implements Introspector {
         }
 
 
-        private static void connect(DirectedGraph<Item> graph, ASTNode parent, ASTNode child){
+        private void connect(DirectedGraph<Item> graph, ASTNode parent, ASTNode child){
             final Vertex<Item> n = graph.getVertex(parent.toString());
 
             final Block  b = (Block) child;
@@ -678,7 +839,7 @@ public class CodeIntrospector implements Introspector {
         }
 
 
-        private static void updateItemValue(Vertex<Item> from, Vertex<Item> to, DirectedGraph<Item> graph){
+        private void updateItemValue(Vertex<Item> from, Vertex<Item> to, DirectedGraph<Item> graph){
             // update benefit of the `to` node
 
             final List<Vertex<Item>> nodesAtDepth = ImmutableList.of(graph.getRootVertex());
@@ -739,22 +900,4 @@ public class CodeIntrospector implements Introspector {
 
     }
 
-
-    private static class Tuple {
-        final int val;
-        final Set<String> elements;
-
-        Tuple(int val, Set<String> elements){
-            this.val      = val;
-            this.elements = elements;
-        }
-
-        Tuple update(Set<String> seed){
-            final Set<String> merged = Sets.union(this.elements, seed);
-            final int         freq   = merged.size();
-
-            return new Tuple(freq, merged);
-        }
-    }
-
 }
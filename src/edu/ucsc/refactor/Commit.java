@@ -5,18 +5,43 @@ import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.Atomics;
 import edu.ucsc.refactor.spi.CommitSummary;
 import edu.ucsc.refactor.spi.Name;
+import edu.ucsc.refactor.util.EditScript;
 
+import java.lang.ref.SoftReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
+ * A code change applied to a {@link Source}.
+ *
+ * <p>A commit keeps an {@link EditScript} that turns the {@code Source} before the change
+ * into the {@code Source} after the change; both {@code Source}s are only softly cached,
+ * and their metadata (name, id, notes, etc.) is kept apart from their contents, so it
+ * survives the cache being cleared. A commit holds its {@code Source} before the change
+ * strongly until it is {@link #chainTo(Commit) chained} to the commit that produced it;
+ * from then on, that {@code Source} is rebuilt, when it is no longer cached, by replaying
+ * the edit scripts of the chain, starting from the nearest cached version or from the
+ * chain's first commit. Within a history, only the first version of a file is thus held
+ * strongly.</p>
+ *
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class Commit implements Comparable <Commit> {
     private final Name          name;
-    private final Source        before;
-    private final Source        after;
+    private final EditScript    edits;
+    private final Source        beforeMetadata;
+    private final Source        metadata;
+    private final int           beforeHash;
+    private final int           afterHash;
     private final long          timeStamp;
 
+    // the strong base is released once the commit is chained to its previous commit.
+    private volatile Source                 base;
+    private volatile Commit                 previous;
+    private volatile SoftReference<Source>  before;
+    private volatile SoftReference<Source>  after;
+
     private final AtomicReference<CommitSummary> status;
 
 
@@ -31,8 +56,14 @@ public class Commit implements Comparable <Commit> {
      */
     Commit(Name name, Source before, Source after, long timeStamp, CommitSummary status){
         this.name       = Preconditions.checkNotNull(name);
-        this.before     = Preconditions.checkNotNull(before);
-        this.after      = Preconditions.checkNotNull(after);
+        this.base       = Preconditions.checkNotNull(before);
+        this.edits      = EditScript.between(before.getContents(), Preconditions.checkNotNull(after).getContents());
+        this.beforeMetadata = new Source(before, "");
+        this.metadata   = new Source(after, "");
+        this.beforeHash = before.hashCode();
+        this.afterHash  = after.hashCode();
+        this.before     = new SoftReference<Source>(before);
+        this.after      = new SoftReference<Source>(after);
         this.timeStamp  = Preconditions.checkNotNull(timeStamp);
         this.status     = Atomics.newReference(Preconditions.checkNotNull(status));
     }
@@ -46,6 +77,12 @@ public class Commit implements Comparable <Commit> {
      */
     Commit(Name name, long timeStamp, CommitSummary status){
         this.name       = Preconditions.checkNotNull(name);
+        this.base       = null;
+        this.edits      = null;
+        this.beforeMetadata = null;
+        this.metadata   = null;
+        this.beforeHash = 0;
+        this.afterHash  = 0;
         this.before     = null;
         this.after      = null;
         this.timeStamp  = Preconditions.checkNotNull(timeStamp);
@@ -68,6 +105,34 @@ public class Commit implements Comparable <Commit> {
     }
 
 
+    /**
+     * Chains this commit to the commit that produced its {@code Source} before the change,
+     * so this commit stops holding that {@code Source} strongly and rebuilds it from
+     * {@code previous} instead. It does nothing if {@code previous} is not ordered before
+     * this commit (which keeps chains free of cycles), if its {@code Source} after the
+     * change is not this commit's {@code Source} before the change, or if this commit is
+     * already chained.
+     *
+     * @param previous The commit preceding this commit; may be null.
+     * @return {@code true} if this commit was chained to {@code previous}.
+     */
+    public boolean chainTo(Commit previous){
+        if(previous == null || this.previous != null || base == null) return false;
+        if(previous.metadata == null || previous.afterHash != beforeHash) return false;
+        if(previous.compareTo(this) >= 0) return false;
+
+        synchronized (this){
+            final Source strong = base;
+            if(this.previous != null || strong == null) return false;
+            if(!previous.getSourceAfterChange().equals(strong)) return false;
+
+            this.previous   = previous;
+            this.base       = null;
+        }
+
+        return true;
+    }
+
     /**
      * Amends the summary of a commit.
      * @param summary The amendment.
@@ -99,16 +164,24 @@ public class Commit implements Comparable <Commit> {
 
         //objects, including type-safe enums, follow this form
         //note that null objects will throw an exception here
-        int comparison = this.getSourceBeforeChange().getContents().compareTo(that.getSourceBeforeChange().getContents());
+        int comparison = this.getNameOfChange().getKey().compareTo(that.getNameOfChange().getKey());
         if (comparison != EQUAL) return comparison;
 
-        comparison = this.getSourceAfterChange().getContents().compareTo(that.getSourceAfterChange().getContents());
+        comparison = this.getCommitSummary().compareTo(that.getCommitSummary());
         if (comparison != EQUAL) return comparison;
 
-        comparison = this.getNameOfChange().getKey().compareTo(that.getNameOfChange().getKey());
+        // hashes settle (almost) every remaining tie without comparing (or materializing)
+        // the full contents.
+        comparison = compare(this.beforeHash, that.beforeHash);
         if (comparison != EQUAL) return comparison;
 
-        comparison = this.getCommitSummary().compareTo(that.getCommitSummary());
+        comparison = compare(this.afterHash, that.afterHash);
+        if (comparison != EQUAL) return comparison;
+
+        comparison = this.getSourceBeforeChange().getContents().compareTo(that.getSourceBeforeChange().getContents());
+        if (comparison != EQUAL) return comparison;
+
+        comparison = this.getSourceAfterChange().getContents().compareTo(that.getSourceAfterChange().getContents());
         if (comparison != EQUAL) return comparison;
 
         //all comparisons have yielded equality
@@ -118,6 +191,10 @@ public class Commit implements Comparable <Commit> {
         return EQUAL;
     }
 
+    private static int compare(int a, int b){
+        return a < b ? -1 : (a == b ? 0 : 1);
+    }
+
     @Override public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Commit)) return false;
@@ -141,14 +218,70 @@ public class Commit implements Comparable <Commit> {
      * @return The Source before the code change.
      */
     public Source getSourceBeforeChange(){
-        return before;
+        if(metadata == null) return null;
+
+        final Source cached = cachedBefore();
+        if(cached != null) return cached;
+
+        // walks back to the nearest commit whose Source (before or after the change) is
+        // still around, then replays the edit scripts forward.
+        final Deque<Commit> replay = new ArrayDeque<Commit>();
+        Commit  at       = this;
+        String  contents = null;
+        while(contents == null){
+            replay.push(at);
+
+            final Commit prior      = at.previous;
+            final Source priorAfter = prior.after.get();
+            if(priorAfter != null){
+                contents = priorAfter.getContents();
+                continue;
+            }
+
+            final Source priorBefore = prior.cachedBefore();
+            if(priorBefore != null){
+                contents = prior.edits.apply(priorBefore.getContents());
+                prior.after = new SoftReference<Source>(new Source(prior.metadata, contents));
+                continue;
+            }
+
+            at = prior;
+        }
+
+        Source materialized = null;
+        while(!replay.isEmpty()){
+            final Commit each = replay.pop();
+            materialized = new Source(each.beforeMetadata, contents);
+            each.before  = new SoftReference<Source>(materialized);
+
+            if(each != this){
+                contents    = each.edits.apply(contents);
+                each.after  = new SoftReference<Source>(new Source(each.metadata, contents));
+            }
+        }
+
+        return materialized;
+    }
+
+    private Source cachedBefore(){
+        final Source strong = base;
+        if(strong != null) return strong;
+
+        return before.get();
     }
 
     /**
      * @return The Source after the code change.
      */
     public Source getSourceAfterChange(){
-        return after;
+        if(metadata == null) return null;
+
+        final Source cached = after.get();
+        if(cached != null) return cached;
+
+        final Source materialized = new Source(metadata, edits.apply(getSourceBeforeChange().getContents()));
+        after = new SoftReference<Source>(materialized);
+        return materialized;
     }
 
     /**
@@ -178,11 +311,21 @@ public class Commit implements Comparable <Commit> {
     @Override public int hashCode() {
         return Objects.hashCode(
                 getNameOfChange(),
-                getSourceBeforeChange(),
-                getSourceAfterChange()
+                metadata == null ? null : beforeHash,
+                metadata == null ? null : afterHash
         );
     }
 
+    /**
+     * Drops the softly cached {@code Source}s, as a low memory would. Visible for testing.
+     */
+    void clearCachedSources(){
+        if(metadata == null) return;
+
+        before.clear();
+        after.clear();
+    }
+
     /**
      * @return {@code true} if this is a valid commit, {@code false} otherwise.
      */
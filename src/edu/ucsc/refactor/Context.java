@@ -1,8 +1,10 @@
 package edu.ucsc.refactor;
 
 import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import edu.ucsc.refactor.internal.CompilationProblemException;
+import edu.ucsc.refactor.internal.util.UnwoundBindings;
 import edu.ucsc.refactor.util.Locations;
 import org.eclipse.jdt.core.compiler.IProblem;
 import org.eclipse.jdt.core.dom.ASTNode;
@@ -18,12 +20,17 @@ import java.util.Set;
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class Context {
+    private static final String CONTEXT_PROPERTY = "vesper.context.context_property";
+
     private final Source    file;
+    private DependencyGraph dependencyGraph;
+    private UnwoundBindings unwoundBindings;
 
     private Location                    scope;
     private CompilationUnit             compilationUnit;
     private List<String>                syntaxRelatedProblems;
     private CompilationProblemException cpe;
+    private Project                     project;
 
 
 
@@ -128,9 +135,58 @@ public class Context {
                 this.getSource()
         );
 
+        this.compilationUnit.setProperty(CONTEXT_PROPERTY, this);
+        this.dependencyGraph = null;
+        this.unwoundBindings = null;
+
         addCompilationErrorIfExist(this.compilationUnit, this.syntaxRelatedProblems, this.cpe);
     }
 
+    /**
+     * Gets the {@link Context} a node was parsed in.
+     *
+     * @param node The node.
+     * @return the node's {@code Context} or null if its compilation unit was not set
+     *      on any context.
+     */
+    public static Context of(ASTNode node){
+        final Object context = node.getRoot().getProperty(CONTEXT_PROPERTY);
+        return context instanceof Context ? (Context) context : null;
+    }
+
+    /**
+     * Gets the dependency graph of this context's declarations. The graph is built (in one
+     * walk over the compilation unit) the first time it is requested, and then kept for as
+     * long as the compilation unit is.
+     *
+     * @return the {@code DependencyGraph} of this context.
+     * @throws IllegalStateException if the context has not been parsed.
+     */
+    public DependencyGraph getDependencyGraph(){
+        if(dependencyGraph == null){
+            dependencyGraph = DependencyGraph.of(this);
+        }
+
+        return dependencyGraph;
+    }
+
+    /**
+     * Gets the bindings referenced by the nodes of this context's compilation unit. Each
+     * node is unwound the first time it is asked about, and the result is kept for as long
+     * as the compilation unit is.
+     *
+     * @return the {@code UnwoundBindings} of this context.
+     * @throws IllegalStateException if the context has not been parsed.
+     */
+    public UnwoundBindings getUnwoundBindings(){
+        if(unwoundBindings == null){
+            Preconditions.checkState(compilationUnit != null, "Context has not been parsed");
+            unwoundBindings = new UnwoundBindings(compilationUnit);
+        }
+
+        return unwoundBindings;
+    }
+
     /**
      * Get the compilation unit that belongs to the content of the source file's file.
      *
@@ -159,6 +215,24 @@ public class Context {
         return file;
     }
 
+    /**
+     * Gets the {@link Project} this context was parsed with (if any).
+     *
+     * @return The context's {@code Project} or null if the context was parsed in isolation.
+     */
+    public Project getProject() {
+        return project;
+    }
+
+    /**
+     * Sets the {@link Project} this context was parsed with.
+     *
+     * @param project The {@code Project}
+     */
+    void setProject(Project project) {
+        this.project = project;
+    }
+
     /**
      * Sets the context scope (if any).
      *
@@ -0,0 +1,782 @@
+package edu.ucsc.refactor;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Ints;
+import edu.ucsc.refactor.internal.SourceLocation;
+import edu.ucsc.refactor.internal.visitors.BindingOccurrencesVisitor;
+import org.eclipse.jdt.core.dom.*;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The dependencies between the declarations of a {@link Source}: its types, methods,
+ * fields and imports are the nodes of the graph, and the calls, field reads and writes, and
+ * type uses among them are its edges. A reference is attributed to the innermost method,
+ * field or type enclosing it; references to declarations outside the {@link Source} are
+ * kept only if they go through one of its imports.
+ *
+ * <p>Nodes are identified by a dense index ({@code 0 ... size() - 1}) and by their binding
+ * key, and edges are stored as int-indexed adjacency arrays in both directions, so
+ * dependencies, dependents, the impact of a change, and the slice of a set of declarations
+ * are cheap to query. The graph is built in one walk over the parsed {@link Source} and
+ * never changes; see {@link Context#getDependencyGraph()}.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public final class DependencyGraph {
+    /**
+     * The kinds of nodes.
+     */
+    public enum Kind { TYPE, METHOD, FIELD, IMPORT }
+
+    /**
+     * The kinds of edges: a node calls a method (or constructor), reads or writes a field,
+     * or uses a type.
+     */
+    public enum Dependency { CALLS, READS, WRITES, USES_TYPE }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final int[]  NONE  = new int[0];
+
+    private final Source                source;
+    private final String[]              keys;
+    private final String[]              names;
+    private final byte[]                kinds;
+    private final int[]                 parents;
+    private final int[]                 offsets;
+    private final int[]                 lengths;
+    private final Map<String, Integer>  index;
+
+    // the members of type t are the ones in [memberStart[t], memberStart[t + 1]).
+    private final int[]  memberStart;
+    private final int[]  members;
+
+    // edges, grouped by source node (out) and by target node (in): the edges of node n
+    // are the ones in [start[n], start[n + 1]).
+    private final int[]  outStart;
+    private final int[]  outNodes;
+    private final byte[] outKinds;
+    private final int[]  inStart;
+    private final int[]  inNodes;
+    private final byte[] inKinds;
+
+    private DependencyGraph(Source source, Builder builder, long[] edges){
+        final int size = builder.keys.size();
+
+        this.source     = source;
+        this.keys       = builder.keys.toArray(new String[size]);
+        this.names      = builder.names.toArray(new String[size]);
+        this.kinds      = new byte[size];
+        this.parents    = Ints.toArray(builder.parents);
+        this.offsets    = Ints.toArray(builder.offsets);
+        this.lengths    = Ints.toArray(builder.lengths);
+        this.index      = ImmutableMap.copyOf(builder.index);
+
+        for(int idx = 0; idx < size; idx++){
+            kinds[idx] = (byte) builder.kinds.get(idx).ordinal();
+        }
+
+        this.memberStart = new int[size + 1];
+        this.members     = new int[size];
+
+        for(int parent : parents){
+            if(parent >= 0) memberStart[parent + 1]++;
+        }
+
+        for(int idx = 0; idx < size; idx++){
+            memberStart[idx + 1] += memberStart[idx];
+        }
+
+        final int[] nextMember = Arrays.copyOf(memberStart, size);
+        for(int idx = 0; idx < size; idx++){
+            if(parents[idx] >= 0) members[nextMember[parents[idx]]++] = idx;
+        }
+
+        this.outStart   = new int[size + 1];
+        this.outNodes   = new int[edges.length];
+        this.outKinds   = new byte[edges.length];
+        this.inStart    = new int[size + 1];
+        this.inNodes    = new int[edges.length];
+        this.inKinds    = new byte[edges.length];
+
+        // edges are sorted by source node, so they are already grouped by it
+        for(long each : edges){
+            outStart[from(each) + 1]++;
+            inStart[to(each) + 1]++;
+        }
+
+        for(int idx = 0; idx < size; idx++){
+            outStart[idx + 1] += outStart[idx];
+            inStart[idx + 1]  += inStart[idx];
+        }
+
+        final int[] next = Arrays.copyOf(inStart, size);
+        for(int idx = 0; idx < edges.length; idx++){
+            final long each = edges[idx];
+
+            outNodes[idx] = to(each);
+            outKinds[idx] = kind(each);
+
+            final int slot = next[to(each)]++;
+            inNodes[slot] = from(each);
+            inKinds[slot] = kind(each);
+        }
+    }
+
+    /**
+     * Builds the dependency graph of a parsed {@link Source}.
+     *
+     * @param context The parsed {@link Source}.
+     * @return a new {@link DependencyGraph}.
+     */
+    static DependencyGraph of(Context context){
+        final CompilationUnit unit = Preconditions.checkNotNull(context).getCompilationUnit();
+        Preconditions.checkState(unit != null, "Context has not been parsed");
+
+        return of(context.getSource(), unit);
+    }
+
+    /**
+     * Returns the dependency graph of the compilation unit a node belongs to; the one kept
+     * by the {@link Context} the node was parsed in, or a new one if there is no such
+     * context.
+     *
+     * @param node The node.
+     * @return the {@link DependencyGraph} of the node's compilation unit.
+     */
+    public static DependencyGraph of(ASTNode node){
+        final ASTNode root = Preconditions.checkNotNull(node).getRoot();
+        Preconditions.checkArgument(root instanceof CompilationUnit, "node is not in a compilation unit");
+
+        final Context context = Context.of(root);
+        return context != null && context.getCompilationUnit() == root
+                ? context.getDependencyGraph()
+                : of(Source.from(root), (CompilationUnit) root);
+    }
+
+    private static DependencyGraph of(Source source, CompilationUnit unit){
+        final Builder builder = new Builder();
+        unit.accept(builder);
+
+        return new DependencyGraph(source, builder, builder.resolveEdges());
+    }
+
+    /**
+     * @return the {@link Source} this graph was built from; null if its compilation unit
+     *      was parsed outside a {@link Source}.
+     */
+    public Source getSource(){
+        return source;
+    }
+
+    /**
+     * @return the number of nodes.
+     */
+    public int size(){
+        return keys.length;
+    }
+
+    /**
+     * Finds a node by its key; i.e., the key of its declaration's binding, or
+     * {@code import:<name>} for imports.
+     *
+     * @param key The node's key.
+     * @return the node's index, or -1 if there is no such node.
+     */
+    public int indexOf(String key){
+        final Integer result = index.get(key);
+        return result == null ? -1 : result;
+    }
+
+    /**
+     * Finds the node of a declaration.
+     *
+     * @param binding The binding of the declaration, or of a reference to it.
+     * @return the node's index, or -1 if the declaration is not a node of this graph.
+     */
+    public int indexOf(IBinding binding){
+        return binding == null ? -1 : indexOf(keyOf(binding));
+    }
+
+    /**
+     * @param node The node's index.
+     * @return the node's key.
+     */
+    public String getKey(int node){
+        return keys[node];
+    }
+
+    /**
+     * @param node The node's index.
+     * @return the node's name; e.g., a method's name, or an import's imported name.
+     */
+    public String getName(int node){
+        return names[node];
+    }
+
+    /**
+     * @param node The node's index.
+     * @return the node's kind.
+     */
+    public Kind getKind(int node){
+        return KINDS[kinds[node]];
+    }
+
+    /**
+     * @param node The node's index.
+     * @return the type declaring the node, or -1 for top level types and imports.
+     */
+    public int getParent(int node){
+        return parents[node];
+    }
+
+    /**
+     * @param node The node's index.
+     * @return the methods, fields and types the node declares, if it is a type, in index
+     *      order.
+     */
+    public int[] getMembers(int node){
+        return Arrays.copyOfRange(members, memberStart[node], memberStart[node + 1]);
+    }
+
+    /**
+     * @param node The node's index.
+     * @return the location of the node's declaration in the {@link Source}.
+     * @throws IllegalStateException if the graph has no {@link Source}.
+     */
+    public Location getLocation(int node){
+        Preconditions.checkState(source != null, "graph was not built from a Source");
+        return SourceLocation.createLocation(
+                source,
+                source.getContents(),
+                offsets[node],
+                offsets[node] + lengths[node]
+        );
+    }
+
+    /**
+     * @param node The node's index.
+     * @return the nodes the node depends on, in index order.
+     */
+    public int[] getDependencies(int node){
+        return distinct(outNodes, outStart[node], outStart[node + 1]);
+    }
+
+    /**
+     * @param node The node's index.
+     * @param kind The kind of dependency.
+     * @return the nodes the node depends on in that way, in index order.
+     */
+    public int[] getDependencies(int node, Dependency kind){
+        return select(outNodes, outKinds, outStart[node], outStart[node + 1], kind);
+    }
+
+    /**
+     * @param node The node's index.
+     * @return the nodes depending on the node, in index order.
+     */
+    public int[] getDependents(int node){
+        return distinct(inNodes, inStart[node], inStart[node + 1]);
+    }
+
+    /**
+     * @param node The node's index.
+     * @param kind The kind of dependency.
+     * @return the nodes depending on the node in that way, in index order.
+     */
+    public int[] getDependents(int node, Dependency kind){
+        return select(inNodes, inKinds, inStart[node], inStart[node + 1], kind);
+    }
+
+    /**
+     * Checks whether a node depends on another one in a given way.
+     *
+     * @param node The node's index.
+     * @param target The other node's index.
+     * @param kind The kind of dependency.
+     * @return {@code true} if there is such an edge.
+     */
+    public boolean dependsOn(int node, int target, Dependency kind){
+        for(int idx = outStart[node]; idx < outStart[node + 1]; idx++){
+            if(outNodes[idx] == target && outKinds[idx] == kind.ordinal()) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Computes the impact of changing a node; i.e., the nodes depending on it, directly or
+     * transitively.
+     *
+     * @param node The node's index.
+     * @return the impacted nodes, in index order; the node itself only if it (transitively)
+     *      depends on itself.
+     */
+    public int[] getImpactOf(int node){
+        final BitSet impacted = new BitSet(size());
+        final int[]  queue    = new int[size()];
+
+        int head = 0, tail = 0;
+        queue[tail++] = node;
+
+        while(head < tail){
+            final int current = queue[head++];
+            for(int idx = inStart[current]; idx < inStart[current + 1]; idx++){
+                final int dependent = inNodes[idx];
+                if(!impacted.get(dependent)){
+                    impacted.set(dependent);
+                    if(dependent != node) queue[tail++] = dependent;
+                }
+            }
+        }
+
+        return toArray(impacted);
+    }
+
+    /**
+     * Computes the slice of a set of nodes; i.e., the nodes needed to keep them: the nodes
+     * they depend on, directly or transitively, and the members of every type among those.
+     *
+     * @param nodes The nodes' indices.
+     * @return the nodes in the slice, the given ones included, in index order.
+     */
+    public int[] getSliceOf(int... nodes){
+        final BitSet sliced = new BitSet(size());
+        final int[]  queue  = new int[size()];
+
+        int head = 0, tail = 0;
+        for(int each : nodes){
+            if(!sliced.get(each)){
+                sliced.set(each);
+                queue[tail++] = each;
+            }
+        }
+
+        while(head < tail){
+            final int current = queue[head++];
+            for(int idx = outStart[current]; idx < outStart[current + 1]; idx++){
+                final int dependency = outNodes[idx];
+                if(!sliced.get(dependency)){
+                    sliced.set(dependency);
+                    queue[tail++] = dependency;
+                }
+            }
+
+            for(int idx = memberStart[current]; idx < memberStart[current + 1]; idx++){
+                final int member = members[idx];
+                if(!sliced.get(member)){
+                    sliced.set(member);
+                    queue[tail++] = member;
+                }
+            }
+        }
+
+        return toArray(sliced);
+    }
+
+    private static int[] toArray(BitSet nodes){
+        final int[] result = new int[nodes.cardinality()];
+        for(int idx = nodes.nextSetBit(0), at = 0; idx >= 0; idx = nodes.nextSetBit(idx + 1)){
+            result[at++] = idx;
+        }
+
+        return result;
+    }
+
+    private static int[] distinct(int[] nodes, int from, int to){
+        if(from == to) return NONE;
+
+        final int[] result = Arrays.copyOfRange(nodes, from, to);
+        Arrays.sort(result);
+
+        int size = 1;
+        for(int idx = 1; idx < result.length; idx++){
+            if(result[idx] != result[size - 1]) result[size++] = result[idx];
+        }
+
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static int[] select(int[] nodes, byte[] kinds, int from, int to, Dependency kind){
+        final int[] result = new int[to - from];
+
+        int size = 0;
+        for(int idx = from; idx < to; idx++){
+            if(kinds[idx] == kind.ordinal()) result[size++] = nodes[idx];
+        }
+
+        // a node's edges are sorted by the other node, so a selection of them is too
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    private static String keyOf(IBinding binding){
+        // unlike AstUtil#getDeclaration, keeps constructors apart from their types
+        return BindingOccurrencesVisitor.declarationOf(binding).getKey();
+    }
+
+    // an edge is packed as [from: 31 bits][to: 29 bits][kind: 3 bits]
+    private static long edge(int from, int to, Dependency kind){
+        return ((long) from << 32) | ((long) to << 3) | kind.ordinal();
+    }
+
+    private static int from(long edge){
+        return (int) (edge >>> 32);
+    }
+
+    private static int to(long edge){
+        return (int) ((edge >>> 3) & 0x1FFFFFFF);
+    }
+
+    private static byte kind(long edge){
+        return (byte) (edge & 0x7);
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("source", source == null ? null : source.getName())
+                .add("nodes", size())
+                .add("edges", outNodes.length)
+                .toString();
+    }
+
+    /**
+     * Collects the nodes and (unresolved) edges of a compilation unit in one walk.
+     */
+    private static class Builder extends ASTVisitor {
+        final List<String>          keys    = Lists.newArrayList();
+        final List<String>          names   = Lists.newArrayList();
+        final List<Kind>            kinds   = Lists.newArrayList();
+        final List<Integer>         parents = Lists.newArrayList();
+        final List<Integer>         offsets = Lists.newArrayList();
+        final List<Integer>         lengths = Lists.newArrayList();
+        final Map<String, Integer>  index   = Maps.newHashMap();
+
+        // imports, by the type, package or member they import
+        final Map<String, Integer>  singleTypeImports    = Maps.newHashMap();
+        final Map<String, Integer>  onDemandImports      = Maps.newHashMap();
+        final Map<String, Integer>  staticImports        = Maps.newHashMap();
+        final Map<String, Integer>  staticOnDemandImports = Maps.newHashMap();
+
+        // edges whose target may be declared later in the unit
+        final List<Integer>         edgeSources         = Lists.newArrayList();
+        final List<String>          edgeTargets         = Lists.newArrayList();
+        final List<Integer>         edgeImports         = Lists.newArrayList();
+        final List<Dependency>      edgeKinds           = Lists.newArrayList();
+
+        // the enclosing declarations: -1 when the declaration is not a node
+        int[] owners     = new int[16];
+        int[] types      = new int[16];
+        int   depth      = 0;
+
+        Builder(){
+            super(false);
+        }
+
+        long[] resolveEdges(){
+            final long[] edges = new long[edgeSources.size()];
+
+            int size = 0;
+            for(int idx = 0; idx < edges.length; idx++){
+                final Integer target = index.get(edgeTargets.get(idx));
+                final int     to     = target == null ? edgeImports.get(idx) : target;
+                if(to < 0) continue;
+
+                edges[size++] = edge(edgeSources.get(idx), to, edgeKinds.get(idx));
+            }
+
+            final long[] sorted = Arrays.copyOf(edges, size);
+            Arrays.sort(sorted);
+
+            // drop repeated edges
+            int distinct = 0;
+            for(int idx = 0; idx < sorted.length; idx++){
+                if(distinct == 0 || sorted[idx] != sorted[distinct - 1]) sorted[distinct++] = sorted[idx];
+            }
+
+            return distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct);
+        }
+
+        private int addNode(String key, String name, Kind kind, ASTNode declaration){
+            final Integer existing = index.get(key);
+            if(existing != null) return existing;
+
+            final int node = keys.size();
+            keys.add(key);
+            names.add(name);
+            kinds.add(kind);
+            parents.add(depth == 0 ? -1 : types[depth - 1]);
+            offsets.add(declaration.getStartPosition());
+            lengths.add(declaration.getLength());
+            index.put(key, node);
+
+            return node;
+        }
+
+        private void enter(Kind kind, IBinding binding, ASTNode declaration){
+            final int owner = depth == 0 ? -1 : owners[depth - 1];
+            final int type  = depth == 0 ? -1 : types[depth - 1];
+
+            int node = owner;
+            if(binding != null){
+                node = addNode(keyOf(binding), binding.getName(), kind, declaration);
+            }
+
+            if(depth == owners.length){
+                owners = Arrays.copyOf(owners, depth * 2);
+                types  = Arrays.copyOf(types, depth * 2);
+            }
+
+            owners[depth] = node;
+            types[depth]  = kind == Kind.TYPE && binding != null ? node : type;
+            depth++;
+        }
+
+        private void leave(){
+            depth--;
+        }
+
+        private void dependOn(IBinding target, Dependency kind, int importNode){
+            final int owner = depth == 0 ? -1 : owners[depth - 1];
+            if(owner < 0 || target == null) return;
+
+            edgeSources.add(owner);
+            edgeTargets.add(keyOf(target));
+            edgeImports.add(importNode);
+            edgeKinds.add(kind);
+        }
+
+        @Override public boolean visit(PackageDeclaration node) {
+            return false;
+        }
+
+        @Override public boolean visit(ImportDeclaration node) {
+            final String imported = node.getName().getFullyQualifiedName();
+            final String name     = node.isOnDemand() ? imported + ".*" : imported;
+            final int    at       = addNode(
+                    "import:" + (node.isStatic() ? "static " : "") + name,
+                    name,
+                    Kind.IMPORT,
+                    node
+            );
+
+            if(node.isStatic()){
+                (node.isOnDemand() ? staticOnDemandImports : staticImports).put(imported, at);
+            } else {
+                (node.isOnDemand() ? onDemandImports : singleTypeImports).put(imported, at);
+            }
+
+            return false;
+        }
+
+        @Override public boolean visit(TypeDeclaration node) {
+            enter(Kind.TYPE, node.resolveBinding(), node);
+            return true;
+        }
+
+        @Override public void endVisit(TypeDeclaration node) {
+            leave();
+        }
+
+        @Override public boolean visit(EnumDeclaration node) {
+            enter(Kind.TYPE, node.resolveBinding(), node);
+            return true;
+        }
+
+        @Override public void endVisit(EnumDeclaration node) {
+            leave();
+        }
+
+        @Override public boolean visit(AnnotationTypeDeclaration node) {
+            enter(Kind.TYPE, node.resolveBinding(), node);
+            return true;
+        }
+
+        @Override public void endVisit(AnnotationTypeDeclaration node) {
+            leave();
+        }
+
+        @Override public boolean visit(MethodDeclaration node) {
+            enter(Kind.METHOD, node.resolveBinding(), node);
+            return true;
+        }
+
+        @Override public void endVisit(MethodDeclaration node) {
+            leave();
+        }
+
+        @Override public boolean visit(AnnotationTypeMemberDeclaration node) {
+            enter(Kind.METHOD, node.resolveBinding(), node);
+            return true;
+        }
+
+        @Override public void endVisit(AnnotationTypeMemberDeclaration node) {
+            leave();
+        }
+
+        @Override public boolean visit(EnumConstantDeclaration node) {
+            enter(Kind.FIELD, node.resolveVariable(), node);
+            return true;
+        }
+
+        @Override public void endVisit(EnumConstantDeclaration node) {
+            leave();
+        }
+
+        // a field's type (and annotations) are attributed to its first fragment
+        @Override public boolean visit(FieldDeclaration node) {
+            final VariableDeclarationFragment first = (VariableDeclarationFragment) node.fragments().get(0);
+            enter(Kind.FIELD, first.resolveBinding(), first);
+            return true;
+        }
+
+        @Override public void endVisit(FieldDeclaration node) {
+            leave();
+        }
+
+        @Override public boolean visit(VariableDeclarationFragment node) {
+            if(node.getParent() instanceof FieldDeclaration){
+                enter(Kind.FIELD, node.resolveBinding(), node);
+            }
+
+            return true;
+        }
+
+        @Override public void endVisit(VariableDeclarationFragment node) {
+            if(node.getParent() instanceof FieldDeclaration){
+                leave();
+            }
+        }
+
+        @Override public boolean visit(ClassInstanceCreation node) {
+            dependOn(node.resolveConstructorBinding(), Dependency.CALLS, -1);
+            return true;
+        }
+
+        @Override public boolean visit(ConstructorInvocation node) {
+            dependOn(node.resolveConstructorBinding(), Dependency.CALLS, -1);
+            return true;
+        }
+
+        @Override public boolean visit(SuperConstructorInvocation node) {
+            dependOn(node.resolveConstructorBinding(), Dependency.CALLS, -1);
+            return true;
+        }
+
+        @Override public boolean visit(SimpleName node) {
+            if(node.isDeclaration()) return false;
+
+            final IBinding binding = node.resolveBinding();
+            if(binding == null) return false;
+
+            switch (binding.getKind()){
+                case IBinding.METHOD:
+                    final ASTNode parent = node.getParent();
+                    if(parent instanceof MethodInvocation || parent instanceof SuperMethodInvocation){
+                        dependOn(binding, Dependency.CALLS, staticImportOf(binding));
+                    }
+
+                    break;
+
+                case IBinding.VARIABLE:
+                    if(((IVariableBinding) binding).isField()){
+                        final int importNode = staticImportOf(binding);
+                        final Dependency access = accessOf(node);
+                        if(access != Dependency.READS){
+                            dependOn(binding, Dependency.WRITES, importNode);
+                        }
+
+                        if(access != Dependency.WRITES){
+                            dependOn(binding, Dependency.READS, importNode);
+                        }
+                    }
+
+                    break;
+
+                case IBinding.TYPE:
+                    dependOn(binding, Dependency.USES_TYPE, isQualified(node) ? -1 : typeImportOf((ITypeBinding) binding));
+                    break;
+            }
+
+            return false;
+        }
+
+        /**
+         * @return WRITES for plain assignments, READS for plain reads, or null for both
+         *      (e.g., {@code x += 1} or {@code x++}).
+         */
+        private static Dependency accessOf(SimpleName name){
+            ASTNode access = name;
+            final ASTNode parent = name.getParent();
+            if((parent instanceof QualifiedName && ((QualifiedName) parent).getName() == name)
+                    || (parent instanceof FieldAccess && ((FieldAccess) parent).getName() == name)
+                    || (parent instanceof SuperFieldAccess && ((SuperFieldAccess) parent).getName() == name)){
+                access = parent;
+            }
+
+            final ASTNode user = access.getParent();
+            if(user instanceof Assignment && ((Assignment) user).getLeftHandSide() == access){
+                return ((Assignment) user).getOperator() == Assignment.Operator.ASSIGN
+                        ? Dependency.WRITES
+                        : null;
+            }
+
+            if(user instanceof PostfixExpression) return null;
+
+            if(user instanceof PrefixExpression){
+                final PrefixExpression.Operator operator = ((PrefixExpression) user).getOperator();
+                if(operator == PrefixExpression.Operator.INCREMENT
+                        || operator == PrefixExpression.Operator.DECREMENT){
+                    return null;
+                }
+            }
+
+            return Dependency.READS;
+        }
+
+        private static boolean isQualified(SimpleName name){
+            final ASTNode parent = name.getParent();
+            return (parent instanceof QualifiedName && ((QualifiedName) parent).getName() == name)
+                    || (parent instanceof QualifiedType && ((QualifiedType) parent).getName() == name);
+        }
+
+        private int typeImportOf(ITypeBinding binding){
+            final ITypeBinding type = binding.getErasure().getTypeDeclaration();
+
+            Integer result = singleTypeImports.get(type.getQualifiedName());
+            if(result == null && type.getDeclaringClass() != null){
+                result = onDemandImports.get(type.getDeclaringClass().getErasure().getQualifiedName());
+            }
+
+            if(result == null && type.getPackage() != null){
+                result = onDemandImports.get(type.getPackage().getName());
+            }
+
+            return result == null ? -1 : result;
+        }
+
+        private int staticImportOf(IBinding binding){
+            if(!Modifier.isStatic(binding.getModifiers())) return -1;
+
+            final ITypeBinding declaringClass = binding instanceof IMethodBinding
+                    ? ((IMethodBinding) binding).getDeclaringClass()
+                    : ((IVariableBinding) binding).getDeclaringClass();
+
+            if(declaringClass == null) return -1;
+
+            final String  type   = declaringClass.getErasure().getQualifiedName();
+            Integer       result = staticImports.get(type + "." + binding.getName());
+            if(result == null){
+                result = staticOnDemandImports.get(type);
+            }
+
+            return result == null ? -1 : result;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package edu.ucsc.refactor;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import java.util.List;
+
+/**
+ * The outcome of fixing every issue of a {@link Source}, round by round (see
+ * {@link Introspector#fixAll(Source)}).
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class FixReport {
+    private final Source        source;
+    private final List<Round>   rounds;
+    private final boolean       fixpoint;
+
+    /**
+     * Construct a new {@code FixReport}.
+     *
+     * @param source The fixed {@link Source}.
+     * @param rounds The rounds it took to fix it.
+     * @param fixpoint {@code true} if no fixable issues were left.
+     */
+    FixReport(Source source, List<Round> rounds, boolean fixpoint){
+        this.source     = Preconditions.checkNotNull(source);
+        this.rounds     = ImmutableList.copyOf(rounds);
+        this.fixpoint   = fixpoint;
+    }
+
+    /**
+     * @return the fixed {@link Source}.
+     */
+    public Source getSource(){
+        return source;
+    }
+
+    /**
+     * @return the rounds it took to fix the {@link Source}, in the order they ran.
+     */
+    public List<Round> getRounds(){
+        return rounds;
+    }
+
+    /**
+     * @return the total number of fixed issues.
+     */
+    public int getFixedIssues(){
+        int fixed = 0;
+        for(Round each : rounds){
+            fixed += each.getFixed();
+        }
+
+        return fixed;
+    }
+
+    /**
+     * @return {@code true} if no fixable issues were left in the {@link Source}; {@code false}
+     *      if the fixing stopped earlier (e.g., it ran out of rounds, or a round failed).
+     */
+    public boolean isFixpoint(){
+        return fixpoint;
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("source", source.getName())
+                .add("rounds", rounds.size())
+                .add("fixed", getFixedIssues())
+                .add("fixpoint", fixpoint)
+                .toString();
+    }
+
+    /**
+     * What happened in one round: the issues it detected in its (single) parse of the
+     * {@link Source}, the ones it fixed, and the ones it deferred to the next round since
+     * they overlap fixed ones.
+     */
+    public static class Round {
+        private final int           number;
+        private final int           detected;
+        private final int           fixed;
+        private final int           deferred;
+        private final long          elapsedMillis;
+        private final List<String>  errors;
+
+        Round(int number, int detected, int fixed, int deferred, long elapsedMillis,
+              List<String> errors){
+            this.number         = number;
+            this.detected       = detected;
+            this.fixed          = fixed;
+            this.deferred       = deferred;
+            this.elapsedMillis  = elapsedMillis;
+            this.errors         = ImmutableList.copyOf(errors);
+        }
+
+        static Round empty(int number, int detected, long elapsedMillis){
+            return new Round(number, detected, 0, 0, elapsedMillis, Lists.<String>newArrayList());
+        }
+
+        /**
+         * @return the (1-based) number of this round.
+         */
+        public int getNumber(){
+            return number;
+        }
+
+        /**
+         * @return the number of issues detected in this round.
+         */
+        public int getDetected(){
+            return detected;
+        }
+
+        /**
+         * @return the number of issues fixed in this round.
+         */
+        public int getFixed(){
+            return fixed;
+        }
+
+        /**
+         * @return the number of issues deferred to the next round.
+         */
+        public int getDeferred(){
+            return deferred;
+        }
+
+        /**
+         * @return the time (in milliseconds) this round took; parsing included.
+         */
+        public long getElapsedMillis(){
+            return elapsedMillis;
+        }
+
+        /**
+         * @return the errors found while fixing the issues of this round.
+         */
+        public List<String> getErrors(){
+            return errors;
+        }
+
+        @Override public String toString() {
+            return Objects.toStringHelper(getClass())
+                    .add("number", number)
+                    .add("detected", detected)
+                    .add("fixed", fixed)
+                    .add("deferred", deferred)
+                    .add("elapsedMillis", elapsedMillis)
+                    .toString();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package edu.ucsc.refactor;
 
 import edu.ucsc.refactor.spi.IssueDetector;
 import edu.ucsc.refactor.spi.JavaSnippetParser;
+import edu.ucsc.refactor.spi.Metrics;
 import edu.ucsc.refactor.spi.SourceChanger;
 
 import java.util.List;
@@ -34,6 +35,21 @@ public interface Host {
      */
     void addJavaParser(JavaSnippetParser parser);
 
+    /**
+     * Adds a jar file or class folder to the classpath bindings are resolved against. The
+     * running VM's bootclasspath is always included.
+     *
+     * @param entry The path of a jar file or class folder.
+     */
+    void addClasspathEntry(String entry);
+
+    /**
+     * Adds a source folder to the sourcepath bindings are resolved against.
+     *
+     * @param entry The path of a source folder.
+     */
+    void addSourcepathEntry(String entry);
+
     /**
      * Adds a {@link IssueDetector} implementation.
      *
@@ -56,6 +72,19 @@ public interface Host {
      */
     void addCredentials(Credential credential);
 
+    /**
+     * Adds the {@link Metrics} that time (and count) what this host, its issue detectors and
+     * its source changers do. Metrics are disabled by default.
+     *
+     * @param metrics The metrics; e.g., a {@link edu.ucsc.refactor.util.MetricsRegistry}.
+     */
+    void addMetrics(Metrics metrics);
+
+    /**
+     * @return the {@link Metrics} of this host.
+     */
+    Metrics getMetrics();
+
     /**
      * Creates a new Java context for the source file.  This
      * process includes the parsing of the created Java context.
@@ -66,6 +95,16 @@ public interface Host {
      */
     Context createContext(Source source);
 
+    /**
+     * Creates a new Java project for a set of source files. The source files are
+     * parsed together, so bindings are shared and cross-file references are resolved.
+     *
+     * @param sources The source files.
+     * @return a new Java project.
+     * @throws RuntimeException if a source file cannot be parsed.
+     */
+    Project createProject(Iterable<Source> sources);
+
     /**
      * Returns only available issue detectors.
      *
@@ -65,6 +65,17 @@ public interface Introspector {
      */
     Set<Issue> detectIssues(Context context);
 
+    /**
+     * Let all the {@link IssueDetector}s scan every {@link Source} of a {@link Project} and
+     * find the {@link Issue}s. Declarations referenced from other {@code Source}s of the
+     * project are not reported as unused.
+     *
+     * @param project The project to scan through for issues.
+     * @return The detected issues, per {@code Source}.
+     * @throws java.lang.NullPointerException if {@code Project} null.
+     */
+    Map<Source, Set<Issue>> detectIssues(Project project);
+
     /**
      * Scans a {@link Source} tracked by the {@code Refactorer}, looking for any missing imports.
      *
@@ -105,6 +116,42 @@ public interface Introspector {
      */
     List<Change> detectImprovements(Set<Issue> issues);
 
+    /**
+     * Fixes every issue of a {@code Source} that can be fixed automatically, in rounds. Each
+     * round parses the {@code Source} once, fixes all its non-overlapping issues with one
+     * rewrite, and defers the overlapping ones to the next round. Smells are fixed in
+     * dependency order (e.g., unused methods before the magic numbers and imports they may
+     * hold), since fixing one issue often makes others go away or shows up new ones.
+     * Fixing stops once no fixable issues are left, or after a default number of rounds.
+     *
+     * @param code The {@code Source} to be fixed.
+     * @return a report holding the fixed {@code Source} and what each round did.
+     * @throws java.lang.NullPointerException if {@code Source} null.
+     */
+    FixReport fixAll(Source code);
+
+    /**
+     * Fixes every issue of a {@code Source} that can be fixed automatically, in at most
+     * {@code maxRounds} rounds. See {@link #fixAll(Source)}.
+     *
+     * @param code The {@code Source} to be fixed.
+     * @param maxRounds The maximum number of rounds.
+     * @return a report holding the fixed {@code Source} and what each round did.
+     * @throws java.lang.NullPointerException if {@code Source} null.
+     * @throws java.lang.IllegalArgumentException if {@code maxRounds} is not positive.
+     */
+    FixReport fixAll(Source code, int maxRounds);
+
+    /**
+     * Builds the dependency graph of a {@code Source}; i.e., which of its methods, fields,
+     * types and imports call, read, write or use which others.
+     *
+     * @param code The {@code Source} to be examined.
+     * @return the {@code Source}'s dependency graph.
+     * @throws java.lang.NullPointerException if {@code Source} null.
+     */
+    DependencyGraph dependencyGraph(Source code);
+
     /**
      * Checks if this {@code Source} is syntactically correct. That is, the Java compiler
      * returned no syntax errors.
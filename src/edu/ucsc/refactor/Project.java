@@ -0,0 +1,141 @@
+package edu.ucsc.refactor;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.SetMultimap;
+import org.eclipse.jdt.core.dom.*;
+
+import java.util.List;
+
+/**
+ * A set of {@link Source}s parsed together, with shared bindings. Unlike an isolated
+ * {@link Context}, a project knows which declarations are referenced from other
+ * {@code Source}s, so detectors can tell declarations used across files apart from
+ * unused ones.
+ *
+ * <p>Projects are created by {@link Host#createProject(Iterable)}; each of their contexts
+ * points back to the project via {@link Context#getProject()}.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public final class Project {
+    private final List<Context>                 contexts;
+    private final SetMultimap<String, Source>   references;
+
+    /**
+     * Constructs a new {@link Project}.
+     *
+     * @param contexts The parsed contexts of this project.
+     */
+    public Project(List<Context> contexts){
+        this.contexts   = ImmutableList.copyOf(contexts);
+        this.references = HashMultimap.create();
+
+        for(Context each : this.contexts){
+            each.setProject(this);
+            if(each.getCompilationUnit() != null){
+                each.accept(new ReferencesVisitor(each.getSource(), references));
+            }
+        }
+    }
+
+    /**
+     * @return the parsed contexts of this project, in the order their sources were given.
+     */
+    public List<Context> getContexts(){
+        return contexts;
+    }
+
+    /**
+     * Returns the context of a {@link Source} in this project.
+     *
+     * @param source The {@link Source}.
+     * @return the source's context or null if the source is not part of this project.
+     */
+    public Context getContext(Source source){
+        for(Context each : contexts){
+            if(each.getSource().equals(source)) return each;
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks whether a declaration is referenced from a {@link Source} other than the given
+     * one.
+     *
+     * @param binding The binding of a type, method, or field declaration.
+     * @param declaringSource The {@link Source} where the declaration lives.
+     * @return {@code true} if some other source in this project references the declaration.
+     */
+    public boolean isReferencedOutside(IBinding binding, Source declaringSource){
+        final String key = keyOf(binding);
+        if(key == null) return false;
+
+        for(Source each : references.get(key)){
+            if(!each.equals(declaringSource)) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @return the number of sources in this project.
+     */
+    public int size(){
+        return contexts.size();
+    }
+
+    /**
+     * Returns the key that identifies a declaration across compilation units; references to
+     * parameterized types and methods are mapped to their generic declarations.
+     */
+    static String keyOf(IBinding binding){
+        if(binding == null) return null;
+
+        switch (binding.getKind()){
+            case IBinding.TYPE:
+                final ITypeBinding type = ((ITypeBinding) binding).getTypeDeclaration();
+                return type.isFromSource() ? type.getKey() : null;
+            case IBinding.METHOD:
+                return ((IMethodBinding) binding).getMethodDeclaration().getKey();
+            case IBinding.VARIABLE:
+                final IVariableBinding variable = (IVariableBinding) binding;
+                return variable.isField() ? variable.getVariableDeclaration().getKey() : null;
+            default:
+                return null;
+        }
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper("Project")
+                .add("sources", contexts.size())
+                .add("references", references.size())
+                .toString();
+    }
+
+    /**
+     * Records, per declaration key, the sources that reference the declaration.
+     */
+    private static class ReferencesVisitor extends ASTVisitor {
+        final Source                        source;
+        final SetMultimap<String, Source>   references;
+
+        ReferencesVisitor(Source source, SetMultimap<String, Source> references){
+            this.source     = source;
+            this.references = references;
+        }
+
+        @Override public boolean visit(SimpleName node) {
+            if(node.isDeclaration()) return false;
+
+            final String key = keyOf(node.resolveBinding());
+            if(key != null){
+                references.put(key, source);
+            }
+
+            return false;
+        }
+    }
+}
@@ -3,6 +3,9 @@ package edu.ucsc.refactor;
 import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
 import edu.ucsc.refactor.util.*;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jface.text.Document;
@@ -22,6 +25,8 @@ public class Source {
     private static final String END = "}";
     private static final String REGEX = "class[^;=\\n]*\\s[\\S\\s]*?";
 
+    private static final HashFunction DIGEST = Hashing.murmur3_128();
+
     private final String        contents;
     private final String        description;
     private final Notes         notes;
@@ -32,6 +37,8 @@ public class Source {
     private final AtomicReference<String> version;
     private final AtomicReference<String> signature;
 
+    private volatile HashCode digest;
+
     /**
      * construct a new {@link Source} object.
      *
@@ -69,6 +76,24 @@ public class Source {
         this.version     = new AtomicReference<String>();
     }
 
+    /**
+     * construct a new {@link Source} object that shares its name, description, notes, id,
+     * signature and version with another {@link Source}, but has its own contents. Changes
+     * made to the metadata of either one are seen by both.
+     *
+     * @param metadata The Source whose metadata is shared.
+     * @param contents The file's contents.
+     */
+    Source(Source metadata, String contents){
+        this.name        = metadata.name;
+        this.contents    = contents;
+        this.description = metadata.description;
+        this.id          = metadata.id;
+        this.notes       = metadata.notes;
+        this.signature   = metadata.signature;
+        this.version     = metadata.version;
+    }
+
     /**
      * Creates a copy of {@code Source} from a seed {@code Source}
      * and some new content.
@@ -227,15 +252,17 @@ public class Source {
 
 
     @Override public boolean equals(Object o) {
+        if(this == o) return true;
         if(!(o instanceof Source)){
             return false;
         }
 
-        final Source that      = (Source)o;
-        final boolean sameName = that.getName().equals(getName());
-        final boolean sameCont = that.getContents().equals(getContents());
+        final Source that = (Source)o;
+        if(!that.getName().equals(getName())) return false;
 
-        return sameName && sameCont;
+        // a digest mismatch settles it without comparing the contents char by char.
+        return that.getContentDigest().equals(getContentDigest())
+                && that.getContents().equals(getContents());
     }
 
     private static String generateDescription(String fromName){
@@ -267,6 +294,23 @@ public class Source {
      */
     public String getContents() { return contents; }
 
+    /**
+     * Returns a 128-bit digest of this {@code Source}'s contents. The digest is computed once,
+     * the first time it is asked for, and then reused; it is a cheap key for caches and
+     * look-ups of {@code Source} versions.
+     *
+     * @return The contents' digest.
+     */
+    public HashCode getContentDigest(){
+        HashCode result = digest;
+        if(result == null){
+            result = DIGEST.hashUnencodedChars(getContents() == null ? "" : getContents());
+            digest = result;
+        }
+
+        return result;
+    }
+
     /**
      * @return The general {@code Note} describing the entire {@code Source}.
      */
@@ -312,7 +356,7 @@ public class Source {
 
 
     @Override public int hashCode() {
-        return Objects.hashCode(getName(), getContents());
+        return Objects.hashCode(getName(), getContentDigest().asInt());
     }
 
     /**
@@ -116,6 +116,16 @@ public final class Vesper {
         return createRefactorer(DEFAULT_CONFIG);
     }
 
+    /**
+     * Creates a host configured with {@link Vesper}'s defaults; e.g., to parse many sources
+     * together (see {@link Host#createProject(Iterable)}).
+     *
+     * @return a new Host
+     */
+    public static Host createHost(){
+        return installConfiguration(DEFAULT_CONFIG, new HostImpl());
+    }
+
     /**
      * @return a new Introspector
      */
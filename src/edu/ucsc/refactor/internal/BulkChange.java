@@ -0,0 +1,136 @@
+package edu.ucsc.refactor.internal;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import edu.ucsc.refactor.Cause;
+import edu.ucsc.refactor.Parameter;
+import edu.ucsc.refactor.spi.Changer;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A {@link SourceChange} that handles several causes, found in one compilation unit,
+ * with one rewrite.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class BulkChange extends SourceChange {
+    private final CompilationUnit           root;
+    private final ASTRewrite                rewrite;
+    private final List<Cause>               causes;
+    private final List<Cause>               conflicts;
+    private final Map<Cause, String>        failures;
+
+    // start -> end of the ranges touched by the handled causes
+    private final TreeMap<Integer, Integer> claimed;
+
+    /**
+     * Creates a {@code BulkChange}.
+     *
+     * @param cause The first of the causes of this change.
+     * @param changer The source changer that created this {@code Change}.
+     * @param parameters  The parameters that the changer needs to apply the change.
+     * @param root The compilation unit where the causes were found.
+     */
+    public BulkChange(Cause cause, Changer changer, Map<String, Parameter> parameters,
+                      CompilationUnit root){
+        super(cause, changer, parameters);
+        this.root       = Preconditions.checkNotNull(root);
+        this.rewrite    = ASTRewrite.create(root.getAST());
+        this.causes     = Lists.newArrayList();
+        this.conflicts  = Lists.newArrayList();
+        this.failures   = Maps.newLinkedHashMap();
+        this.claimed    = new TreeMap<Integer, Integer>();
+    }
+
+    /**
+     * Checks whether the ranges of a cause's affected nodes overlap the ones of a
+     * claimed cause.
+     *
+     * @param cause The cause to be handled by this change.
+     * @return {@code true} if the cause conflicts with a claimed cause.
+     */
+    public boolean overlaps(Cause cause){
+        for(ASTNode node : cause.getAffectedNodes()){
+            final int start = node.getStartPosition();
+            final int end   = start + node.getLength();
+
+            final Map.Entry<Integer, Integer> before = claimed.floorEntry(start);
+            if(before != null && before.getValue() > start) return true;
+
+            final Map.Entry<Integer, Integer> after = claimed.ceilingEntry(start);
+            if(after != null && after.getKey() < end) return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Claims the ranges of a cause's affected nodes, unless they overlap the ones of a
+     * cause claimed before.
+     *
+     * @param cause The cause to be handled by this change.
+     * @return {@code true} if the cause was claimed; {@code false} if it conflicts with
+     *      a claimed cause.
+     */
+    public boolean claim(Cause cause){
+        if(overlaps(cause)) return false;
+
+        for(ASTNode node : cause.getAffectedNodes()){
+            final int     start = node.getStartPosition();
+            final Integer end   = claimed.get(start);
+            claimed.put(start, Math.max(end == null ? start : end, start + node.getLength()));
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the compilation unit where the causes were found.
+     */
+    public CompilationUnit getCompilationUnit(){
+        return root;
+    }
+
+    /**
+     * @return the rewrite shared by all causes of this change.
+     */
+    public ASTRewrite getRewrite(){
+        return rewrite;
+    }
+
+    /**
+     * @return the causes handled by this change.
+     */
+    public List<Cause> getCauses(){
+        return causes;
+    }
+
+    /**
+     * @return the causes left out of this change, since they overlap causes that are
+     *      handled by it.
+     */
+    public List<Cause> getConflicts(){
+        return conflicts;
+    }
+
+    /**
+     * @return the causes left out of this change, since their edits could not be recorded,
+     *      each with the reason why. Unlike {@link #getErrors() errors}, they do not make
+     *      this change invalid.
+     */
+    public Map<Cause, String> getFailures(){
+        return failures;
+    }
+
+    @Override public String more() {
+        return super.more() + " (handles " + causes.size() + " causes; "
+                + (conflicts.size() + failures.size()) + " left out)";
+    }
+}
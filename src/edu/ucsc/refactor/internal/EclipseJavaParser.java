@@ -1,14 +1,19 @@
 package edu.ucsc.refactor.internal;
 
+import com.google.common.base.Charsets;
+import com.google.common.collect.Maps;
+import com.google.common.io.Files;
 import edu.ucsc.refactor.Context;
 import edu.ucsc.refactor.internal.util.AstUtil;
 import edu.ucsc.refactor.spi.JavaParser;
-import org.eclipse.jdt.core.JavaCore;
-import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.FileASTRequestor;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -24,21 +29,43 @@ public class EclipseJavaParser implements JavaParser {
     public static final int                PARSE_STATEMENTS          = ASTParser.K_STATEMENTS;
     public static final int                PARSE_BODY                = ASTParser.K_CLASS_BODY_DECLARATIONS;
 
-    private ASTParser astParser;
+    private volatile ParserEnvironment environment;
 
     /**
-     * Constructs a new {@link EclipseJavaParser} object.
+     * Constructs a new {@link EclipseJavaParser} object that resolves bindings against
+     * the running VM.
      */
     public EclipseJavaParser(){
-        astParser   = ASTParser.newParser(AST.JLS4);
+        this(ParserEnvironment.runningVm());
+    }
+
+    /**
+     * Constructs a new {@link EclipseJavaParser} object.
+     *
+     * @param environment The environment bindings are resolved against.
+     */
+    public EclipseJavaParser(ParserEnvironment environment){
+        setEnvironment(environment);
+    }
 
-        astParser.setResolveBindings(true);
-        astParser.setEnvironment(null, null, null, true);
+    /**
+     * Sets the environment bindings are resolved against.
+     *
+     * @param environment The shared {@link ParserEnvironment}.
+     */
+    public void setEnvironment(ParserEnvironment environment){
+        if(environment == null){
+            throw new IllegalArgumentException("setEnvironment() was given a null environment.");
+        }
 
+        this.environment = environment;
+    }
 
-        final Map options = JavaCore.getOptions();
-        JavaCore.setComplianceOptions(JavaCore.VERSION_1_6, options);
-        astParser.setCompilerOptions(options);
+    /**
+     * @return the environment bindings are resolved against.
+     */
+    public ParserEnvironment getEnvironment(){
+        return environment;
     }
 
     @Override public CompilationUnit parseJava(Context context) {
@@ -49,6 +76,7 @@ public class EclipseJavaParser implements JavaParser {
     }
 
     @Override public ASTNode parseJava(Context context, int mode) {
+        final ASTParser astParser = environment.newParser();
         astParser.setKind(mode);
 
         astParser.setStatementsRecovery(true);
@@ -76,6 +104,78 @@ public class EclipseJavaParser implements JavaParser {
         }
     }
 
+    /**
+     * Parses a list of contexts together, in one batch. The contexts share their bindings,
+     * so references across contexts are resolved; and the binding environment is set up
+     * once for the whole batch rather than once per context.
+     *
+     * @param contexts The contexts to be parsed.
+     */
+    public void parseJava(List<Context> contexts) {
+        if(contexts.isEmpty()) return;
+
+        // JDT only batch-parses files, so the contents are staged in a scratch directory
+        final File                  scratch     = Files.createTempDir();
+        final Map<String, Context>  byPath      = Maps.newHashMap();
+        final String[]              paths       = new String[contexts.size()];
+        final String[]              encodings   = new String[contexts.size()];
+
+        try {
+            for(int idx = 0; idx < contexts.size(); idx++){
+                final Context   each    = contexts.get(idx);
+                final String    content = each.getContents();
+                ensureContextHasContent(content);
+
+                final File folder = new File(scratch, String.valueOf(idx));
+                final File file   = new File(folder, fileName(each));
+                Files.createParentDirs(file);
+                Files.write(content, file, Charsets.UTF_8);
+
+                paths[idx]      = file.getAbsolutePath();
+                encodings[idx]  = Charsets.UTF_8.name();
+                byPath.put(paths[idx], each);
+            }
+
+            LOGGER.fine("Parsing " + contexts.size() + " contexts in one batch");
+
+            final ASTParser astParser = environment.newParser();
+            astParser.setKind(PARSE_COMPILATION_UNIT);
+            astParser.setStatementsRecovery(true);
+            astParser.setBindingsRecovery(true);
+
+            astParser.createASTs(paths, encodings, new String[0], new FileASTRequestor() {
+                @Override public void acceptAST(String sourceFilePath, CompilationUnit ast) {
+                    final Context context = byPath.get(sourceFilePath);
+                    if(context != null){
+                        context.setCompilationUnit(ast);
+                    }
+                }
+            }, null);
+        } catch (IOException error){
+            throw logAndThrowRuntimeException(contexts.get(0), new RuntimeException(error));
+        } finally {
+            delete(scratch);
+        }
+    }
+
+    private static String fileName(Context context){
+        final String name = new File(context.getSource().getName()).getName();
+        return name.endsWith(".java") ? name : name + ".java";
+    }
+
+    private static void delete(File file){
+        final File[] children = file.listFiles();
+        if(children != null){
+            for(File each : children){
+                delete(each);
+            }
+        }
+
+        if(!file.delete()){
+            LOGGER.fine("Unable to delete " + file);
+        }
+    }
+
     private static void ensureContextHasContent(String content){
         if(content == null || content.isEmpty()){
             throw new RuntimeException(
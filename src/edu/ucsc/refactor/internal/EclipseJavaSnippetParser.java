@@ -29,6 +29,16 @@ public class EclipseJavaSnippetParser extends EclipseJavaParser implements JavaS
        super();
     }
 
+    /**
+     * Creates an incremental parsing object that resolves bindings against a given
+     * environment.
+     *
+     * @param environment The environment bindings are resolved against.
+     */
+    public EclipseJavaSnippetParser(ParserEnvironment environment){
+       super(environment);
+    }
+
     @Override  public ResultPackage offer(Context context) {
         ResultPackage result =  ResultPackage.empty();
 
@@ -5,7 +5,9 @@ import edu.ucsc.refactor.*;
 import edu.ucsc.refactor.spi.IssueDetector;
 import edu.ucsc.refactor.spi.JavaParser;
 import edu.ucsc.refactor.spi.JavaSnippetParser;
+import edu.ucsc.refactor.spi.Metrics;
 import edu.ucsc.refactor.spi.SourceChanger;
+import edu.ucsc.refactor.util.DisabledMetrics;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -19,10 +21,15 @@ public class HostImpl implements Host {
     private final List<Throwable>       errors;
     private final List<IssueDetector>   detectors;
     private final List<SourceChanger>   changers;
+    private final List<String>          classpath;
+    private final List<String>          sourcepath;
 
     private JavaSnippetParser parser;
     private Credential credential;
 
+    private volatile SourceChangerTable changerTable;
+    private volatile Metrics            metrics;
+
     /**
      * Creates a new {@code HostImpl}
      */
@@ -30,8 +37,11 @@ public class HostImpl implements Host {
         this.errors         = new ArrayList<Throwable>();
         this.detectors      = new ArrayList<IssueDetector>();
         this.changers       = new ArrayList<SourceChanger>();
+        this.classpath      = new ArrayList<String>();
+        this.sourcepath     = new ArrayList<String>();
         this.parser         = null;
         this.credential     = null;
+        this.metrics        = DisabledMetrics.INSTANCE;
     }
 
     @Override public void addError(Throwable t) {
@@ -44,6 +54,40 @@ public class HostImpl implements Host {
 
     @Override public void addJavaParser(JavaSnippetParser parser) {
         this.parser = parser;
+        updateParserEnvironment();
+    }
+
+    @Override public void addClasspathEntry(String entry) {
+        if(entry == null) return;
+        if(!classpath.contains(entry)){
+            classpath.add(entry);
+            updateParserEnvironment();
+        }
+    }
+
+    @Override public void addSourcepathEntry(String entry) {
+        if(entry == null) return;
+        if(!sourcepath.contains(entry)){
+            sourcepath.add(entry);
+            updateParserEnvironment();
+        }
+    }
+
+    /**
+     * Hands the (shared) environment of this host's classpath and sourcepath entries to
+     * its parser, if the parser is environment-aware.
+     */
+    private void updateParserEnvironment(){
+        if(parser instanceof EclipseJavaParser){
+            ((EclipseJavaParser) parser).setEnvironment(getParserEnvironment());
+        }
+    }
+
+    /**
+     * @return the environment bindings are resolved against.
+     */
+    public ParserEnvironment getParserEnvironment(){
+        return ParserEnvironment.of(classpath, sourcepath);
     }
 
     @Override public void addIssueDetector(IssueDetector detector) {
@@ -57,6 +101,8 @@ public class HostImpl implements Host {
         if(changer == null) return;
         if(!changers.contains(changer)){
             changers.add(changer);
+            changer.setMetrics(metrics);
+            changerTable = null;
         }
     }
 
@@ -64,6 +110,17 @@ public class HostImpl implements Host {
         this.credential = credential;
     }
 
+    @Override public void addMetrics(Metrics metrics) {
+        this.metrics = metrics == null ? DisabledMetrics.INSTANCE : metrics;
+        for(SourceChanger each : changers){
+            each.setMetrics(this.metrics);
+        }
+    }
+
+    @Override public Metrics getMetrics() {
+        return metrics;
+    }
+
     // Internal method
     final Credential getStorageKey(){
         return credential;
@@ -75,7 +132,46 @@ public class HostImpl implements Host {
             source.generateUniqueSignature();
         }
 
-        return parseJava(new Context(source));
+        final Metrics.Timer timer = metrics.startTimer("parse", null);
+        try {
+            return parseJava(new Context(source));
+        } finally {
+            timer.stop();
+        }
+    }
+
+    @Override public Project createProject(Iterable<Source> sources) {
+        final List<Context> contexts = new ArrayList<Context>();
+        for(Source each : sources){
+            if(each.getUniqueSignature() == null){
+                each.generateUniqueSignature();
+            }
+
+            contexts.add(new Context(each));
+        }
+
+        final JavaParser    parser = getJavaParser();
+        final Metrics.Timer timer  = metrics.startTimer("parse.project", null);
+        try {
+            if(parser instanceof EclipseJavaParser){
+                // one batched parse; bindings are shared among all contexts
+                ((EclipseJavaParser) parser).parseJava(contexts);
+            } else {
+                for(Context each : contexts){
+                    parseJava(each);
+                }
+            }
+        } finally {
+            timer.stop();
+        }
+
+        for(Context each : contexts){
+            if(each.getCompilationUnit() == null){
+                throw new IllegalStateException("Unable to parse source file");
+            }
+        }
+
+        return new Project(contexts);
     }
 
     /**
@@ -107,6 +203,22 @@ public class HostImpl implements Host {
         return Collections.unmodifiableList(changers);
     }
 
+    /**
+     * Returns the dispatch table of this host's source changers. The table is built once,
+     * and rebuilt only if more changers are added.
+     *
+     * @return the changers' dispatch table.
+     */
+    SourceChangerTable getSourceChangerTable(){
+        SourceChangerTable table = changerTable;
+        if(table == null){
+            table = new SourceChangerTable(changers);
+            changerTable = table;
+        }
+
+        return table;
+    }
+
     @Override public JavaSnippetParser getJavaParser() {
         return parser;
     }
@@ -131,6 +243,7 @@ public class HostImpl implements Host {
         builder.add("detectors", detectors.size());
         builder.add("changers", changers.size());
         builder.add("parser", (getJavaParser() != null ? "Yes" : "No"));
+        builder.add("classpath", classpath.size());
         return builder.toString();
     }
 }
@@ -6,11 +6,14 @@ import edu.ucsc.refactor.*;
 import edu.ucsc.refactor.internal.util.Edits;
 import edu.ucsc.refactor.locators.SelectedUnit;
 import edu.ucsc.refactor.spi.CommitRequest;
+import edu.ucsc.refactor.spi.Metrics;
 import edu.ucsc.refactor.spi.SourceChanger;
 import edu.ucsc.refactor.Commit;
+import org.eclipse.jdt.core.dom.ASTNode;
 
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import static edu.ucsc.refactor.Vesper.createUnitLocator;
@@ -31,7 +34,7 @@ public class JavaRefactorer implements Refactorer {
      */
     public JavaRefactorer(Host host) {
         this.host       = (HostImpl) host;
-        this.changer    = new SourceChanging(host.getSourceChangers());
+        this.changer    = new SourceChanging(this.host);
     }
 
     @Override public Commit apply(Change change) {
@@ -42,11 +45,18 @@ public class JavaRefactorer implements Refactorer {
         if(applied == null) { return null; }
 
         if(applied.isValid()){
+            final Metrics       metrics = host.getMetrics();
+            final Metrics.Timer timer   = metrics.startTimer("commit", null);
             try {
-                return applied.commit();
+                final Commit commit = applied.commit();
+                metrics.count(commit != null && commit.isValidCommit() ? "commits" : "commits.failed", 1);
+                return commit;
             } catch (RuntimeException ex){
+                metrics.count("commits.failed", 1);
                 LOGGER.throwing("Unable to commit change", "apply()", ex);
                 return null; // nothing was committed
+            } finally {
+                timer.stop();
             }
         }
 
@@ -60,9 +70,11 @@ public class JavaRefactorer implements Refactorer {
         final Cause cause      = request.getCause();
         final Map<String, Parameter> parameters = request.getParameters();
 
-        LOGGER.fine((isIssue
-                        ? "Creating a change for an issue."
-                        : "creating a change for a single edit.") );
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine((isIssue
+                            ? "Creating a change for an issue."
+                            : "creating a change for a single edit.") );
+        }
 
         return changer.createChange(
                 (isIssue ? cause : prepSingleEdit(cause, request)), parameters
@@ -132,13 +144,12 @@ public class JavaRefactorer implements Refactorer {
      * because of found {@code Issue}s or triggered {@code SingleEdit}s.
      */
     static class SourceChanging {
-        private final List<SourceChanger> changers;
+        private final HostImpl host;
 
-        SourceChanging(List<SourceChanger> changers){
-            this.changers = changers;
+        SourceChanging(HostImpl host){
+            this.host = host;
         }
 
-
         /**
          * Create a solution for an issue, based on a set of parameters.
          *
@@ -147,15 +158,27 @@ public class JavaRefactorer implements Refactorer {
          * @return The solution to the issue.
          */
         Change createChange(Cause issue, Map<String, Parameter> parameters) {
-            LOGGER.fine("Creating change for " + issue);
             final SourceChanger changer = findSuitableChanger(issue);
 
             if (null == changer) {
                 throw new IllegalStateException("No suitable changer available.");
             }
 
+            // ASTs are not thread-safe: changes that read (and create nodes in) the
+            // same AST are serialized, while changes to different ASTs run in parallel.
+            synchronized (lockOf(issue)){
+                final Metrics.Timer timer = host.getMetrics().startTimer("change", changer.getClass());
+                try {
+                    return changer.createChange(issue, parameters);
+                } finally {
+                    timer.stop();
+                }
+            }
+        }
 
-            return changer.createChange(issue, parameters);
+        private static Object lockOf(Cause cause){
+            final List<ASTNode> nodes = cause.getAffectedNodes();
+            return nodes.isEmpty() ? new Object() : nodes.get(0).getAST();
         }
 
         /**
@@ -165,26 +188,12 @@ public class JavaRefactorer implements Refactorer {
          * @return The IssueSolver, or null in case no suitable solver could be found.
          */
         SourceChanger findSuitableChanger(Cause issue) {
-            LOGGER.fine("Looking for suitable source changers");
-            for (SourceChanger solver : getChangers()) {
-                if (solver.canHandle(issue)) {
-                    LOGGER.fine(solver + " found!");
-                    return solver;
-                }
+            final SourceChanger solver = host.getSourceChangerTable().find(issue);
+            if (solver == null) {
+                LOGGER.warning("Not suitable source changer could be found!");
             }
 
-            LOGGER.warning("Not suitable source changer could be found!");
-            return null;
-        }
-
-
-        /**
-         * Returns the list of issue changers.
-         *
-         * @return The list of issue changers.
-         */
-        List<SourceChanger> getChangers() {
-            return changers;
+            return solver;
         }
     }
 }
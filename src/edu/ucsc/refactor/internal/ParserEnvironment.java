@@ -0,0 +1,160 @@
+package edu.ucsc.refactor.internal;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * The binding environment of a {@link EclipseJavaParser}: the classpath and sourcepath
+ * entries bindings are resolved against (on top of the running VM's bootclasspath), and the
+ * compiler options every parse uses.
+ *
+ * <p>Environments are immutable and shared; all hosts (and parsers) configured with the same
+ * entries get the same instance, for as long as some parser uses it. Entries are validated
+ * and resolved once, when the environment is created, and the compiler options are computed
+ * once as well, so preparing a parse only means handing these to a fresh {@link ASTParser}.</p>
+ *
+ * <p>JDT still builds a name environment (and indexes the packages of every jar in it)
+ * per {@link ASTParser#createAST} call; its API offers no way to share one across calls.
+ * Parsing many sources in one batch ({@link ASTParser#createASTs}) shares it.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public final class ParserEnvironment {
+    private static final Logger LOGGER = Logger.getLogger(ParserEnvironment.class.getName());
+
+    // weak values: an environment lives as long as some parser holds it.
+    private static final Cache<List<List<String>>, ParserEnvironment> ENVIRONMENTS
+            = CacheBuilder.newBuilder().weakValues().build();
+
+    private static final ParserEnvironment RUNNING_VM = of(
+            ImmutableList.<String>of(),
+            ImmutableList.<String>of()
+    );
+
+    private final List<String>          classpath;
+    private final List<String>          sourcepath;
+    private final String[]              classpathEntries;
+    private final String[]              sourcepathEntries;
+    private final Map<String, String>   options;
+
+    /**
+     * Constructs a new {@link ParserEnvironment}.
+     *
+     * @param classpath The validated classpath entries.
+     * @param sourcepath The validated sourcepath entries.
+     */
+    private ParserEnvironment(List<String> classpath, List<String> sourcepath){
+        this.classpath          = classpath;
+        this.sourcepath         = sourcepath;
+        this.classpathEntries   = classpath.toArray(new String[classpath.size()]);
+        this.sourcepathEntries  = sourcepath.toArray(new String[sourcepath.size()]);
+        this.options            = compilerOptions();
+    }
+
+    /**
+     * @return the environment that resolves bindings against the running VM only.
+     */
+    public static ParserEnvironment runningVm(){
+        return RUNNING_VM;
+    }
+
+    /**
+     * Returns the shared environment for a set of classpath and sourcepath entries. Missing
+     * entries are skipped (and logged); the remaining ones are resolved to canonical paths.
+     *
+     * @param classpath The jar files or class folders to resolve bindings against.
+     * @param sourcepath The source folders to resolve bindings against.
+     * @return the shared {@link ParserEnvironment}.
+     */
+    public static ParserEnvironment of(Iterable<String> classpath, Iterable<String> sourcepath){
+        final List<String>  validClasspath  = validate(classpath);
+        final List<String>  validSourcepath = validate(sourcepath);
+        final List<List<String>> key        = ImmutableList.of(validClasspath, validSourcepath);
+
+        final ParserEnvironment cached = ENVIRONMENTS.getIfPresent(key);
+        if(cached != null) return cached;
+
+        final ParserEnvironment created  = new ParserEnvironment(validClasspath, validSourcepath);
+        final ParserEnvironment previous = ENVIRONMENTS.asMap().putIfAbsent(key, created);
+        return previous == null ? created : previous;
+    }
+
+    private static List<String> validate(Iterable<String> entries){
+        final Set<String> result = Sets.newLinkedHashSet();
+        for(String each : entries){
+            if(each == null || each.isEmpty()) continue;
+
+            final File file = new File(each);
+            if(!file.exists()){
+                LOGGER.warning("Ignoring missing classpath entry: " + each);
+                continue;
+            }
+
+            try {
+                result.add(file.getCanonicalPath());
+            } catch (IOException e) {
+                result.add(file.getAbsolutePath());
+            }
+        }
+
+        return ImmutableList.copyOf(result);
+    }
+
+    private static Map<String, String> compilerOptions(){
+        @SuppressWarnings("unchecked")
+        final Map<String, String> options = JavaCore.getOptions();
+        JavaCore.setComplianceOptions(JavaCore.VERSION_1_6, options);
+        return ImmutableMap.copyOf(options);
+    }
+
+    /**
+     * @return the classpath entries of this environment.
+     */
+    public List<String> getClasspath(){
+        return classpath;
+    }
+
+    /**
+     * @return the sourcepath entries of this environment.
+     */
+    public List<String> getSourcepath(){
+        return sourcepath;
+    }
+
+    /**
+     * Creates an {@link ASTParser} that resolves bindings against this environment.
+     *
+     * <p>A new parser is needed per parse: {@link ASTParser#createAST} resets the parser's
+     * environment, compiler options and binding resolution once it is done.</p>
+     *
+     * @return a new {@link ASTParser}.
+     */
+    public ASTParser newParser(){
+        final ASTParser parser = ASTParser.newParser(AST.JLS4);
+        parser.setResolveBindings(true);
+        parser.setEnvironment(classpathEntries, sourcepathEntries, null, true);
+        parser.setCompilerOptions(options);
+        return parser;
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper("ParserEnvironment")
+                .add("classpath", classpath)
+                .add("sourcepath", sourcepath)
+                .toString();
+    }
+}
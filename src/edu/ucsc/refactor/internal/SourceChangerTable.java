@@ -0,0 +1,75 @@
+package edu.ucsc.refactor.internal;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import edu.ucsc.refactor.Cause;
+import edu.ucsc.refactor.spi.Name;
+import edu.ucsc.refactor.spi.SourceChanger;
+
+import java.util.List;
+
+/**
+ * An immutable dispatch table from cause names to the {@link SourceChanger}s that declared
+ * them (see {@link SourceChanger#getNames()}).
+ *
+ * <p>Priority rules: changers that declared a cause's name come first, in registration
+ * order; the first of them whose {@link SourceChanger#canHandle(Cause)} accepts the cause
+ * wins. Changers that declared no names are only asked after that, also in registration
+ * order.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+final class SourceChangerTable {
+    private final ImmutableListMultimap<Name, SourceChanger>    declared;
+    private final ImmutableList<SourceChanger>                  undeclared;
+
+    /**
+     * Constructs a new {@link SourceChangerTable}.
+     *
+     * @param changers The registered changers, in registration order.
+     */
+    SourceChangerTable(List<SourceChanger> changers){
+        final ImmutableListMultimap.Builder<Name, SourceChanger> table
+                = ImmutableListMultimap.builder();
+        final ImmutableList.Builder<SourceChanger> others = ImmutableList.builder();
+
+        for(SourceChanger each : changers){
+            if(each.getNames().isEmpty()){
+                others.add(each);
+            } else {
+                for(Name eachName : each.getNames()){
+                    table.put(eachName, each);
+                }
+            }
+        }
+
+        this.declared   = table.build();
+        this.undeclared = others.build();
+    }
+
+    /**
+     * Finds the {@link SourceChanger} for a cause.
+     *
+     * @param cause The cause to be handled.
+     * @return the changer, or null if no changer can handle the cause.
+     */
+    SourceChanger find(Cause cause){
+        for(SourceChanger each : declared.get(cause.getName())){
+            if(each.canHandle(cause)) return each;
+        }
+
+        for(SourceChanger each : undeclared){
+            if(each.canHandle(cause)) return each;
+        }
+
+        return null;
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper("SourceChangerTable")
+                .add("names", declared.keySet().size())
+                .add("undeclared", undeclared.size())
+                .toString();
+    }
+}
@@ -1,11 +1,11 @@
 package edu.ucsc.refactor.internal.changers;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import edu.ucsc.refactor.Cause;
 import edu.ucsc.refactor.Change;
+import edu.ucsc.refactor.DependencyGraph;
 import edu.ucsc.refactor.Parameter;
 import edu.ucsc.refactor.internal.Delta;
 import edu.ucsc.refactor.internal.SourceChange;
@@ -21,8 +21,11 @@ import java.util.*;
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class ClipSelection extends SourceChanger {
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Refactoring.CLIP_SELECTION);
+    /**
+     * Instantiates a new {@link ClipSelection} object.
+     */
+    public ClipSelection(){
+        super(Refactoring.CLIP_SELECTION);
     }
 
     @Override protected Change initChanger(Cause cause, Map<String, Parameter> parameters) {
@@ -50,28 +53,21 @@ public class ClipSelection extends SourceChanger {
     }
 
     private Delta cropCodeRegionNotInClippedRegion(TypeDeclaration unit, ASTRewrite rewrite, List<ASTNode> affectedNodes){
-        final Set<IBinding> methods     = collectMethodDeclarations(affectedNodes);
-        final Set<IBinding> slice       = cropCodeSnippet(unit, methods);
-        final Set<IBinding> universe    = generateUniverse(unit);
+        final Map<IBinding, ASTNode> universe    = members(unit);
+        final Set<IBinding>          methods     = collectMethodDeclarations(affectedNodes);
+        final Set<IBinding>          slice       = cropCodeSnippet(unit, methods);
 
         // Get the nodes not in the slice but are in the Universe. These
         // nodes are the nodes we are interested in removing.
 
-        final Set<IBinding> trash      = difference(universe, slice);
+        final Set<IBinding> trash      = difference(universe.keySet(), slice);
+        final Set<ASTNode>  removed    = Sets.newHashSet();
 
         for(IBinding binding: trash){
-            final ASTNode declaringNode = AstUtil.findDeclaration(binding, unit);
-            if(AstUtil.isField(declaringNode)){
-                final FieldDeclaration parent = AstUtil.parent(
-                        FieldDeclaration.class,
-                        declaringNode
-                );
-
-                rewrite.remove(parent, null);
-            } else {
+            final ASTNode declaringNode = universe.get(binding);
+            if(removed.add(declaringNode)){
                 rewrite.remove(declaringNode, null);
             }
-
         }
 
         return createDelta(unit, rewrite);
@@ -114,71 +110,38 @@ public class ClipSelection extends SourceChanger {
         return filtered;
     }
 
-    private static Set<IBinding> generateUniverse(TypeDeclaration unit){
-        ImmutableSet<TypeDeclaration>   typesSet    = ImmutableSet.copyOf(unit.getTypes());
-        ImmutableSet<FieldDeclaration>  fieldsSet   = ImmutableSet.copyOf(unit.getFields());
-        ImmutableSet<MethodDeclaration> methodsSet  = ImmutableSet.copyOf(unit.getMethods());
-        ImmutableSet<ImportDeclaration> importsSet  = ImmutableSet.copyOf(AstUtil.getUsedImports(((CompilationUnit) unit.getRoot())));
-
-
-        final Set<IBinding> universeSet = Sets.newHashSet();
-
-        for(TypeDeclaration t : typesSet){
-            universeSet.addAll(AstUtil.getUniqueBindings(t));
-        }
+    /**
+     * Collects the bindings of every clippable declaration (methods, fields, and member
+     * types) found in a type declaration.
+     *
+     * @param unit The type declaration.
+     * @return the set of declaration bindings in {@code unit}.
+     */
+    public static Set<IBinding> generateUniverse(TypeDeclaration unit){
+        return Sets.newHashSet(members(unit).keySet());
+    }
 
-        for(MethodDeclaration m : methodsSet){
-            universeSet.addAll(AstUtil.getUniqueBindings(m));
-        }
+    // the clippable declarations of a type declaration, by binding; a field's fragments
+    // share their field declaration.
+    private static Map<IBinding, ASTNode> members(TypeDeclaration unit){
+        final Map<IBinding, ASTNode> members = Maps.newLinkedHashMap();
 
-        for(FieldDeclaration f : fieldsSet){
-            universeSet.addAll(AstUtil.getUniqueBindings(f));
+        for(MethodDeclaration each : unit.getMethods()){
+            members.put(each.resolveBinding(), each);
         }
 
-        for(ImportDeclaration i : importsSet){
-            universeSet.addAll(AstUtil.getUniqueBindings(i));
+        for(FieldDeclaration each : unit.getFields()){
+            for(Object fragment : each.fragments()){
+                members.put(((VariableDeclarationFragment) fragment).resolveBinding(), each);
+            }
         }
 
-
-        final Set<IBinding> U   = Sets.newHashSet();
-
-        for(IBinding each: universeSet){
-            switch (each.getKind()){
-                case IBinding.METHOD:
-                    final ASTNode m = AstUtil.findDeclaration(each, unit);
-                    if(AstUtil.isMethod(m)){
-                        U.add(each);
-                    }
-
-                    break;
-
-                case IBinding.VARIABLE:
-                    final ASTNode f      = AstUtil.findDeclaration(each, unit);
-
-                    if(AstUtil.isField(f)){
-                        U.add(each);
-                    }
-
-                    break;
-
-                case IBinding.TYPE:
-                    final ASTNode t  = AstUtil.findDeclaration(each, unit);
-
-                    if(AstUtil.isClass(t)){
-                        final TypeDeclaration td = AstUtil.exactCast(
-                                TypeDeclaration.class, t);
-
-                        if(td != unit && typesSet.contains(td)){
-                            U.add(each);
-                        }
-
-                    }
-
-                    break;
-            }
+        for(TypeDeclaration each : unit.getTypes()){
+            members.put(each.resolveBinding(), each);
         }
 
-        return U;
+        members.remove(null);
+        return members;
     }
 
     private static <T> Set<T> difference(Set<T> setA, Set<T> setB) {
@@ -187,67 +150,33 @@ public class ClipSelection extends SourceChanger {
         return tmp;
     }
 
-    private static Set<IBinding> cropCodeSnippet(TypeDeclaration unit, Set<IBinding> methodBindings){
-
-        final Deque<IBinding>   queue   = Lists.newLinkedList(methodBindings);
-        final Set<IBinding>     visited = Sets.newHashSet();
-        final Set<IBinding>     slice   = Sets.newHashSet();
-
-        while(!queue.isEmpty()){
-
-            final IBinding s = queue.remove();
-
-            visited.add(s);
-            slice.add(s);
-
-
-            final ASTNode node = AstUtil.findDeclaration(s, unit);
-            if(node == null) continue;
-
-            final Set<IBinding> bindings = AstUtil.getUniqueBindings(node);
-            for(IBinding eachBinding: bindings){
-                ASTNode declaringNode;
-                switch (eachBinding.getKind()){
-
-                    case IBinding.METHOD:
-
-                        if(!visited.contains(eachBinding)){
-                            queue.add(eachBinding);
-                        }
-
-                        break;
-                    case IBinding.VARIABLE:
-                        declaringNode      = AstUtil.findDeclaration(eachBinding, unit);
-
-                        if(AstUtil.isField(declaringNode)){
-                            if(!visited.contains(eachBinding)) {
-                                queue.add(eachBinding);
-                            }
-                        }
-
-                        break;
-
-                    case IBinding.TYPE:
-                        declaringNode   = AstUtil.findDeclaration(eachBinding, unit);
-
-                        if(AstUtil.isClass(declaringNode)){
-
-                            if(!visited.contains(eachBinding)){
-                                queue.add(eachBinding);
-                            }
-                        }
-
-                        break;
+    /**
+     * Computes the declaration slice of a set of methods; i.e., the methods, fields and
+     * member types (in {@code unit}) these methods transitively depend on.
+     *
+     * @param unit The type declaration.
+     * @param methodBindings The bindings of the methods at the root of the slice.
+     * @return the set of declaration bindings in the slice, the methods included.
+     * @see DependencyGraph#getSliceOf(int...)
+     */
+    public static Set<IBinding> cropCodeSnippet(TypeDeclaration unit, Set<IBinding> methodBindings){
+        final DependencyGraph graph = DependencyGraph.of(unit);
+
+        final int[] roots = new int[methodBindings.size()];
+        int size = 0;
+        for(IBinding each : methodBindings){
+            final int node = graph.indexOf(each);
+            if(node >= 0) roots[size++] = node;
+        }
 
-                }
+        final int[]         sliced  = graph.getSliceOf(Arrays.copyOf(roots, size));
+        final Set<IBinding> slice   = Sets.newHashSet(methodBindings);
+        for(IBinding each : members(unit).keySet()){
+            if(Arrays.binarySearch(sliced, graph.indexOf(each)) >= 0){
+                slice.add(each);
             }
-
-
         }
 
         return slice;
     }
-
-
-
 }
@@ -30,12 +30,7 @@ public class DeduplicateCode extends SourceChanger {
      * Instantiates a new {@link DeduplicateCode} object.
      */
     public DeduplicateCode(){
-        super();
-    }
-
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Smell.DUPLICATED_CODE)
-                || Names.from(Smell.DUPLICATED_CODE).isSame(cause.getName());
+        super(Smell.DUPLICATED_CODE, Names.from(Smell.DUPLICATED_CODE));
     }
 
     @Override protected Change initChanger(Cause cause, Map<String, Parameter> parameters) {
@@ -17,8 +17,11 @@ import java.util.Map;
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class ReformatSourceCode extends SourceChanger {
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Refactoring.REFORMAT_CODE);
+    /**
+     * Instantiates a new {@link ReformatSourceCode} object.
+     */
+    public ReformatSourceCode(){
+        super(Refactoring.REFORMAT_CODE);
     }
 
     @Override protected Change initChanger(Cause cause,
@@ -2,19 +2,18 @@ package edu.ucsc.refactor.internal.changers;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import edu.ucsc.refactor.*;
 import edu.ucsc.refactor.internal.Delta;
 import edu.ucsc.refactor.internal.SourceChange;
 import edu.ucsc.refactor.internal.util.AstUtil;
+import edu.ucsc.refactor.internal.util.UnwoundBindings;
 import edu.ucsc.refactor.spi.Refactoring;
 import edu.ucsc.refactor.spi.SourceChanger;
 import edu.ucsc.refactor.util.Locations;
 import org.eclipse.jdt.core.dom.*;
 import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
 
-import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -32,9 +31,11 @@ public class RemoveCodeRegion extends SourceChanger {
             ASTNode.TRY_STATEMENT
     );
 
-
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Refactoring.DELETE_REGION);
+    /**
+     * Instantiates a new {@link RemoveCodeRegion} object.
+     */
+    public RemoveCodeRegion(){
+        super(Refactoring.DELETE_REGION);
     }
 
     @Override protected Change initChanger(Cause cause, Map<String, Parameter> parameters) {
@@ -66,7 +67,7 @@ public class RemoveCodeRegion extends SourceChanger {
         final Set<IBinding> S = expectNoInterDependenciesViolations(unit, cause);
 
         // check dependencies wrt to its enclosing method (now its method is its universe)
-        expectNoIntraDependenciesViolation(cause, S);
+        expectNoIntraDependenciesViolation(unit, cause, S);
 
         for(ASTNode toBeRemoved : cause.getAffectedNodes()){
             rewrite.remove(toBeRemoved, null);
@@ -98,7 +99,8 @@ public class RemoveCodeRegion extends SourceChanger {
         return S;
     }
 
-    private static void expectNoIntraDependenciesViolation(Cause cause, Set<IBinding> s) {
+    private static void expectNoIntraDependenciesViolation(TypeDeclaration unit, Cause cause, Set<IBinding> s) {
+        final UnwoundBindings bindings = UnwoundBindings.of(unit);
 
         final SourceSelection selection = new SourceSelection(null);
         for( ASTNode eachNode : cause.getAffectedNodes()){
@@ -115,13 +117,13 @@ public class RemoveCodeRegion extends SourceChanger {
 
                 final Location parentLoc = Locations.locate(parent);
 
-                final Set<IBinding> U = AstUtil.getUniqueBindings(parent);
+                final Set<IBinding> U = Sets.newHashSet(bindings.referencesOf(parent));
                 final Set<IBinding> B = Sets.newHashSet();
 
                 U.retainAll(s);
 
                 for(IBinding eachU : U){
-                    final ASTNode node = AstUtil.findDeclaration(eachU, parent);
+                    final ASTNode node = bindings.declarationOf(eachU);
 
                     if(node != null){
                         Location nodeLoc;
@@ -203,8 +205,9 @@ public class RemoveCodeRegion extends SourceChanger {
 
         final Set<IBinding> RAW = Sets.newHashSet();
 
+        final UnwoundBindings bindings = UnwoundBindings.of(unit);
         for(TypeDeclaration t : T){
-            RAW.addAll(AstUtil.getUniqueBindings(t));
+            RAW.addAll(bindings.referencesOf(t));
             RAW.add(AstUtil.getDeclaration(t.resolveBinding()));
         }
 
@@ -214,60 +217,13 @@ public class RemoveCodeRegion extends SourceChanger {
 
 
     private static Set<IBinding> collectBindingsInSelection(TypeDeclaration unit, Cause cause){
-
-        final Set<IBinding> F  = Sets.newHashSet();
+        final UnwoundBindings   bindings = UnwoundBindings.of(unit);
+        final Set<IBinding>     F        = Sets.newHashSet();
 
         for(ASTNode each : cause.getAffectedNodes()){
-            F.addAll(AstUtil.getUniqueBindings(each));
-        }
-
-
-        final Deque<IBinding>   Q = Lists.newLinkedList(F);
-        final Set<IBinding>     V = Sets.newHashSet();
-        final Set<IBinding>     S = Sets.newHashSet();
-
-        while(!Q.isEmpty()){
-
-            final IBinding s = Q.remove();
-
-            V.add(s);
-            S.add(s);
-
-
-            final ASTNode ss = AstUtil.findDeclaration(s, unit);
-            if(ss == null) continue;
-
-            final Set<IBinding> bindings = AstUtil.getUniqueBindings(ss);
-            for(IBinding eachBinding: bindings){
-                switch (eachBinding.getKind()){
-                    case IBinding.VARIABLE:
-
-                        final ASTNode f      = AstUtil.findDeclaration(eachBinding, unit);
-
-                        if(AstUtil.isField(f)){
-
-                            if(!V.contains(eachBinding)){
-                                Q.add(eachBinding);
-                            }
-                        } else {
-                            if(!V.contains(eachBinding)){
-                                Q.add(eachBinding);
-                            }
-                        }
-
-                        break;
-
-                    default:
-                        if(!V.contains(eachBinding)){
-                            Q.add(eachBinding);
-                        }
-
-                }
-
-
-            }
+            F.addAll(bindings.referencesOf(each));
         }
 
-        return S;
+        return bindings.reachableFrom(F);
     }
 }
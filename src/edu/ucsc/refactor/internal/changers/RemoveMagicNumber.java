@@ -3,17 +3,16 @@ package edu.ucsc.refactor.internal.changers;
 import edu.ucsc.refactor.Cause;
 import edu.ucsc.refactor.Change;
 import edu.ucsc.refactor.Parameter;
-import edu.ucsc.refactor.Source;
 import edu.ucsc.refactor.internal.SourceChange;
-import edu.ucsc.refactor.internal.visitors.FieldDeclarationVisitor;
+import edu.ucsc.refactor.spi.BulkSourceChanger;
 import edu.ucsc.refactor.spi.Smell;
-import edu.ucsc.refactor.spi.SourceChanger;
 import edu.ucsc.refactor.internal.util.AstUtil;
 import edu.ucsc.refactor.util.Parameters;
 import org.eclipse.jdt.core.dom.*;
 import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
 import org.eclipse.jdt.core.dom.rewrite.ListRewrite;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,10 +20,12 @@ import java.util.Map;
  *
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
-public class RemoveMagicNumber  extends SourceChanger {
-
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Smell.MAGIC_NUMBER);
+public class RemoveMagicNumber  extends BulkSourceChanger {
+    /**
+     * Instantiates a new {@link RemoveMagicNumber} object.
+     */
+    public RemoveMagicNumber(){
+        super(Smell.MAGIC_NUMBER);
     }
 
     @Override protected Change initChanger(Cause cause,
@@ -32,96 +33,110 @@ public class RemoveMagicNumber  extends SourceChanger {
         final SourceChange change = new SourceChange(cause, this, parameters);
 
         try {
-            final ChangeBuilder changeBuilder = new ChangeBuilder(cause, parameters);
-            return changeBuilder.build(change);
+            final CompilationUnit root    = getCompilationUnit(cause);
+            final ASTRewrite      rewrite = ASTRewrite.create(root.getAST());
+
+            rewriteCause(root, rewrite, cause, parameters);
+            change.getDeltas().add(createDelta(root, rewrite));
         } catch (Throwable ex){
             change.getErrors().add(ex.getMessage());
-            return change;
         }
-    }
 
-    @Override protected Map<String, Parameter> defaultParameters() {
-        return Parameters.newRandomConstantName();
+        return change;
     }
 
-    static class ChangeBuilder {
-        private final Cause cause;
-        private final Map<String, Parameter> parameters;
+    @Override protected void rewriteCause(CompilationUnit root, ASTRewrite rewrite, Cause cause,
+                                          Map<String, Parameter> parameters) {
+
+        final NumberLiteral   literal      = (NumberLiteral) cause.getAffectedNodes().get(0);
+        final TypeDeclaration literalClass = AstUtil.parent(TypeDeclaration.class, literal);
+
+        final String value = literal.getToken();
+        final String name  = parameters.containsKey(Parameters.PARAMETER_CONSTANT_NAME)
+                ? (String) parameters.get(Parameters.PARAMETER_CONSTANT_NAME).getValue()
+                : Parameters.constantNameOf(value);
+
+        // every magic number in a bulk change shares the given name, if any; equal numbers
+        // share one constant, and other numbers get a numbered variant of the name. Without
+        // a given name, each number names its own constant.
+        final List<?> body = rewrite.getListRewrite(
+                literalClass,
+                TypeDeclaration.BODY_DECLARATIONS_PROPERTY
+        ).getRewrittenList();
+
+        int     suffix    = 1;
+        String  candidate = name;
+        while(true){
+            final Expression initializer = initializerOf(body, candidate);
+            if(initializer == null){
+                createConstant(literalClass, rewrite, candidate, value);
+                break;
+            }
 
-        ChangeBuilder(Cause cause,
-                      Map<String, Parameter> parameters){
+            if(initializer instanceof NumberLiteral
+                    && value.equals(((NumberLiteral) initializer).getToken())){
+                break;
+            }
 
-            this.cause      = cause;
-            this.parameters = parameters;
+            candidate = name + "_" + (++suffix);
         }
 
-        Change build(SourceChange change){
-
-            final NumberLiteral   literal      = (NumberLiteral) cause.getAffectedNodes().get(0);
-            final TypeDeclaration literalClass = AstUtil.parent(TypeDeclaration.class, literal);
-
-            final ASTRewrite      rewrite      = ASTRewrite.create(literalClass.getAST());
-
-            String name  = (String) parameters.get(Parameters.PARAMETER_CONSTANT_NAME).getValue();
-            String value = literal.getToken();
+        replaceMagicNumberWithConstant(literal, rewrite, candidate);
+    }
 
-            if (!existingConstantExists(literalClass, name)) {
-                createConstant(literalClass, rewrite, name, value);
+    private static Expression initializerOf(List<?> bodyDeclarations, String name){
+        for(Object each : bodyDeclarations){
+            if(!(each instanceof FieldDeclaration)) continue;
+
+            for(Object eachFragment : ((FieldDeclaration) each).fragments()){
+                final VariableDeclarationFragment fragment = (VariableDeclarationFragment) eachFragment;
+                if(name.equals(fragment.getName().getIdentifier())){
+                    return fragment.getInitializer() == null
+                            ? fragment.getName()
+                            : fragment.getInitializer();
+                }
             }
-
-            replaceMagicNumberWithConstant(literal, rewrite, name);
-
-            return buildSolution(literalClass, change);
         }
 
+        return null;
+    }
 
-        static void createConstant(final TypeDeclaration literalClass, ASTRewrite rewrite,
-                                   final String name,
-                                   final String value) {
-            AST ast = literalClass.getAST();
-
-            final ListRewrite listRewrite = rewrite.getListRewrite(
-                    literalClass,
-                    TypeDeclaration.BODY_DECLARATIONS_PROPERTY
-            );
-
-            final VariableDeclarationFragment variable = ast.newVariableDeclarationFragment();
-
-            variable.setName(ast.newSimpleName(name));
-            variable.setInitializer(ast.newNumberLiteral(value));
+    @Override protected Map<String, Parameter> defaultParameters(Cause cause) {
+        final NumberLiteral literal = (NumberLiteral) cause.getAffectedNodes().get(0);
+        return Parameters.constantName(Parameters.constantNameOf(literal.getToken()));
+    }
 
-            final FieldDeclaration field = ast.newFieldDeclaration(variable);
-            field.setType(ast.newPrimitiveType(PrimitiveType.INT));
+    private static void createConstant(final TypeDeclaration literalClass, ASTRewrite rewrite,
+                                       final String name,
+                                       final String value) {
+        AST ast = literalClass.getAST();
 
-            //noinspection unchecked
-            field.modifiers().addAll( // unchecked warning
-                    ast.newModifiers(Modifier.PRIVATE | Modifier.STATIC | Modifier.FINAL)
-            );
+        final ListRewrite listRewrite = rewrite.getListRewrite(
+                literalClass,
+                TypeDeclaration.BODY_DECLARATIONS_PROPERTY
+        );
 
-            listRewrite.insertFirst(field, null);
-        }
+        final VariableDeclarationFragment variable = ast.newVariableDeclarationFragment();
 
+        variable.setName(ast.newSimpleName(name));
+        variable.setInitializer(ast.newNumberLiteral(value));
 
-        static void replaceMagicNumberWithConstant(final NumberLiteral literal,
-                                                   final ASTRewrite rewrite,
-                                                   final String name) {
-            SimpleName constantReference = literal.getAST().newSimpleName(name);
-            rewrite.replace(literal, constantReference, null);
-        }
+        final FieldDeclaration field = ast.newFieldDeclaration(variable);
+        field.setType(ast.newPrimitiveType(PrimitiveType.INT));
 
+        //noinspection unchecked
+        field.modifiers().addAll( // unchecked warning
+                ast.newModifiers(Modifier.PRIVATE | Modifier.STATIC | Modifier.FINAL)
+        );
 
-        SourceChange buildSolution(TypeDeclaration literalClass, SourceChange change){
+        listRewrite.insertFirst(field, null);
+    }
 
-            final Source code = Source.from(literalClass);
-            change.getDeltas().add(change.createDelta(code));
-            return change;
-        }
 
-        private static boolean existingConstantExists(final TypeDeclaration literalClass, final
-                                                      String name) {
-            final FieldDeclarationVisitor visitor = new FieldDeclarationVisitor();
-            literalClass.accept(visitor);
-            return visitor.hasFieldName(name);
-        }
+    private static void replaceMagicNumberWithConstant(final NumberLiteral literal,
+                                                       final ASTRewrite rewrite,
+                                                       final String name) {
+        SimpleName constantReference = literal.getAST().newSimpleName(name);
+        rewrite.replace(literal, constantReference, null);
     }
 }
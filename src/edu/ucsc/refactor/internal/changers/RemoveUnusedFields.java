@@ -3,12 +3,11 @@ package edu.ucsc.refactor.internal.changers;
 import edu.ucsc.refactor.Cause;
 import edu.ucsc.refactor.Change;
 import edu.ucsc.refactor.Parameter;
-import edu.ucsc.refactor.internal.Delta;
 import edu.ucsc.refactor.internal.SourceChange;
 import edu.ucsc.refactor.internal.util.AstUtil;
+import edu.ucsc.refactor.spi.BulkSourceChanger;
 import edu.ucsc.refactor.spi.Names;
 import edu.ucsc.refactor.spi.Smell;
-import edu.ucsc.refactor.spi.SourceChanger;
 import org.eclipse.jdt.core.dom.*;
 import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
 
@@ -18,18 +17,13 @@ import java.util.Map;
 /**
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
-public class RemoveUnusedFields extends SourceChanger {
+public class RemoveUnusedFields extends BulkSourceChanger {
 
     /**
      * Instantiates a new {@link RemoveUnusedFields} object.
      */
     public RemoveUnusedFields(){
-        super();
-    }
-
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Smell.UNUSED_FIELD)
-                || Names.from(Smell.UNUSED_FIELD).isSame(cause.getName());
+        super(Smell.UNUSED_FIELD, Names.from(Smell.UNUSED_FIELD));
     }
 
     @Override protected Change initChanger(Cause cause, Map<String, Parameter> parameters) {
@@ -39,7 +33,8 @@ public class RemoveUnusedFields extends SourceChanger {
             final CompilationUnit root = getCompilationUnit(cause);
             final ASTRewrite rewrite   = ASTRewrite.create(root.getAST());
 
-            change.getDeltas().add(removeUnusedFields(root, rewrite, cause));
+            rewriteCause(root, rewrite, cause, parameters);
+            change.getDeltas().add(createDelta(root, rewrite));
 
         } catch (Throwable ex){
             change.getErrors().add(ex.getMessage());
@@ -48,7 +43,8 @@ public class RemoveUnusedFields extends SourceChanger {
         return change;
     }
 
-    private Delta removeUnusedFields(CompilationUnit root, ASTRewrite rewrite, Cause cause){
+    @Override protected void rewriteCause(CompilationUnit root, ASTRewrite rewrite, Cause cause,
+                                          Map<String, Parameter> parameters){
         final boolean cameFromDetector = cause.getName().isSame(Smell.UNUSED_FIELD);
 
         for(ASTNode affected : cause.getAffectedNodes()){
@@ -78,7 +74,5 @@ public class RemoveUnusedFields extends SourceChanger {
             }
 
         }
-
-        return createDelta(root, rewrite);
     }
 }
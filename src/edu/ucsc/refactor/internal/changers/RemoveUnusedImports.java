@@ -3,12 +3,11 @@ package edu.ucsc.refactor.internal.changers;
 import edu.ucsc.refactor.Cause;
 import edu.ucsc.refactor.Change;
 import edu.ucsc.refactor.Parameter;
-import edu.ucsc.refactor.internal.Delta;
 import edu.ucsc.refactor.internal.SourceChange;
 import edu.ucsc.refactor.internal.util.AstUtil;
+import edu.ucsc.refactor.spi.BulkSourceChanger;
 import edu.ucsc.refactor.spi.Names;
 import edu.ucsc.refactor.spi.Smell;
-import edu.ucsc.refactor.spi.SourceChanger;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.ImportDeclaration;
@@ -20,11 +19,12 @@ import java.util.Set;
 /**
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
-public class RemoveUnusedImports extends SourceChanger {
-
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Smell.UNUSED_IMPORTS)
-                || Names.from(Smell.UNUSED_IMPORTS).isSame(cause.getName());
+public class RemoveUnusedImports extends BulkSourceChanger {
+    /**
+     * Instantiates a new {@link RemoveUnusedImports} object.
+     */
+    public RemoveUnusedImports(){
+        super(Smell.UNUSED_IMPORTS, Names.from(Smell.UNUSED_IMPORTS));
     }
 
     @Override protected Change initChanger(Cause cause,
@@ -40,7 +40,8 @@ public class RemoveUnusedImports extends SourceChanger {
             );
 
             final ASTRewrite      rewrite   = ASTRewrite.create(root.getAST());
-            change.getDeltas().add(removeUnusedImports(root, rewrite, cause));
+            rewriteCause(root, rewrite, cause, parameters);
+            change.getDeltas().add(createDelta(root, rewrite));
         } catch (Throwable ex){
             change.getErrors().add(ex.getMessage());
         }
@@ -59,7 +60,8 @@ public class RemoveUnusedImports extends SourceChanger {
     }
 
 
-    private Delta removeUnusedImports(CompilationUnit root, ASTRewrite rewrite, Cause cause){
+    @Override protected void rewriteCause(CompilationUnit root, ASTRewrite rewrite, Cause cause,
+                                          Map<String, Parameter> parameters){
         final boolean cameFromDetector = cause.getName().isSame(Smell.UNUSED_IMPORTS);
 
         if(cameFromDetector){
@@ -74,7 +76,5 @@ public class RemoveUnusedImports extends SourceChanger {
                 rewrite.remove(eachUsed, null);
             }
         }
-
-        return createDelta(root, rewrite);
     }
 }
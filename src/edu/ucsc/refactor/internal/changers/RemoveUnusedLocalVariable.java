@@ -3,12 +3,11 @@ package edu.ucsc.refactor.internal.changers;
 import edu.ucsc.refactor.Cause;
 import edu.ucsc.refactor.Change;
 import edu.ucsc.refactor.Parameter;
-import edu.ucsc.refactor.internal.Delta;
 import edu.ucsc.refactor.internal.SourceChange;
 import edu.ucsc.refactor.internal.util.AstUtil;
+import edu.ucsc.refactor.spi.BulkSourceChanger;
 import edu.ucsc.refactor.spi.Names;
 import edu.ucsc.refactor.spi.Smell;
-import edu.ucsc.refactor.spi.SourceChanger;
 import org.eclipse.jdt.core.dom.*;
 import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
 
@@ -18,17 +17,12 @@ import java.util.Map;
 /**
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
-public class RemoveUnusedLocalVariable extends SourceChanger {
+public class RemoveUnusedLocalVariable extends BulkSourceChanger {
     /**
      * Instantiates a new {@link RemoveUnusedFields} object.
      */
     public RemoveUnusedLocalVariable(){
-        super();
-    }
-
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Smell.UNUSED_VARIABLE)
-                || Names.from(Smell.UNUSED_VARIABLE).isSame(cause.getName());
+        super(Smell.UNUSED_VARIABLE, Names.from(Smell.UNUSED_VARIABLE));
     }
 
     @Override protected Change initChanger(Cause cause, Map<String, Parameter> parameters) {
@@ -38,7 +32,8 @@ public class RemoveUnusedLocalVariable extends SourceChanger {
             final CompilationUnit root = getCompilationUnit(cause);
             final ASTRewrite rewrite   = ASTRewrite.create(root.getAST());
 
-            change.getDeltas().add(removeUnusedLocalVariable(root, rewrite, cause));
+            rewriteCause(root, rewrite, cause, parameters);
+            change.getDeltas().add(createDelta(root, rewrite));
 
         } catch (Throwable ex){
             change.getErrors().add(ex.getMessage());
@@ -48,7 +43,8 @@ public class RemoveUnusedLocalVariable extends SourceChanger {
     }
 
 
-    private Delta removeUnusedLocalVariable(CompilationUnit root, ASTRewrite rewrite, Cause cause){
+    @Override protected void rewriteCause(CompilationUnit root, ASTRewrite rewrite, Cause cause,
+                                          Map<String, Parameter> parameters){
         final boolean cameFromDetector = cause.getName().isSame(Smell.UNUSED_VARIABLE);
 
         for(ASTNode affected : cause.getAffectedNodes()){
@@ -93,8 +89,5 @@ public class RemoveUnusedLocalVariable extends SourceChanger {
             }
 
         }
-
-
-        return createDelta(root, rewrite);
     }
 }
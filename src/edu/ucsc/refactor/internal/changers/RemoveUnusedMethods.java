@@ -3,12 +3,11 @@ package edu.ucsc.refactor.internal.changers;
 import edu.ucsc.refactor.Cause;
 import edu.ucsc.refactor.Change;
 import edu.ucsc.refactor.Parameter;
-import edu.ucsc.refactor.internal.Delta;
 import edu.ucsc.refactor.internal.SourceChange;
 import edu.ucsc.refactor.internal.util.AstUtil;
+import edu.ucsc.refactor.spi.BulkSourceChanger;
 import edu.ucsc.refactor.spi.Names;
 import edu.ucsc.refactor.spi.Smell;
-import edu.ucsc.refactor.spi.SourceChanger;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
@@ -21,17 +20,12 @@ import java.util.Map;
 /**
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
-public class RemoveUnusedMethods extends SourceChanger {
+public class RemoveUnusedMethods extends BulkSourceChanger {
     /**
      * Instantiates a new {@link RemoveUnusedMethods} object.
      */
     public RemoveUnusedMethods(){
-        super();
-    }
-
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Smell.UNUSED_METHOD)
-                || Names.from(Smell.UNUSED_METHOD).isSame(cause.getName());
+        super(Smell.UNUSED_METHOD, Names.from(Smell.UNUSED_METHOD));
     }
 
     @Override protected Change initChanger(Cause cause,
@@ -43,7 +37,8 @@ public class RemoveUnusedMethods extends SourceChanger {
             final CompilationUnit root      = getCompilationUnit(cause);
             final ASTRewrite      rewrite   = ASTRewrite.create(root.getAST());
 
-            change.getDeltas().add(removeUnusedMethods(root, rewrite, cause));
+            rewriteCause(root, rewrite, cause, parameters);
+            change.getDeltas().add(createDelta(root, rewrite));
 
         } catch (Throwable ex){
             change.getErrors().add(ex.getMessage());
@@ -53,7 +48,8 @@ public class RemoveUnusedMethods extends SourceChanger {
     }
 
 
-    private Delta removeUnusedMethods(CompilationUnit root, ASTRewrite rewrite, Cause cause){
+    @Override protected void rewriteCause(CompilationUnit root, ASTRewrite rewrite, Cause cause,
+                                          Map<String, Parameter> parameters){
         // todo FIX, it can also come from
         final boolean cameFromDetector = cause.getName().isSame(Smell.UNUSED_METHOD);
 
@@ -74,10 +70,6 @@ public class RemoveUnusedMethods extends SourceChanger {
                 }
             }
         }
-
-
-
-        return createDelta(root, rewrite);
     }
 
 
@@ -5,13 +5,12 @@ import com.google.common.collect.Iterables;
 import edu.ucsc.refactor.Cause;
 import edu.ucsc.refactor.Change;
 import edu.ucsc.refactor.Parameter;
-import edu.ucsc.refactor.internal.Delta;
 import edu.ucsc.refactor.internal.SourceChange;
 import edu.ucsc.refactor.internal.util.AstUtil;
 import edu.ucsc.refactor.internal.visitors.MethodInvocationVisitor;
+import edu.ucsc.refactor.spi.BulkSourceChanger;
 import edu.ucsc.refactor.spi.Names;
 import edu.ucsc.refactor.spi.Smell;
-import edu.ucsc.refactor.spi.SourceChanger;
 import org.eclipse.jdt.core.dom.*;
 import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
 
@@ -23,7 +22,7 @@ import java.util.Set;
 /**
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
-public class RemoveUnusedParameters extends SourceChanger {
+public class RemoveUnusedParameters extends BulkSourceChanger {
 
     private final static int METHOD_DECLARATION             = 0;
     private final static int SINGLE_VARIABLE_DECLARATION    = 1;
@@ -32,12 +31,7 @@ public class RemoveUnusedParameters extends SourceChanger {
      * Instantiates a new {@link RemoveUnusedParameters} object.
      */
     public RemoveUnusedParameters(){
-        super();
-    }
-
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Smell.UNUSED_PARAMETER)
-                || Names.from(Smell.UNUSED_PARAMETER).isSame(cause.getName());
+        super(Smell.UNUSED_PARAMETER, Names.from(Smell.UNUSED_PARAMETER));
     }
 
     @Override protected Change initChanger(Cause cause,
@@ -50,7 +44,8 @@ public class RemoveUnusedParameters extends SourceChanger {
             final CompilationUnit root      = getCompilationUnit(cause);
             final ASTRewrite      rewrite   = ASTRewrite.create(root.getAST());
 
-            change.getDeltas().add(removeUnusedParameters(root, rewrite, cause));
+            rewriteCause(root, rewrite, cause, parameters);
+            change.getDeltas().add(createDelta(root, rewrite));
 
         } catch (Throwable ex){
             change.getErrors().add(ex.getMessage());
@@ -60,7 +55,8 @@ public class RemoveUnusedParameters extends SourceChanger {
     }
 
 
-    private Delta removeUnusedParameters(CompilationUnit root, ASTRewrite rewrite, Cause cause){
+    @Override protected void rewriteCause(CompilationUnit root, ASTRewrite rewrite, Cause cause,
+                                          Map<String, Parameter> parameters){
         final boolean cameFromDetector = cause.getName().isSame(Smell.UNUSED_PARAMETER);
 
         final List<ASTNode> nodes   = cause.getAffectedNodes();
@@ -99,10 +95,6 @@ public class RemoveUnusedParameters extends SourceChanger {
             }
 
         }
-
-
-
-        return createDelta(root, rewrite);
     }
 
     private static void removeOnceAndForAll(final ASTRewrite rewrite, final List<ASTNode> nodes){
@@ -3,12 +3,11 @@ package edu.ucsc.refactor.internal.changers;
 import edu.ucsc.refactor.Cause;
 import edu.ucsc.refactor.Change;
 import edu.ucsc.refactor.Parameter;
-import edu.ucsc.refactor.internal.Delta;
 import edu.ucsc.refactor.internal.SourceChange;
 import edu.ucsc.refactor.internal.util.AstUtil;
+import edu.ucsc.refactor.spi.BulkSourceChanger;
 import edu.ucsc.refactor.spi.Names;
 import edu.ucsc.refactor.spi.Smell;
-import edu.ucsc.refactor.spi.SourceChanger;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.CompilationUnit;
@@ -21,18 +20,13 @@ import java.util.Map;
 /**
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
-public class RemoveUnusedTypes extends SourceChanger {
+public class RemoveUnusedTypes extends BulkSourceChanger {
 
     /**
      * Instantiates a new {@link RemoveUnusedTypes} object.
      */
     public RemoveUnusedTypes(){
-        super();
-    }
-
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Smell.UNUSED_TYPE)
-                || Names.from(Smell.UNUSED_TYPE).isSame(cause.getName());
+        super(Smell.UNUSED_TYPE, Names.from(Smell.UNUSED_TYPE));
     }
 
     @Override protected Change initChanger(Cause cause, Map<String, Parameter> parameters) {
@@ -43,7 +37,8 @@ public class RemoveUnusedTypes extends SourceChanger {
             final CompilationUnit root      = getCompilationUnit(cause);
             final ASTRewrite      rewrite   = ASTRewrite.create(root.getAST());
 
-            change.getDeltas().add(removeUnusedTypeDeclarations(root, rewrite, cause));
+            rewriteCause(root, rewrite, cause, parameters);
+            change.getDeltas().add(createDelta(root, rewrite));
 
         } catch (Throwable ex){
             change.getErrors().add(ex.getMessage());
@@ -53,7 +48,8 @@ public class RemoveUnusedTypes extends SourceChanger {
     }
 
 
-    private Delta removeUnusedTypeDeclarations(CompilationUnit root, ASTRewrite rewrite, Cause cause){
+    @Override protected void rewriteCause(CompilationUnit root, ASTRewrite rewrite, Cause cause,
+                                          Map<String, Parameter> parameters){
 
         // if it came from the detector, then there is not need for looking for references
         // why? because there are none! If it came from the SingleEdit, then we must take these
@@ -80,9 +76,6 @@ public class RemoveUnusedTypes extends SourceChanger {
             }
 
         }
-
-        return createDelta(root, rewrite);
-
     }
 
 }
@@ -11,6 +11,7 @@ import edu.ucsc.refactor.util.Locations;
 import edu.ucsc.refactor.util.Parameters;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
 
@@ -20,8 +21,11 @@ import java.util.Map;
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class RenameClassOrInterface extends SourceChanger {
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Refactoring.RENAME_TYPE);
+    /**
+     * Instantiates a new {@link RenameClassOrInterface} object.
+     */
+    public RenameClassOrInterface(){
+        super(Refactoring.RENAME_TYPE);
     }
 
     @Override protected Change initChanger(Cause cause, Map<String, Parameter> parameters) {
@@ -54,6 +58,11 @@ public class RenameClassOrInterface extends SourceChanger {
         final String        oldName = unit.getName().getIdentifier();
         final Source        src     = Source.from(unit);
 
+        final ITypeBinding binding = unit.resolveBinding();
+        if(binding != null){
+            return createDelta(src, Renames.renameAll(unit.getRoot(), binding, newName));
+        }
+
         final TypeDeclaration copy = AstUtil.copySubtree(
                 TypeDeclaration.class,
                 ast,
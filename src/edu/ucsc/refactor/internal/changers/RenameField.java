@@ -19,8 +19,11 @@ import java.util.Map;
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class RenameField extends SourceChanger {
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Refactoring.RENAME_FIELD);
+    /**
+     * Instantiates a new {@link RenameField} object.
+     */
+    public RenameField(){
+        super(Refactoring.RENAME_FIELD);
     }
 
     @Override protected Change initChanger(Cause cause, Map<String, Parameter> parameters) {
@@ -56,6 +59,11 @@ public class RenameField extends SourceChanger {
         final String     oldName = getSimpleName(field);
         final Source     src     = Source.from(field);
 
+        final IVariableBinding binding = getFragment(field).resolveBinding();
+        if(binding != null){
+            return createDelta(src, Renames.renameAll(unit.getRoot(), binding, newName));
+        }
+
         final TypeDeclaration copy = AstUtil.copySubtree(
                 TypeDeclaration.class,
                 ast,
@@ -78,10 +86,13 @@ public class RenameField extends SourceChanger {
 
 
     static String getSimpleName(FieldDeclaration field){
+        return getFragment(field).getName().getIdentifier();
+    }
+
+    private static VariableDeclarationFragment getFragment(FieldDeclaration field){
         final List fragments = field.fragments();
         final Object element = fragments.get(0);
-        final VariableDeclarationFragment fragment = (VariableDeclarationFragment)element;
-        return fragment.getName().getIdentifier();
+        return (VariableDeclarationFragment)element;
     }
 
     private static void checkNameIsNotTaken(TypeDeclaration unit, String newName){
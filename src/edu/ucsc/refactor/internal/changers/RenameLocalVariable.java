@@ -20,8 +20,11 @@ import java.util.Map;
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class RenameLocalVariable extends SourceChanger {
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Refactoring.RENAME_VARIABLE);
+    /**
+     * Instantiates a new {@link RenameLocalVariable} object.
+     */
+    public RenameLocalVariable(){
+        super(Refactoring.RENAME_VARIABLE);
     }
 
     @Override protected Change initChanger(Cause cause, Map<String, Parameter> parameters) {
@@ -62,6 +65,13 @@ public class RenameLocalVariable extends SourceChanger {
         final String        oldName = fragment != null ? fragment.getName().getIdentifier(): AstUtil.getSimpleName(variable);
         final Source        src     = Source.from(method);
 
+        final IVariableBinding binding = (fragment != null
+                ? fragment
+                : (VariableDeclarationFragment) variable.fragments().get(0)).resolveBinding();
+
+        if(binding != null){
+            return createDelta(src, Renames.renameAll(method, binding, newName));
+        }
 
         final MethodDeclaration copy = AstUtil.copySubtree(
                 MethodDeclaration.class,
@@ -13,6 +13,7 @@ import edu.ucsc.refactor.util.Parameters;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
 
@@ -23,9 +24,11 @@ import java.util.Map;
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class RenameMethod extends SourceChanger {
-
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Refactoring.RENAME_METHOD);
+    /**
+     * Instantiates a new {@link RenameMethod} object.
+     */
+    public RenameMethod(){
+        super(Refactoring.RENAME_METHOD);
     }
 
     @Override protected Change initChanger(Cause cause,
@@ -73,6 +76,11 @@ public class RenameMethod extends SourceChanger {
 
         checkNameNotTaken(methods, newName);
 
+        final IMethodBinding binding = method.resolveBinding();
+        if(binding != null){
+            return createDelta(src, Renames.renameAll(parent, binding, newName));
+        }
+
         // I. Rename the actual method's name.
         // begin:
 
@@ -11,6 +11,7 @@ import edu.ucsc.refactor.util.Locations;
 import edu.ucsc.refactor.util.Parameters;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.IVariableBinding;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
@@ -22,8 +23,11 @@ import java.util.Map;
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class RenameParam extends SourceChanger {
-    @Override public boolean canHandle(Cause cause) {
-        return cause.isSame(Refactoring.RENAME_PARAMETER);
+    /**
+     * Instantiates a new {@link RenameParam} object.
+     */
+    public RenameParam(){
+        super(Refactoring.RENAME_PARAMETER);
     }
 
     @Override protected Change initChanger(Cause cause, Map<String, Parameter> parameters) {
@@ -60,6 +64,10 @@ public class RenameParam extends SourceChanger {
         final String        oldName = node.getName().getIdentifier();
         final Source        src     = Source.from(method);
 
+        final IVariableBinding binding = node.resolveBinding();
+        if(binding != null){
+            return createDelta(src, Renames.renameAll(method, binding, newName));
+        }
 
         final MethodDeclaration copy = AstUtil.copySubtree(
                 MethodDeclaration.class,
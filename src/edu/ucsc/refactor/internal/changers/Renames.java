@@ -0,0 +1,44 @@
+package edu.ucsc.refactor.internal.changers;
+
+import edu.ucsc.refactor.internal.visitors.BindingOccurrencesVisitor;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.text.edits.MultiTextEdit;
+import org.eclipse.text.edits.ReplaceEdit;
+import org.eclipse.text.edits.TextEdit;
+
+/**
+ * The rename engine shared by the rename changers. It finds every occurrence of a
+ * binding in one pass and replaces only the identifiers, so a rename's edit grows with
+ * the number of occurrences rather than with the size of the enclosing declarations,
+ * and the rest of the code keeps its formatting. Changers fall back to renaming by name
+ * when the target has no binding (e.g., code parsed without bindings).
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+final class Renames {
+    private Renames(){
+        throw new RuntimeException("Renames cannot be instantiated.");
+    }
+
+    /**
+     * Renames every occurrence of a binding within a node.
+     *
+     * @param scope The node whose occurrences are renamed (e.g., a compilation unit).
+     * @param target The renamed binding.
+     * @param newName The new name.
+     * @return a text edit replacing each occurrence's identifier.
+     */
+    static TextEdit renameAll(ASTNode scope, IBinding target, String newName){
+        final BindingOccurrencesVisitor occurrences = new BindingOccurrencesVisitor(target);
+        scope.accept(occurrences);
+
+        final MultiTextEdit edit = new MultiTextEdit();
+        for(SimpleName each : occurrences.getOccurrences()){
+            edit.addChild(new ReplaceEdit(each.getStartPosition(), each.getLength(), newName));
+        }
+
+        return edit;
+    }
+}
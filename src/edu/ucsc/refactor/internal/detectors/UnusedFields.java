@@ -1,6 +1,7 @@
 package edu.ucsc.refactor.internal.detectors;
 
 import edu.ucsc.refactor.Context;
+import edu.ucsc.refactor.DependencyGraph;
 import edu.ucsc.refactor.internal.util.AstUtil;
 import edu.ucsc.refactor.internal.visitors.FieldDeclarationVisitor;
 import edu.ucsc.refactor.spi.IssueDetector;
@@ -29,18 +30,40 @@ public class UnusedFields  extends IssueDetector {
         final FieldDeclarationVisitor visitor = new FieldDeclarationVisitor();
         context.accept(visitor);
 
+        final DependencyGraph graph = context.getDependencyGraph();
+
         for(FieldDeclaration eachField : visitor.getFieldDeclarations()){
             List fragments = eachField.fragments();
             for(Object eachObject : fragments){
 
                 final VariableDeclarationFragment fragment   = (VariableDeclarationFragment) eachObject;
+                if(isReadOrWritten(graph, fragment)) continue;
+
                 final SimpleName                  name       = fragment.getName();
                 final List<SimpleName>            references = AstUtil.findByNode(context.getCompilationUnit(), name);
 
-                if(!AstUtil.isSideEffectFound(name) && references.size() <= 1){ // implies un-used field
+                if(!AstUtil.isSideEffectFound(name) && references.size() <= 1 // implies un-used field
+                        && !isUsedByOtherSources(context, fragment)){
                     createIssue(eachField);
                 }
             }
         }
     }
+
+    // a cheap way out for most fields; the unused ones (and the ones only mentioned in
+    // Javadoc, or with no binding) are still looked up in the compilation unit.
+    private static boolean isReadOrWritten(DependencyGraph graph, VariableDeclarationFragment fragment){
+        final int node = graph.indexOf(fragment.resolveBinding());
+        return node >= 0
+                && (graph.getDependents(node, DependencyGraph.Dependency.READS).length > 0
+                || graph.getDependents(node, DependencyGraph.Dependency.WRITES).length > 0);
+    }
+
+    private static boolean isUsedByOtherSources(Context context, VariableDeclarationFragment fragment){
+        return context.getProject() != null
+                && context.getProject().isReferencedOutside(
+                    fragment.resolveBinding(),
+                    context.getSource()
+                );
+    }
 }
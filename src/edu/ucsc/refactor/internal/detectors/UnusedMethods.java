@@ -1,9 +1,9 @@
 package edu.ucsc.refactor.internal.detectors;
 
 import edu.ucsc.refactor.Context;
+import edu.ucsc.refactor.DependencyGraph;
 import edu.ucsc.refactor.Location;
 import edu.ucsc.refactor.internal.visitors.MethodDeclarationVisitor;
-import edu.ucsc.refactor.internal.visitors.MethodInvocationVisitor;
 import edu.ucsc.refactor.spi.IssueDetector;
 import edu.ucsc.refactor.spi.Smell;
 import edu.ucsc.refactor.internal.util.AstUtil;
@@ -11,11 +11,16 @@ import org.eclipse.jdt.core.dom.*;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.logging.Logger;
 
 /**
+ * Detects non-private methods that are not called from outside their declaring type.
+ *
+ * <p>Callers are the {@link DependencyGraph}'s {@code CALLS} dependents of a method, so a
+ * method counts as called from another type when that type invokes it directly, through
+ * {@code super}, or through a parameterized type (e.g., {@code Box<String>#get()} calls
+ * {@code Box<T>#get()}).</p>
+ *
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
  */
 public class UnusedMethods extends IssueDetector {
@@ -25,20 +30,22 @@ public class UnusedMethods extends IssueDetector {
     private static final String STRATEGY_NAME        = Smell.UNUSED_METHOD.getKey();
     private static final String STRATEGY_DESCRIPTION = Smell.UNUSED_METHOD.getSummary();
 
-    private final List<MethodInvocation>                         methodInvocationList;
-    private final Map<MethodDeclaration, List<MethodInvocation>> methodUsages;
+    private final List<MethodDeclaration> methodDeclarations;
+
+    private Context context;
 
     /**
      * Instantiate {@code UnusedMethods} issue detector.
      */
     public UnusedMethods() {
         super(STRATEGY_NAME, STRATEGY_DESCRIPTION);
-        this.methodInvocationList = new ArrayList<MethodInvocation>();
-        this.methodUsages         = new WeakHashMap<MethodDeclaration, List<MethodInvocation>>();
+        this.methodDeclarations = new ArrayList<MethodDeclaration>();
     }
 
 
     @Override public void scanJava(Context context) {
+        this.context = context;
+
         MethodDeclarationVisitor methodDeclarationVisitor = new MethodDeclarationVisitor();
         context.accept(methodDeclarationVisitor);
 
@@ -47,52 +54,23 @@ public class UnusedMethods extends IssueDetector {
 
             LOGGER.fine("Entering ... " + location);
 
-            methodUsages.put(methodDeclaration, new ArrayList<MethodInvocation>());
+            methodDeclarations.add(methodDeclaration);
         }
 
-        MethodInvocationVisitor methodInvocationVisitor = new MethodInvocationVisitor();
-        context.accept(methodInvocationVisitor);
-        methodInvocationList.addAll(methodInvocationVisitor.getMethodInvocations());
-
-        buildHashMapWithMethodDeclarationsAndInvocations();
-        findViolatedNodesAndCreateIssues();
-    }
-
-
-    private void buildHashMapWithMethodDeclarationsAndInvocations() {
-        for (MethodInvocation methodInvocation : methodInvocationList) {
-            for (MethodDeclaration methodDeclaration : methodUsages.keySet()) {
-                final IMethodBinding methodBinding = methodDeclaration.resolveBinding();
-                if(methodBinding != null){
-                    if (methodBinding.equals(methodInvocation.resolveMethodBinding())) {
-                        methodUsages.get(methodDeclaration).add(methodInvocation);
-                        break;
-                    }
-                }
-            }
-        }
+        findViolatedNodesAndCreateIssues(context.getDependencyGraph());
     }
 
 
     /**
      * Finds all violated nodes and places them in the violatedNodes list.
      */
-    private void findViolatedNodesAndCreateIssues() {
-        OUTER_LOOP:
-        for (Map.Entry<MethodDeclaration, List<MethodInvocation>> entry : methodUsages.entrySet()) {
-            final MethodDeclaration methodDeclaration = entry.getKey();
+    private void findViolatedNodesAndCreateIssues(DependencyGraph graph) {
+        for (MethodDeclaration methodDeclaration : methodDeclarations) {
             final int               modifiers         = methodDeclaration.getModifiers();
 
             if (Modifier.isPrivate(modifiers)) { continue; }
-
-            for (MethodInvocation methodInvocation : entry.getValue()) {
-                if (!Modifier.isPrivate(modifiers) && AstUtil.parent(TypeDeclaration.class,
-                        methodDeclaration) != AstUtil.parent(TypeDeclaration.class,
-                        methodInvocation)) {
-
-                    continue OUTER_LOOP;
-                }
-            }
+            if (isUsedByOtherSources(methodDeclaration)) { continue; }
+            if (isCalledByOtherTypes(graph, methodDeclaration)) { continue; }
 
             if ((!Modifier.isPrivate(modifiers) && !methodDeclaration.isConstructor() && !Modifier.isStatic(modifiers)
                     && !AstUtil.isAnnotated(methodDeclaration)
@@ -105,9 +83,33 @@ public class UnusedMethods extends IssueDetector {
         }
     }
 
+    private static boolean isCalledByOtherTypes(DependencyGraph graph, MethodDeclaration methodDeclaration){
+        final int method = graph.indexOf(methodDeclaration.resolveBinding());
+        if (method < 0) { return false; }
+
+        for (int caller : graph.getDependents(method, DependencyGraph.Dependency.CALLS)) {
+            // calls made in a type's initializers are attributed to the type itself
+            final int callerType = graph.getKind(caller) == DependencyGraph.Kind.TYPE
+                    ? caller
+                    : graph.getParent(caller);
+
+            if (callerType != graph.getParent(method)) { return true; }
+        }
+
+        return false;
+    }
+
+    private boolean isUsedByOtherSources(MethodDeclaration methodDeclaration){
+        return context != null && context.getProject() != null
+                && context.getProject().isReferencedOutside(
+                    methodDeclaration.resolveBinding(),
+                    context.getSource()
+                );
+    }
+
     @Override public void resetThisDetector() {
-        methodInvocationList.clear();
-        methodUsages.clear();
+        methodDeclarations.clear();
+        context = null;
         super.resetThisDetector();
     }
 }
@@ -30,7 +30,8 @@ public class UnusedTypes extends IssueDetector {
 
         for(AbstractTypeDeclaration eachTypeDeclaration : typeDeclarationVisitor.getDeclaredTypes()){
 
-            if(!isDeclarationUsed(eachTypeDeclaration)){
+            if(!isDeclarationUsed(eachTypeDeclaration)
+                    && !isUsedByOtherSources(context, eachTypeDeclaration)){
                 createIssue(eachTypeDeclaration);
             }
         }
@@ -60,6 +61,15 @@ public class UnusedTypes extends IssueDetector {
     }
 
 
+    private static boolean isUsedByOtherSources(Context context, AbstractTypeDeclaration declaration){
+        return context.getProject() != null
+                && context.getProject().isReferencedOutside(
+                    declaration.resolveBinding(),
+                    context.getSource()
+                );
+    }
+
+
     private static boolean isOfExpectedType(SimpleName name){
         return AstUtil.parent(TypeDeclaration.class, name) != null
                 || AstUtil.parent(VariableDeclarationStatement.class, name) != null
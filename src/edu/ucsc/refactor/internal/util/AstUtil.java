@@ -304,50 +304,48 @@ public class AstUtil {
 
 
     public static Set<ASTNode> unwindBindings(ASTNode node){
-        final Set<ASTNode>  result   = Sets.newHashSet();
-        final List<ASTNode> children = AstUtil.getChildren(node);
-        if(children.isEmpty()){
+        final CursorStack stack = new CursorStack();
+
+        ASTNode each = stack.push(node).next();
+        if(each == null){
             return ImmutableSet.of();
         }
 
-        for (ASTNode each : children){
-           //if(result.contains(each)) continue;
-           if(AstUtil.isOfType(Block.class, each)) {
-               result.addAll(unwindBindings(each));
-           } else if(AstUtil.isOfType(IfStatement.class, each)) {
-               result.addAll(unwindBindings(each));
-           } else if(AstUtil.isOfType(ReturnStatement.class, each)) {
-               result.addAll(unwindBindings(each));
-           } else if(AstUtil.isOfType(MethodInvocation.class, each)) {
+        // walks the statements and expressions under node with an explicit stack (and
+        // not by recursion), so deeply nested code does not overflow the thread's stack.
+        final Set<ASTNode> result = Sets.newHashSet();
+        while (true){
+           if(AstUtil.isOfType(MethodInvocation.class, each)) {
                final TypeDeclaration unit = AstUtil.parent(TypeDeclaration.class, each);
                final MethodInvocation inv = AstUtil.exactCast(MethodInvocation.class, each);
                final ASTNode dec = AstUtil.findDeclaration(inv.getName().resolveBinding(), unit);
                if(dec != null){
                    result.add(dec);
                } else {
-                   result.addAll(unwindBindings(inv));
+                   stack.push(inv);
                }
-           } else if(AstUtil.isOfType(InfixExpression.class, each)) {
-               result.addAll(unwindBindings(each));
-           } else if(AstUtil.isOfType(ExpressionStatement.class, each)) {
-               result.addAll(unwindBindings(each));
-           } else if(AstUtil.isOfType(VariableDeclarationExpression.class, each)) {
-               result.addAll(unwindBindings(each));
-           } else if(AstUtil.isOfType(VariableDeclarationStatement.class, each)){
-               result.addAll(unwindBindings(each));
-           } else if(AstUtil.isOfType(VariableDeclarationFragment.class, each)){
-               result.addAll(unwindBindings(each));
+           } else if(isUnwound(each)) {
+               stack.push(each);
            } else {
-               // handle the rest of statements
-               if(Statement.class.isInstance(each)){
-                   result.addAll(unwindBindings(each));
-               } else {
-                   result.add(each);
-               }
+               result.add(each);
+           }
+
+           each = stack.peek().next();
+           while (each == null){
+               stack.pop();
+               if(stack.isEmpty()) return result;
+
+               each = stack.peek().next();
            }
         }
+    }
 
-        return result;
+    private static boolean isUnwound(ASTNode node){
+        return AstUtil.isOfType(InfixExpression.class, node)
+                || AstUtil.isOfType(VariableDeclarationExpression.class, node)
+                || AstUtil.isOfType(VariableDeclarationFragment.class, node)
+                // Blocks, ifs, returns and the rest of statements
+                || Statement.class.isInstance(node);
     }
 
     public static Set<IBinding> getUniqueBindings(ASTNode node) {
@@ -462,43 +460,45 @@ public class AstUtil {
     }
 
 
-    public static Set<String> getUsedStaticTypesInCode(CompilationUnit unit){
-        final ImportsReferencesVisitor visitor = createImportsReferencesVisitor(unit);
-        return visitor.getStaticImportNames();
-    }
-
-    public static List<ASTNode> getChildren(ASTNode node) {
-        final List<ASTNode> result = Lists.newArrayList();
-
-        if(node == null){ return result; }
-
-        List list = node.structuralPropertiesForType();
+    public static Set<String> getDeclaredTypesInCode(CompilationUnit unit){
+        final Set<String> result = Sets.newHashSet();
+        unit.accept(new ASTVisitor() {
+            @Override public boolean visit(TypeDeclaration node) {
+                result.add(node.getName().getIdentifier());
+                return super.visit(node);
+            }
 
-        for(Object each : list){
-            final StructuralPropertyDescriptor descriptor = (StructuralPropertyDescriptor) each;
-            final Object child = node.getStructuralProperty(descriptor);
+            @Override public boolean visit(EnumDeclaration node) {
+                result.add(node.getName().getIdentifier());
+                return super.visit(node);
+            }
 
-            if (child instanceof List){
-                result.addAll(convert((List)child));
-            } else if (child instanceof ASTNode){
-                if(!(child instanceof Javadoc)){
-                    result.add((ASTNode)child);
-                }
+            @Override public boolean visit(AnnotationTypeDeclaration node) {
+                result.add(node.getName().getIdentifier());
+                return super.visit(node);
             }
 
-        }
+            @Override public boolean visit(TypeParameter node) {
+                result.add(node.getName().getIdentifier());
+                return super.visit(node);
+            }
+        });
 
         return result;
     }
 
 
-    private static List<ASTNode> convert(List list){
+    public static Set<String> getUsedStaticTypesInCode(CompilationUnit unit){
+        final ImportsReferencesVisitor visitor = createImportsReferencesVisitor(unit);
+        return visitor.getStaticImportNames();
+    }
+
+    public static List<ASTNode> getChildren(ASTNode node) {
         final List<ASTNode> result = Lists.newArrayList();
-        for(Object each : list){
-            final ASTNode node = (ASTNode) each;
-            if(!(node instanceof Javadoc)){
-                result.add(node);
-            }
+
+        final ChildCursor children = new ChildCursor().reset(node);
+        for(ASTNode each = children.next(); each != null; each = children.next()){
+            result.add(each);
         }
 
         return result;
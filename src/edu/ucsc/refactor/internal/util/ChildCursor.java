@@ -0,0 +1,136 @@
+package edu.ucsc.refactor.internal.util;
+
+import com.google.common.collect.Lists;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Javadoc;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A reusable cursor over the children of an {@link ASTNode}: the same children, in the same
+ * order, as {@link AstUtil#getChildren(ASTNode)} (Javadoc nodes are skipped), but without
+ * copying them into a list. Once created, a cursor can be {@link #reset(ASTNode) reset} to
+ * another node and walked again without allocating.
+ *
+ * <p>The child properties of each node type are looked up once and cached.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public final class ChildCursor {
+    private static final int MAX_LEVELS = 16;   // AST.JLS2 ... AST.JLS8 and then some
+    private static final int MAX_TYPES  = 128;
+
+    // child (and child list) properties, by AST level and node type
+    private static final AtomicReferenceArray<StructuralPropertyDescriptor[]> PROPERTIES =
+            new AtomicReferenceArray<StructuralPropertyDescriptor[]>(MAX_LEVELS * MAX_TYPES);
+
+    private static final StructuralPropertyDescriptor[] NONE = new StructuralPropertyDescriptor[0];
+
+    private ASTNode                         node;
+    private StructuralPropertyDescriptor[]  properties;
+    private boolean                         reverse;
+    private int                             property;
+    private List<?>                         list;
+    private int                             index;
+
+    /**
+     * Creates a cursor with no children to walk; see {@link #reset(ASTNode)}.
+     */
+    public ChildCursor(){
+        reset(null);
+    }
+
+    /**
+     * Points this cursor at the first child of a node.
+     *
+     * @param node The parent node; null walks no children.
+     * @return this cursor.
+     */
+    public ChildCursor reset(ASTNode node){
+        return reset(node, false);
+    }
+
+    /**
+     * Points this cursor at the first (or, if {@code reverse}, the last) child of a node.
+     *
+     * @param node The parent node; null walks no children.
+     * @param reverse {@code true} to walk the children from last to first.
+     * @return this cursor.
+     */
+    public ChildCursor reset(ASTNode node, boolean reverse){
+        this.node       = node;
+        this.properties = node == null ? NONE : childPropertiesOf(node);
+        this.reverse    = reverse;
+        this.property   = 0;
+        this.list       = null;
+        this.index      = 0;
+
+        return this;
+    }
+
+    /**
+     * @return the node whose children this cursor walks.
+     */
+    public ASTNode getNode(){
+        return node;
+    }
+
+    /**
+     * @return the next child, or null if there are no more children.
+     */
+    public ASTNode next(){
+        while(true){
+            if(list != null){
+                if(reverse ? index >= 0 : index < list.size()){
+                    final ASTNode child = (ASTNode) list.get(reverse ? index-- : index++);
+                    if(!(child instanceof Javadoc)) return child;
+                    continue;
+                }
+
+                list = null;
+            }
+
+            if(property == properties.length) return null;
+
+            final StructuralPropertyDescriptor descriptor = properties[
+                    reverse ? properties.length - 1 - property : property
+            ];
+
+            property++;
+
+            if(descriptor.isChildListProperty()){
+                list  = (List<?>) node.getStructuralProperty(descriptor);
+                index = reverse ? list.size() - 1 : 0;
+            } else {
+                final Object child = node.getStructuralProperty(descriptor);
+                if(child != null && !(child instanceof Javadoc)) return (ASTNode) child;
+            }
+        }
+    }
+
+    private static StructuralPropertyDescriptor[] childPropertiesOf(ASTNode node){
+        final int level = node.getAST().apiLevel();
+        final int type  = node.getNodeType();
+
+        final boolean cacheable = level < MAX_LEVELS && type < MAX_TYPES;
+        final int     slot      = level * MAX_TYPES + type;
+
+        StructuralPropertyDescriptor[] result = cacheable ? PROPERTIES.get(slot) : null;
+        if(result == null){
+            final List<StructuralPropertyDescriptor> children = Lists.newArrayList();
+            for(Object each : node.structuralPropertiesForType()){
+                final StructuralPropertyDescriptor descriptor = (StructuralPropertyDescriptor) each;
+                if(descriptor.isChildProperty() || descriptor.isChildListProperty()){
+                    children.add(descriptor);
+                }
+            }
+
+            result = children.toArray(new StructuralPropertyDescriptor[children.size()]);
+            if(cacheable) PROPERTIES.set(slot, result);
+        }
+
+        return result;
+    }
+}
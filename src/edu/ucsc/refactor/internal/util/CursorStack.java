@@ -0,0 +1,112 @@
+package edu.ucsc.refactor.internal.util;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+
+import java.util.Arrays;
+
+/**
+ * An explicit stack of {@link ChildCursor}s, used to walk an AST depth first without
+ * recursion. Popped cursors are kept and reused, so once the stack has grown to the depth
+ * of a tree, walking it (or any other tree no deeper) allocates nothing.
+ *
+ * <p>Each entry can also carry an {@code int} mark; e.g., how many nodes had been walked
+ * when the entry was pushed.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public final class CursorStack {
+    private ChildCursor[]   cursors;
+    private int[]           marks;
+    private int             size;
+
+    /**
+     * Creates an empty stack.
+     */
+    public CursorStack(){
+        this.cursors    = new ChildCursor[16];
+        this.marks      = new int[16];
+        this.size       = 0;
+    }
+
+    /**
+     * Pushes a cursor over the children of a node.
+     *
+     * @param node The node; null pushes a cursor with no children.
+     * @return the pushed cursor.
+     */
+    public ChildCursor push(ASTNode node){
+        return push(node, false, 0);
+    }
+
+    /**
+     * Pushes a cursor over the children of a node.
+     *
+     * @param node The node; null pushes a cursor with no children.
+     * @param reverse {@code true} to walk the children from last to first.
+     * @param mark The mark of the new entry.
+     * @return the pushed cursor.
+     */
+    public ChildCursor push(ASTNode node, boolean reverse, int mark){
+        if(size == cursors.length){
+            cursors = Arrays.copyOf(cursors, size * 2);
+            marks   = Arrays.copyOf(marks, size * 2);
+        }
+
+        ChildCursor cursor = cursors[size];
+        if(cursor == null){
+            cursor = new ChildCursor();
+            cursors[size] = cursor;
+        }
+
+        marks[size] = mark;
+        size++;
+
+        return cursor.reset(node, reverse);
+    }
+
+    /**
+     * @return the cursor on top of this stack.
+     * @throws IllegalStateException if the stack is empty.
+     */
+    public ChildCursor peek(){
+        checkNotEmpty();
+        return cursors[size - 1];
+    }
+
+    /**
+     * @return the mark of the entry on top of this stack.
+     * @throws IllegalStateException if the stack is empty.
+     */
+    public int peekMark(){
+        checkNotEmpty();
+        return marks[size - 1];
+    }
+
+    /**
+     * Removes the entry on top of this stack.
+     *
+     * @throws IllegalStateException if the stack is empty.
+     */
+    public void pop(){
+        checkNotEmpty();
+        cursors[--size].reset(null);  // drop the node, so the AST can be collected
+    }
+
+    /**
+     * @return {@code true} if this stack is empty.
+     */
+    public boolean isEmpty(){
+        return size == 0;
+    }
+
+    /**
+     * @return the number of entries in this stack.
+     */
+    public int size(){
+        return size;
+    }
+
+    private void checkNotEmpty(){
+        if(size == 0) throw new IllegalStateException("empty stack");
+    }
+}
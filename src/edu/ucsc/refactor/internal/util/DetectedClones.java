@@ -2,6 +2,7 @@ package edu.ucsc.refactor.internal.util;
 
 import com.google.common.collect.Lists;
 import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Javadoc;
 
 import java.util.Iterator;
 import java.util.List;
@@ -74,15 +75,16 @@ public class DetectedClones implements Iterable <List<DetectedClone>> {
      * @return true if subtree is a subtree of tree.
      */
     private boolean isSubtree(ASTNode tree, ASTNode subtree) {
-        if (tree.equals(subtree)) {
-            return true;
-        }
-
-        final List<ASTNode> children = AstUtil.getChildren(tree);
-        for(ASTNode each : children){
-            if(isSubtree(each, subtree)){
+        // walks up from subtree rather than down from tree; Javadoc nodes
+        // are not children of their parents here (see AstUtil#getChildren)
+        for(ASTNode each = subtree; each != null; each = each.getParent()){
+            if(each == tree){
                 return true;
             }
+
+            if(each instanceof Javadoc){
+                return false;
+            }
         }
 
         return false;
@@ -0,0 +1,286 @@
+package edu.ucsc.refactor.internal.util;
+
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Logger;
+
+/**
+ * A prebuilt index between simple type names and the packages declaring them. It is used
+ * to recommend import directives for code snippets without having to look at the JDK (or
+ * any other classpath) more than once.
+ *
+ * <p>
+ * The shared index covers a curated list of commonly used JDK packages, every top-level
+ * type of the {@code java.*} and {@code javax.*} packages found in the boot classpath,
+ * and every top-level type found in the classpath entries listed in
+ * the {@value #CLASSPATH_PROPERTY} system property. Curated packages take precedence over
+ * scanned ones; a scanned simple name declared by more than one package is considered
+ * ambiguous and is not indexed.
+ * </p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public final class TypeIndex {
+    private static final Logger LOGGER = Logger.getLogger(TypeIndex.class.getName());
+
+    /**
+     * System property listing additional classpath entries (jars or directories) to be
+     * scanned when the shared index is built.
+     */
+    public static final String CLASSPATH_PROPERTY = "vesper.typeindex.classpath";
+
+    private static final String IMPLICIT_PACKAGE = "java.lang";
+    private static final String AMBIGUOUS        = "";
+
+    private static final Map<String, Set<String>> PACKAGES_OF_INTEREST;
+    static {
+        final Map<String, Set<String>> container = Maps.newHashMap();
+        container.put("java.util.zip",                  ImmutableSet.of("Adler32", "CheckedInputStream", "CheckedOutputStream", "CRC32", "Deflater", "DeflaterInputStream", "DeflaterOutputStream", "GZIPInputStream", "GZIPOutputStream", "Inflater", "InflaterInputStream", "InflaterOutputStream", "ZipEntry", "ZipFile", "ZipInputStream", "ZipOutputStream", "DataFormatException", "ZipException", "ZipError"));
+        container.put("java.util.spi",                  ImmutableSet.of("CurrencyNameProvider", "LocaleNameProvider", "LocaleServiceProvider", "TimeZoneNameProvider"));
+        container.put("java.util.regex",                ImmutableSet.of("MatchResult", "Matcher", "Pattern", "PatternSyntaxException"));
+        container.put("java.util.prefs",                ImmutableSet.of("NodeChangeListener", "PreferenceChangeListener", "PreferencesFactory", "AbstractPreferences", "NodeChangeEvent", "PreferenceChangeEvent", "Preferences", "BackingStoreException", "InvalidPreferencesFormatException"));
+        container.put("java.util.logging",              ImmutableSet.of("Filter", "LoggingMXBean", "ConsoleHandler", "ErrorManager", "FileHandler", "Formatter", "Handler", "Level", "Logger", "LoggingPermission", "LogManager", "LogRecord", "MemoryHandler", "SimpleFormatter", "SocketHandler", "StreamHandler", "XMLFormatter"));
+        container.put("java.util.jar",                  ImmutableSet.of("Pack200.Packer", "Pack200.Unpacker", "Attributes", "Attributes.Name", "JarEntry", "JarFile", "JarInputStream", "JarOutputStream", "Manifest", "Pack200", "JarException"));
+        container.put("java.util.concurrent.locks",     ImmutableSet.of("Condition", "Lock", "ReadWriteLock", "AbstractOwnableSynchronizer", "AbstractQueuedLongSynchronizer", "AbstractQueuedSynchronizer", "LockSupport", "ReentrantLock", "ReentrantReadWriteLock", "ReentrantReadWriteLock.ReadLock", "ReentrantReadWriteLock.WriteLock"));
+        container.put("java.util.concurrent.atomic",    ImmutableSet.of("AtomicBoolean", "AtomicInteger", "AtomicIntegerArray", "AtomicIntegerFieldUpdater", "AtomicLong", "AtomicLongArray", "AtomicLongFieldUpdater", "AtomicMarkableReference", "AtomicReference", "AtomicReferenceArray", "AtomicReferenceFieldUpdater", "AtomicStampedReference"));
+        container.put("java.util.concurrent",           ImmutableSet.of("BlockingDeque", "BlockingQueue", "Callable", "CompletionService", "ConcurrentMap", "ConcurrentNavigableMap", "Delayed", "Executor", "ExecutorService", "Future", "RejectedExecutionHandler", "RunnableFuture", "RunnableScheduledFuture", "ScheduledExecutorService", "ScheduledFuture", "ThreadFactory", "AbstractExecutorService", "ArrayBlockingQueue", "ConcurrentHashMap", "ConcurrentLinkedQueue", "ConcurrentSkipListMap", "ConcurrentSkipListSet", "CopyOnWriteArrayList", "CopyOnWriteArraySet", "CountDownLatch", "CyclicBarrier", "DelayQueue", "Exchanger", "ExecutorCompletionService", "Executors", "FutureTask", "LinkedBlockingDeque", "LinkedBlockingQueue", "PriorityBlockingQueue", "ScheduledThreadPoolExecutor", "Semaphore", "SynchronousQueue", "ThreadPoolExecutor", "ThreadPoolExecutor.AbortPolicy", "ThreadPoolExecutor.CallerRunsPolicy", "ThreadPoolExecutor.DiscardOldestPolicy", "ThreadPoolExecutor.DiscardPolicy", "TimeUnit", "BrokenBarrierException", "CancellationException", "ExecutionException", "RejectedExecutionException", "TimeoutException"));
+        container.put("java.util",                      ImmutableSet.of("Collection", "Comparator", "Deque", "Enumeration", "EventListener", "Formattable", "Iterator", "List", "ListIterator", "Map", "Map.Entry", "NavigableMap", "NavigableSet", "Observer", "Queue", "RandomAccess", "Set", "SortedMap", "SortedSet", "AbstractCollection", "AbstractList", "AbstractMap", "AbstractMap.SimpleEntry", "AbstractMap.SimpleImmutableEntry", "AbstractQueue", "AbstractSequentialList", "AbstractSet", "ArrayDeque", "ArrayList", "Arrays", "BitSet", "Calendar", "Collections", "Currency", "Date", "Dictionary", "EnumMap", "EnumSet", "EventListenerProxy", "EventObject", "FormattableFlags", "Formatter", "GregorianCalendar", "HashMap", "HashSet", "Hashtable", "IdentityHashMap", "LinkedHashMap", "LinkedHashSet", "LinkedList", "ListResourceBundle", "Locale", "Observable", "PriorityQueue", "Properties", "PropertyPermission", "PropertyResourceBundle", "Random", "ResourceBundle", "ResourceBundle.Control", "Scanner", "ServiceLoader", "SimpleTimeZone", "Stack", "StringTokenizer", "Timer", "TimerTask", "TimeZone", "TreeMap", "TreeSet", "UUID", "Vector", "WeakHashMap", "Formatter.BigDecimalLayoutForm", "ConcurrentModificationException", "DuplicateFormatFlagsException", "EmptyStackException", "FormatFlagsConversionMismatchException", "FormatterClosedException", "IllegalFormatCodePointException", "IllegalFormatConversionException", "IllegalFormatException", "IllegalFormatFlagsException", "IllegalFormatPrecisionException", "IllegalFormatWidthException", "InputMismatchException", "InvalidPropertiesFormatException", "MissingFormatArgumentException", "MissingFormatWidthException", "MissingResourceException", "NoSuchElementException", "TooManyListenersException", "UnknownFormatConversionException", "UnknownFormatFlagsException", "ServiceConfigurationError"));
+        container.put("java.text.spi",                  ImmutableSet.of("BreakIteratorProvider", "CollatorProvider", "DateFormatProvider", "DateFormatSymbolsProvider", "DecimalFormatSymbolsProvider", "NumberFormatProvider"));
+        container.put("java.text",                      ImmutableSet.of("AttributedCharacterIterator", "CharacterIterator", "Annotation","AttributedCharacterIterator.Attribute","AttributedString","Bidi","BreakIterator","ChoiceFormat","CollationElementIterator","CollationKey","Collator","DateFormat","DateFormat.Field","DateFormatSymbols","DecimalFormat","DecimalFormatSymbols","FieldPosition","Format","Format.Field","MessageFormat","MessageFormat.Field","Normalizer","NumberFormat","NumberFormat.Field","ParsePosition","RuleBasedCollator","SimpleDateFormat","StringCharacterIterator","Normalizer.Form","ParseException"));
+        container.put("java.nio.charset.spi",           ImmutableSet.of("CharsetProvider"));
+        container.put("java.nio.charset",               ImmutableSet.of("Charset", "CharsetDecoder", "CharsetEncoder", "CoderResult", "CodingErrorAction", "CharacterCodingException", "IllegalCharsetNameException", "MalformedInputException", "UnmappableCharacterException", "UnsupportedCharsetException", "CoderMalfunctionError"));
+        container.put("java.nio.channels.spi",          ImmutableSet.of("AbstractInterruptibleChannel", "AbstractSelectableChannel", "AbstractSelectionKey", "AbstractSelector", "SelectorProvider"));
+        container.put("java.nio.channels",              ImmutableSet.of("ByteChannel", "Channel", "GatheringByteChannel", "InterruptibleChannel", "ReadableByteChannel", "ScatteringByteChannel", "WritableByteChannel", "Channels", "DatagramChannel", "FileChannel", "FileChannel.MapMode", "FileLock", "Pipe", "Pipe.SinkChannel", "Pipe.SourceChannel", "SelectableChannel", "SelectionKey", "Selector", "ServerSocketChannel", "SocketChannel", "AlreadyConnectedException", "AsynchronousCloseException", "CancelledKeyException", "ClosedByInterruptException", "ClosedChannelException", "ClosedSelectorException", "ConnectionPendingException", "FileLockInterruptionException", "IllegalBlockingModeException", "IllegalSelectorException", "NoConnectionPendingException", "NonReadableChannelException", "NonWritableChannelException", "NotYetBoundException", "NotYetConnectedException", "OverlappingFileLockException", "UnresolvedAddressException", "UnsupportedAddressTypeException"));
+        container.put("java.nio",                       ImmutableSet.of("Buffer", "ByteBuffer", "ByteOrder", "CharBuffer", "DoubleBuffer", "FloatBuffer", "IntBuffer", "LongBuffer", "MappedByteBuffer", "ShortBuffer", "BufferOverflowException", "BufferUnderflowException", "InvalidMarkException", "ReadOnlyBufferException"));
+        container.put("java.net",                       ImmutableSet.of("ContentHandlerFactory", "CookiePolicy", "CookieStore", "DatagramSocketImplFactory", "FileNameMap", "SocketImplFactory", "SocketOptions", "URLStreamHandlerFactory", "Authenticator", "CacheRequest", "CacheResponse", "ContentHandler", "CookieHandler", "CookieManager", "DatagramPacket", "DatagramSocket", "DatagramSocketImpl", "HttpCookie", "HttpURLConnection", "IDN", "Inet4Address", "Inet6Address", "InetAddress", "InetSocketAddress", "InterfaceAddress", "JarURLConnection", "MulticastSocket", "NetPermission", "NetworkInterface", "PasswordAuthentication", "Proxy", "ProxySelector", "ResponseCache", "SecureCacheResponse", "ServerSocket", "Socket", "SocketAddress", "SocketImpl", "SocketPermission", "URI", "URL", "URLClassLoader", "URLConnection", "URLDecoder", "URLEncoder", "URLStreamHandler", "Authenticator.RequestorType", "Proxy.Type", "BindException", "ConnectException", "HttpRetryException", "MalformedURLException", "NoRouteToHostException", "PortUnreachableException", "ProtocolException", "SocketException", "SocketTimeoutException", "UnknownHostException", "UnknownServiceException", "URISyntaxException"));
+        container.put("java.math",                      ImmutableSet.of("BigDecimal", "BigInteger", "MathContext", "RoundingMode"));
+        container.put("java.lang.reflect",              ImmutableSet.of("AnnotatedElement", "GenericArrayType", "GenericDeclaration", "InvocationHandler", "Member", "ParameterizedType", "Type", "TypeVariable", "WildcardType", "AccessibleObject", "Array", "Constructor", "Field", "Method", "Modifier", "Proxy", "ReflectPermission", "InvocationTargetException", "MalformedParameterizedTypeException", "UndeclaredThrowableException", "GenericSignatureFormatError"));
+        container.put("java.lang.ref",                  ImmutableSet.of("PhantomReference", "Reference", "ReferenceQueue", "SoftReference", "WeakReference"));
+        container.put("java.lang.management",           ImmutableSet.of("ClassLoadingMXBean", "CompilationMXBean", "GarbageCollectorMXBean", "MemoryManagerMXBean", "MemoryMXBean", "MemoryPoolMXBean", "OperatingSystemMXBean", "RuntimeMXBean", "ThreadMXBean", "LockInfo", "ManagementFactory", "ManagementPermission", "MemoryNotificationInfo", "MemoryUsage", "MonitorInfo", "ThreadInfo", "MemoryType"));
+        container.put("java.lang.instrument",           ImmutableSet.of("ClassFileTransformer", "Instrumentation", "ClassDefinition", "IllegalClassFormatException", "UnmodifiableClassException"));
+        container.put("java.lang.annotation",           ImmutableSet.of("Annotation", "ElementType", "RetentionPolicy", "AnnotationTypeMismatchException", "IncompleteAnnotationException", "AnnotationFormatError", "Documented", "Inherited", "Retention", "Target"));
+        container.put("java.io",                        ImmutableSet.of("Closeable", "DataInput", "DataOutput", "Externalizable", "FileFilter", "FilenameFilter", "Flushable", "ObjectInput", "ObjectInputValidation", "ObjectOutput", "ObjectStreamConstants", "Serializable", "BufferedInputStream", "BufferedOutputStream", "BufferedReader", "BufferedWriter", "ByteArrayInputStream", "ByteArrayOutputStream", "CharArrayReader", "CharArrayWriter", "Console", "DataInputStream", "DataOutputStream", "File", "FileDescriptor", "FileInputStream", "FileOutputStream", "FilePermission", "FileReader", "FileWriter", "FilterInputStream", "FilterOutputStream", "FilterReader", "FilterWriter", "InputStream", "InputStreamReader", "LineNumberInputStream", "LineNumberReader", "ObjectInputStream", "ObjectInputStream.GetField", "ObjectOutputStream", "ObjectOutputStream.PutField", "ObjectStreamClass", "ObjectStreamField", "OutputStream", "OutputStreamWriter", "PipedInputStream", "PipedOutputStream", "PipedReader", "PipedWriter", "PrintStream", "PrintWriter", "PushbackInputStream", "PushbackReader", "RandomAccessFile", "Reader", "SequenceInputStream", "SerializablePermission", "StreamTokenizer", "StringBufferInputStream", "StringReader", "StringWriter", "Writer", "CharConversionException", "EOFException", "FileNotFoundException", "InterruptedIOException", "InvalidClassException", "InvalidObjectException", "IOException", "NotActiveException", "NotSerializableException", "ObjectStreamException", "OptionalDataException", "StreamCorruptedException", "SyncFailedException", "UnsupportedEncodingException", "UTFDataFormatException", "WriteAbortedException", "IOError"));
+        PACKAGES_OF_INTEREST = Collections.unmodifiableMap(container);
+    }
+
+    private final Map<String, String> packageBySimpleName;
+
+    /**
+     * Constructs a new {@link TypeIndex}.
+     *
+     * @param packageBySimpleName map between simple type names and their packages.
+     */
+    TypeIndex(Map<String, String> packageBySimpleName){
+        this.packageBySimpleName = ImmutableMap.copyOf(packageBySimpleName);
+    }
+
+    /**
+     * @return the index shared by every {@code Introspector} in this JVM. It is built
+     *      once, the first time it is requested.
+     */
+    public static TypeIndex shared(){
+        return SharedIndex.INSTANCE;
+    }
+
+    /**
+     * Builds an index covering the curated JDK packages, the boot classpath, and
+     * a given list of classpath entries.
+     *
+     * @param classpath jars or directories to be scanned.
+     * @return a new {@link TypeIndex}.
+     */
+    public static TypeIndex build(Iterable<File> classpath){
+        final Map<String, String> scanned = Maps.newHashMap();
+        final Set<String>         implicit = Sets.newHashSet();
+
+        for(File each : bootClasspath()){
+            scan(each, true, scanned, implicit);
+        }
+
+        for(File each : classpath){
+            scan(each, false, scanned, implicit);
+        }
+
+        final Map<String, String> index = Maps.newHashMap();
+        for(Map.Entry<String, String> each : scanned.entrySet()){
+            if(AMBIGUOUS.equals(each.getValue())) continue;
+            index.put(each.getKey(), each.getValue());
+        }
+
+        for(Map.Entry<String, Set<String>> each : PACKAGES_OF_INTEREST.entrySet()){
+            for(String simpleName : each.getValue()){
+                index.put(simpleName, each.getKey());
+            }
+        }
+
+        // types in java.lang never need an import directive
+        for(String each : implicit){
+            index.remove(each);
+        }
+
+        return new TypeIndex(index);
+    }
+
+    /**
+     * Finds the package declaring a type.
+     *
+     * @param simpleName the simple name of the type.
+     * @return the package name or null if the type is not indexed.
+     */
+    public String packageOf(String simpleName){
+        return packageBySimpleName.get(simpleName);
+    }
+
+    /**
+     * Resolves the import directives required by a set of used types, in one pass. A
+     * package providing five or more of these types is imported on demand.
+     *
+     * @param usedTypes the simple names of the used types.
+     * @param declaredTypes the simple names of the types declared by the code itself;
+     *                      these never need an import directive.
+     * @return the import directives (without the {@code import} keyword).
+     */
+    public Set<String> resolveImports(Set<String> usedTypes, Set<String> declaredTypes){
+        final Map<String, SortedSet<String>> typesByPackage = new TreeMap<String, SortedSet<String>>();
+
+        for(String each : usedTypes){
+            if(declaredTypes.contains(each)) continue;
+
+            final String pkg = packageOf(each);
+            if(pkg == null) continue;
+
+            SortedSet<String> types = typesByPackage.get(pkg);
+            if(types == null){
+                types = new TreeSet<String>();
+                typesByPackage.put(pkg, types);
+            }
+
+            types.add(each);
+        }
+
+        final Set<String> result = Sets.newLinkedHashSet();
+        for(Map.Entry<String, SortedSet<String>> each : typesByPackage.entrySet()){
+            if(each.getValue().size() >= 5){
+                result.add(each.getKey() + ".*;");
+            } else {
+                for(String typeName : each.getValue()){
+                    result.add(each.getKey() + "." + typeName + ";");
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return the number of indexed types.
+     */
+    public int size(){
+        return packageBySimpleName.size();
+    }
+
+    private static List<File> bootClasspath(){
+        final String bootClasspath = System.getProperty("sun.boot.class.path");
+        return Strings.isNullOrEmpty(bootClasspath)
+                ? Collections.<File>emptyList()
+                : toFiles(bootClasspath);
+    }
+
+    static List<File> toFiles(String classpath){
+        final List<File> files = new ArrayList<File>();
+        for(String each : Splitter.on(File.pathSeparatorChar).omitEmptyStrings().trimResults().split(classpath)){
+            files.add(new File(each));
+        }
+
+        return files;
+    }
+
+    private static void scan(File entry, boolean jdkOnly, Map<String, String> scanned, Set<String> implicit){
+        if(!entry.exists()) return;
+
+        try {
+            if(entry.isDirectory()){
+                scanDirectory(entry, entry, jdkOnly, scanned, implicit);
+            } else {
+                final JarFile jar = new JarFile(entry);
+                try {
+                    final Enumeration<JarEntry> entries = jar.entries();
+                    while(entries.hasMoreElements()){
+                        final JarEntry each = entries.nextElement();
+                        if(each.isDirectory()) continue;
+
+                        index(each.getName(), jdkOnly, scanned, implicit);
+                    }
+                } finally {
+                    jar.close();
+                }
+            }
+        } catch (IOException e){
+            LOGGER.fine("Unable to scan " + entry + ": " + e.getMessage());
+        }
+    }
+
+    private static void scanDirectory(File root, File dir, boolean jdkOnly,
+                                      Map<String, String> scanned, Set<String> implicit){
+        final File[] files = dir.listFiles();
+        if(files == null) return;
+
+        final int prefix = root.getPath().length() + 1;
+        for(File each : files){
+            if(each.isDirectory()){
+                scanDirectory(root, each, jdkOnly, scanned, implicit);
+            } else {
+                index(each.getPath().substring(prefix).replace(File.separatorChar, '/'), jdkOnly, scanned, implicit);
+            }
+        }
+    }
+
+    private static void index(String path, boolean jdkOnly, Map<String, String> scanned, Set<String> implicit){
+        if(!path.endsWith(".class") || path.indexOf('$') >= 0) return;
+
+        final int    slash      = path.lastIndexOf('/');
+        if(slash < 0) return;
+
+        final String pkg        = path.substring(0, slash).replace('/', '.');
+        final String simpleName = path.substring(slash + 1, path.length() - ".class".length());
+
+        if("package-info".equals(simpleName)) return;
+        if(jdkOnly && !(pkg.startsWith("java.") || pkg.startsWith("javax."))) return;
+
+        if(IMPLICIT_PACKAGE.equals(pkg)){
+            implicit.add(simpleName);
+            return;
+        }
+
+        final String current = scanned.get(simpleName);
+        if(current == null){
+            scanned.put(simpleName, pkg);
+        } else if(!current.equals(pkg)){
+            scanned.put(simpleName, AMBIGUOUS);
+        }
+    }
+
+    /**
+     * Lazily built index shared by every {@code Introspector} in this JVM.
+     */
+    private static class SharedIndex {
+        static final TypeIndex INSTANCE = build(classpathFromProperty());
+
+        static List<File> classpathFromProperty(){
+            final String classpath = System.getProperty(CLASSPATH_PROPERTY);
+            return Strings.isNullOrEmpty(classpath)
+                    ? Collections.<File>emptyList()
+                    : toFiles(classpath);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package edu.ucsc.refactor.internal.util;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import edu.ucsc.refactor.Context;
+import org.eclipse.jdt.core.dom.*;
+
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The bindings referenced by the nodes of a compilation unit (see
+ * {@link AstUtil#getUniqueBindings(ASTNode)}), unwound the first time a node is asked
+ * about and then kept. Unlike a {@link edu.ucsc.refactor.DependencyGraph}, it covers
+ * every binding, local variables and parameters included, so changers checking what a
+ * selected region depends on unwind each declaration only once.
+ *
+ * <p>The memo of a compilation unit parsed through a {@link Context} is kept by that
+ * context (see {@link #of(ASTNode)}); like its AST, it is not thread-safe.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class UnwoundBindings {
+    private final CompilationUnit               unit;
+    private final Map<ASTNode, Set<IBinding>>   references;
+
+    /**
+     * Creates an empty {@link UnwoundBindings}; see {@link #of(ASTNode)}.
+     *
+     * @param unit The compilation unit.
+     */
+    public UnwoundBindings(CompilationUnit unit){
+        this.unit       = Preconditions.checkNotNull(unit);
+        this.references = new IdentityHashMap<ASTNode, Set<IBinding>>();
+    }
+
+    /**
+     * Returns the memo of the compilation unit a node belongs to; the one kept by the
+     * {@link Context} the node was parsed in, or a new one if there is no such context.
+     *
+     * @param node The node.
+     * @return the {@link UnwoundBindings} of the node's compilation unit.
+     */
+    public static UnwoundBindings of(ASTNode node){
+        final ASTNode root = Preconditions.checkNotNull(node).getRoot();
+        Preconditions.checkArgument(root instanceof CompilationUnit, "node is not in a compilation unit");
+
+        final Context context = Context.of(root);
+        return context != null && context.getCompilationUnit() == root
+                ? context.getUnwoundBindings()
+                : new UnwoundBindings((CompilationUnit) root);
+    }
+
+    /**
+     * Finds the node declaring a binding in the compilation unit.
+     *
+     * @param binding The binding.
+     * @return the declaring node, or null if the binding is not declared there.
+     */
+    public ASTNode declarationOf(IBinding binding){
+        return unit.findDeclaringNode(binding);
+    }
+
+    /**
+     * Returns the bindings a node (e.g., a declaration, or a selected statement) references.
+     *
+     * @param node The node.
+     * @return the referenced bindings (read-only).
+     */
+    public Set<IBinding> referencesOf(ASTNode node){
+        Preconditions.checkArgument(node.getRoot() == unit, "node is not in this compilation unit");
+
+        Set<IBinding> result = references.get(node);
+        if(result == null){
+            result = Collections.unmodifiableSet(AstUtil.getUniqueBindings(node));
+            references.put(node, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the bindings referenced by the declaration of a binding.
+     *
+     * @param binding The binding.
+     * @return the referenced bindings (read-only); empty if the binding is not declared in
+     *      the compilation unit.
+     */
+    public Set<IBinding> referencesOf(IBinding binding){
+        final ASTNode declaration = declarationOf(binding);
+        return declaration == null ? ImmutableSet.<IBinding>of() : referencesOf(declaration);
+    }
+
+    /**
+     * Computes every binding transitively referenced by a set of bindings.
+     *
+     * @param roots The bindings to start from.
+     * @return the reachable bindings, roots included.
+     */
+    public Set<IBinding> reachableFrom(Set<IBinding> roots){
+        final Set<IBinding>     visited = Sets.newHashSet(roots);
+        final Deque<IBinding>   queue   = Lists.newLinkedList(roots);
+
+        while(!queue.isEmpty()){
+            for(IBinding each : referencesOf(queue.remove())){
+                if(visited.add(each)) queue.add(each);
+            }
+        }
+
+        return visited;
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("unwound", references.size())
+                .toString();
+    }
+}
@@ -0,0 +1,74 @@
+package edu.ucsc.refactor.internal.visitors;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import org.eclipse.jdt.core.dom.*;
+
+import java.util.List;
+
+/**
+ * Collects, in one pass, every {@link SimpleName} that refers to a given binding: its
+ * declaration, its references, and (for types) the names of its constructors.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class BindingOccurrencesVisitor extends ASTVisitor {
+    private final IBinding          target;
+    private final List<SimpleName>  occurrences;
+
+    /**
+     * Instantiates a new {@link BindingOccurrencesVisitor}.
+     *
+     * @param target The binding whose occurrences are collected.
+     */
+    public BindingOccurrencesVisitor(IBinding target){
+        super(true);
+        this.target         = declarationOf(Preconditions.checkNotNull(target));
+        this.occurrences    = Lists.newArrayList();
+    }
+
+    /**
+     * Returns the generic declaration of a binding; e.g., the declaration of
+     * {@code List<String>.add(String)} is {@code List<E>.add(E)}.
+     *
+     * @param binding The binding.
+     * @return its declaration.
+     */
+    public static IBinding declarationOf(IBinding binding){
+        if(binding instanceof IMethodBinding){
+            return ((IMethodBinding) binding).getMethodDeclaration();
+        } else if(binding instanceof IVariableBinding){
+            return ((IVariableBinding) binding).getVariableDeclaration();
+        } else if(binding instanceof ITypeBinding){
+            return ((ITypeBinding) binding).getTypeDeclaration();
+        }
+
+        return binding;
+    }
+
+    @Override public boolean visit(SimpleName node) {
+        final IBinding binding = node.resolveBinding();
+        if(binding == null) return false;
+
+        final IBinding declaration = declarationOf(binding);
+        if(target.isEqualTo(declaration) || isConstructorOfTarget(declaration)){
+            occurrences.add(node);
+        }
+
+        return false;
+    }
+
+    private boolean isConstructorOfTarget(IBinding binding){
+        if(!(target instanceof ITypeBinding) || !(binding instanceof IMethodBinding)) return false;
+
+        final IMethodBinding method = (IMethodBinding) binding;
+        return method.isConstructor() && target.isEqualTo(method.getDeclaringClass().getTypeDeclaration());
+    }
+
+    /**
+     * @return the occurrences of the target binding, in source order.
+     */
+    public List<SimpleName> getOccurrences(){
+        return occurrences;
+    }
+}
@@ -7,7 +7,6 @@ import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 
-import java.util.List;
 import java.util.TreeSet;
 
 /**
@@ -18,8 +17,9 @@ public class DuplicateCodeVisitor extends SourceVisitor {
     private static final float  SIMILARITY_THRESHOLD    = 0.98f;
 
 
-    final TypeBucket typeBucket;
-    final Source     code;
+    final TypeBucket  typeBucket;
+    final Source      code;
+    final CursorStack stack;
 
     /**
      * Constructs a new {@code DuplicateCodeVisitor} with the actual
@@ -31,6 +31,7 @@ public class DuplicateCodeVisitor extends SourceVisitor {
         super(true);
         this.code       = code;
         this.typeBucket = new TypeBucket();
+        this.stack      = new CursorStack();
     }
 
     /**
@@ -40,13 +41,16 @@ public class DuplicateCodeVisitor extends SourceVisitor {
         final DetectedClones result = new DetectedClones();
 
         final TreeSet<BucketElement> candidates = typeBucket.getDuplicates();
+        final CursorStack            rightStack = new CursorStack();
 
         for(BucketElement candidate : candidates){
             for (int i = 1; i < candidate.size(); i++) {
                 ASTNode left  = candidate.get(i - 1).getParseTree();
                 ASTNode right = candidate.get(i).getParseTree();
 
-                final TreeSimilarity similarity = new TreeSimilarity(left, right);
+                final TreeSimilarity similarity = new TreeSimilarity(
+                        left, right, stack, rightStack
+                );
                 if(similarity.getSimilarity() > SIMILARITY_THRESHOLD){
                     result.addClonePair(candidate.get(i - 1), candidate.get(i));
                 }
@@ -68,51 +72,38 @@ public class DuplicateCodeVisitor extends SourceVisitor {
 
     /**
      * Hash (using the node type) all the subtrees and add the value to the type bucket.
+     * Subtrees are visited in post-order, last child first, so a subtree is put in the
+     * bucket after its own subtrees. A subtree's mass is the number of nodes (i.e.,
+     * children) in it, so it is simply the number of nodes visited since its root.
      *
      * @param tree Subtree to hash.
      */
     private void hashSubtrees(ASTNode tree) {
-        int mass = mass(tree);
-
-        final List<ASTNode> children = AstUtil.getChildren(tree);
-        final int childCount = children.size();
-
-        if (mass >= MASS_THRESHOLD) { // Ignores small subtrees.
-            for (int i = childCount - 1; i >= 0; i--) {
-                hashSubtrees(children.get(i));
+        int visited = 0;
+
+        stack.push(tree, true, visited++);
+        while (!stack.isEmpty()) {
+            final ASTNode child = stack.peek().next();
+            if (child != null) {
+                stack.push(child, true, visited++);
+                continue;
             }
 
-            int nodeType = tree.getNodeType();
+            final ASTNode subtree = stack.peek().getNode();
+            final int     mass    = visited - stack.peekMark() - 1;
 
-            DetectedClone candidate = new DetectedClone(code, tree);
-            typeBucket.put(nodeType, candidate, mass);
-        }
-    }
+            stack.pop();
 
+            if (mass >= MASS_THRESHOLD) { // Ignores small subtrees.
+                int nodeType = subtree.getNodeType();
 
-    /**
-     * Get the tree mass. The tree mass is simply the number children the
-     * {@code current} node has.
-     *
-     * @param tree The current ASTNode
-     * @return The number of nodes (i.e., children) in the ASTNode tree.
-     */
-    private int mass(ASTNode tree) {
-        final List<ASTNode> children = AstUtil.getChildren(tree);
-        final int childCount = children.size();
-        int initialChildrenMass = childCount;
-
-        if (initialChildrenMass > 0) {
-            for (int i = childCount - 1; i >= 0; i--) {
-                initialChildrenMass += mass(children.get(i));
+                DetectedClone candidate = new DetectedClone(code, subtree);
+                typeBucket.put(nodeType, candidate, mass);
             }
         }
-
-        return initialChildrenMass;
     }
 
 
-
     @Override public boolean visit(SingleVariableDeclaration node) {
         return super.visit(node);
     }
@@ -123,12 +114,12 @@ public class DuplicateCodeVisitor extends SourceVisitor {
         int leftTreeDifferentNodes;
         int rightTreeDifferentNodes;
 
-        TreeSimilarity(ASTNode left, ASTNode right){
+        TreeSimilarity(ASTNode left, ASTNode right, CursorStack leftStack, CursorStack rightStack){
             this.sharedNodes = 0;
             this.leftTreeDifferentNodes = 0;
             this.rightTreeDifferentNodes = 0;
 
-            compareTree(left, right);
+            compareTrees(left, right, leftStack, rightStack);
         }
 
 
@@ -153,11 +144,39 @@ public class DuplicateCodeVisitor extends SourceVisitor {
         }
 
 
-        private void compareTree(ASTNode left, ASTNode right) {
+        /**
+         * Compares two trees node by node, pairing the i-th child of a left node with the
+         * i-th child of its right counterpart. A node without a counterpart (nor do its
+         * children have one) counts as a different node.
+         */
+        private void compareTrees(ASTNode left, ASTNode right, CursorStack leftStack,
+                                  CursorStack rightStack) {
             if (left == null && right == null) {
                 return;
             }
 
+            compareNodes(left, right);
+
+            leftStack.push(left);
+            rightStack.push(right);
+            while (!leftStack.isEmpty()) {
+                final ASTNode leftSubtree  = leftStack.peek().next();
+                final ASTNode rightSubtree = rightStack.peek().next();
+
+                if (leftSubtree == null && rightSubtree == null) {
+                    leftStack.pop();
+                    rightStack.pop();
+                } else {
+                    compareNodes(leftSubtree, rightSubtree);
+
+                    leftStack.push(leftSubtree);
+                    rightStack.push(rightSubtree);
+                }
+            }
+        }
+
+
+        private void compareNodes(ASTNode left, ASTNode right) {
             if (left == null) {
                 leftTreeDifferentNodes += 1;
             } else if (right == null) {
@@ -168,42 +187,6 @@ public class DuplicateCodeVisitor extends SourceVisitor {
                 leftTreeDifferentNodes  += 1;
                 rightTreeDifferentNodes += 1;
             }
-
-            compareChildren(left, right);
-        }
-
-
-        private void compareChildren(ASTNode left, ASTNode right) {
-            int leftCount = 0;
-            int rightCount = 0;
-
-
-            final List<ASTNode> leftChildren  = AstUtil.getChildren(left);
-            final List<ASTNode> rightChildren = AstUtil.getChildren(right);
-
-
-            if (left != null) {
-                leftCount = leftChildren.size();
-            }
-
-            if (right != null) {
-                rightCount = rightChildren.size();
-            }
-
-            for (int i = Math.max(leftCount, rightCount); i >= 0; i--) {
-                ASTNode leftSubtree  = null;
-                ASTNode rightSubtree = null;
-
-                if (i < leftCount) {
-                    leftSubtree = leftChildren.get(i);
-                }
-
-                if (i < rightCount) {
-                    rightSubtree = rightChildren.get(i);
-                }
-
-                compareTree(leftSubtree, rightSubtree);
-            }
         }
     }
 }
@@ -0,0 +1,201 @@
+package edu.ucsc.refactor.spi;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import edu.ucsc.refactor.Cause;
+import edu.ucsc.refactor.Parameter;
+import edu.ucsc.refactor.internal.BulkChange;
+import edu.ucsc.refactor.internal.Delta;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link SourceChanger} that can also handle several causes of the same name (e.g., every
+ * magic number in a file) in one {@link BulkChange}: the edits of all causes are recorded
+ * in one rewrite, so the change has a single {@link Delta} and is committed once, instead
+ * of once per cause. Changers opt into bulk changes by extending this class and recording
+ * the edits of a single cause in {@link #rewriteCause(CompilationUnit, ASTRewrite, Cause, Map)}.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public abstract class BulkSourceChanger extends SourceChanger {
+    private static final Comparator<Cause> BY_POSITION = new Comparator<Cause>() {
+        @Override public int compare(Cause a, Cause b) {
+            return a.getAffectedNodes().get(0).getStartPosition()
+                    - b.getAffectedNodes().get(0).getStartPosition();
+        }
+    };
+
+    /**
+     * Construct a new {@link BulkSourceChanger} that handles causes with the given names.
+     *
+     * @param names The names ({@link Smell}s or {@link Refactoring}s) of the causes this
+     *              changer handles.
+     */
+    protected BulkSourceChanger(Name... names){
+        super(names);
+    }
+
+    /**
+     * Creates one {@link BulkChange} for several causes of the same name.
+     *
+     * <p>Causes are handled in the order they appear in their compilation unit, whatever
+     * the order they are given in. A cause whose affected nodes overlap the ones of a cause
+     * handled before it is left out of the change and reported as a conflict (see
+     * {@link BulkChange#getConflicts()}); it should be detected again, and handled, once the
+     * change has been applied. A cause whose edits cannot be recorded is left out as well,
+     * and reported as a failure (see {@link BulkChange#getFailures()}).</p>
+     *
+     * @param causes The causes to be handled; all of them found in the same compilation unit.
+     * @param parameters Supporting data for the solver.
+     * @return a new {@link BulkChange}.
+     * @throws IllegalArgumentException if the causes cannot be handled together.
+     */
+    public BulkChange createBulkChange(List<? extends Cause> causes, Map<String, Parameter> parameters){
+        final BulkChange change = startBulkChange(causes, parameters);
+        finishBulkChange(change);
+        return change;
+    }
+
+    /**
+     * Starts a {@link BulkChange} for several causes of the same name, as
+     * {@link #createBulkChange(List, Map)} does, but leaves it unfinished: more causes can
+     * be {@link #joinBulkChange(BulkChange, List, Map) joined} to it before it is
+     * {@link #finishBulkChange(BulkChange) finished}.
+     *
+     * @param causes The causes to be handled; all of them found in the same compilation unit.
+     * @param parameters Supporting data for the solver.
+     * @return a new, unfinished, {@link BulkChange}.
+     * @throws IllegalArgumentException if the causes cannot be handled together.
+     */
+    public BulkChange startBulkChange(List<? extends Cause> causes, Map<String, Parameter> parameters){
+        Preconditions.checkArgument(!causes.isEmpty(), "startBulkChange() received no causes");
+
+        final Cause first = causes.get(0);
+        for(Cause each : causes){
+            Preconditions.checkArgument(
+                    each.isSame(first.getName()),
+                    "startBulkChange() received causes of different kinds"
+            );
+        }
+
+        final Map<String, Parameter> merged = merge(defaultParameters(), parameters);
+        final BulkChange             change = new BulkChange(
+                first,
+                this,
+                merged,
+                getCompilationUnit(first)
+        );
+
+        join(change, causes, merged);
+
+        return change;
+    }
+
+    /**
+     * Adds the edits that handle more causes to a bulk change, which may have been started
+     * by another changer; e.g., to fix the issues of several smells with one rewrite. Causes
+     * are handled in the order they appear in the change's compilation unit; the ones
+     * overlapping causes already in the change are reported as conflicts. The change must be
+     * {@link #finishBulkChange(BulkChange) finished} again once all causes are joined.
+     *
+     * @param change The bulk change.
+     * @param causes The causes to be handled; all of them found in the change's
+     *               compilation unit.
+     * @param parameters Supporting data for the solver; merged with this changer's
+     *               {@link #defaultParameters() defaults}.
+     * @throws IllegalArgumentException if the causes cannot be handled by this changer.
+     */
+    public void joinBulkChange(BulkChange change, List<? extends Cause> causes,
+                               Map<String, Parameter> parameters){
+        join(change, causes, merge(defaultParameters(), parameters));
+    }
+
+    /**
+     * Finishes a bulk change: applies its rewrite, once, to the change's compilation unit
+     * and records the result as the change's only {@link Delta}.
+     *
+     * @param change The bulk change.
+     */
+    public void finishBulkChange(BulkChange change){
+        change.getDeltas().clear();
+        if(!change.isValid()) return;
+
+        try {
+            change.getDeltas().add(createDelta(change.getCompilationUnit(), change.getRewrite()));
+        } catch (Throwable ex){
+            change.getErrors().add(messageOf(ex));
+        }
+    }
+
+    private void join(BulkChange change, List<? extends Cause> causes,
+                      Map<String, Parameter> merged){
+
+        final CompilationUnit root = change.getCompilationUnit();
+        for(Cause each : causes){
+            Preconditions.checkArgument(canHandle(each), "joinBulkChange() received an unknown cause");
+            Preconditions.checkArgument(
+                    getCompilationUnit(each) == root,
+                    "joinBulkChange() received causes from different sources"
+            );
+        }
+
+        final List<Cause> ordered = Lists.<Cause>newArrayList(causes);
+        Collections.sort(ordered, BY_POSITION);
+
+        // the deltas (if any) do not include the joined causes
+        change.getDeltas().clear();
+
+        for(Cause each : ordered){
+            if(!change.isValid()) return;
+
+            if(change.overlaps(each)){
+                change.getConflicts().add(each);
+                continue;
+            }
+
+            // edits cannot be taken back from a rewrite, so a cause's edits are recorded
+            // in a scratch rewrite first; a cause that fails there leaves the shared
+            // rewrite untouched.
+            try {
+                rewriteCause(root, ASTRewrite.create(root.getAST()), each, merged);
+            } catch (Throwable ex){
+                change.getFailures().put(each, messageOf(ex));
+                continue;
+            }
+
+            try {
+                rewriteCause(root, change.getRewrite(), each, merged);
+            } catch (Throwable ex){
+                // the shared rewrite may now hold part of the cause's edits
+                change.getErrors().add(messageOf(ex));
+                return;
+            }
+
+            change.claim(each);
+            change.getCauses().add(each);
+        }
+    }
+
+    private static String messageOf(Throwable ex){
+        return Objects.firstNonNull(ex.getMessage(), ex.getClass().getName());
+    }
+
+    /**
+     * Records the edits that handle a cause in a rewrite, which may be shared with other
+     * causes of the same name.
+     *
+     * @param root The compilation unit where the cause was found.
+     * @param rewrite The rewrite where edits are recorded.
+     * @param cause The cause to be handled.
+     * @param parameters Supporting data for the solver.
+     */
+    protected abstract void rewriteCause(CompilationUnit root, ASTRewrite rewrite, Cause cause,
+                                         Map<String, Parameter> parameters);
+}
@@ -0,0 +1,49 @@
+package edu.ucsc.refactor.spi;
+
+/**
+ * Records how long each phase of a request takes (parsing, detecting issues, creating
+ * changes, rewriting, formatting and committing), and counts what each phase produces.
+ * A {@link edu.ucsc.refactor.Host} hands its {@code Metrics} to the components it calls.
+ *
+ * <p>Implementations must be thread-safe. Disabled metrics should cost close to nothing;
+ * see {@link edu.ucsc.refactor.util.DisabledMetrics}.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public interface Metrics {
+    /**
+     * Starts timing a phase; e.g., {@code startTimer("detect", UnusedMethods.class)} times
+     * one issue detector.
+     *
+     * @param phase The timed phase.
+     * @param component The component doing the work, or null if the phase is not broken
+     *                  down by component.
+     * @return a running {@link Timer}.
+     */
+    Timer startTimer(String phase, Class<?> component);
+
+    /**
+     * Adds to a counter.
+     *
+     * @param name The counter's name.
+     * @param delta The amount to add.
+     */
+    void count(String name, long delta);
+
+    /**
+     * @return {@code true} if these metrics record anything.
+     */
+    boolean isEnabled();
+
+    /**
+     * A running timer.
+     */
+    interface Timer {
+        /**
+         * Stops this timer and records its elapsed time.
+         *
+         * @return the elapsed time, in nanoseconds.
+         */
+        long stop();
+    }
+}
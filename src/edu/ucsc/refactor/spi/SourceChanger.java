@@ -1,5 +1,8 @@
 package edu.ucsc.refactor.spi;
 
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import edu.ucsc.refactor.Cause;
 import edu.ucsc.refactor.Change;
 import edu.ucsc.refactor.Parameter;
@@ -7,6 +10,7 @@ import edu.ucsc.refactor.Source;
 import edu.ucsc.refactor.internal.Delta;
 import edu.ucsc.refactor.internal.LocalCommitRequest;
 import edu.ucsc.refactor.internal.util.AstUtil;
+import edu.ucsc.refactor.util.DisabledMetrics;
 import edu.ucsc.refactor.util.SourceFormatter;
 import edu.ucsc.refactor.util.StringUtil;
 import org.eclipse.jdt.core.JavaCore;
@@ -20,6 +24,8 @@ import org.eclipse.text.edits.TextEdit;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -28,10 +34,45 @@ import java.util.logging.Logger;
 public abstract class SourceChanger implements Changer {
     private static final Logger LOGGER  = Logger.getLogger(SourceChanger.class.getName());
 
+    private final Set<Name> names;
+
+    private volatile Metrics metrics = DisabledMetrics.INSTANCE;
+
     /**
      * Construct a new {@link SourceChanger}.
      */
-    protected SourceChanger(){}
+    protected SourceChanger(){
+        this(new Name[0]);
+    }
+
+    /**
+     * Construct a new {@link SourceChanger} that handles causes with the given names.
+     *
+     * @param names The names ({@link Smell}s or {@link Refactoring}s) of the causes this
+     *              changer handles.
+     */
+    protected SourceChanger(Name... names){
+        this.names = ImmutableSet.copyOf(names);
+    }
+
+    /**
+     * Returns the names of the causes this changer handles. A {@link edu.ucsc.refactor.Host}
+     * uses them to dispatch causes to changers without asking every changer whether it can
+     * handle a cause. An empty set means that only {@link #canHandle(Cause)} knows.
+     *
+     * @return the names of the causes this changer handles.
+     */
+    public Set<Name> getNames(){
+        return names;
+    }
+
+    @Override public boolean canHandle(Cause cause) {
+        for(Name each : names){
+            if(cause.isSame(each)) return true;
+        }
+
+        return false;
+    }
 
     /**
      * Applies a {@link Change}.
@@ -39,9 +80,16 @@ public abstract class SourceChanger implements Changer {
      * @param change The {@link Change} object.
      */
     public CommitRequest applyChange(Change change){
-        LOGGER.fine("Applying change " + change);
+        if(LOGGER.isLoggable(Level.FINE)){
+            LOGGER.fine("Applying change " + change);
+        }
+
         final CommitRequest request = commitChange(change);
-        LOGGER.fine("Commit request created: " + request);
+
+        if(LOGGER.isLoggable(Level.FINE)){
+            LOGGER.fine("Commit request created: " + request);
+        }
+
         return request;
     }
 
@@ -53,13 +101,7 @@ public abstract class SourceChanger implements Changer {
             );
         }
 
-        if (null == parameters) {
-            parameters = new HashMap<String, Parameter>();
-        }
-
-        merge(defaultParameters(), parameters);
-
-        return initChanger(cause, parameters);
+        return initChanger(cause, merge(defaultParameters(cause), parameters));
     }
 
 
@@ -92,21 +134,64 @@ public abstract class SourceChanger implements Changer {
 
 
     protected Delta createDelta(Source source, ASTRewrite rewrite, boolean goformat){
-        final IDocument document    = source.toDocument();
+        final IDocument     document  = source.toDocument();
+        final Metrics.Timer rewriting = metrics.startTimer("rewrite", getClass());
+        return createDelta(
+                source,
+                document,
+                rewrite.rewriteAST(document, JavaCore.getOptions()),
+                rewriting,
+                goformat
+        );
+    }
+
+    /**
+     * Tracks the changes made to a {@link Source file} by a text edit (e.g., a
+     * {@link org.eclipse.text.edits.MultiTextEdit} touching only a few ranges of the file).
+     *
+     * @param source The Source to be changed.
+     * @param textEdit The text edit, relative to the Source's contents.
+     * @return a new {@link Delta} object.
+     */
+    protected Delta createDelta(Source source, TextEdit textEdit){
+        return createDelta(
+                source,
+                source.toDocument(),
+                textEdit,
+                metrics.startTimer("rewrite", getClass()),
+                false
+        );
+    }
 
+    /**
+     * Applies a text edit to a Source's document; {@code rewriting} times the rewrite, from
+     * computing the text edit to applying it.
+     */
+    private Delta createDelta(Source source, IDocument document, TextEdit textEdit,
+                              Metrics.Timer rewriting, boolean goformat){
         Delta delta = new Delta(source);
         delta.setBefore(document.get());
 
-        TextEdit textEdit = rewrite.rewriteAST(document, JavaCore.getOptions());
         try {
             textEdit.apply(document);
         } catch (MalformedTreeException e) {
             LOGGER.throwing("Could not rewrite the AST tree.", "createDelta", e);
         } catch (BadLocationException e) {
             LOGGER.throwing("Could not rewrite the AST tree.", "createDelta", e);
+        } finally {
+            rewriting.stop();
         }
 
-        delta.setAfter(StringUtil.trim((goformat ? format(document) : document.get())));
+        if(goformat){
+            final Metrics.Timer formatting = metrics.startTimer("format", getClass());
+            try {
+                delta.setAfter(StringUtil.trim(format(document)));
+            } finally {
+                formatting.stop();
+            }
+        } else {
+            delta.setAfter(StringUtil.trim(document.get()));
+        }
 
         return delta;
     }
@@ -129,6 +214,23 @@ public abstract class SourceChanger implements Changer {
     }
 
 
+    /**
+     * Sets the {@link Metrics} that time the rewrites (and formatting) of this changer;
+     * a {@link edu.ucsc.refactor.Host} sets them when the changer is added to it.
+     *
+     * @param metrics The metrics.
+     */
+    public void setMetrics(Metrics metrics){
+        this.metrics = Preconditions.checkNotNull(metrics);
+    }
+
+    /**
+     * @return the {@link Metrics} of this changer.
+     */
+    protected Metrics getMetrics(){
+        return metrics;
+    }
+
     /**
      * Default supporting data.
      * @return The default configuration for solver's supporting data.
@@ -137,6 +239,17 @@ public abstract class SourceChanger implements Changer {
         return new HashMap<String, Parameter>();
     }
 
+    /**
+     * Default supporting data for handling a given cause; e.g., a name derived from the
+     * cause's nodes. It defaults to {@link #defaultParameters()}.
+     *
+     * @param cause The cause to be handled.
+     * @return The default configuration for solver's supporting data.
+     */
+    protected Map<String, Parameter> defaultParameters(Cause cause) {
+        return defaultParameters();
+    }
+
 
     protected static CompilationUnit getCompilationUnit(Cause cause){
         return AstUtil.parent(CompilationUnit.class, cause.getAffectedNodes().get(0));
@@ -144,17 +257,20 @@ public abstract class SourceChanger implements Changer {
 
 
     /**
-     * Merges two maps.
+     * Merges two maps into a new, immutable one. Entries in {@code other} take precedence
+     * over the default ones. Neither map is modified, so both can be safely shared.
      *
      * @param current The default map
-     * @param other   The other map to be merged into the default map.
+     * @param other   The other map to be merged into the default map; it can be null.
+     * @return the merged map.
      */
-    public static void merge(Map<String, Parameter> current, Map<String, Parameter> other) {
-        for (Map.Entry<String, Parameter> entry : current.entrySet()) {
-            if (!other.containsKey(entry.getKey())) {
-                other.put(entry.getKey(), entry.getValue());
-            }
+    public static Map<String, Parameter> merge(Map<String, Parameter> current, Map<String, Parameter> other) {
+        final Map<String, Parameter> merged = new HashMap<String, Parameter>(current);
+        if (null != other) {
+            merged.putAll(other);
         }
+
+        return ImmutableMap.copyOf(merged);
     }
 
 
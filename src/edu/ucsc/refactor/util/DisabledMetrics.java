@@ -0,0 +1,37 @@
+package edu.ucsc.refactor.util;
+
+import edu.ucsc.refactor.spi.Metrics;
+
+/**
+ * {@link Metrics} that record nothing; the default ones. Starting a timer neither reads
+ * the clock nor allocates.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public final class DisabledMetrics implements Metrics {
+    public static final DisabledMetrics INSTANCE = new DisabledMetrics();
+
+    private static final Timer STOPPED = new Timer() {
+        @Override public long stop() {
+            return 0;
+        }
+    };
+
+    private DisabledMetrics(){}
+
+    @Override public Timer startTimer(String phase, Class<?> component) {
+        return STOPPED;
+    }
+
+    @Override public void count(String name, long delta) {
+        // nothing to record
+    }
+
+    @Override public boolean isEnabled() {
+        return false;
+    }
+
+    @Override public String toString() {
+        return "DisabledMetrics";
+    }
+}
@@ -0,0 +1,165 @@
+package edu.ucsc.refactor.util;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import difflib.Delta;
+import difflib.DiffUtils;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A compact list of text replacements that turns a base text into a revised text. Replaced
+ * ranges are found by a line-based diff, so a script holds only the changed lines of the
+ * revised text rather than a copy of all of it.
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public final class EditScript {
+    private final int       baseLength;
+    private final int[]     offsets;
+    private final int[]     lengths;
+    private final String[]  replacements;
+
+    /**
+     * Constructs a new {@link EditScript}.
+     *
+     * @param baseLength The length of the base text.
+     * @param offsets The (ascending) offsets in the base text of the replaced ranges.
+     * @param lengths The lengths of the replaced ranges.
+     * @param replacements The replacement of each range.
+     */
+    private EditScript(int baseLength, int[] offsets, int[] lengths, String[] replacements){
+        this.baseLength     = baseLength;
+        this.offsets        = offsets;
+        this.lengths        = lengths;
+        this.replacements   = replacements;
+    }
+
+    /**
+     * Computes the edit script that turns a base text into a revised text.
+     *
+     * @param base The base text.
+     * @param revised The revised text.
+     * @return the edit script.
+     */
+    public static EditScript between(String base, String revised){
+        final List<String> baseLines    = lines(Preconditions.checkNotNull(base));
+        final List<String> revisedLines = lines(Preconditions.checkNotNull(revised));
+
+        final int[] starts = new int[baseLines.size() + 1];
+        for(int idx = 0; idx < baseLines.size(); idx++){
+            starts[idx + 1] = starts[idx] + baseLines.get(idx).length();
+        }
+
+        final List<Delta> deltas = Lists.newArrayList(
+                DiffUtils.diff(baseLines, revisedLines).getDeltas()
+        );
+
+        Collections.sort(deltas, new Comparator<Delta>() {
+            @Override public int compare(Delta a, Delta b) {
+                return a.getOriginal().getPosition() - b.getOriginal().getPosition();
+            }
+        });
+
+        final int       count           = deltas.size();
+        final int[]     offsets         = new int[count];
+        final int[]     lengths         = new int[count];
+        final String[]  replacements    = new String[count];
+
+        for(int idx = 0; idx < count; idx++){
+            final Delta each  = deltas.get(idx);
+            final int   first = each.getOriginal().getPosition();
+            final int   size  = each.getOriginal().getLines().size();
+
+            offsets[idx]      = starts[first];
+            lengths[idx]      = starts[first + size] - starts[first];
+            replacements[idx] = join(each.getRevised().getLines());
+        }
+
+        return new EditScript(base.length(), offsets, lengths, replacements);
+    }
+
+    /**
+     * Applies this edit script to the base text it was computed against.
+     *
+     * @param base The base text.
+     * @return the revised text.
+     * @throws IllegalArgumentException if {@code base} is not the base text of this script.
+     */
+    public String apply(String base){
+        Preconditions.checkArgument(
+                Preconditions.checkNotNull(base).length() == baseLength,
+                "edit script applied to a different base"
+        );
+
+        int growth = 0;
+        for(int idx = 0; idx < offsets.length; idx++){
+            growth += replacements[idx].length() - lengths[idx];
+        }
+
+        final StringBuilder revised = new StringBuilder(base.length() + growth);
+
+        int cursor = 0;
+        for(int idx = 0; idx < offsets.length; idx++){
+            revised.append(base, cursor, offsets[idx]).append(replacements[idx]);
+            cursor = offsets[idx] + lengths[idx];
+        }
+
+        return revised.append(base, cursor, base.length()).toString();
+    }
+
+    /**
+     * @return {@code true} if this script leaves its base text unchanged.
+     */
+    public boolean isEmpty(){
+        return offsets.length == 0;
+    }
+
+    /**
+     * @return the number of replaced ranges.
+     */
+    public int size(){
+        return offsets.length;
+    }
+
+    /**
+     * Splits a text into lines, each one keeping its line terminator; joining the lines
+     * gives back the text.
+     */
+    private static List<String> lines(String text){
+        final List<String> lines = Lists.newArrayList();
+
+        int start = 0;
+        for(int idx = 0; idx < text.length(); idx++){
+            if(text.charAt(idx) == '\n'){
+                lines.add(text.substring(start, idx + 1));
+                start = idx + 1;
+            }
+        }
+
+        if(start < text.length()){
+            lines.add(text.substring(start));
+        }
+
+        return lines;
+    }
+
+    private static String join(List<?> lines){
+        final StringBuilder text = new StringBuilder();
+        for(Object each : lines){
+            text.append(each);
+        }
+
+        return text.toString();
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("baseLength", baseLength)
+                .add("replacements", offsets.length)
+                .toString();
+    }
+}
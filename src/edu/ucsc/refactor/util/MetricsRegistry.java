@@ -0,0 +1,288 @@
+package edu.ucsc.refactor.util;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Lists;
+import edu.ucsc.refactor.spi.Metrics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link Metrics}: for each timer, the number of timed calls and their total and
+ * maximum elapsed time (in nanoseconds); for each counter, its value. Timers are named
+ * after their phase and, if given, the simple name of their component; e.g.,
+ * {@code detect.UnusedMethods}.
+ *
+ * <p>The registry can be exposed through JMX (see {@link #registerMBean()}); each timer
+ * shows up as the {@code <timer>.count}, {@code <timer>.totalNanos},
+ * {@code <timer>.maxNanos} and {@code <timer>.meanNanos} attributes of one MBean.</p>
+ *
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class MetricsRegistry implements Metrics {
+    public static final String DEFAULT_OBJECT_NAME = "edu.ucsc.refactor:type=Metrics";
+
+    private final ConcurrentMap<String, TimerStats>   timers;
+    private final ConcurrentMap<String, AtomicLong>   counters;
+
+    /**
+     * Creates an empty {@link MetricsRegistry}.
+     */
+    public MetricsRegistry(){
+        this.timers     = new ConcurrentHashMap<String, TimerStats>();
+        this.counters   = new ConcurrentHashMap<String, AtomicLong>();
+    }
+
+    @Override public Timer startTimer(String phase, Class<?> component) {
+        final String name = component == null
+                ? phase
+                : phase + "." + component.getSimpleName();
+
+        return new RunningTimer(statsOf(name));
+    }
+
+    @Override public void count(String name, long delta) {
+        AtomicLong counter = counters.get(name);
+        if(counter == null){
+            final AtomicLong created = new AtomicLong();
+            counter = counters.putIfAbsent(name, created);
+            if(counter == null) counter = created;
+        }
+
+        counter.addAndGet(delta);
+    }
+
+    @Override public boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * @return the names of the timers recorded so far, sorted.
+     */
+    public Set<String> getTimerNames(){
+        return ImmutableSortedSet.copyOf(timers.keySet());
+    }
+
+    /**
+     * @return the names of the counters recorded so far, sorted.
+     */
+    public Set<String> getCounterNames(){
+        return ImmutableSortedSet.copyOf(counters.keySet());
+    }
+
+    /**
+     * @param timer The timer's name.
+     * @return the number of calls timed by a timer.
+     */
+    public long getCount(String timer){
+        final TimerStats stats = timers.get(timer);
+        return stats == null ? 0 : stats.count.get();
+    }
+
+    /**
+     * @param timer The timer's name.
+     * @return the total time (in nanoseconds) recorded by a timer.
+     */
+    public long getTotalNanos(String timer){
+        final TimerStats stats = timers.get(timer);
+        return stats == null ? 0 : stats.totalNanos.get();
+    }
+
+    /**
+     * @param timer The timer's name.
+     * @return the longest time (in nanoseconds) recorded by a timer.
+     */
+    public long getMaxNanos(String timer){
+        final TimerStats stats = timers.get(timer);
+        return stats == null ? 0 : stats.maxNanos.get();
+    }
+
+    /**
+     * @param counter The counter's name.
+     * @return the value of a counter.
+     */
+    public long getCounter(String counter){
+        final AtomicLong value = counters.get(counter);
+        return value == null ? 0 : value.get();
+    }
+
+    /**
+     * Drops every timer and counter.
+     */
+    public void reset(){
+        timers.clear();
+        counters.clear();
+    }
+
+    /**
+     * Exposes this registry through the platform MBean server, under
+     * {@link #DEFAULT_OBJECT_NAME}.
+     *
+     * @return the name of the registered MBean.
+     * @throws JMException if the MBean cannot be registered.
+     */
+    public ObjectName registerMBean() throws JMException {
+        return registerMBean(new ObjectName(DEFAULT_OBJECT_NAME));
+    }
+
+    /**
+     * Exposes this registry through the platform MBean server.
+     *
+     * @param name The MBean's name.
+     * @return the name of the registered MBean.
+     * @throws JMException if the MBean cannot be registered.
+     */
+    public ObjectName registerMBean(ObjectName name) throws JMException {
+        return ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(new MetricsMBean(), Preconditions.checkNotNull(name))
+                .getObjectName();
+    }
+
+    private TimerStats statsOf(String name){
+        TimerStats stats = timers.get(name);
+        if(stats == null){
+            final TimerStats created = new TimerStats();
+            stats = timers.putIfAbsent(name, created);
+            if(stats == null) stats = created;
+        }
+
+        return stats;
+    }
+
+    @Override public String toString() {
+        return Objects.toStringHelper(getClass())
+                .add("timers", timers.size())
+                .add("counters", counters.size())
+                .toString();
+    }
+
+    private static class TimerStats {
+        final AtomicLong count      = new AtomicLong();
+        final AtomicLong totalNanos = new AtomicLong();
+        final AtomicLong maxNanos   = new AtomicLong();
+
+        void record(long nanos){
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+
+            long max = maxNanos.get();
+            while(nanos > max && !maxNanos.compareAndSet(max, nanos)){
+                max = maxNanos.get();
+            }
+        }
+    }
+
+    private static class RunningTimer implements Timer {
+        private final TimerStats stats;
+        private final long       start;
+
+        RunningTimer(TimerStats stats){
+            this.stats = stats;
+            this.start = System.nanoTime();
+        }
+
+        @Override public long stop() {
+            final long elapsed = System.nanoTime() - start;
+            stats.record(elapsed);
+            return elapsed;
+        }
+    }
+
+    /**
+     * A read-only view of the registry; its attributes are the registry's current timers
+     * and counters, so they grow as new phases and components are timed.
+     */
+    private class MetricsMBean implements DynamicMBean {
+        @Override public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            if(counters.containsKey(attribute)) return getCounter(attribute);
+
+            final int dot = attribute.lastIndexOf('.');
+            if(dot > 0 && timers.containsKey(attribute.substring(0, dot))){
+                final String timer = attribute.substring(0, dot);
+                final String stat  = attribute.substring(dot + 1);
+
+                if("count".equals(stat))      return getCount(timer);
+                if("totalNanos".equals(stat)) return getTotalNanos(timer);
+                if("maxNanos".equals(stat))   return getMaxNanos(timer);
+                if("meanNanos".equals(stat)){
+                    final long count = getCount(timer);
+                    return count == 0 ? 0L : getTotalNanos(timer) / count;
+                }
+            }
+
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        @Override public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override public AttributeList getAttributes(String[] attributes) {
+            final AttributeList result = new AttributeList();
+            for(String each : attributes){
+                try {
+                    result.add(new Attribute(each, getAttribute(each)));
+                } catch (AttributeNotFoundException ignored){
+                    // skipped, as the DynamicMBean contract allows
+                }
+            }
+
+            return result;
+        }
+
+        @Override public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override public Object invoke(String actionName, Object[] params, String[] signature)
+                throws ReflectionException {
+            if("reset".equals(actionName)){
+                reset();
+                return null;
+            }
+
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        @Override public MBeanInfo getMBeanInfo() {
+            final List<MBeanAttributeInfo> attributes = Lists.newArrayList();
+            for(String each : getTimerNames()){
+                for(String stat : new String[]{"count", "totalNanos", "maxNanos", "meanNanos"}){
+                    attributes.add(longAttribute(each + "." + stat));
+                }
+            }
+
+            for(String each : getCounterNames()){
+                attributes.add(longAttribute(each));
+            }
+
+            return new MBeanInfo(
+                    MetricsRegistry.class.getName(),
+                    "Timers and counters of Vesper's phases",
+                    attributes.toArray(new MBeanAttributeInfo[attributes.size()]),
+                    new MBeanConstructorInfo[0],
+                    new MBeanOperationInfo[]{
+                            new MBeanOperationInfo(
+                                    "reset",
+                                    "Drops every timer and counter",
+                                    new MBeanParameterInfo[0],
+                                    "void",
+                                    MBeanOperationInfo.ACTION
+                            )
+                    },
+                    new MBeanNotificationInfo[0]
+            );
+        }
+
+        private MBeanAttributeInfo longAttribute(String name){
+            return new MBeanAttributeInfo(name, "long", name, true, false, false);
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package edu.ucsc.refactor.util;
 
+import com.google.common.base.CharMatcher;
 import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
 import edu.ucsc.refactor.Parameter;
 
 import java.util.Collections;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -21,6 +24,9 @@ public class Parameters {
 
     public static final String PARAMETER_CONSTANT_NAME = "Constant name";
 
+    private static final Splitter     WORDS   = Splitter.on(CharMatcher.anyOf(" ,")).omitEmptyStrings();
+    private static final CharMatcher  SYMBOLS = CharMatcher.is('_');
+
     private Parameters(){}
 
 
@@ -29,6 +35,31 @@ public class Parameters {
     }
 
 
+    public static Map<String, Parameter> constantName(String value){
+        return createParameter(PARAMETER_CONSTANT_NAME, value, CONSTRAINT);
+    }
+
+
+    /**
+     * Names the constant holding a number after the number's value; e.g., {@code 42} is
+     * held by {@code CONSTANT_FORTY_TWO}, and {@code 0.5f} by {@code CONSTANT_0_5F}.
+     *
+     * @param number The number, as written in the code.
+     * @return the constant's name.
+     */
+    public static String constantNameOf(String number){
+        final String token = number.trim().toUpperCase(Locale.ENGLISH);
+
+        if(token.matches("\\d{1,60}L?")){
+            final String digits = token.replaceFirst("^0+(?=\\d)", "").replace("L", "");
+            final String spoken = "0".equals(digits) ? HumanNumber.UNITS[0] : HumanNumber.format(digits);
+            return "CONSTANT_" + Joiner.on('_').join(WORDS.split(spoken)).toUpperCase(Locale.ENGLISH);
+        }
+
+        return "CONSTANT_" + SYMBOLS.trimFrom(token.replaceAll("[^A-Z0-9]+", "_"));
+    }
+
+
     public static Map<String, Parameter> newRandomConstantName(){
         final String name = "CONSTANT_" + HumanNumber.formatNumberToEnglish();
         return createParameter(PARAMETER_CONSTANT_NAME, name, CONSTRAINT);
@@ -19,6 +19,7 @@ import org.junit.runners.Suite;
         SourceSelectionTest.class,
         RefactorersTest.class,
         ContextTest.class,
+        CommitTest.class,
         IntrospectorTest.class,
         VesperTest.class
 
@@ -1,11 +1,23 @@
 package edu.ucsc.refactor;
 
+import com.google.common.collect.Lists;
+import edu.ucsc.refactor.internal.InternalUtil;
 import edu.ucsc.refactor.internal.detectors.UnusedMethods;
+import edu.ucsc.refactor.spi.Smell;
+import edu.ucsc.refactor.util.Parameters;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertThat;
 
 
@@ -37,4 +49,58 @@ public class ChangeRequestTest {
         assertThat(request.getParameters().isEmpty(), is(true));
         assertNotNull(request.getSelection());
     }
+
+
+    @Test public void testConcurrentChangeCreation() throws Exception {
+        final Refactorer    refactorer  = Vesper.createRefactorer();
+        final List<Issue>   issues      = Lists.newArrayList();
+
+        for(int idx = 0; idx < 8; idx++){
+            for(Issue each : Vesper.createIntrospector().detectIssues(InternalUtil.createSourceWithMagicNumber())){
+                if(each.isSame(Smell.MAGIC_NUMBER)) issues.add(each);
+            }
+        }
+
+        assertThat(issues.size(), is(8));
+
+        final ExecutorService   workers = Executors.newFixedThreadPool(8);
+        final List<Future<Boolean>> results = Lists.newArrayList();
+        try {
+            for(int idx = 0; idx < 2000; idx++){
+                final Issue  issue = issues.get(idx % issues.size());
+                final String name  = (idx % 2 == 0) ? null : "CONSTANT_" + idx;
+                final boolean edit = idx % 50 == 0;
+
+                results.add(workers.submit(new Callable<Boolean>() {
+                    @Override public Boolean call() throws Exception {
+                        if(edit){
+                            final Source code = InternalUtil.createSourceWithMagicNumber();
+                            return refactorer.createChange(ChangeRequest.reformatSource(code)).isValid();
+                        }
+
+                        final Map<String, Parameter> parameters = (name == null
+                                ? ChangeRequest.DEFAULT_PARAMETERS
+                                : Parameters.constantName(name));
+
+                        final Change change = refactorer.createChange(
+                                ChangeRequest.forIssue(issue, parameters)
+                        );
+
+                        final Object value = change.getParameters()
+                                .get(Parameters.PARAMETER_CONSTANT_NAME).getValue();
+
+                        return change.isValid() && (name == null ? value != null : name.equals(value));
+                    }
+                }));
+            }
+
+            for(Future<Boolean> each : results){
+                assertTrue(each.get());
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        assertThat(ChangeRequest.DEFAULT_PARAMETERS.isEmpty(), is(true));
+    }
 }
@@ -0,0 +1,52 @@
+package edu.ucsc.refactor;
+
+import edu.ucsc.refactor.spi.CommitSummary;
+import edu.ucsc.refactor.spi.Refactoring;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class CommitTest {
+    static final String NAME = "Name.java";
+
+    @Test public void testChainedCommitsRebuildTheirSources() throws Exception {
+        final Source first  = new Source(NAME, "class Name {\n\tint a;\n\tint b;\n}");
+        final Source second = new Source(NAME, "class Name {\n\tint a;\n}");
+        final Source third  = new Source(NAME, "class Name {\n}");
+
+        final Commit a = createCommit(Refactoring.DELETE_PARAMETER, first, second, 1L);
+        final Commit b = createCommit(Refactoring.DELETE_PARAMETER, second, third, 2L);
+
+        assertThat(b.chainTo(a), is(true));
+        assertThat(b.chainTo(a), is(false));    // already chained
+        assertThat(a.chainTo(b), is(false));    // b is not ordered before a
+
+        a.clearCachedSources();
+        b.clearCachedSources();
+
+        assertEquals(second, b.getSourceBeforeChange());
+        assertEquals(third, b.getSourceAfterChange());
+        assertEquals(second, a.getSourceAfterChange());
+
+        b.getSourceBeforeChange().setVersion("2");
+        assertThat(second.getVersion(), is("2"));
+    }
+
+    @Test public void testCommitDoesNotChainToUnrelatedCommit() throws Exception {
+        final Commit a = createCommit(Refactoring.DELETE_PARAMETER,
+                new Source(NAME, "class Name {\n\tint a;\n}"), new Source(NAME, "class Name {\n}"), 1L);
+        final Commit b = createCommit(Refactoring.DELETE_PARAMETER,
+                new Source(NAME, "class Name {\n\tint b;\n}"), new Source(NAME, "class Name {\n}"), 2L);
+
+        assertThat(b.chainTo(a), is(false));
+    }
+
+    private static Commit createCommit(Refactoring refactoring, Source before, Source after, long timeStamp){
+        return Commit.createValidCommit(refactoring, before, after, timeStamp, CommitSummary.forPendingCommit());
+    }
+}
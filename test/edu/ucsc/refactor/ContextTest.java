@@ -1,9 +1,13 @@
 package edu.ucsc.refactor;
 
 import edu.ucsc.refactor.internal.HostImpl;
+import org.eclipse.jdt.core.dom.FieldDeclaration;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.*;
 
 /**
@@ -50,4 +54,35 @@ public class ContextTest {
         assertFalse(context.isMalformedContext());
     }
 
+    @Test public void testBindingsResolveAgainstClasspathEntries(){
+        final Source guavaClass = new Source(
+                "Guava.java",
+                "import com.google.common.collect.ImmutableList;\n class Guava{\n ImmutableList<String> names;\n}\n"
+        );
+
+        final HostImpl withGuava = new HostImpl(){{
+            install(new Vesper.DefaultConfiguration());
+            addClasspathEntry("lib/guava-15.0.jar");
+        }};
+
+        assertFalse(resolvesFieldType(HOST.createContext(guavaClass)));
+        // each parse must resolve bindings, not only the first one
+        assertTrue(resolvesFieldType(withGuava.createContext(guavaClass)));
+        assertTrue(resolvesFieldType(withGuava.createContext(guavaClass)));
+    }
+
+    @Test public void testHostsShareParserEnvironment(){
+        final HostImpl a = new HostImpl(){{ addClasspathEntry("lib/guava-15.0.jar"); }};
+        final HostImpl b = new HostImpl(){{ addClasspathEntry("lib/guava-15.0.jar"); }};
+
+        assertThat(a.getParserEnvironment(), sameInstance(b.getParserEnvironment()));
+        assertThat(a.getParserEnvironment().getClasspath().size(), equalTo(1));
+    }
+
+    private static boolean resolvesFieldType(Context context){
+        final TypeDeclaration  type     = (TypeDeclaration) context.getCompilationUnit().types().get(0);
+        final FieldDeclaration field    = type.getFields()[0];
+        final ITypeBinding     binding  = field.getType().resolveBinding();
+        return binding != null && !binding.isRecovered();
+    }
 }
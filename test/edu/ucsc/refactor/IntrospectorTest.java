@@ -2,10 +2,15 @@ package edu.ucsc.refactor;
 
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import edu.ucsc.refactor.internal.BulkChange;
 import edu.ucsc.refactor.internal.EclipseJavaParser;
+import edu.ucsc.refactor.internal.HostImpl;
 import edu.ucsc.refactor.internal.InternalUtil;
+import edu.ucsc.refactor.internal.changers.RemoveMagicNumber;
 import edu.ucsc.refactor.util.StringUtil;
 import org.junit.Test;
 
@@ -160,6 +165,29 @@ public class IntrospectorTest {
     }
 
 
+    @Test public void testSummarizeDerivedClipMatchesReparsedClip() throws Exception {
+        final Source src = InternalUtil.createQuickSortSource();
+
+        final Introspector introspector = Vesper.createIntrospector();
+        final List<Clip>   clips        = introspector.multiStage(src);
+
+        for(Clip each : clips){
+            final List<Location> derived  = introspector.summarize(each, 17);
+            final List<Location> reparsed = introspector.summarize(
+                    each.getMethodName(),
+                    each.getSource(),
+                    17
+            );
+
+            assertThat(derived.size(), is(reparsed.size()));
+            for(int idx = 0; idx < derived.size(); idx++){
+                assertThat(derived.get(idx).getStart().getOffset(), is(reparsed.get(idx).getStart().getOffset()));
+                assertThat(derived.get(idx).getEnd().getOffset(), is(reparsed.get(idx).getEnd().getOffset()));
+            }
+        }
+    }
+
+
     @Test public void testSummarizeClipByRanking() throws Exception {
         final Source src = InternalUtil.createQuickSortSource();
 
@@ -270,6 +298,146 @@ public class IntrospectorTest {
 
     }
 
+    @Test public void testDetectIssuesAcrossProjectSources() throws Exception {
+        final Source greeter = new Source(
+                "Greeter.java",
+                "public class Greeter {\n public void greet(){\n  System.out.println(\"hi\");\n }\n}\n"
+        );
+
+        final Source main = new Source(
+                "Main.java",
+                "public class Main {\n public static void main(String[] args){\n  new Greeter().greet();\n }\n}\n"
+        );
+
+        final Host host = new HostImpl(){{ install(new Vesper.DefaultConfiguration()); }};
+        final Introspector introspector = new CodeIntrospector(host);
+
+        assertThat(introspector.detectIssues(greeter).isEmpty(), is(false));
+
+        final Project project = host.createProject(ImmutableList.of(greeter, main));
+        assertThat(project.size(), is(2));
+
+        final Map<Source, Set<Issue>> issues = introspector.detectIssues(project);
+        assertThat(issues.get(greeter).isEmpty(), is(true));
+    }
+
+    @Test public void testFixAllInRounds() throws Exception {
+        final Source code = new Source(
+                "Name.java",
+                "import java.util.List;\n"
+                        + "public class Name {\n"
+                        + "\tpublic static void main(String[] args){ if(args.length > 7) {} }\n"
+                        + "\tpublic void boom(String msg){ if(msg.length() > 9) {} }\n"
+                        + "}"
+        );
+
+        final Introspector introspector = Vesper.createIntrospector();
+        final FixReport    report       = introspector.fixAll(code);
+
+        assertThat(report.isFixpoint(), is(true));
+        assertThat(report.getRounds().size(), is(2));
+
+        // the magic number in boom() goes away with boom(); it is not fixed on its own
+        final FixReport.Round first = report.getRounds().get(0);
+        assertThat(first.getDeferred(), is(1));
+        assertThat(first.getDetected(), is(4));
+        assertThat(first.getFixed(), is(3));
+        assertThat(report.getRounds().get(1).getDetected(), is(0));
+
+        final String after = report.getSource().getContents();
+        assertThat(after.contains("boom"), is(false));
+        assertThat(after.contains("import"), is(false));
+        assertThat(after.contains("> 7") || after.contains("9"), is(false));
+        assertThat(after.contains("private static final int CONSTANT_SEVEN = 7;"), is(true));
+        assertThat(introspector.detectIssues(report.getSource()).isEmpty(), is(true));
+    }
+
+    @Test public void testFixAllKeepsTheGroupsThatCanBeFixed() throws Exception {
+        final Source code = new Source(
+                "Name.java",
+                "import java.util.List;\n"
+                        + "public class Name {\n"
+                        + "\tpublic static void main(String[] args){ if(args.length > 7) {} }\n"
+                        + "}"
+        );
+
+        final Host host = new HostImpl();
+        host.addSourceChanger(new RemoveMagicNumber(){
+            @Override public BulkChange startBulkChange(List<? extends Cause> causes,
+                                                        Map<String, Parameter> parameters) {
+                throw new IllegalStateException("Cannot remove magic numbers");
+            }
+
+            @Override public void joinBulkChange(BulkChange change, List<? extends Cause> causes,
+                                                 Map<String, Parameter> parameters) {
+                throw new IllegalStateException("Cannot remove magic numbers");
+            }
+        });
+        host.install(new Vesper.DefaultConfiguration());
+
+        final FixReport report = new CodeIntrospector(host).fixAll(code);
+        assertThat(report.isFixpoint(), is(false));
+
+        final FixReport.Round first = report.getRounds().get(0);
+        assertThat(first.getFixed(), is(1));
+        assertThat(first.getErrors().contains("Cannot remove magic numbers"), is(true));
+
+        final String after = report.getSource().getContents();
+        assertThat(after.contains("import"), is(false));
+        assertThat(after.contains("> 7"), is(true));
+    }
+
+    @Test public void testDependencyGraph() throws Exception {
+        final Source code = new Source(
+                "Graph.java",
+                "import java.util.List;\n"
+                        + "import java.util.ArrayList;\n"
+                        + "public class Graph {\n"
+                        + "\tprivate int count;\n"
+                        + "\tprivate List<String> items = new ArrayList<String>();\n"
+                        + "\tpublic void add(String item){ items.add(item); count++; }\n"
+                        + "\tpublic int size(){ return count; }\n"
+                        + "\tstatic class Nested { int read(Graph g){ return g.size(); } }\n"
+                        + "}"
+        );
+
+        final Introspector    introspector = Vesper.createIntrospector();
+        final DependencyGraph graph        = introspector.dependencyGraph(code);
+
+        final Map<String, Integer> nodes = Maps.newHashMap();
+        for(int idx = 0; idx < graph.size(); idx++){
+            nodes.put(graph.getName(idx), idx);
+        }
+
+        assertThat(nodes.keySet(), is((Set<String>) ImmutableSet.of(
+                "java.util.List", "java.util.ArrayList", "Graph", "count", "items", "add", "size", "Nested", "read"
+        )));
+
+        final int count = nodes.get("count");
+        final int add   = nodes.get("add");
+        final int size  = nodes.get("size");
+        final int read  = nodes.get("read");
+
+        assertThat(graph.getKind(nodes.get("java.util.List")), is(DependencyGraph.Kind.IMPORT));
+        assertThat(graph.getParent(read), is(nodes.get("Nested").intValue()));
+        assertThat(graph.getParent(nodes.get("Nested")), is(nodes.get("Graph").intValue()));
+
+        assertThat(graph.dependsOn(add, nodes.get("items"), DependencyGraph.Dependency.READS), is(true));
+        assertThat(graph.dependsOn(add, count, DependencyGraph.Dependency.READS), is(true));
+        assertThat(graph.dependsOn(add, count, DependencyGraph.Dependency.WRITES), is(true));
+        assertThat(graph.dependsOn(size, count, DependencyGraph.Dependency.WRITES), is(false));
+        assertThat(graph.getDependencies(nodes.get("items"), DependencyGraph.Dependency.USES_TYPE),
+                is(new int[]{nodes.get("java.util.List"), nodes.get("java.util.ArrayList")}));
+
+        assertThat(graph.getDependents(size, DependencyGraph.Dependency.CALLS), is(new int[]{read}));
+        assertThat(graph.getImpactOf(count), is(new int[]{add, size, read}));
+        assertThat(graph.getMembers(nodes.get("Graph")),
+                is(new int[]{count, nodes.get("items"), add, size, nodes.get("Nested")}));
+        assertThat(graph.getSliceOf(size), is(new int[]{count, size}));
+        assertThat(graph.getSliceOf(nodes.get("Nested")).length, is(graph.size()));
+        assertThat(graph.getLocation(size).getStart().getLine(), is(6)); // 0-based
+    }
+
     @Test public void testAdjustedSummarizedMultistageOfCodeExample() throws Exception {
 
         final Introspector introspector = Vesper.createIntrospector();
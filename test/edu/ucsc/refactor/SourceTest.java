@@ -72,4 +72,19 @@ public class SourceTest {
         a.setId("123456789");
         assertNotNull(a.getId());
     }
+
+    @Test public void testSourceContentDigest(){
+        final Source a = new Source(NAME, CONTENT);
+        final Source b = new Source(NAME, new StringBuilder(CONTENT).toString());
+        final Source c = new Source(NAME, CONTENT + " ");
+
+        assertEquals(a.getContentDigest(), b.getContentDigest());
+        assertSame(a.getContentDigest(), a.getContentDigest());
+        assertThat(a.getContentDigest().equals(c.getContentDigest()), is(false));
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertThat(a.equals(c), is(false));
+        assertThat(a.equals(new Source("Other.java", CONTENT)), is(false));
+    }
 }
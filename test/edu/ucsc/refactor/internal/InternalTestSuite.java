@@ -3,6 +3,7 @@ package edu.ucsc.refactor.internal;
 import edu.ucsc.refactor.internal.changers.ChangersTest;
 import edu.ucsc.refactor.internal.detectors.DetectorsTest;
 import edu.ucsc.refactor.internal.util.ASTUtilTest;
+import edu.ucsc.refactor.internal.util.TypeIndexTest;
 import edu.ucsc.refactor.internal.visitors.SelectedStatementNodesVisitorTest;
 import junit.framework.Test;
 import junit.framework.TestSuite;
@@ -17,6 +18,7 @@ import org.junit.runners.Suite;
         DetectorsTest.class,
         ChangersTest.class,
         ASTUtilTest.class,
+        TypeIndexTest.class,
         SelectedStatementNodesVisitorTest.class
 })
 public class InternalTestSuite {
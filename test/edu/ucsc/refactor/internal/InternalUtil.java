@@ -4,6 +4,7 @@ import edu.ucsc.refactor.Location;
 import edu.ucsc.refactor.Source;
 import edu.ucsc.refactor.util.Locations;
 import edu.ucsc.refactor.util.SourceFormatter;
+import org.eclipse.jdt.core.dom.*;
 
 /**
  * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
@@ -12,6 +13,72 @@ public class InternalUtil {
     private InternalUtil(){}
 
 
+    /**
+     * Builds (without parsing) a method whose body nests {@code depth} blocks around a
+     * {@code return 1 + 2 + ... ;} statement of {@code depth} additions.
+     */
+    @SuppressWarnings("unchecked")
+    public static MethodDeclaration createDeeplyNestedMethod(int depth){
+        final AST ast = AST.newAST(AST.JLS4);
+
+        Expression sum = ast.newNumberLiteral("0");
+        for(int idx = 1; idx <= depth; idx++){
+            final InfixExpression plus = ast.newInfixExpression();
+            plus.setOperator(InfixExpression.Operator.PLUS);
+            plus.setLeftOperand(sum);
+            plus.setRightOperand(ast.newNumberLiteral(String.valueOf(idx)));
+            sum = plus;
+        }
+
+        final ReturnStatement returned = ast.newReturnStatement();
+        returned.setExpression(sum);
+
+        // built inside out, so adding a block does not walk up a deep parent chain
+        Statement body = returned;
+        for(int idx = 0; idx < depth; idx++){
+            final Block block = ast.newBlock();
+            block.statements().add(body);
+            body = block;
+        }
+
+        final MethodDeclaration method = ast.newMethodDeclaration();
+        method.setName(ast.newSimpleName("deep"));
+        method.setReturnType2(ast.newPrimitiveType(PrimitiveType.INT));
+        method.setBody((Block) body);
+
+        final TypeDeclaration type = ast.newTypeDeclaration();
+        type.setName(ast.newSimpleName("Deep"));
+        type.bodyDeclarations().add(method);
+
+        final CompilationUnit unit = ast.newCompilationUnit();
+        unit.types().add(type);
+
+        return method;
+    }
+
+    /**
+     * Runs a task on a new thread with a small (64KB) stack.
+     *
+     * @throws Throwable whatever the task threw.
+     */
+    public static void runOnSmallStack(final Runnable task) throws Throwable {
+        final Throwable[] thrown = new Throwable[1];
+        final Thread thread = new Thread(null, new Runnable() {
+            @Override public void run() {
+                try {
+                    task.run();
+                } catch (Throwable e){
+                    thrown[0] = e;
+                }
+            }
+        }, "small-stack", 64 * 1024);
+
+        thread.start();
+        thread.join();
+
+        if(thrown[0] != null) throw thrown[0];
+    }
+
     public static Location locateWord(Source code, String word){
         return Locations.locateWord(code, word).get(0);
     }
@@ -1082,42 +1149,50 @@ public class InternalUtil {
     public static Source updatedIncompleteQuickSortCodeExample(){
         final String content = "private static Random rand = new Random();\n" +
                 "\n" +
-                "public static void quicksort(int[] arr, int left, int right) {\n" +
-                "\tif (left < right) {\n" +
-                "\t\tint pivot = randomPartition(arr, left, right);\n" +
-                "\t\tquicksort(arr, left, pivot);\n" +
-                "\t\tquicksort(arr, pivot + 1, right);\n" +
-                "\t}\n" +
+                "public static void quicksort(int[] arr, int left, int right)\n" +
+                "{\n" +
+                "\t\t\tif (left < right)\n" +
+                "\t\t\t{\n" +
+                "\t\t\t\t\tint pivot = randomPartition(arr, left, right);\n" +
+                "\t\t\t\t\tquicksort(arr, left, pivot);\n" +
+                "\t\t\t\t\tquicksort(arr, pivot + 1, right);\n" +
+                "\t\t\t}\n" +
                 "}\n" +
                 "\n" +
-                "private static int randomPartition(int[] arr, int left, int right) {\n" +
-                "\tint swapIndex = left + rand.nextInt(right - left) + 1;\n" +
-                "\tswap(arr, left, swapIndex);\n" +
-                "\treturn partition(arr, left, right);\n" +
+                "private static int randomPartition(int[] arr, int left, int right)\n" +
+                "{\n" +
+                "\t\t\tint swapIndex = left + rand.nextInt(right - left) + 1;\n" +
+                "\t\t\tswap(arr, left, swapIndex);\n" +
+                "\t\t\treturn partition(arr, left, right);\n" +
                 "}\n" +
                 "\n" +
-                "private static int partition(int[] arr, int left, int right) {\n" +
-                "\tint pivot = arr[left];\n" +
-                "\tint i = left - 1;\n" +
-                "\tint j = right + 1;\n" +
-                "\twhile (true) {\n" +
-                "\t\tdo\n" +
-                "\t\t\tj--;\n" +
-                "\t\twhile (arr[j] > pivot);\n" +
-                "\t\tdo\n" +
-                "\t\t\ti++;\n" +
-                "\t\twhile (arr[i] < pivot);\n" +
-                "\t\tif (i < j)\n" +
-                "\t\t\tswap(arr, i, j);\n" +
-                "\t\telse\n" +
-                "\t\t\treturn j;\n" +
-                "\t}\n" +
+                "private static int partition(int[] arr, int left, int right)\n" +
+                "{\n" +
+                "\t\t\tint pivot = arr[left];\n" +
+                "\t\t\tint i = left - 1;\n" +
+                "\t\t\tint j = right + 1;\n" +
+                "\t\t\twhile (true)\n" +
+                "\t\t\t{\n" +
+                "\t\t\t\t\tdo\n" +
+                "\t\t\t\t\t\t\t\tj--;\n" +
+                "\t\t\t\t\twhile (arr[j] > pivot);\n" +
+                "\n" +
+                "\t\t\t\t\tdo\n" +
+                "\t\t\t\t\t\t\t\ti++;\n" +
+                "\t\t\t\t\twhile (arr[i] < pivot);\n" +
+                "\n" +
+                "\t\t\t\t\tif (i < j)\n" +
+                "\t\t\t\t\t\t\t\tswap(arr, i, j);\n" +
+                "\t\t\t\t\telse\n" +
+                "\t\t\t\t\t\t\t\treturn j;\n" +
+                "\t\t\t}\n" +
                 "}\n" +
                 "\n" +
-                "private static void swap(int[] arr, int i, int j) {\n" +
-                "\tint tmp = arr[i];\n" +
-                "\tarr[i] = arr[j];\n" +
-                "\tarr[j] = tmp;\n" +
+                "private static void swap(int[] arr, int i, int j)\n" +
+                "{\n" +
+                "\t\t\tint tmp = arr[i];\n" +
+                "\t\t\tarr[i] = arr[j];\n" +
+                "\t\t\tarr[j] = tmp;\n" +
                 "}";
 
         return new Source("Scratched.java", content);
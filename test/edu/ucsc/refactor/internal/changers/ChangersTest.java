@@ -1,6 +1,7 @@
 package edu.ucsc.refactor.internal.changers;
 
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import edu.ucsc.refactor.*;
 import edu.ucsc.refactor.internal.*;
@@ -11,6 +12,7 @@ import edu.ucsc.refactor.internal.visitors.SimpleNameVisitor;
 import edu.ucsc.refactor.locators.*;
 import edu.ucsc.refactor.spi.JavaParser;
 import edu.ucsc.refactor.spi.JavaSnippetParser;
+import edu.ucsc.refactor.spi.Smell;
 import edu.ucsc.refactor.spi.SourceChanger;
 import edu.ucsc.refactor.util.Locations;
 import edu.ucsc.refactor.util.Parameters;
@@ -28,6 +30,7 @@ import java.net.URL;
 import java.net.URLEncoder;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -44,6 +47,120 @@ public class ChangersTest {
         parser  = new EclipseJavaParser();
     }
 
+    @Test public void testChangerDispatchPrefersDeclaredNames() throws Exception {
+        final SourceChanger catchAll = new SourceChanger() {
+            @Override public boolean canHandle(Cause cause) { return true; }
+
+            @Override protected Change initChanger(Cause cause, Map<String, Parameter> parameters) {
+                return new SourceChange(cause, this, parameters);
+            }
+        };
+
+        final RemoveMagicNumber declared = new RemoveMagicNumber();
+        assertThat(catchAll.getNames().isEmpty(), is(true));
+        assertThat(declared.getNames().contains(Smell.MAGIC_NUMBER), is(true));
+
+        final HostImpl host = new HostImpl();
+        host.addSourceChanger(catchAll);   // registered first, but declares no names
+        host.addSourceChanger(declared);
+
+        final Context context = new Context(InternalUtil.createSourceWithMagicNumber());
+        parser.parseJava(context);
+
+        final Issue  issue  = Iterables.get(new MagicNumber().detectIssues(context), 0);
+        final Change change = new JavaRefactorer(host).createChange(ChangeRequest.forIssue(issue));
+
+        assertSame(declared, ((SourceChange) change).getSourceChanger());
+    }
+
+    @Test public void testBulkChangeForMagicNumbers() throws Exception {
+        final Source  code    = new Source(
+                "Name.java",
+                "class Name {\n\tvoid boom(String msg){ if(msg.length() > 7) {} "
+                        + "if(msg.length() > 7) {} if(msg.length() > 9) {}}\n}"
+        );
+
+        final Context context = new Context(code);
+        parser.parseJava(context);
+
+        final List<Issue> issues = Lists.newArrayList(new MagicNumber().detectIssues(context));
+        assertThat(issues.size(), is(3));
+
+        issues.add(issues.get(0)); // overlaps itself
+
+        final BulkChange change = new RemoveMagicNumber().createBulkChange(
+                issues,
+                Parameters.constantName("LIMIT")
+        );
+
+        assertThat(change.isValid(), is(true));
+        assertThat(change.getCauses().size(), is(3));
+        assertThat(change.getConflicts().size(), is(1));
+        assertThat(change.getDeltas().size(), is(1));
+
+        final String after = change.getDeltas().get(0).getAfter();
+        assertThat(after.contains("LIMIT = 7"), is(true));
+        assertThat(after.contains("LIMIT_2 = 9"), is(true));
+        assertThat(after.contains("> 7") || after.contains("> 9"), is(false));
+
+        final Commit commit = change.perform().commit();
+        assertThat(commit != null && commit.isValidCommit(), is(true));
+    }
+
+    @Test public void testBulkChangeLeavesOutCausesItCannotRewrite() throws Exception {
+        final Source  code    = new Source(
+                "Name.java",
+                "class Name {\n\tvoid boom(String msg){ if(msg.length() > 7) {} "
+                        + "if(msg.length() > 9) {}}\n}"
+        );
+
+        final Context context = new Context(code);
+        parser.parseJava(context);
+
+        final List<Issue> issues = Lists.newArrayList(new MagicNumber().detectIssues(context));
+        assertThat(issues.size(), is(2));
+
+        final RemoveMagicNumber failsOnNine = new RemoveMagicNumber() {
+            @Override protected void rewriteCause(CompilationUnit root,
+                                                  org.eclipse.jdt.core.dom.rewrite.ASTRewrite rewrite,
+                                                  Cause cause, Map<String, Parameter> parameters) {
+                if("9".equals(((NumberLiteral) cause.getAffectedNodes().get(0)).getToken())){
+                    throw new IllegalStateException();
+                }
+
+                super.rewriteCause(root, rewrite, cause, parameters);
+            }
+        };
+
+        final BulkChange change = failsOnNine.createBulkChange(
+                issues,
+                Parameters.constantName("LIMIT")
+        );
+
+        assertThat(change.isValid(), is(true));
+        assertThat(change.getCauses().size(), is(1));
+        assertThat(change.getFailures().size(), is(1));
+        assertThat(
+                change.getFailures().values().iterator().next(),
+                is(IllegalStateException.class.getName())
+        );
+        assertThat(change.getDeltas().size(), is(1));
+
+        final String after = change.getDeltas().get(0).getAfter();
+        assertThat(after.contains("LIMIT = 7"), is(true));
+        assertThat(after.contains("> 9"), is(true));
+        assertThat(after.contains("LIMIT_2"), is(false));
+    }
+
+    @Test public void testConstantNamesFollowTheirNumbers() throws Exception {
+        assertThat(Parameters.constantNameOf("7"), is("CONSTANT_SEVEN"));
+        assertThat(Parameters.constantNameOf("042"), is("CONSTANT_FORTY_TWO"));
+        assertThat(Parameters.constantNameOf("0"), is("CONSTANT_ZERO"));
+        assertThat(Parameters.constantNameOf("1200L"), is("CONSTANT_ONE_THOUSAND_TWO_HUNDRED"));
+        assertThat(Parameters.constantNameOf("0.5f"), is("CONSTANT_0_5F"));
+        assertThat(Parameters.constantNameOf("0x1F"), is("CONSTANT_0X1F"));
+    }
+
     @Test public void testChangerForUnusedTypeDeclaration() throws Exception {
 
         final Context context = new Context(
@@ -311,6 +428,37 @@ public class ChangersTest {
 
     }
 
+    @Test public void testRenameOnlyTouchesOccurrencesOfBinding() {
+        final Source  src     = InternalUtil.createSourceWithSomeUsedFieldAndLocalVariable();
+        final Context context = new Context(src);
+
+        parser.parseJava(context);
+
+        final SourceSelection       selection = new SourceSelection(Locations.locateWord(src, "a").get(0));
+        final ProgramUnitLocator    locator   = new ProgramUnitLocator(context);
+        final Edit                  edit      = Edit.renameSelectedMember(selection);
+
+        for(NamedLocation eachLocation : locator.locate(new SelectedUnit(selection))){
+            final ProgramUnitLocation target  = (ProgramUnitLocation)eachLocation;
+            final FieldDeclaration    dec     = AstUtil.parent(FieldDeclaration.class, target.getNode());
+            edit.addNode(dec == null ? target.getNode() : dec);
+        }
+
+        final Change change = new RenameField().createChange(
+                Edits.resolve(edit),
+                Parameters.newMemberName("alpha")
+        );
+
+        assertThat(change.isValid(), is(true));
+        assertEquals(
+                "class Name {\n"
+                + "\tint alpha = 0;"
+                + "\tvoid boom(String msg){ alpha = 1; int b = 0; b = 1; if(msg.length() > 1) {}}\n"
+                + "}",
+                change.getDeltas().get(0).getAfter()
+        );
+    }
+
     @Test public void testChangerForOptimizeImports() throws Exception {
         final Source  code    = InternalUtil.createGeneralSource();
         final Context context = new Context(code);
@@ -2,10 +2,12 @@ package edu.ucsc.refactor.internal.detectors;
 
 import edu.ucsc.refactor.Context;
 import edu.ucsc.refactor.Issue;
+import edu.ucsc.refactor.Source;
 import edu.ucsc.refactor.internal.EclipseJavaParser;
 import edu.ucsc.refactor.internal.InternalUtil;
 import edu.ucsc.refactor.internal.visitors.DuplicateCodeVisitor;
 import edu.ucsc.refactor.spi.JavaParser;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -140,6 +142,44 @@ public class DetectorsTest {
         assertThat(issues.size(), is(0));
     }
 
+    @Test public void testUnableToDetectMethodCalledThroughSuper(){
+        final Context context = new Context(new Source(
+                "Greeter.java",
+                "public class Greeter {\n"
+                        + "\tstatic class Base { void greet(){} }\n"
+                        + "\tstatic class Loud extends Base { void shout(){ super.greet(); } }\n"
+                        + "\tpublic static void main(String[] args){ new Loud().shout(); }\n"
+                        + "}"
+        ));
+
+        parser.parseJava(context);
+
+        final UnusedMethods unusedMethods = new UnusedMethods();
+        final Set<Issue>    issues        = unusedMethods.detectIssues(context);
+
+        assertThat(issues.size(), is(0));
+    }
+
+    @Test public void testUnableToDetectMethodCalledThroughParameterizedType(){
+        final Context context = new Context(new Source(
+                "Boxes.java",
+                "public class Boxes {\n"
+                        + "\tstatic class Box<T> { T value; T get(){ return value; } }\n"
+                        + "\tpublic static void main(String[] args){\n"
+                        + "\t\tBox<String> box = new Box<String>();\n"
+                        + "\t\tSystem.out.println(box.get());\n"
+                        + "\t}\n"
+                        + "}"
+        ));
+
+        parser.parseJava(context);
+
+        final UnusedMethods unusedMethods = new UnusedMethods();
+        final Set<Issue>    issues        = unusedMethods.detectIssues(context);
+
+        assertThat(issues.size(), is(0));
+    }
+
     @Test public void testUnusedClassDetectorOnClassWithUsedNestedClass(){
         final Context context = new Context(
                 InternalUtil.createSourceWithOneUsedStaticNestedClass()
@@ -196,6 +236,23 @@ public class DetectorsTest {
 
 
 
+    @Test public void testDuplicatedCodeInDeeplyNestedMethod() throws Throwable {
+        final MethodDeclaration deep = InternalUtil.createDeeplyNestedMethod(500);
+
+        InternalUtil.runOnSmallStack(new Runnable() {
+            @Override public void run() {
+                final DuplicateCodeVisitor visitor = new DuplicateCodeVisitor(
+                        new Source("Deep.java", "class Deep {}")
+                );
+
+                visitor.visit(deep);
+
+                // the nested blocks, and the nested additions
+                assertThat(visitor.getClones().size(), is(2));
+            }
+        });
+    }
+
     @After public void tearDown() throws Exception {
         parser  = null;
     }
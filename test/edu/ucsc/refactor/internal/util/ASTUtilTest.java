@@ -1,20 +1,35 @@
 package edu.ucsc.refactor.internal.util;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import edu.ucsc.refactor.AbstractConfiguration;
 import edu.ucsc.refactor.Context;
+import edu.ucsc.refactor.DependencyGraph;
 import edu.ucsc.refactor.Host;
 import edu.ucsc.refactor.Source;
 import edu.ucsc.refactor.internal.EclipseJavaParser;
 import edu.ucsc.refactor.internal.EclipseJavaSnippetParser;
 import edu.ucsc.refactor.internal.HostImpl;
+import edu.ucsc.refactor.internal.InternalUtil;
+import edu.ucsc.refactor.internal.changers.ClipSelection;
 import edu.ucsc.refactor.internal.visitors.MethodDeclarationVisitor;
 import edu.ucsc.refactor.spi.JavaParser;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IBinding;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
@@ -30,11 +45,12 @@ public class ASTUtilTest {
             + "\t@Test void test(String msg){ return; }\n"
             + "}";
 
+    static Host    host    = null;
     static Context context = null;
     static MethodDeclarationVisitor visitor;
 
     @Before public void setUp() throws Exception {
-        final Host host = new HostImpl();
+        host = new HostImpl();
         host.install(new AbstractConfiguration() {
             @Override
             protected void configure() {
@@ -72,7 +88,134 @@ public class ASTUtilTest {
 
     }
 
+    @Test public void testDeclaredTypesInCode(){
+        final CompilationUnit unit = context.getCompilationUnit();
+        assertThat(AstUtil.getDeclaredTypesInCode(unit).contains("Name"), is(true));
+    }
+
+    @Test public void testChildCursorWalksChildrenInOrder(){
+        final CompilationUnit unit  = context.getCompilationUnit();
+        final List<ASTNode>   nodes = Lists.newArrayList();
+        unit.accept(new ASTVisitor() {
+            @Override public void preVisit(ASTNode node) {
+                nodes.add(node);
+            }
+        });
+
+        final ChildCursor cursor = new ChildCursor();
+        for(ASTNode each : nodes){
+            final List<ASTNode> expected = Lists.newArrayList();
+            for(ASTNode node : nodes){
+                if(node.getParent() == each) expected.add(node);
+            }
+
+            final List<ASTNode> forward = Lists.newArrayList();
+            cursor.reset(each);
+            for(ASTNode child = cursor.next(); child != null; child = cursor.next()){
+                forward.add(child);
+            }
+
+            final List<ASTNode> backward = Lists.newArrayList();
+            cursor.reset(each, true);
+            for(ASTNode child = cursor.next(); child != null; child = cursor.next()){
+                backward.add(child);
+            }
+
+            assertThat(forward, is(expected));
+            assertThat(backward, is(Lists.reverse(expected)));
+            assertThat(AstUtil.getChildren(each), is(expected));
+        }
+
+        final CursorStack stack = new CursorStack();
+        int walked = 1;
+
+        stack.push(unit);
+        while(!stack.isEmpty()){
+            final ASTNode child = stack.peek().next();
+            if(child == null){
+                stack.pop();
+            } else {
+                walked++;
+                stack.push(child);
+            }
+        }
+
+        assertThat(walked, is(nodes.size()));
+    }
+
+    @Test public void testUnwindBindingsOfDeeplyNestedCode() throws Throwable {
+        final MethodDeclaration deep = InternalUtil.createDeeplyNestedMethod(5000);
+
+        InternalUtil.runOnSmallStack(new Runnable() {
+            @Override public void run() {
+                // the literals 0 ... 5000
+                assertThat(AstUtil.unwindBindings(deep.getBody()).size(), is(5001));
+            }
+        });
+    }
+
+    @Test public void testDependencyGraphSlicesOnceParsed(){
+        final Context         quicksort = host.createContext(InternalUtil.createQuickSortSource());
+        final TypeDeclaration unit      = (TypeDeclaration) quicksort.getCompilationUnit().types().get(0);
+
+        assertThat(DependencyGraph.of(unit) == quicksort.getDependencyGraph(), is(true));
+
+        final Map<String, IBinding> methods = Maps.newHashMap();
+        for(MethodDeclaration each : unit.getMethods()){
+            methods.put(each.getName().getIdentifier(), each.resolveBinding());
+        }
+
+        assertThat(
+                names(ClipSelection.cropCodeSnippet(unit, ImmutableSet.of(methods.get("swap")))),
+                is((Set<String>) ImmutableSet.of("swap"))
+        );
+
+        assertThat(
+                names(ClipSelection.cropCodeSnippet(unit, ImmutableSet.of(methods.get("quicksort")))),
+                is((Set<String>) ImmutableSet.of("quicksort", "randomizedPartition", "partition", "swap", "rand"))
+        );
+
+        assertThat(names(ClipSelection.generateUniverse(unit)).contains("main"), is(true));
+    }
+
+    @Test public void testUnwoundBindingsAreKeptOnceParsed(){
+        final Context         quicksort = host.createContext(InternalUtil.createQuickSortSource());
+        final TypeDeclaration unit      = (TypeDeclaration) quicksort.getCompilationUnit().types().get(0);
+        final UnwoundBindings bindings  = UnwoundBindings.of(unit);
+
+        assertThat(UnwoundBindings.of(unit) == bindings, is(true));
+        assertThat(quicksort.getUnwoundBindings() == bindings, is(true));
+
+        final Map<String, MethodDeclaration> methods = Maps.newHashMap();
+        for(MethodDeclaration each : unit.getMethods()){
+            methods.put(each.getName().getIdentifier(), each);
+        }
+
+        final MethodDeclaration swap = methods.get("swap");
+        assertThat(bindings.referencesOf(swap) == bindings.referencesOf(swap), is(true));
+        assertThat(bindings.referencesOf(swap.resolveBinding()) == bindings.referencesOf(swap), is(true));
+        assertThat(bindings.declarationOf(swap.resolveBinding()) == swap, is(true));
+
+        final Set<IBinding> reachable = bindings.reachableFrom(
+                ImmutableSet.<IBinding>of(methods.get("partition").resolveBinding())
+        );
+
+        assertThat(reachable.contains(swap.resolveBinding()), is(true));
+        assertThat(names(reachable).contains("pivot"), is(true));
+        assertThat(reachable.contains(methods.get("quicksort").resolveBinding()), is(false));
+    }
+
+    private static Set<String> names(Set<IBinding> bindings){
+        final Set<String> names = Sets.newHashSet();
+        for(IBinding each : bindings){
+            names.add(each.getName());
+        }
+
+        return names;
+    }
+
     @After public void tearDown() throws Exception {
+        host    = null;
         context = null;
         visitor = null;
     }
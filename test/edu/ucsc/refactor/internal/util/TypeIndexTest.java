@@ -0,0 +1,98 @@
+package edu.ucsc.refactor.internal.util;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class TypeIndexTest {
+    private File root;
+
+    @Before public void setUp() throws Exception {
+        root = Files.createTempDir();
+    }
+
+    @Test public void testTypeIndexResolvesImports(){
+        final TypeIndex index = TypeIndex.shared();
+
+        assertThat(index.packageOf("ArrayList"), is("java.util"));
+        assertThat(index.packageOf("String"), nullValue());
+
+        final Set<String> imports = index.resolveImports(
+                ImmutableSet.of("List", "Pattern", "Name", "String"),
+                ImmutableSet.of("Name")
+        );
+
+        assertThat(imports, is((Set<String>) ImmutableSet.of("java.util.List;", "java.util.regex.Pattern;")));
+    }
+
+    @Test public void testScannedNamesDeclaredByManyPackagesAreSkipped() throws Exception {
+        touch("com/example/a/Widget.class");
+        touch("com/example/b/Widget.class");
+        touch("com/example/a/Gadget.class");
+        touch("com/example/a/Gadget$Part.class");
+
+        final TypeIndex index = TypeIndex.build(ImmutableSet.of(root));
+
+        assertThat(index.packageOf("Widget"), nullValue());
+        assertThat(index.packageOf("Gadget"), is("com.example.a"));
+        assertThat(index.packageOf("Part"), nullValue());
+        assertThat(index.packageOf("Gadget$Part"), nullValue());
+    }
+
+    @Test public void testFivePackageTypesAreImportedOnDemand(){
+        final TypeIndex index = new TypeIndex(ImmutableMap.<String, String>builder()
+                .put("List", "java.util")
+                .put("Map", "java.util")
+                .put("Set", "java.util")
+                .put("Queue", "java.util")
+                .put("Deque", "java.util")
+                .put("Pattern", "java.util.regex")
+                .build()
+        );
+
+        assertThat(
+                index.resolveImports(ImmutableSet.of("List", "Map", "Set", "Queue"), ImmutableSet.<String>of()),
+                is((Set<String>) ImmutableSet.of("java.util.List;", "java.util.Map;", "java.util.Queue;", "java.util.Set;"))
+        );
+
+        assertThat(
+                index.resolveImports(ImmutableSet.of("List", "Map", "Set", "Queue", "Deque", "Pattern"), ImmutableSet.<String>of()),
+                is((Set<String>) ImmutableSet.of("java.util.*;", "java.util.regex.Pattern;"))
+        );
+    }
+
+    private void touch(String path) throws IOException {
+        final File file = new File(root, path);
+        Files.createParentDirs(file);
+        Files.touch(file);
+    }
+
+    @After public void tearDown() throws Exception {
+        delete(root);
+    }
+
+    private static void delete(File file){
+        final File[] children = file.listFiles();
+        if(children != null){
+            for(File each : children){
+                delete(each);
+            }
+        }
+
+        assertThat(file.delete(), is(true));
+    }
+}
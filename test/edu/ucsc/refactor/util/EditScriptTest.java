@@ -0,0 +1,48 @@
+package edu.ucsc.refactor.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class EditScriptTest {
+    static final String BASE = "import java.util.List;\r\n"
+            + "class Name {\n"
+            + "\tvoid boom(String msg){}\n"
+            + "\tvoid baam(){}\n"
+            + "}";
+
+    @Test public void testEditScriptRevisesBase(){
+        final String[] revisions = {
+                BASE,
+                "",
+                BASE.replace("String msg", ""),
+                BASE.replace("\tvoid baam(){}\n", ""),
+                "// header\n" + BASE + "\n",
+                BASE.replace("import java.util.List;\r\n", "").replace("}", "}\n\n")
+        };
+
+        for(String each : revisions){
+            assertEquals(each, EditScript.between(BASE, each).apply(BASE));
+            assertEquals(BASE, EditScript.between(each, BASE).apply(each));
+        }
+    }
+
+    @Test public void testEditScriptKeepsOnlyChangedLines(){
+        final EditScript unchanged = EditScript.between(BASE, BASE);
+        assertThat(unchanged.isEmpty(), is(true));
+
+        final EditScript renamed = EditScript.between(BASE, BASE.replace("boom", "bam").replace("baam", "bum"));
+        assertThat(renamed.size(), is(1));
+        assertThat(renamed.isEmpty(), is(false));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testEditScriptRejectsOtherBase(){
+        EditScript.between(BASE, "class Name {}").apply("class Other {}");
+    }
+}
@@ -0,0 +1,104 @@
+package edu.ucsc.refactor.util;
+
+import edu.ucsc.refactor.*;
+import edu.ucsc.refactor.internal.HostImpl;
+import edu.ucsc.refactor.internal.JavaRefactorer;
+import edu.ucsc.refactor.internal.detectors.MagicNumber;
+import edu.ucsc.refactor.spi.Metrics;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+/**
+ * @author hsanchez@cs.ucsc.edu (Huascar A. Sanchez)
+ */
+public class MetricsRegistryTest {
+    @Test public void testDisabledMetricsRecordNothing(){
+        final Metrics.Timer a = DisabledMetrics.INSTANCE.startTimer("parse", null);
+        final Metrics.Timer b = DisabledMetrics.INSTANCE.startTimer("detect", MagicNumber.class);
+
+        assertSame(a, b);
+        assertThat(a.stop(), is(0L));
+        assertSame(DisabledMetrics.INSTANCE, new HostImpl().getMetrics());
+    }
+
+    @Test public void testRegistryRecordsTimersAndCounters(){
+        final MetricsRegistry registry = new MetricsRegistry();
+
+        registry.startTimer("detect", MagicNumber.class).stop();
+        final long elapsed = registry.startTimer("detect", MagicNumber.class).stop();
+        registry.count("issues", 3);
+        registry.count("issues", 2);
+
+        assertThat(registry.getCount("detect.MagicNumber"), is(2L));
+        assertThat(registry.getMaxNanos("detect.MagicNumber") >= elapsed, is(true));
+        assertThat(registry.getTotalNanos("detect.MagicNumber") >= elapsed, is(true));
+        assertThat(registry.getCounter("issues"), is(5L));
+
+        registry.reset();
+        assertThat(registry.getTimerNames().isEmpty(), is(true));
+    }
+
+    @Test public void testHostTimesEachPhase() throws Exception {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final Host host = new HostImpl();
+        host.install(new AbstractConfiguration() {
+            @Override protected void configure() {
+                installDefaultSettings();
+                addMetrics(registry);
+            }
+        });
+
+        final Source code = new Source(
+                "Name.java",
+                "import java.util.List;\nclass Name {\n\tpublic static void main(String[] args){ System.out.println(args.length); }\n}"
+        );
+
+        final Set<Issue> issues = new CodeIntrospector(host).detectIssues(code);
+        assertThat(issues.size(), is(1));
+
+        final Issue issue = issues.iterator().next();
+
+        final Refactorer refactorer = new JavaRefactorer(host);
+        final Commit     commit     = refactorer.apply(refactorer.createChange(ChangeRequest.forIssue(issue)));
+        assertThat(commit.isValidCommit(), is(true));
+
+        assertThat(registry.getCount("parse"), is(1L));
+        assertThat(registry.getCount("detect.UnusedImports"), is(1L));
+        assertThat(registry.getCount("detect.MagicNumber"), is(1L));
+        assertThat(registry.getCount("change.RemoveUnusedImports"), is(1L));
+        assertThat(registry.getCount("rewrite.RemoveUnusedImports"), is(1L));
+        assertThat(registry.getCount("commit"), is(1L));
+        assertThat(registry.getCounter("commits"), is(1L));
+        assertThat(registry.getCounter("issues"), is(1L));
+    }
+
+    @Test public void testRegistryIsExposedThroughJmx() throws Exception {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.startTimer("parse", null).stop();
+        registry.count("issues", 4);
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName  name   = registry.registerMBean(
+                new ObjectName("edu.ucsc.refactor:type=Metrics,name=MetricsRegistryTest")
+        );
+
+        try {
+            assertThat((Long) server.getAttribute(name, "parse.count"), is(1L));
+            assertThat((Long) server.getAttribute(name, "issues"), is(4L));
+            assertThat(server.getMBeanInfo(name).getAttributes().length, is(5));
+
+            server.invoke(name, "reset", new Object[0], new String[0]);
+            assertThat(registry.getCounter("issues"), is(0L));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -12,7 +12,9 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
         StringsTest.class,
         LocationsTest.class,
-        NotesTest.class
+        NotesTest.class,
+        EditScriptTest.class,
+        MetricsRegistryTest.class
 })
 public class UtilSuiteTest {
     public static Test suite() {